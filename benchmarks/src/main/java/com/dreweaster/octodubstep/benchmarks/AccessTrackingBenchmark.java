@@ -0,0 +1,71 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.Octodubstep;
+import com.dreweaster.octodubstep.core.PropertyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost access tracking adds to reads, with several threads reading the same properties at once. Compare
+ * the results with tracking on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class AccessTrackingBenchmark {
+
+    @Param({"off", "on"})
+    private String tracking;
+
+    private BenchmarkProviders.Provider0 provider;
+
+    @Setup
+    public void setUp() {
+        Octodubstep.Builder builder = Octodubstep.newPropertyManager()
+                .withPropertySource(new InMemoryPropertySource(BenchmarkProviders.valuesFor(1)))
+                .withProvider(BenchmarkProviders.Provider0.class)
+                .usingDefaultConverters()
+                .usingGeneratedAccessors();
+        if ("on".equals(tracking)) {
+            builder.trackingAccess();
+        }
+        PropertyManager manager = builder.build();
+        provider = manager.propertiesFor(BenchmarkProviders.Provider0.class);
+    }
+
+    @Benchmark
+    public String staticValue() {
+        return provider.property0().currentValue().get();
+    }
+
+    @Benchmark
+    public int staticIntValue() {
+        return provider.property2().getAsInt();
+    }
+
+    @Benchmark
+    public String dynamicValue() {
+        return provider.property6().currentValue().get();
+    }
+
+    @Benchmark
+    public int dynamicIntValue() {
+        return provider.property7().getAsInt();
+    }
+}
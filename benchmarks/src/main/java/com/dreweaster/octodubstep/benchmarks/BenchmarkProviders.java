@@ -0,0 +1,386 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.DynamicIntValue;
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.IntValue;
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provider interfaces used by the benchmarks. Each declares ten properties of mixed types, named
+ * {@code provider<n>.property<m>}.
+ */
+public final class BenchmarkProviders {
+
+    public static final int PROPERTIES_PER_PROVIDER = 10;
+
+    public static final Class<?>[] PROVIDERS = {
+            Provider0.class,
+            Provider1.class,
+            Provider2.class,
+            Provider3.class,
+            Provider4.class,
+            Provider5.class,
+            Provider6.class,
+            Provider7.class,
+            Provider8.class,
+            Provider9.class
+    };
+
+    private BenchmarkProviders() {
+    }
+
+    public interface Provider0 {
+
+        @Property(name = "provider0.property0")
+        Value<String> property0();
+
+        @Property(name = "provider0.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider0.property2")
+        IntValue property2();
+
+        @Property(name = "provider0.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider0.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider0.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider0.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider0.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider0.property8")
+        Value<String> property8();
+
+        @Property(name = "provider0.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider1 {
+
+        @Property(name = "provider1.property0")
+        Value<String> property0();
+
+        @Property(name = "provider1.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider1.property2")
+        IntValue property2();
+
+        @Property(name = "provider1.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider1.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider1.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider1.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider1.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider1.property8")
+        Value<String> property8();
+
+        @Property(name = "provider1.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider2 {
+
+        @Property(name = "provider2.property0")
+        Value<String> property0();
+
+        @Property(name = "provider2.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider2.property2")
+        IntValue property2();
+
+        @Property(name = "provider2.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider2.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider2.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider2.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider2.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider2.property8")
+        Value<String> property8();
+
+        @Property(name = "provider2.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider3 {
+
+        @Property(name = "provider3.property0")
+        Value<String> property0();
+
+        @Property(name = "provider3.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider3.property2")
+        IntValue property2();
+
+        @Property(name = "provider3.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider3.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider3.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider3.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider3.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider3.property8")
+        Value<String> property8();
+
+        @Property(name = "provider3.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider4 {
+
+        @Property(name = "provider4.property0")
+        Value<String> property0();
+
+        @Property(name = "provider4.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider4.property2")
+        IntValue property2();
+
+        @Property(name = "provider4.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider4.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider4.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider4.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider4.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider4.property8")
+        Value<String> property8();
+
+        @Property(name = "provider4.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider5 {
+
+        @Property(name = "provider5.property0")
+        Value<String> property0();
+
+        @Property(name = "provider5.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider5.property2")
+        IntValue property2();
+
+        @Property(name = "provider5.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider5.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider5.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider5.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider5.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider5.property8")
+        Value<String> property8();
+
+        @Property(name = "provider5.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider6 {
+
+        @Property(name = "provider6.property0")
+        Value<String> property0();
+
+        @Property(name = "provider6.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider6.property2")
+        IntValue property2();
+
+        @Property(name = "provider6.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider6.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider6.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider6.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider6.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider6.property8")
+        Value<String> property8();
+
+        @Property(name = "provider6.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider7 {
+
+        @Property(name = "provider7.property0")
+        Value<String> property0();
+
+        @Property(name = "provider7.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider7.property2")
+        IntValue property2();
+
+        @Property(name = "provider7.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider7.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider7.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider7.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider7.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider7.property8")
+        Value<String> property8();
+
+        @Property(name = "provider7.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider8 {
+
+        @Property(name = "provider8.property0")
+        Value<String> property0();
+
+        @Property(name = "provider8.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider8.property2")
+        IntValue property2();
+
+        @Property(name = "provider8.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider8.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider8.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider8.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider8.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider8.property8")
+        Value<String> property8();
+
+        @Property(name = "provider8.property9")
+        DynamicValue<String> property9();
+    }
+
+    public interface Provider9 {
+
+        @Property(name = "provider9.property0")
+        Value<String> property0();
+
+        @Property(name = "provider9.property1")
+        Value<Integer> property1();
+
+        @Property(name = "provider9.property2")
+        IntValue property2();
+
+        @Property(name = "provider9.property3")
+        Value<Long> property3();
+
+        @Property(name = "provider9.property4")
+        Value<Boolean> property4();
+
+        @Property(name = "provider9.property5")
+        Value<List<Integer>> property5();
+
+        @Property(name = "provider9.property6")
+        DynamicValue<String> property6();
+
+        @Property(name = "provider9.property7")
+        DynamicIntValue property7();
+
+        @Property(name = "provider9.property8")
+        Value<String> property8();
+
+        @Property(name = "provider9.property9")
+        DynamicValue<String> property9();
+    }
+
+    /**
+     * The raw value of each property of the providers, by property number.
+     */
+    private static final String[] RAW_VALUES = {
+            "value", "10", "20", "30000000000", "true", "1,2,3,4,5", "dynamicValue", "40", "other", "anotherValue"
+    };
+
+    /**
+     * @return a raw value, suitable for its type, for each property of the first {@code providerCount} providers
+     */
+    public static Map<String, String> valuesFor(int providerCount) {
+        Map<String, String> values = new HashMap<String, String>();
+        for (int provider = 0; provider < providerCount; provider++) {
+            for (int property = 0; property < PROPERTIES_PER_PROVIDER; property++) {
+                values.put("provider" + provider + ".property" + property, RAW_VALUES[property]);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.google.common.base.Optional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A reloadable property source held in memory, whose values can be changed by the benchmarks.
+ */
+public final class InMemoryPropertySource implements PropertySource {
+
+    private volatile Map<String, String> values;
+
+    private final List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    public InMemoryPropertySource(Map<String, String> values) {
+        this.values = new HashMap<String, String>(values);
+    }
+
+    /**
+     * Changes a value and reloads the source.
+     */
+    public void set(String name, String value) {
+        Map<String, String> newValues = new HashMap<String, String>(values);
+        newValues.put(name, value);
+        values = newValues;
+        reload();
+    }
+
+    @Override
+    public String getDescription() {
+        return "In memory";
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        return values.keySet();
+    }
+
+    @Override
+    public Optional<String> getValue(String name) {
+        return Optional.fromNullable(values.get(name));
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    @Override
+    public void reload() {
+        for (PropertySourceListener listener : listeners) {
+            listener.propertySourceReloaded(this);
+        }
+    }
+
+    @Override
+    public void addListener(PropertySourceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PropertySourceListener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,138 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.RawPropertyIndex;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the manager's compact index of raw property values with the hash maps it used to keep: one copy of each
+ * source's values, and a merged map of each property to its source and value. The footprint of both, not counting the
+ * sources themselves, is printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KeyIndexBenchmark {
+
+    private static final int SOURCES = 3;
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10000", "100000"})
+    private int properties;
+
+    private PropertySource[] sources;
+
+    private Map<String, Map.Entry<PropertySource, String>> hashIndex;
+
+    private RawPropertyIndex compactIndex;
+
+    private String[] lookups;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Each source overrides a share of the properties of the next, as layered configuration does
+        sources = new PropertySource[SOURCES];
+        for (int source = 0; source < SOURCES; source++) {
+            Map<String, String> values = new HashMap<String, String>();
+            for (int property = 0; property < properties; property += source + 1) {
+                values.put(nameOf(property), "value" + (property % 100));
+            }
+            sources[SOURCES - 1 - source] = new InMemoryPropertySource(values);
+        }
+
+        Map<PropertySource, Map<String, String>> sourceMaps = hashMapsOf(sources);
+        hashIndex = hashIndexOf(sourceMaps);
+        compactIndex = RawPropertyIndex.of(Arrays.asList(sources));
+
+        long sourcesSize = GraphLayout.parseInstance((Object) sources).totalSize();
+        System.out.println();
+        System.out.println("Footprint for " + properties + " properties across " + SOURCES + " sources: hash maps "
+                + (GraphLayout.parseInstance(sources, sourceMaps, hashIndex).totalSize() - sourcesSize)
+                + " bytes, compact index "
+                + (GraphLayout.parseInstance(sources, compactIndex).totalSize() - sourcesSize)
+                + " bytes");
+
+        Random random = new Random(0);
+        lookups = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            // Copies, so lookups can't short-circuit on identical instances
+            lookups[i] = new String(nameOf(random.nextInt(properties)));
+        }
+    }
+
+    @Benchmark
+    public String hashMapLookup() {
+        return hashIndex.get(lookups[next++ & (LOOKUPS - 1)]).getValue();
+    }
+
+    @Benchmark
+    public String compactLookup() {
+        return compactIndex.value(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object buildHashMaps() {
+        return hashIndexOf(hashMapsOf(sources));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object buildCompactIndex() {
+        return RawPropertyIndex.of(Arrays.asList(sources));
+    }
+
+    private static String nameOf(int property) {
+        return "com.example.service" + (property % 50) + ".property" + property;
+    }
+
+    private static Map<PropertySource, Map<String, String>> hashMapsOf(PropertySource[] sources) {
+        Map<PropertySource, Map<String, String>> sourceMaps = new HashMap<PropertySource, Map<String, String>>();
+        for (PropertySource source : sources) {
+            Map<String, String> values = new HashMap<String, String>();
+            for (String name : source.getPropertyNames()) {
+                values.put(name, source.getValue(name).get());
+            }
+            sourceMaps.put(source, values);
+        }
+        return sourceMaps;
+    }
+
+    private Map<String, Map.Entry<PropertySource, String>> hashIndexOf(
+            Map<PropertySource, Map<String, String>> sourceMaps) {
+        Map<String, Map.Entry<PropertySource, String>> index = new HashMap<String, Map.Entry<PropertySource, String>>();
+        for (PropertySource source : sources) {
+            for (Map.Entry<String, String> property : sourceMaps.get(source).entrySet()) {
+                if (!index.containsKey(property.getKey())) {
+                    index.put(property.getKey(),
+                            new AbstractMap.SimpleEntry<PropertySource, String>(source, property.getValue()));
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.Octodubstep;
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.PropertyManager;
+import com.dreweaster.octodubstep.core.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a manager whose only property is a list, which is dominated by splitting and converting the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ListParsingBenchmark {
+
+    public interface IntegerListProvider {
+
+        @Property(name = "integers")
+        Value<List<Integer>> integers();
+    }
+
+    public interface IntArrayProvider {
+
+        @Property(name = "integers")
+        Value<int[]> integers();
+    }
+
+    public interface StringListProvider {
+
+        @Property(name = "strings")
+        Value<List<String>> strings();
+    }
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private InMemoryPropertySource integers;
+
+    private InMemoryPropertySource strings;
+
+    @Setup
+    public void setUp() {
+        StringBuilder integerList = new StringBuilder();
+        StringBuilder stringList = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                integerList.append(',');
+                stringList.append(',');
+            }
+            integerList.append(i * 7919);
+            stringList.append("item").append(i);
+        }
+        integers = new InMemoryPropertySource(Collections.singletonMap("integers", integerList.toString()));
+        strings = new InMemoryPropertySource(Collections.singletonMap("strings", stringList.toString()));
+    }
+
+    @Benchmark
+    public PropertyManager integerList() {
+        return managerFor(integers, IntegerListProvider.class);
+    }
+
+    @Benchmark
+    public PropertyManager intArray() {
+        return managerFor(integers, IntArrayProvider.class);
+    }
+
+    @Benchmark
+    public PropertyManager stringList() {
+        return managerFor(strings, StringListProvider.class);
+    }
+
+    private static PropertyManager managerFor(InMemoryPropertySource source, Class<?> provider) {
+        return Octodubstep.newPropertyManager()
+                .withPropertySource(source)
+                .withProvider(provider)
+                .usingDefaultConverters()
+                .build();
+    }
+}
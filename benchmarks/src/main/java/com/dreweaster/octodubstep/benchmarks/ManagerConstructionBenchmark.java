@@ -0,0 +1,73 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.Octodubstep;
+import com.dreweaster.octodubstep.core.PropertyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a property manager with a number of providers, from a source holding their properties plus a
+ * number of properties no provider declares.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ManagerConstructionBenchmark {
+
+    @Param({"1", "10"})
+    private int providers;
+
+    @Param({"100", "10000"})
+    private int unboundProperties;
+
+    private InMemoryPropertySource source;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> values = BenchmarkProviders.valuesFor(providers);
+        for (int i = 0; i < unboundProperties; i++) {
+            values.put("unbound.property" + i, "value" + i);
+        }
+        source = new InMemoryPropertySource(values);
+    }
+
+    @Benchmark
+    public PropertyManager proxyAccessors() {
+        return builder().build();
+    }
+
+    @Benchmark
+    public PropertyManager proxyAccessorsConvertingLazily() {
+        return builder().convertingLazily().build();
+    }
+
+    @Benchmark
+    public PropertyManager generatedAccessors() {
+        return builder().usingGeneratedAccessors().build();
+    }
+
+    private Octodubstep.Builder builder() {
+        Octodubstep.Builder builder = Octodubstep.newPropertyManager()
+                .withPropertySource(source)
+                .usingDefaultConverters();
+        for (int i = 0; i < providers; i++) {
+            builder.withProvider(BenchmarkProviders.PROVIDERS[i]);
+        }
+        return builder;
+    }
+}
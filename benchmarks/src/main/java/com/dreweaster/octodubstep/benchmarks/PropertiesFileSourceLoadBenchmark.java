@@ -0,0 +1,90 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.file.MappedPropertiesFileSource;
+import com.dreweaster.octodubstep.core.source.file.PropertiesFileSource;
+import com.dreweaster.octodubstep.core.source.precompiled.PrecompiledPropertiesFileSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a properties file of a given number of properties, then reading every value from it as the
+ * property manager does at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PropertiesFileSourceLoadBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int properties;
+
+    private File propertiesFile;
+
+    private File snapshotFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        propertiesFile = File.createTempFile("benchmark", ".properties");
+        snapshotFile = new File(propertiesFile.getPath() + ".snapshot");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(propertiesFile), "ISO-8859-1");
+        try {
+            for (int i = 0; i < properties; i++) {
+                writer.write("# Property " + i + "\n");
+                writer.write("com.example.service" + (i % 50) + ".property" + i + " = value " + i + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+        // Leaves an up to date snapshot behind for the precompiled source
+        PrecompiledPropertiesFileSource.create(propertiesFile.getPath(), snapshotFile.getPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        propertiesFile.delete();
+        snapshotFile.delete();
+    }
+
+    @Benchmark
+    public void propertiesFileSource(Blackhole blackhole) throws IOException {
+        readAll(PropertiesFileSource.create(propertiesFile.getPath()), blackhole);
+    }
+
+    @Benchmark
+    public void mappedPropertiesFileSource(Blackhole blackhole) throws IOException {
+        readAll(MappedPropertiesFileSource.create(propertiesFile.getPath()), blackhole);
+    }
+
+    @Benchmark
+    public void precompiledPropertiesFileSource(Blackhole blackhole) throws IOException {
+        readAll(PrecompiledPropertiesFileSource.create(propertiesFile.getPath(), snapshotFile.getPath()), blackhole);
+    }
+
+    private static void readAll(PropertySource source, Blackhole blackhole) {
+        for (String name : source.getPropertyNames()) {
+            blackhole.consume(source.getValue(name).get());
+        }
+    }
+}
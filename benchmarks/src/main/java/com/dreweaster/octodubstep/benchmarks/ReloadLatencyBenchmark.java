@@ -0,0 +1,103 @@
+package com.dreweaster.octodubstep.benchmarks;
+
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.Octodubstep;
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.PropertyManager;
+import com.dreweaster.octodubstep.core.ValueListener;
+import com.dreweaster.octodubstep.core.listener.AsyncListenerDispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from changing a value in a property source to a listener of the dynamic value being told about
+ * it. The source holds the properties of all the benchmark providers, so the reload has unchanged values to skip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReloadLatencyBenchmark {
+
+    public interface ReloadedProvider {
+
+        @Property(name = "reloaded.property")
+        DynamicValue<String> reloadedProperty();
+    }
+
+    @Param({"sync", "async"})
+    private String dispatcher;
+
+    private InMemoryPropertySource source;
+
+    private AsyncListenerDispatcher asyncDispatcher;
+
+    private final Object lock = new Object();
+
+    private String lastNotified;
+
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> values = BenchmarkProviders.valuesFor(BenchmarkProviders.PROVIDERS.length);
+        values.put("reloaded.property", "initial");
+        source = new InMemoryPropertySource(values);
+
+        Octodubstep.Builder builder = Octodubstep.newPropertyManager()
+                .withPropertySource(source)
+                .withProvider(ReloadedProvider.class)
+                .usingDefaultConverters();
+        for (Class<?> provider : BenchmarkProviders.PROVIDERS) {
+            builder.withProvider(provider);
+        }
+        if ("async".equals(dispatcher)) {
+            asyncDispatcher = AsyncListenerDispatcher.withFixedThreadPool(1);
+            builder.dispatchingListenersWith(asyncDispatcher);
+        }
+        PropertyManager manager = builder.build();
+
+        manager.propertiesFor(ReloadedProvider.class).reloadedProperty().addListener(new ValueListener<String>() {
+            @Override
+            public void valueChanged(String oldValue, String newValue) {
+                synchronized (lock) {
+                    lastNotified = newValue;
+                    lock.notifyAll();
+                }
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (asyncDispatcher != null) {
+            asyncDispatcher.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void reloadToListener() throws InterruptedException {
+        String value = "value" + counter++;
+        source.set("reloaded.property", value);
+        synchronized (lock) {
+            while (!value.equals(lastNotified)) {
+                lock.wait();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dreweaster.octodubstep.core;
+
+import com.google.common.base.Optional;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The number of times each property of a {@link PropertyManager} has been read since it was built, along with when it
+ * was last read. Useful for finding unused and heavily used properties.
+ * <p/>
+ * Statistics are a copy taken at a point in time and don't change afterwards. The reads of all values bound to the
+ * same property name are combined. Reads include {@link Value#currentValue()}, the primitive getters and reads
+ * through a {@link ConfigSnapshot}. Counts are kept cheaply rather than exactly, so may slightly undercount reads made
+ * by many threads at once, and last read times are accurate to around ten milliseconds.
+ */
+public final class AccessStatistics {
+
+    private final Map<String, Long> readCounts;
+
+    private final Map<String, Long> lastAccessedMillis;
+
+    AccessStatistics(Map<String, Long> readCounts, Map<String, Long> lastAccessedMillis) {
+        this.readCounts = mostReadFirst(readCounts);
+        this.lastAccessedMillis = lastAccessedMillis;
+    }
+
+    /**
+     * @return the number of reads of the given property, or zero if the manager has no such property
+     */
+    public long readCount(String propertyName) {
+        Long count = readCounts.get(propertyName);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @return when the given property was last read, or absent if it hasn't been
+     */
+    public Optional<DateTime> lastAccessed(String propertyName) {
+        Long millis = lastAccessedMillis.get(propertyName);
+        return millis != null && millis != 0 ? Optional.of(new DateTime(millis)) : Optional.<DateTime>absent();
+    }
+
+    /**
+     * @return the number of reads of every property, ordered from most to least read
+     */
+    public Map<String, Long> readCounts() {
+        return readCounts;
+    }
+
+    /**
+     * @return the names of the properties that have never been read, in alphabetical order
+     */
+    public Set<String> unreadProperties() {
+        Set<String> unread = new TreeSet<String>();
+        for (Map.Entry<String, Long> readCount : readCounts.entrySet()) {
+            if (readCount.getValue() == 0) {
+                unread.add(readCount.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(unread);
+    }
+
+    @Override
+    public String toString() {
+        return "AccessStatistics" + readCounts;
+    }
+
+    private static Map<String, Long> mostReadFirst(Map<String, Long> readCounts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(readCounts.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> first, Map.Entry<String, Long> second) {
+                int byCount = second.getValue().compareTo(first.getValue());
+                return byCount != 0 ? byCount : first.getKey().compareTo(second.getKey());
+            }
+        });
+        Map<String, Long> sorted = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(sorted);
+    }
+}
@@ -0,0 +1,137 @@
+package com.dreweaster.octodubstep.core;
+
+import com.google.common.base.Optional;
+import org.joda.time.DateTime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records reads of the values of a property manager, keeping the cost of each read to a plain increment and a
+ * comparison against a coarse clock.
+ * <p/>
+ * Read counts are striped by thread: each stripe holds a counter for every value, and a thread only ever increments
+ * counters in its own stripe, so threads reading the same value don't contend. Counts are only summed across stripes
+ * when statistics are asked for. There are several times more stripes than processors, so threads rarely share a
+ * stripe; when they do, increments aren't atomic and the odd read may go uncounted, but a property that has been read
+ * never shows as unread. The time of the last read is taken from a {@link CoarseClock} and is only written if
+ * the clock has ticked since the previous read; it's only turned into a {@link DateTime} when somebody asks for it.
+ */
+final class AccessTracker {
+
+    private static final int MIN_STRIPES = 8;
+
+    private static final int MAX_STRIPES = 32;
+
+    /**
+     * The number of counters in a cache line, used to keep stripes from sharing cache lines.
+     */
+    private static final int COUNTERS_PER_LINE = 8;
+
+    private final CoarseClock clock;
+
+    private final int stripeMask;
+
+    private final int stride;
+
+    private final AtomicLongArray counts;
+
+    private final AtomicLongArray lastAccessed;
+
+    private final String[] names;
+
+    private int registered;
+
+    /**
+     * @param capacity the number of values that will be registered
+     * @param clock    the clock to time reads with
+     */
+    AccessTracker(int capacity, CoarseClock clock) {
+        this.clock = clock;
+        int stripes = Math.max(MIN_STRIPES, Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1)));
+        this.stripeMask = stripes - 1;
+        this.stride = (capacity + COUNTERS_PER_LINE - 1) / COUNTERS_PER_LINE * COUNTERS_PER_LINE + COUNTERS_PER_LINE;
+        this.counts = new AtomicLongArray(stripes * stride);
+        this.lastAccessed = new AtomicLongArray(capacity);
+        this.names = new String[capacity];
+    }
+
+    /**
+     * Registers a value. Only called while the manager is being built.
+     *
+     * @param propertyName the name of the value's property
+     * @return the handle the value records its reads through
+     */
+    PropertyAccess register(String propertyName) {
+        names[registered] = propertyName;
+        return new PropertyAccess(this, registered++);
+    }
+
+    void recordAccess(int index) {
+        // Not atomic, as threads sharing a stripe are rare; at worst a racing read goes uncounted
+        int counter = ((int) Thread.currentThread().getId() & stripeMask) * stride + index;
+        counts.lazySet(counter, counts.get(counter) + 1);
+        long now = clock.millis();
+        if (lastAccessed.get(index) != now) {
+            lastAccessed.lazySet(index, now);
+        }
+    }
+
+    Optional<DateTime> lastAccessed(int index) {
+        long millis = lastAccessed.get(index);
+        return millis != 0 ? Optional.of(new DateTime(millis)) : Optional.<DateTime>absent();
+    }
+
+    /**
+     * @return the read counts of all registered values, combining values bound to the same property
+     */
+    AccessStatistics statistics() {
+        Map<String, Long> readCounts = new HashMap<String, Long>();
+        Map<String, Long> lastAccessedMillis = new HashMap<String, Long>();
+        for (int index = 0; index < registered; index++) {
+            long count = 0;
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                count += counts.get(stripe * stride + index);
+            }
+            Long previousCount = readCounts.get(names[index]);
+            readCounts.put(names[index], previousCount != null ? previousCount + count : count);
+
+            Long previousMillis = lastAccessedMillis.get(names[index]);
+            long millis = lastAccessed.get(index);
+            lastAccessedMillis.put(names[index], previousMillis != null ? Math.max(previousMillis, millis) : millis);
+        }
+        return new AccessStatistics(readCounts, lastAccessedMillis);
+    }
+
+    /**
+     * A value's handle on its tracker.
+     */
+    static final class PropertyAccess {
+
+        private final AccessTracker tracker;
+
+        private final int index;
+
+        private PropertyAccess(AccessTracker tracker, int index) {
+            this.tracker = tracker;
+            this.index = index;
+        }
+
+        void record() {
+            tracker.recordAccess(index);
+        }
+
+        Optional<DateTime> lastAccessed() {
+            return tracker.lastAccessed(index);
+        }
+
+        /**
+         * @return when a value was last read, or absent if it hasn't been or tracking is disabled
+         */
+        static Optional<DateTime> lastAccessed(PropertyAccess access) {
+            return access != null ? access.lastAccessed() : Optional.<DateTime>absent();
+        }
+    }
+}
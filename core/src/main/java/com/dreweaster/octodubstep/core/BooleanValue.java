@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link Value} holding a primitive {@code boolean}, readable without boxing.
+ */
+public interface BooleanValue extends Value<Boolean> {
+
+    boolean getAsBoolean();
+}
@@ -0,0 +1,159 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent steps of building a property manager, such as loading each property source, either one after
+ * another on the calling thread or spread across a pool of threads. Results always come back in the order the tasks
+ * were given, so the manager ends up the same however the work was scheduled.
+ */
+final class Bootstrap {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    private final int parallelism;
+
+    private final ExecutorService executor;
+
+    private Bootstrap(int parallelism) {
+        this(parallelism,
+                parallelism > 1 ? Executors.newFixedThreadPool(parallelism, new BootstrapThreadFactory()) : null);
+    }
+
+    private Bootstrap(int parallelism, ExecutorService executor) {
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+    static Bootstrap serial() {
+        return new Bootstrap(1);
+    }
+
+    /**
+     * @param parallelism the number of threads to use, where 1 runs everything on the calling thread
+     */
+    static Bootstrap withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Bootstrap parallelism must be at least 1: " + parallelism);
+        }
+        return new Bootstrap(parallelism);
+    }
+
+    /**
+     * Creates a bootstrap to keep for the life of a manager rather than shut down once it's used, whose threads are
+     * started when first needed and stop once they've been idle for a while.
+     *
+     * @param parallelism the number of threads to use, where 1 runs everything on the calling thread
+     */
+    static Bootstrap reusable(int parallelism) {
+        if (parallelism < 2) {
+            return withParallelism(parallelism);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new BootstrapThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return new Bootstrap(parallelism, executor);
+    }
+
+    int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs every task, waiting for them all to finish.
+     *
+     * @return the result of each task, in the order of the tasks
+     * @throws RuntimeException the failure of the first task to fail, in the order of the tasks
+     */
+    <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if (executor == null || tasks.size() < 2) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building property manager", e);
+        }
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building property manager", e);
+            } catch (ExecutionException e) {
+                throw propagate(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Splits items into one contiguous chunk per thread, keeping their order, for tasks too small to be worth running
+     * one per item.
+     */
+    <T> List<List<T>> partition(List<T> items) {
+        int chunks = Math.max(1, Math.min(parallelism, items.size()));
+        List<List<T>> partitions = new ArrayList<List<T>>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            partitions.add(items.subList(i * items.size() / chunks, (i + 1) * items.size() / chunks));
+        }
+        return partitions;
+    }
+
+    /**
+     * Stops the pool's threads once the manager has been built.
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new IllegalStateException(failure);
+    }
+
+    private static final class BootstrapThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "octodubstep-bootstrap-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock whose time is refreshed by a background thread at a fixed resolution, so telling the time is a single
+ * volatile read rather than a call to {@link System#currentTimeMillis()}.
+ */
+final class CoarseClock {
+
+    static final long DEFAULT_RESOLUTION_MILLIS = 10;
+
+    private static CoarseClock shared;
+
+    /**
+     * @return the clock shared by all property managers, started on first use
+     */
+    static synchronized CoarseClock shared() {
+        if (shared == null) {
+            shared = new CoarseClock(DEFAULT_RESOLUTION_MILLIS);
+        }
+        return shared;
+    }
+
+    private volatile long millis = System.currentTimeMillis();
+
+    private CoarseClock(long resolutionMillis) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "octodubstep-clock");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                millis = System.currentTimeMillis();
+            }
+        }, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the time in milliseconds since the epoch, as of the last tick of the clock
+     */
+    long millis() {
+        return millis;
+    }
+}
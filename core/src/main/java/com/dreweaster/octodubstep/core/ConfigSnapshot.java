@@ -0,0 +1,27 @@
+package com.dreweaster.octodubstep.core;
+
+import com.google.common.base.Optional;
+
+/**
+ * An immutable view of the values of all properties managed by a {@link PropertyManager} at a point in time.
+ * <p/>
+ * Reloads never modify a snapshot; they publish a new one. Reading several properties from the same snapshot
+ * therefore gives a consistent set of values, even if a reload happens in between the reads.
+ */
+public interface ConfigSnapshot {
+
+    /**
+     * @return the version of this snapshot, incremented every time a reload publishes new values
+     */
+    long version();
+
+    <V> Optional<V> valueOf(Value<V> value);
+
+    int intValueOf(IntValue value);
+
+    long longValueOf(LongValue value);
+
+    boolean booleanValueOf(BooleanValue value);
+
+    PropertyMetadata metadataOf(Value<?> value);
+}
@@ -1,10 +1,16 @@
 package com.dreweaster.octodubstep.core;
 
 import com.dreweaster.octodubstep.core.conversion.BooleanConverter;
+import com.dreweaster.octodubstep.core.conversion.DataSizeConverter;
+import com.dreweaster.octodubstep.core.conversion.DoubleConverter;
+import com.dreweaster.octodubstep.core.conversion.DurationConverter;
+import com.dreweaster.octodubstep.core.conversion.InetSocketAddressConverter;
 import com.dreweaster.octodubstep.core.conversion.IntegerConverter;
 import com.dreweaster.octodubstep.core.conversion.LongConverter;
+import com.dreweaster.octodubstep.core.conversion.PatternConverter;
 import com.dreweaster.octodubstep.core.conversion.PropertyConverter;
 import com.dreweaster.octodubstep.core.conversion.StringConverter;
+import com.dreweaster.octodubstep.core.conversion.UriConverter;
 import com.dreweaster.octodubstep.core.source.PropertySource;
 
 import java.util.ArrayList;
@@ -18,7 +24,13 @@ public final class DefaultPropertySourcePropertyManager extends PropertySourcePr
             new StringConverter(),
             new IntegerConverter(),
             new LongConverter(),
-            new BooleanConverter()
+            new BooleanConverter(),
+            new DoubleConverter(),
+            new DurationConverter(),
+            new DataSizeConverter(),
+            new UriConverter(),
+            new InetSocketAddressConverter(),
+            new PatternConverter()
     };
 
     public DefaultPropertySourcePropertyManager(
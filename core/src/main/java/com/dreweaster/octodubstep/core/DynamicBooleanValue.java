@@ -0,0 +1,7 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link DynamicValue} holding a primitive {@code boolean}, readable without boxing.
+ */
+public interface DynamicBooleanValue extends BooleanValue, DynamicValue<Boolean> {
+}
@@ -0,0 +1,7 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link DynamicValue} holding a primitive {@code int}, readable without boxing.
+ */
+public interface DynamicIntValue extends IntValue, DynamicValue<Integer> {
+}
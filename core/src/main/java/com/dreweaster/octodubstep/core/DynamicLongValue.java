@@ -0,0 +1,7 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link DynamicValue} holding a primitive {@code long}, readable without boxing.
+ */
+public interface DynamicLongValue extends LongValue, DynamicValue<Long> {
+}
@@ -0,0 +1,114 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.dreweaster.octodubstep.core.stream.ConflatingPublisher;
+import com.dreweaster.octodubstep.core.stream.Publisher;
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import org.joda.time.DateTime;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Base class for {@link DynamicValue}s whose state lives in a slot of the manager's current {@link PropertySnapshot}.
+ * Reading a value is a single volatile read of the current snapshot followed by an array access, plus recording the
+ * read if access tracking is enabled.
+ *
+ * @param <V> the value type
+ */
+abstract class DynamicSnapshotValue<V> implements DynamicValue<V> {
+
+    private final AtomicReference<PropertySnapshot> snapshots;
+
+    private final int slot;
+
+    private final ValueListeners<V> listeners;
+
+    private final AccessTracker.PropertyAccess access;
+
+    /**
+     * Created when first asked for, so values nobody streams cost nothing more than a null check on each change.
+     */
+    private volatile ConflatingPublisher<V> changes;
+
+    DynamicSnapshotValue(
+            AtomicReference<PropertySnapshot> snapshots,
+            int slot,
+            ListenerDispatcher dispatcher,
+            AccessTracker.PropertyAccess access) {
+        this.snapshots = snapshots;
+        this.slot = slot;
+        this.listeners = new ValueListeners<V>(this, dispatcher);
+        this.access = access;
+    }
+
+    @Override
+    public Optional<V> currentValue() {
+        recordAccess();
+        return valueIn(snapshots.get());
+    }
+
+    @Override
+    public Optional<DateTime> lastAccessed() {
+        return AccessTracker.PropertyAccess.lastAccessed(access);
+    }
+
+    @Override
+    public PropertyMetadata metadata() {
+        return snapshots.get().metadata(slot);
+    }
+
+    @Override
+    public void addListener(ValueListener<V> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ValueListener<V> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public Publisher<V> changes() {
+        ConflatingPublisher<V> publisher = changes;
+        if (publisher == null) {
+            synchronized (this) {
+                publisher = changes;
+                if (publisher == null) {
+                    publisher = new ConflatingPublisher<V>(new Supplier<V>() {
+                        @Override
+                        public V get() {
+                            return valueIn(snapshots.get()).orNull();
+                        }
+                    });
+                    changes = publisher;
+                }
+            }
+        }
+        return publisher;
+    }
+
+    abstract Optional<V> valueIn(PropertySnapshot snapshot);
+
+    final void fireValueChanged(V oldValue, V newValue) {
+        listeners.fireValueChanged(metadata().name(), oldValue, newValue);
+        ConflatingPublisher<V> publisher = changes;
+        if (publisher != null) {
+            publisher.publish(newValue);
+        }
+    }
+
+    final void recordAccess() {
+        if (access != null) {
+            access.record();
+        }
+    }
+
+    final AtomicReference<PropertySnapshot> snapshots() {
+        return snapshots;
+    }
+
+    final int slot() {
+        return slot;
+    }
+}
@@ -1,5 +1,7 @@
 package com.dreweaster.octodubstep.core;
 
+import com.dreweaster.octodubstep.core.stream.Publisher;
+
 /**
  */
 public interface DynamicValue<V> extends Value<V> {
@@ -7,4 +9,13 @@ public interface DynamicValue<V> extends Value<V> {
     void addListener(ValueListener<V> listener);
 
     void removeListener(ValueListener<V> listener);
+
+    /**
+     * Returns the value's changes as a stream: the current value, then each new value as reloads change it. A
+     * subscriber that hasn't requested more when the value changes again only receives the latest value, never a
+     * backlog. All subscribers share one feed from the value, whichever thread notifies its listeners.
+     *
+     * @return the publisher of the value's changes
+     */
+    Publisher<V> changes();
 }
@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link Value} holding a primitive {@code int}, readable without boxing.
+ */
+public interface IntValue extends Value<Integer> {
+
+    int getAsInt();
+}
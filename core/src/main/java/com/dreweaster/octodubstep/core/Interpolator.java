@@ -0,0 +1,385 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves {@code ${name}} placeholders in merged property values, e.g.
+ * {@code db.url=jdbc:h2:tcp://${db.host}:${db.port}/app}, before they're converted. A placeholder may give a value to
+ * use if the property it references isn't defined, as in {@code ${db.port:5432}}, and references are resolved
+ * recursively.
+ * <p/>
+ * Only values containing placeholders, the templates, are tracked. Each is parsed once, and the properties it
+ * references recorded in a dependency graph, along with the reverse edges from each property to the templates that
+ * reference it. Templates are resolved depth first, so in topological order, with each resolved value cached; a
+ * template taking part in a cycle, or referencing an undefined property without a default, resolves to a failure that
+ * is thrown whenever the property's value is asked for. When a reload changes some properties, only the changed
+ * templates are parsed again, and only the templates that depend on a changed property, directly or transitively, are
+ * resolved again. Each update can be reverted, so that a rejected reload leaves the graph as it was.
+ * <p/>
+ * Values without placeholders are never copied, and looking one up costs a hash lookup, or nothing if no value has a
+ * placeholder. Not thread safe; used by the manager while building it and from its synchronized reload.
+ */
+final class Interpolator {
+
+    private static final Interpolator DISABLED = new Interpolator(null, false);
+
+    private final boolean enabled;
+
+    private MergedProperties values;
+
+    /**
+     * The parsed template of each property whose value contains a placeholder.
+     */
+    private final Map<String, Template> templates = new HashMap<String, Template>();
+
+    /**
+     * The templates referencing each property, the reverse edges of the dependency graph.
+     */
+    private final Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+
+    private final Map<String, Resolution> resolutions = new HashMap<String, Resolution>();
+
+    private Interpolator(MergedProperties values, boolean enabled) {
+        this.values = values;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return an interpolator that leaves every value as it is
+     */
+    static Interpolator disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Parses every value containing a placeholder and resolves them all.
+     */
+    static Interpolator of(MergedProperties values) {
+        Interpolator interpolator = new Interpolator(values, true);
+        for (String propertyName : values.names()) {
+            Template template = Template.parse(values.value(propertyName));
+            if (template != null) {
+                interpolator.link(propertyName, template);
+            }
+        }
+        interpolator.resolveAll(interpolator.templates.keySet(), null);
+        return interpolator;
+    }
+
+    /**
+     * @param rawValue the merged value of the property
+     * @return the value with any placeholders resolved
+     * @throws IllegalArgumentException if the value has placeholders that can't be resolved
+     */
+    String resolve(String propertyName, String rawValue) {
+        if (resolutions.isEmpty()) {
+            return rawValue;
+        }
+        Resolution resolution = resolutions.get(propertyName);
+        return resolution != null ? resolution.value() : rawValue;
+    }
+
+    /**
+     * Brings the graph in line with new merged values, given the names whose values changed.
+     *
+     * @return the update, listing the changed names followed by every template depending on them
+     */
+    Update update(MergedProperties newValues, List<String> changedNames) {
+        Update update = new Update(values, changedNames);
+        if (!enabled) {
+            return update;
+        }
+        values = newValues;
+        for (String propertyName : changedNames) {
+            String value = newValues.value(propertyName);
+            Template template = value != null ? Template.parse(value) : null;
+            Template previousTemplate = templates.get(propertyName);
+            if (template != null || previousTemplate != null) {
+                update.previousTemplates.put(propertyName, previousTemplate);
+                unlink(propertyName, previousTemplate);
+                link(propertyName, template);
+                if (template == null) {
+                    update.previousResolutions.put(propertyName, resolutions.remove(propertyName));
+                }
+            }
+        }
+
+        Set<String> affectedTemplates = new LinkedHashSet<String>();
+        List<String> pending = new ArrayList<String>(changedNames);
+        while (!pending.isEmpty()) {
+            String propertyName = pending.remove(pending.size() - 1);
+            if (templates.containsKey(propertyName)) {
+                affectedTemplates.add(propertyName);
+            }
+            Set<String> templatesReferencing = dependents.get(propertyName);
+            if (templatesReferencing != null) {
+                for (String dependent : templatesReferencing) {
+                    if (!affectedTemplates.contains(dependent)) {
+                        pending.add(dependent);
+                    }
+                }
+            }
+        }
+        resolveAll(affectedTemplates, update);
+
+        Set<String> changed = new HashSet<String>(changedNames);
+        for (String template : affectedTemplates) {
+            if (!changed.contains(template)) {
+                update.affectedNames.add(template);
+            }
+        }
+        return update;
+    }
+
+    private void link(String propertyName, Template template) {
+        if (template == null) {
+            return;
+        }
+        templates.put(propertyName, template);
+        for (String reference : template.references()) {
+            Set<String> templatesReferencing = dependents.get(reference);
+            if (templatesReferencing == null) {
+                templatesReferencing = new HashSet<String>();
+                dependents.put(reference, templatesReferencing);
+            }
+            templatesReferencing.add(propertyName);
+        }
+    }
+
+    private void unlink(String propertyName, Template template) {
+        if (template == null) {
+            return;
+        }
+        templates.remove(propertyName);
+        for (String reference : template.references()) {
+            Set<String> templatesReferencing = dependents.get(reference);
+            if (templatesReferencing != null) {
+                templatesReferencing.remove(propertyName);
+                if (templatesReferencing.isEmpty()) {
+                    dependents.remove(reference);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the given templates, and any stale templates they reference, depth first.
+     *
+     * @param update records the resolutions replaced, or null when first building the graph
+     */
+    private void resolveAll(Collection<String> staleTemplates, Update update) {
+        Set<String> stale = new HashSet<String>(staleTemplates);
+        for (String propertyName : new ArrayList<String>(staleTemplates)) {
+            resolve(propertyName, stale, new LinkedHashSet<String>(), update);
+        }
+    }
+
+    private Resolution resolve(String propertyName, Set<String> stale, LinkedHashSet<String> path, Update update) {
+        Resolution resolution = resolutions.get(propertyName);
+        if (resolution != null && !stale.contains(propertyName)) {
+            return resolution;
+        }
+        if (path.contains(propertyName)) {
+            StringBuilder cycle = new StringBuilder();
+            boolean inCycle = false;
+            for (String step : path) {
+                inCycle |= step.equals(propertyName);
+                if (inCycle) {
+                    cycle.append(step).append(" -> ");
+                }
+            }
+            return Resolution.failed("Placeholders form a cycle: " + cycle.append(propertyName));
+        }
+
+        path.add(propertyName);
+        Template template = templates.get(propertyName);
+        StringBuilder value = new StringBuilder();
+        String failure = null;
+        for (int i = 0; i < template.parts.length && failure == null; i++) {
+            Object part = template.parts[i];
+            if (part instanceof String) {
+                value.append((String) part);
+                continue;
+            }
+            Placeholder placeholder = (Placeholder) part;
+            if (templates.containsKey(placeholder.name)) {
+                Resolution reference = resolve(placeholder.name, stale, path, update);
+                if (reference.failure != null) {
+                    failure = reference.failure.startsWith("Placeholders form a cycle")
+                            ? reference.failure
+                            : "Cannot resolve ${" + placeholder.name + "}: " + reference.failure;
+                } else {
+                    value.append(reference.value);
+                }
+                continue;
+            }
+            String referencedValue = values.value(placeholder.name);
+            if (referencedValue != null) {
+                value.append(referencedValue);
+            } else if (placeholder.defaultValue != null) {
+                value.append(placeholder.defaultValue);
+            } else {
+                failure = "Placeholder ${" + placeholder.name + "} references a property no source defines";
+            }
+        }
+        path.remove(propertyName);
+
+        Resolution newResolution = failure != null ? Resolution.failed(failure) : Resolution.of(value.toString());
+        if (update != null && !update.previousResolutions.containsKey(propertyName)) {
+            update.previousResolutions.put(propertyName, resolution);
+        }
+        resolutions.put(propertyName, newResolution);
+        stale.remove(propertyName);
+        return newResolution;
+    }
+
+    /**
+     * The changes made to the graph by a reload, which can be reverted if the reload is rejected.
+     */
+    final class Update {
+
+        private final MergedProperties previousValues;
+
+        private final List<String> affectedNames;
+
+        private final Map<String, Template> previousTemplates = new HashMap<String, Template>();
+
+        private final Map<String, Resolution> previousResolutions = new HashMap<String, Resolution>();
+
+        private Update(MergedProperties previousValues, List<String> changedNames) {
+            this.previousValues = previousValues;
+            this.affectedNames = new ArrayList<String>(changedNames);
+        }
+
+        /**
+         * @return the changed names followed by the templates depending on them, which need converting again
+         */
+        List<String> affectedNames() {
+            return affectedNames;
+        }
+
+        void revert() {
+            if (!enabled) {
+                return;
+            }
+            values = previousValues;
+            for (Map.Entry<String, Template> previousTemplate : previousTemplates.entrySet()) {
+                unlink(previousTemplate.getKey(), templates.get(previousTemplate.getKey()));
+                link(previousTemplate.getKey(), previousTemplate.getValue());
+            }
+            for (Map.Entry<String, Resolution> previousResolution : previousResolutions.entrySet()) {
+                if (previousResolution.getValue() != null) {
+                    resolutions.put(previousResolution.getKey(), previousResolution.getValue());
+                } else {
+                    resolutions.remove(previousResolution.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * A value containing placeholders, parsed into literal strings and {@link Placeholder}s.
+     */
+    private static final class Template {
+
+        private final Object[] parts;
+
+        private Template(Object[] parts) {
+            this.parts = parts;
+        }
+
+        /**
+         * @return the template, or null if the value has no placeholders
+         */
+        private static Template parse(String value) {
+            int start = value.indexOf("${");
+            if (start < 0) {
+                return null;
+            }
+            List<Object> parts = new ArrayList<Object>();
+            int position = 0;
+            while (start >= 0) {
+                int end = value.indexOf('}', start + 2);
+                if (end < 0) {
+                    break;
+                }
+                if (start > position) {
+                    parts.add(value.substring(position, start));
+                }
+                String placeholder = value.substring(start + 2, end);
+                int separator = placeholder.indexOf(':');
+                parts.add(separator >= 0
+                        ? new Placeholder(placeholder.substring(0, separator), placeholder.substring(separator + 1))
+                        : new Placeholder(placeholder, null));
+                position = end + 1;
+                start = value.indexOf("${", position);
+            }
+            if (position == 0) {
+                return null;
+            }
+            if (position < value.length()) {
+                parts.add(value.substring(position));
+            }
+            return new Template(parts.toArray());
+        }
+
+        private Set<String> references() {
+            Set<String> references = new LinkedHashSet<String>();
+            for (Object part : parts) {
+                if (part instanceof Placeholder) {
+                    references.add(((Placeholder) part).name);
+                }
+            }
+            return references;
+        }
+    }
+
+    private static final class Placeholder {
+
+        private final String name;
+
+        private final String defaultValue;
+
+        private Placeholder(String name, String defaultValue) {
+            this.name = name;
+            this.defaultValue = defaultValue;
+        }
+    }
+
+    /**
+     * The resolved value of a template, or why it couldn't be resolved.
+     */
+    private static final class Resolution {
+
+        private final String value;
+
+        private final String failure;
+
+        private Resolution(String value, String failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        private static Resolution of(String value) {
+            return new Resolution(value, null);
+        }
+
+        private static Resolution failed(String failure) {
+            return new Resolution(null, failure);
+        }
+
+        private String value() {
+            if (failure != null) {
+                throw new IllegalArgumentException(failure);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thrown when the values of one or more properties are invalid, listing every failing property rather than just the
+ * first.
+ */
+public class InvalidPropertiesException extends RuntimeException {
+
+    private final Map<String, RuntimeException> failures;
+
+    /**
+     * @param failures the failure of each invalid property, by property name
+     */
+    public InvalidPropertiesException(Map<String, RuntimeException> failures) {
+        super(messageFor(failures), failures.isEmpty() ? null : failures.values().iterator().next());
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<String, RuntimeException>(failures));
+    }
+
+    /**
+     * @return the failure of each invalid property, by property name
+     */
+    public Map<String, RuntimeException> failures() {
+        return failures;
+    }
+
+    private static String messageFor(Map<String, RuntimeException> failures) {
+        StringBuilder message = new StringBuilder();
+        message.append(failures.size()).append(failures.size() == 1 ? " property is" : " properties are")
+                .append(" invalid:");
+        for (Map.Entry<String, RuntimeException> failure : failures.entrySet()) {
+            message.append("\n  ").append(failure.getKey()).append(": ").append(failure.getValue());
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core;
+
+/**
+ * A {@link Value} holding a primitive {@code long}, readable without boxing.
+ */
+public interface LongValue extends Value<Long> {
+
+    long getAsLong();
+}
@@ -0,0 +1,59 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.accessor.ProviderFactory;
+import com.dreweaster.octodubstep.core.accessor.ProxyProviderFactory;
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.dreweaster.octodubstep.core.listener.SynchronousListenerDispatcher;
+import com.dreweaster.octodubstep.core.metrics.Instrumentation;
+import com.dreweaster.octodubstep.core.metrics.NoopInstrumentation;
+import com.dreweaster.octodubstep.core.reporter.ConfigReporter;
+import com.dreweaster.octodubstep.core.validation.PropertyConstraint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The options a {@link PropertySourcePropertyManager} is built with, populated by {@link Octodubstep.Builder}. Each
+ * defaults to how a manager behaves when built with none of the builder's options, and the manager copies what it
+ * needs when it's built, so the settings can be changed afterwards without affecting it.
+ */
+final class ManagerSettings {
+
+    ProviderFactory providerFactory = new ProxyProviderFactory();
+
+    ListenerDispatcher listenerDispatcher = SynchronousListenerDispatcher.INSTANCE;
+
+    /**
+     * Whether to record how often and when each value is read, see {@link PropertyManager#accessStatistics()}.
+     */
+    boolean trackAccess;
+
+    /**
+     * Whether to defer converting static, non-primitive values until they're first read, see
+     * {@link PropertyManager#validateAll()}.
+     */
+    boolean convertLazily;
+
+    /**
+     * Rules relating the values of several properties, checked when the manager is built and before publishing any
+     * reload that changes one of their properties.
+     */
+    List<PropertyConstraint> constraints = new ArrayList<PropertyConstraint>();
+
+    /**
+     * Whether to resolve {@code ${name}} placeholders in values defined by the property sources, see
+     * {@link Interpolator}.
+     */
+    boolean interpolatePlaceholders;
+
+    /**
+     * Reports how long loading, merging, converting, reloading and notifying listeners take, along with counts of
+     * reloads and gauges of the manager's state.
+     */
+    Instrumentation instrumentation = NoopInstrumentation.INSTANCE;
+
+    /**
+     * Told about every value once the manager is built, and every dynamic value a reload changes, or null.
+     */
+    ConfigReporter reporter;
+}
@@ -0,0 +1,210 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The raw value each property resolves to across a manager's sources, where the first source defining a property
+ * wins. Held in a {@link NameTable} and arrays of values, with the source of each value recorded as its position in
+ * the list of sources rather than a reference.
+ * <p/>
+ * Immutable. A reload doesn't merge every source again: {@link #withChanges} re-resolves only the names the reload
+ * changed, and returns a copy sharing the arrays with this one, the changes held in layers of small maps on top of
+ * them. A layer is folded into the one below it once that one is no more than twice its size, so each change is copied
+ * a logarithmic number of times, and a lookup checks a logarithmic number of layers. Once the layers hold more than a
+ * quarter as many changes as there are properties, every source is merged again.
+ */
+final class MergedProperties {
+
+    static final int MAX_SOURCES = 256;
+
+    private static final Map<?, ?>[] NO_CHANGES = new Map<?, ?>[0];
+
+    private final NameTable names;
+
+    private final String[] values;
+
+    private final byte[] sources;
+
+    /**
+     * The changes made since the arrays were merged, oldest first. Never modified once the instance holding them is
+     * built.
+     */
+    private final Map<String, Change>[] layers;
+
+    private final int changeCount;
+
+    @SuppressWarnings("unchecked")
+    private MergedProperties(NameTable names, String[] values, byte[] sources) {
+        this(names, values, sources, (Map<String, Change>[]) NO_CHANGES);
+    }
+
+    private MergedProperties(NameTable names, String[] values, byte[] sources, Map<String, Change>[] layers) {
+        this.names = names;
+        this.values = values;
+        this.sources = sources;
+        this.layers = layers;
+        int changeCount = 0;
+        for (Map<String, Change> layer : layers) {
+            changeCount += layer.size();
+        }
+        this.changeCount = changeCount;
+    }
+
+    /**
+     * Merges the values of several sources.
+     *
+     * @param sources the values of each source, highest precedence first
+     */
+    static MergedProperties merge(RawProperties[] sources) {
+        if (sources.length > MAX_SOURCES) {
+            throw new IllegalArgumentException("At most " + MAX_SOURCES + " property sources are supported");
+        }
+        int capacity = 0;
+        for (RawProperties source : sources) {
+            capacity += source.size();
+        }
+
+        NameTable names = new NameTable(capacity);
+        String[] values = new String[capacity];
+        byte[] sourceOrdinals = new byte[capacity];
+        for (int source = 0; source < sources.length; source++) {
+            for (int property = 0; property < sources[source].size(); property++) {
+                int size = names.size();
+                int index = names.add(sources[source].name(property));
+                if (index == size) {
+                    values[index] = sources[source].value(property);
+                    sourceOrdinals[index] = (byte) source;
+                }
+            }
+        }
+
+        int size = names.size();
+        return new MergedProperties(
+                names.trim(),
+                size == capacity ? values : Arrays.copyOf(values, size),
+                size == capacity ? sourceOrdinals : Arrays.copyOf(sourceOrdinals, size));
+    }
+
+    /**
+     * Resolves the given names again, leaving every other property as it is in this instance, which is unchanged.
+     *
+     * @param changedNames the names whose values may differ between the sources these values were merged from and
+     *                     the given ones
+     * @param sources      the values of each source, highest precedence first
+     */
+    @SuppressWarnings("unchecked")
+    MergedProperties withChanges(Collection<String> changedNames, RawProperties[] sources) {
+        if (changeCount + changedNames.size() > names.size() / 4) {
+            return merge(sources);
+        }
+        Map<String, Change> layer = new HashMap<String, Change>();
+        for (String name : changedNames) {
+            layer.put(name, resolve(name, sources));
+        }
+
+        int layerCount = layers.length;
+        while (layerCount > 0 && layers[layerCount - 1].size() <= 2 * layer.size()) {
+            Map<String, Change> folded = new HashMap<String, Change>(layers[layerCount - 1]);
+            folded.putAll(layer);
+            layer = folded;
+            layerCount--;
+        }
+        Map<String, Change>[] newLayers = Arrays.copyOf(layers, layerCount + 1);
+        newLayers[layerCount] = layer;
+        return new MergedProperties(names, values, this.sources, newLayers);
+    }
+
+    private static Change resolve(String name, RawProperties[] sources) {
+        for (int source = 0; source < sources.length; source++) {
+            String value = sources[source].get(name);
+            if (value != null) {
+                return new Change(value, (byte) source);
+            }
+        }
+        return Change.UNDEFINED;
+    }
+
+    boolean contains(String name) {
+        return value(name) != null;
+    }
+
+    /**
+     * @return the value of the given property, or null if no source defines it
+     */
+    String value(String name) {
+        Change change = changeOf(name);
+        if (change != null) {
+            return change.value;
+        }
+        int index = names.indexOf(name);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * @return the position, in the manager's list of sources, of the source the value of the given property came from
+     * @throws IllegalArgumentException if no source defines the property
+     */
+    int source(String name) {
+        Change change = changeOf(name);
+        if (change != null && change.value != null) {
+            return change.source & 0xff;
+        }
+        int index = change == null ? names.indexOf(name) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("No source defines property " + name);
+        }
+        return sources[index] & 0xff;
+    }
+
+    private Change changeOf(String name) {
+        for (int layer = layers.length - 1; layer >= 0; layer--) {
+            Change change = layers[layer].get(name);
+            if (change != null) {
+                return change;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the name of every defined property
+     */
+    Set<String> names() {
+        Set<String> definedNames = new LinkedHashSet<String>(names.size());
+        for (int index = 0; index < names.size(); index++) {
+            definedNames.add(names.name(index));
+        }
+        for (Map<String, Change> layer : layers) {
+            for (Map.Entry<String, Change> change : layer.entrySet()) {
+                if (change.getValue().value != null) {
+                    definedNames.add(change.getKey());
+                } else {
+                    definedNames.remove(change.getKey());
+                }
+            }
+        }
+        return definedNames;
+    }
+
+    /**
+     * The value a property resolved to when it was last changed, with a null value if no source defines it any more.
+     */
+    private static final class Change {
+
+        static final Change UNDEFINED = new Change(null, (byte) 0);
+
+        final String value;
+
+        final byte source;
+
+        Change(String value, byte source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.dreweaster.octodubstep.core.metrics.Counter;
+import com.dreweaster.octodubstep.core.metrics.Gauge;
+import com.dreweaster.octodubstep.core.metrics.Instrumentation;
+import com.dreweaster.octodubstep.core.metrics.NoopInstrumentation;
+import com.dreweaster.octodubstep.core.metrics.Timer;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reports a manager's work to its {@link Instrumentation}, creating each instrument once and caching it. Every method
+ * does nothing if the manager isn't instrumented, and {@link #start()} returns without telling the time, so an
+ * uninstrumented manager pays a single branch at each point it would report.
+ */
+final class Metrics {
+
+    static final String SOURCE_LOAD = "octodubstep.source.load";
+
+    static final String SOURCE_RELOAD = "octodubstep.source.reload";
+
+    static final String MERGE = "octodubstep.merge";
+
+    static final String CONVERSION = "octodubstep.conversion";
+
+    static final String LISTENER = "octodubstep.listener";
+
+    static final String RELOADS = "octodubstep.reloads";
+
+    static final String RELOAD_FAILURES = "octodubstep.reload.failures";
+
+    static final String CHANGED_KEYS = "octodubstep.reload.changed.keys";
+
+    static final String PROPERTIES = "octodubstep.properties";
+
+    static final String SNAPSHOT_AGE = "octodubstep.snapshot.age";
+
+    private final Instrumentation instrumentation;
+
+    private final boolean enabled;
+
+    private final ConcurrentMap<PropertySource, Timer> loadTimers = new ConcurrentHashMap<PropertySource, Timer>();
+
+    private final ConcurrentMap<PropertySource, Timer> reloadTimers = new ConcurrentHashMap<PropertySource, Timer>();
+
+    private final ConcurrentMap<Class<?>, Timer> conversionTimers = new ConcurrentHashMap<Class<?>, Timer>();
+
+    private final Timer mergeTimer;
+
+    private final Timer listenerTimer;
+
+    private final Counter reloads;
+
+    private final Counter reloadFailures;
+
+    private final Counter changedKeys;
+
+    private volatile long snapshotPublishedMillis = System.currentTimeMillis();
+
+    Metrics(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        this.enabled = !(instrumentation instanceof NoopInstrumentation);
+        if (enabled) {
+            mergeTimer = instrumentation.timer(MERGE);
+            listenerTimer = instrumentation.timer(LISTENER);
+            reloads = instrumentation.counter(RELOADS);
+            reloadFailures = instrumentation.counter(RELOAD_FAILURES);
+            changedKeys = instrumentation.counter(CHANGED_KEYS);
+            instrumentation.gauge(SNAPSHOT_AGE, new Gauge() {
+                @Override
+                public long value() {
+                    return System.currentTimeMillis() - snapshotPublishedMillis;
+                }
+            });
+        } else {
+            mergeTimer = null;
+            listenerTimer = null;
+            reloads = null;
+            reloadFailures = null;
+            changedKeys = null;
+        }
+    }
+
+    /**
+     * @return the time to pass back when reporting how long something took, or 0 if the manager isn't instrumented
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void sourceLoaded(PropertySource source, long start) {
+        if (enabled) {
+            timerFor(loadTimers, source, SOURCE_LOAD).record(System.nanoTime() - start);
+        }
+    }
+
+    void sourceReloaded(PropertySource source, long start) {
+        if (enabled) {
+            timerFor(reloadTimers, source, SOURCE_RELOAD).record(System.nanoTime() - start);
+        }
+    }
+
+    void merged(long start) {
+        if (enabled) {
+            mergeTimer.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param converter the converter, or collection converter, that converted a value
+     */
+    void converted(Object converter, long start) {
+        if (enabled) {
+            timerFor(conversionTimers, converter.getClass(), CONVERSION).record(System.nanoTime() - start);
+        }
+    }
+
+    void reloaded(int changedKeyCount) {
+        if (enabled) {
+            reloads.increment(1);
+            changedKeys.increment(changedKeyCount);
+        }
+    }
+
+    void reloadFailed() {
+        if (enabled) {
+            reloadFailures.increment(1);
+        }
+    }
+
+    void snapshotPublished() {
+        if (enabled) {
+            snapshotPublishedMillis = System.currentTimeMillis();
+        }
+    }
+
+    void gauge(String name, Gauge gauge) {
+        if (enabled) {
+            instrumentation.gauge(name, gauge);
+        }
+    }
+
+    /**
+     * @return the dispatcher, timing each call it makes to a listener, on whichever thread it makes it, if the manager
+     *         is instrumented
+     */
+    ListenerDispatcher instrument(final ListenerDispatcher dispatcher) {
+        if (!enabled) {
+            return dispatcher;
+        }
+        return new ListenerDispatcher() {
+            @Override
+            public <V> void dispatch(
+                    DynamicValue<V> value,
+                    String propertyName,
+                    ValueListener<V> listener,
+                    V oldValue,
+                    V newValue) {
+                dispatcher.dispatch(value, propertyName, timed(listener), oldValue, newValue);
+            }
+
+            @Override
+            public void listenerRemoved(DynamicValue<?> value, ValueListener<?> listener) {
+                dispatcher.listenerRemoved(value, timed(listener));
+            }
+        };
+    }
+
+    private <V> ValueListener<V> timed(ValueListener<V> listener) {
+        return new TimedListener<V>(listener);
+    }
+
+    /**
+     * Times each call to a listener. Equal to any other instance wrapping the same listener, so that dispatchers
+     * keeping track of each listener, such as {@link com.dreweaster.octodubstep.core.listener.AsyncListenerDispatcher},
+     * see one listener however many times it's wrapped.
+     */
+    private final class TimedListener<V> implements ValueListener<V> {
+
+        private final ValueListener<V> listener;
+
+        private TimedListener(ValueListener<V> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void valueChanged(V oldValue, V newValue) {
+            long start = System.nanoTime();
+            try {
+                listener.valueChanged(oldValue, newValue);
+            } finally {
+                listenerTimer.record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TimedListener && ((TimedListener<?>) other).listener.equals(listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return listener.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return listener.toString();
+        }
+    }
+
+    /**
+     * Finds the timer for a property source or converter class, named after the source's description or the class's
+     * simple name.
+     */
+    private <K> Timer timerFor(ConcurrentMap<K, Timer> timers, K key, String prefix) {
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            String qualifier = key instanceof PropertySource
+                    ? ((PropertySource) key).getDescription()
+                    : ((Class<?>) key).getSimpleName();
+            Timer newTimer = instrumentation.timer(prefix + "." + qualifier);
+            timer = timers.putIfAbsent(key, newTimer);
+            if (timer == null) {
+                timer = newTimer;
+            }
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table of distinct names, which numbers each name in the order it was added. Holders of
+ * values per name keep them in arrays indexed by those numbers, costing a few bytes per name rather than the entry
+ * object a hash map needs.
+ */
+final class NameTable {
+
+    private String[] names;
+
+    private int[] slots;
+
+    private int size;
+
+    NameTable(int expectedSize) {
+        names = new String[Math.max(expectedSize, 1)];
+        slots = new int[Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) * 2];
+    }
+
+    /**
+     * Adds a name, if not already present.
+     *
+     * @return the number of the name
+     */
+    int add(String name) {
+        int mask = slots.length - 1;
+        int slot = hash(name) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (names[index].equals(name)) {
+                return index;
+            }
+        }
+
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        int index = size++;
+        names[index] = name;
+        slots[slot] = index + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return index;
+    }
+
+    /**
+     * @return the number of the name, or -1 if it isn't present
+     */
+    int indexOf(String name) {
+        int mask = slots.length - 1;
+        for (int slot = hash(name) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (names[index].equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Releases any spare capacity, once all names have been added.
+     */
+    NameTable trim() {
+        if (names.length != size) {
+            names = Arrays.copyOf(names, size);
+        }
+        return this;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hash(names[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,20 +1,23 @@
 package com.dreweaster.octodubstep.core;
 
-import com.dreweaster.octodubstep.core.conversion.*;
+import com.dreweaster.octodubstep.core.accessor.GeneratedProviderFactory;
+import com.dreweaster.octodubstep.core.conversion.PropertyConverter;
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.dreweaster.octodubstep.core.metrics.Instrumentation;
+import com.dreweaster.octodubstep.core.reporter.ConfigReporter;
 import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.file.FileBackedPropertySource;
+import com.dreweaster.octodubstep.core.source.file.FileWatcher;
+import com.dreweaster.octodubstep.core.validation.PropertyConstraint;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class Octodubstep {
 
-    private static final PropertyConverter<?>[] DEFAULT_CONVERTERS = {
-            new StringConverter(),
-            new IntegerConverter(),
-            new LongConverter(),
-            new BooleanConverter()
-    };
-
     public static Builder newPropertyManager() {
         return new Builder();
     }
@@ -23,35 +26,191 @@ public class Octodubstep {
 
         private List<PropertyConverter<?>> converters = new ArrayList<PropertyConverter<?>>();
 
-        private List<PropertySource> propertySources = new ArrayList<PropertySource>();
+        private List<Supplier<? extends PropertySource>> propertySources =
+                new ArrayList<Supplier<? extends PropertySource>>();
 
         private List<Class<?>> providers = new ArrayList<Class<?>>();
 
+        private FileWatcher fileWatcher;
+
+        private int bootstrapParallelism = 1;
+
+        private final ManagerSettings settings = new ManagerSettings();
+
         public Builder withProvider(Class<?> clazz) {
             providers.add(clazz);
             return this;
         }
 
         public Builder withPropertySource(PropertySource source) {
+            propertySources.add(Suppliers.ofInstance(source));
+            return this;
+        }
+
+        /**
+         * Adds a property source that's only created when the manager is built. Sources that load their files when
+         * they're constructed can then be loaded alongside each other by {@link #bootstrappingInParallel()}. Sources
+         * keep the precedence of the order they were added in, whichever finishes loading first.
+         */
+        public Builder withDeferredPropertySource(Supplier<? extends PropertySource> source) {
             propertySources.add(source);
             return this;
         }
 
+        /**
+         * Adds a rule relating the values of several properties, e.g.
+         * {@link com.dreweaster.octodubstep.core.validation.Constraints#ordered(String, String)}, checked when the
+         * manager is built and before publishing any reload that changes one of its properties.
+         */
+        public Builder withConstraint(PropertyConstraint constraint) {
+            settings.constraints.add(constraint);
+            return this;
+        }
+
+        /**
+         * Resolves {@code ${name}} and {@code ${name:default}} placeholders in the values defined by the property
+         * sources, e.g. {@code db.url=jdbc:h2:tcp://${db.host}:${db.port:9092}/app}, before they're converted. A
+         * property whose placeholders form a cycle or reference an undefined property fails like an invalid value.
+         * When a reload changes a property, the properties referencing it are resolved and converted again.
+         */
+        public Builder interpolatingPlaceholders() {
+            settings.interpolatePlaceholders = true;
+            return this;
+        }
+
         public Builder usingDefaultConverters() {
-            converters.addAll(defaultConverters());
+            converters.addAll(DefaultPropertySourcePropertyManager.defaultConverters());
+            return this;
+        }
+
+        /**
+         * Generates an implementation class for each provider interface instead of using a dynamic proxy. Falls back
+         * to a proxy for any provider interface that can't be implemented this way.
+         */
+        public Builder usingGeneratedAccessors() {
+            settings.providerFactory = new GeneratedProviderFactory();
+            return this;
+        }
+
+        /**
+         * Reloads file based property sources when their files change, using the shared {@link FileWatcher}.
+         */
+        public Builder watchingFileSources() {
+            return watchingFileSources(FileWatcher.shared());
+        }
+
+        public Builder watchingFileSources(FileWatcher watcher) {
+            fileWatcher = watcher;
             return this;
         }
 
+        /**
+         * Delivers changes to dynamic values using the given dispatcher, e.g. an
+         * {@link com.dreweaster.octodubstep.core.listener.AsyncListenerDispatcher}. By default listeners are
+         * notified on the thread that reloaded the property.
+         */
+        public Builder dispatchingListenersWith(ListenerDispatcher dispatcher) {
+            settings.listenerDispatcher = dispatcher;
+            return this;
+        }
+
+        /**
+         * Records how often and when each property is read, making {@link PropertyManager#accessStatistics()} and
+         * {@link Value#lastAccessed()} available. Adds a small cost to every read, so is off by default.
+         */
+        public Builder trackingAccess() {
+            settings.trackAccess = true;
+            return this;
+        }
+
+        /**
+         * Defers converting each static value until it's first read, rather than converting every value when the
+         * manager is built. Speeds up building managers whose providers declare many properties that are never read,
+         * but means an invalid value only fails when it's read; use {@link PropertyManager#validateAll()} to check
+         * every value up front. Dynamic, primitive and map values are always converted straight away.
+         */
+        public Builder convertingLazily() {
+            settings.convertLazily = true;
+            return this;
+        }
+
+        /**
+         * Reports how long loading, merging, converting, reloading and notifying listeners take, counts of reloads and
+         * gauges of the manager's state to the given instrumentation, e.g. a
+         * {@link com.dreweaster.octodubstep.core.metrics.JmxInstrumentation}. Reading values is never instrumented.
+         */
+        public Builder instrumentedWith(Instrumentation instrumentation) {
+            settings.instrumentation = instrumentation;
+            return this;
+        }
+
+        /**
+         * Tells the reporter about every value once the manager is built, and about every dynamic value a reload
+         * changes once the change is visible.
+         */
+        public Builder reportingTo(ConfigReporter reporter) {
+            settings.reporter = reporter;
+            return this;
+        }
+
+        /**
+         * Builds the manager using a thread per available processor, see {@link #bootstrappingInParallel(int)}.
+         */
+        public Builder bootstrappingInParallel() {
+            return bootstrappingInParallel(Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Spreads the work of building the manager across a pool of threads: creating deferred property sources,
+         * reading every source, reflecting over provider interfaces and converting static values. The manager ends up
+         * the same as one built on a single thread, and the pool is shut down once it's built. The same number of
+         * threads convert and validate the values changed by any large reload. Converters and validators must be
+         * thread safe.
+         *
+         * @param parallelism the number of threads to use
+         */
+        public Builder bootstrappingInParallel(int parallelism) {
+            bootstrapParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @throws InvalidPropertiesException listing every property that has no converter, is required but not
+         *                                    defined or, unless converting lazily, has a value that can't be converted
+         *                                    or is invalid, and every constraint that isn't met
+         */
         public PropertyManager build() {
-            return new PropertySourcePropertyManager(providers, propertySources, converters);
+            Bootstrap bootstrap = Bootstrap.withParallelism(bootstrapParallelism);
+            List<PropertySource> sources;
+            try {
+                sources = createSources(bootstrap);
+            } catch (RuntimeException e) {
+                bootstrap.shutdown();
+                throw e;
+            }
+            PropertyManager manager =
+                    new PropertySourcePropertyManager(providers, sources, converters, settings, bootstrap);
+            if (fileWatcher != null) {
+                for (PropertySource propertySource : sources) {
+                    if (propertySource instanceof FileBackedPropertySource) {
+                        fileWatcher.watch((FileBackedPropertySource) propertySource);
+                    }
+                }
+            }
+            return manager;
         }
-    }
 
-    private static List<PropertyConverter<?>> defaultConverters() {
-        List<PropertyConverter<?>> converters = new ArrayList<PropertyConverter<?>>();
-        for (PropertyConverter<?> converter : DEFAULT_CONVERTERS) {
-            converters.add(converter);
+        private List<PropertySource> createSources(Bootstrap bootstrap) {
+            List<Callable<PropertySource>> tasks = new ArrayList<Callable<PropertySource>>();
+            for (final Supplier<? extends PropertySource> source : propertySources) {
+                tasks.add(new Callable<PropertySource>() {
+                    @Override
+                    public PropertySource call() {
+                        return source.get();
+                    }
+                });
+            }
+            return bootstrap.invokeAll(tasks);
         }
-        return converters;
     }
 }
@@ -0,0 +1,158 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.binding.PropertyBinding;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.stream.Publisher;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A manager whose providers are copies of another manager's with some values overridden, as created by
+ * {@link PropertyManager#overlay(PropertySource)}.
+ * <p/>
+ * An overlay holds nothing but its overridden values and the copies of the providers declaring them (see
+ * {@link ProviderInstance}); everything else, including the snapshot every shared dynamic value reads from, belongs
+ * to the manager at the root of the overlays, so a reload of the root reaches every overlay without any overlay
+ * doing anything.
+ */
+final class OverlayPropertyManager implements PropertyManager {
+
+    private final PropertySourcePropertyManager root;
+
+    private final PropertyManager parent;
+
+    private final Map<Class<?>, ProviderInstance> providerInstances = new HashMap<Class<?>, ProviderInstance>();
+
+    /**
+     * The values of the parent replaced by this overlay.
+     */
+    private final Map<Value<?>, Value<?>> replacedValues = new IdentityHashMap<Value<?>, Value<?>>();
+
+    /**
+     * The converted value of every property overridden by this overlay or the overlays beneath it, by name.
+     */
+    private final Map<String, Object> overriddenValues;
+
+    /**
+     * @param parentProviders  the provider instances of the parent, copied where they declare an overridden property
+     * @param parentOverrides  the converted values overridden by the parent, if it's an overlay itself
+     * @throws InvalidPropertiesException if any overridden value can't be converted or is invalid, or any constraint on
+     *                                    an overridden property isn't met
+     */
+    OverlayPropertyManager(
+            final PropertySourcePropertyManager root,
+            PropertyManager parent,
+            Map<Class<?>, ProviderInstance> parentProviders,
+            Map<String, Object> parentOverrides,
+            final PropertySource overrides) {
+        this.root = root;
+        this.parent = parent;
+
+        final Map<String, String> rawValues = new HashMap<String, String>();
+        for (String propertyName : overrides.getPropertyNames()) {
+            Optional<String> rawValue = overrides.getValue(propertyName);
+            if (rawValue.isPresent()) {
+                rawValues.put(propertyName, rawValue.get());
+            }
+        }
+
+        overriddenValues = new HashMap<String, Object>(parentOverrides);
+        final Set<String> converted = new HashSet<String>();
+        final Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+        ProviderInstance.ValueOverrider overrider = new ProviderInstance.ValueOverrider() {
+            @Override
+            public Value<?> override(PropertyBinding binding, Value<?> current) {
+                try {
+                    Value<?> value = root.overrideValue(binding, rawValues.get(binding.name()), overrides);
+                    replacedValues.put(current, value);
+                    if (converted.add(binding.name())) {
+                        overriddenValues.put(binding.name(), value.currentValue().orNull());
+                    }
+                    return value;
+                } catch (RuntimeException e) {
+                    failures.put(binding.name(), e);
+                    return current;
+                }
+            }
+        };
+        for (Map.Entry<Class<?>, ProviderInstance> providerInstance : parentProviders.entrySet()) {
+            providerInstances.put(
+                    providerInstance.getKey(),
+                    providerInstance.getValue().overriddenWith(rawValues.keySet(), overrider));
+        }
+        if (failures.isEmpty()) {
+            failures.putAll(root.checkOverriddenConstraints(rawValues.keySet(), overriddenValues));
+        }
+        if (!failures.isEmpty()) {
+            throw new InvalidPropertiesException(failures);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T propertiesFor(Class<T> providerClass) {
+        ProviderInstance providerInstance = providerInstances.get(providerClass);
+        return providerInstance != null ? (T) providerInstance.provider() : null;
+    }
+
+    @Override
+    public Iterable<Value<?>> properties() {
+        return Iterables.transform(parent.properties(), new Function<Value<?>, Value<?>>() {
+            @Override
+            public Value<?> apply(Value<?> value) {
+                Value<?> replaced = replacedValues.get(value);
+                return replaced != null ? replaced : value;
+            }
+        });
+    }
+
+    /**
+     * @return the current snapshot of the root manager; overridden values are fixed, so read the same through any
+     *         snapshot
+     */
+    @Override
+    public ConfigSnapshot snapshot() {
+        return root.snapshot();
+    }
+
+    @Override
+    public Publisher<ConfigSnapshot> snapshotChanges() {
+        return root.snapshotChanges();
+    }
+
+    /**
+     * @return the statistics of the root manager, which only cover the values overlays share with it
+     */
+    @Override
+    public AccessStatistics accessStatistics() {
+        return root.accessStatistics();
+    }
+
+    @Override
+    public void validateAll() {
+        root.validateAll();
+    }
+
+    @Override
+    public void addReloadFailureListener(ReloadFailureListener listener) {
+        root.addReloadFailureListener(listener);
+    }
+
+    @Override
+    public void removeReloadFailureListener(ReloadFailureListener listener) {
+        root.removeReloadFailureListener(listener);
+    }
+
+    @Override
+    public PropertyManager overlay(PropertySource overrides) {
+        return new OverlayPropertyManager(root, this, providerInstances, overriddenValues, overrides);
+    }
+}
@@ -0,0 +1,263 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.google.common.base.Optional;
+import org.joda.time.DateTime;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementations of the primitive {@link Value} types. Values are held in primitive fields; the boxed
+ * {@link Optional} returned by {@link Value#currentValue()} is only created if somebody asks for it.
+ */
+final class PrimitivePropertyValues {
+
+    private PrimitivePropertyValues() {
+    }
+
+    /**
+     * Implementation of {@link IntValue}
+     */
+    static final class PropertySourceIntValue implements IntValue {
+
+        private final int value;
+
+        private final PropertyMetadata metadata;
+
+        private final AccessTracker.PropertyAccess access;
+
+        private Optional<Integer> boxedValue;
+
+        PropertySourceIntValue(int value, PropertyMetadata metadata, AccessTracker.PropertyAccess access) {
+            this.value = value;
+            this.metadata = metadata;
+            this.access = access;
+        }
+
+        @Override
+        public int getAsInt() {
+            if (access != null) {
+                access.record();
+            }
+            return value;
+        }
+
+        @Override
+        public Optional<Integer> currentValue() {
+            if (access != null) {
+                access.record();
+            }
+            Optional<Integer> boxed = boxedValue;
+            if (boxed == null) {
+                boxed = Optional.of(value);
+                boxedValue = boxed;
+            }
+            return boxed;
+        }
+
+        @Override
+        public Optional<DateTime> lastAccessed() {
+            return AccessTracker.PropertyAccess.lastAccessed(access);
+        }
+
+        @Override
+        public PropertyMetadata metadata() {
+            return metadata;
+        }
+    }
+
+    /**
+     * Implementation of {@link DynamicIntValue}. The value lives in the manager's current {@link PropertySnapshot}.
+     */
+    static final class PropertySourceDynamicIntValue extends DynamicSnapshotValue<Integer> implements DynamicIntValue {
+
+        private volatile Optional<Integer> boxedValue;
+
+        PropertySourceDynamicIntValue(
+                AtomicReference<PropertySnapshot> snapshots,
+                int slot,
+                ListenerDispatcher dispatcher,
+                AccessTracker.PropertyAccess access) {
+            super(snapshots, slot, dispatcher, access);
+        }
+
+        @Override
+        public int getAsInt() {
+            recordAccess();
+            return (int) snapshots().get().primitive(slot());
+        }
+
+        @Override
+        Optional<Integer> valueIn(PropertySnapshot snapshot) {
+            int current = (int) snapshot.primitive(slot());
+            Optional<Integer> boxed = boxedValue;
+            if (boxed == null || boxed.get() != current) {
+                boxed = Optional.of(current);
+                boxedValue = boxed;
+            }
+            return boxed;
+        }
+    }
+
+    /**
+     * Implementation of {@link LongValue}
+     */
+    static final class PropertySourceLongValue implements LongValue {
+
+        private final long value;
+
+        private final PropertyMetadata metadata;
+
+        private final AccessTracker.PropertyAccess access;
+
+        private Optional<Long> boxedValue;
+
+        PropertySourceLongValue(long value, PropertyMetadata metadata, AccessTracker.PropertyAccess access) {
+            this.value = value;
+            this.metadata = metadata;
+            this.access = access;
+        }
+
+        @Override
+        public long getAsLong() {
+            if (access != null) {
+                access.record();
+            }
+            return value;
+        }
+
+        @Override
+        public Optional<Long> currentValue() {
+            if (access != null) {
+                access.record();
+            }
+            Optional<Long> boxed = boxedValue;
+            if (boxed == null) {
+                boxed = Optional.of(value);
+                boxedValue = boxed;
+            }
+            return boxed;
+        }
+
+        @Override
+        public Optional<DateTime> lastAccessed() {
+            return AccessTracker.PropertyAccess.lastAccessed(access);
+        }
+
+        @Override
+        public PropertyMetadata metadata() {
+            return metadata;
+        }
+    }
+
+    /**
+     * Implementation of {@link DynamicLongValue}. The value lives in the manager's current {@link PropertySnapshot}.
+     */
+    static final class PropertySourceDynamicLongValue extends DynamicSnapshotValue<Long> implements DynamicLongValue {
+
+        private volatile Optional<Long> boxedValue;
+
+        PropertySourceDynamicLongValue(
+                AtomicReference<PropertySnapshot> snapshots,
+                int slot,
+                ListenerDispatcher dispatcher,
+                AccessTracker.PropertyAccess access) {
+            super(snapshots, slot, dispatcher, access);
+        }
+
+        @Override
+        public long getAsLong() {
+            recordAccess();
+            return snapshots().get().primitive(slot());
+        }
+
+        @Override
+        Optional<Long> valueIn(PropertySnapshot snapshot) {
+            long current = snapshot.primitive(slot());
+            Optional<Long> boxed = boxedValue;
+            if (boxed == null || boxed.get() != current) {
+                boxed = Optional.of(current);
+                boxedValue = boxed;
+            }
+            return boxed;
+        }
+    }
+
+    /**
+     * Implementation of {@link BooleanValue}. There are only two possible boxed values, so none are ever allocated.
+     */
+    static final class PropertySourceBooleanValue implements BooleanValue {
+
+        private final boolean value;
+
+        private final PropertyMetadata metadata;
+
+        private final AccessTracker.PropertyAccess access;
+
+        PropertySourceBooleanValue(boolean value, PropertyMetadata metadata, AccessTracker.PropertyAccess access) {
+            this.value = value;
+            this.metadata = metadata;
+            this.access = access;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            if (access != null) {
+                access.record();
+            }
+            return value;
+        }
+
+        @Override
+        public Optional<Boolean> currentValue() {
+            if (access != null) {
+                access.record();
+            }
+            return boxed(value);
+        }
+
+        @Override
+        public Optional<DateTime> lastAccessed() {
+            return AccessTracker.PropertyAccess.lastAccessed(access);
+        }
+
+        @Override
+        public PropertyMetadata metadata() {
+            return metadata;
+        }
+    }
+
+    /**
+     * Implementation of {@link DynamicBooleanValue}. The value lives in the manager's current {@link PropertySnapshot}.
+     */
+    static final class PropertySourceDynamicBooleanValue extends DynamicSnapshotValue<Boolean>
+            implements DynamicBooleanValue {
+
+        PropertySourceDynamicBooleanValue(
+                AtomicReference<PropertySnapshot> snapshots,
+                int slot,
+                ListenerDispatcher dispatcher,
+                AccessTracker.PropertyAccess access) {
+            super(snapshots, slot, dispatcher, access);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            recordAccess();
+            return snapshots().get().primitive(slot()) != 0;
+        }
+
+        @Override
+        Optional<Boolean> valueIn(PropertySnapshot snapshot) {
+            return boxed(snapshot.primitive(slot()) != 0);
+        }
+    }
+
+    private static final Optional<Boolean> TRUE = Optional.of(Boolean.TRUE);
+
+    private static final Optional<Boolean> FALSE = Optional.of(Boolean.FALSE);
+
+    private static Optional<Boolean> boxed(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+}
@@ -1,5 +1,8 @@
 package com.dreweaster.octodubstep.core;
 
+import com.dreweaster.octodubstep.core.validation.ConfigPropertyValidator;
+import com.dreweaster.octodubstep.core.validation.DoNothingValidator;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -17,5 +20,8 @@ public @interface Property {
 
     boolean required() default true;
 
-    //Class<? extends ConfigPropertyValidator> validator() default DoNothingValidator.class;
+    /**
+     * @return the validator to check the converted value with, whenever it's loaded or reloaded
+     */
+    Class<? extends ConfigPropertyValidator> validator() default DoNothingValidator.class;
 }
@@ -0,0 +1,18 @@
+package com.dreweaster.octodubstep.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a provider method returning a nested provider interface, whose property names are resolved relative to the
+ * given prefix. For example, with a prefix of {@code db.primary}, a nested {@code @Property(name = "url")} is loaded
+ * from {@code db.primary.url}. Groups can themselves declare groups.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PropertyGroup {
+
+    String prefix();
+}
@@ -1,5 +1,8 @@
 package com.dreweaster.octodubstep.core;
 
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.stream.Publisher;
+
 /**
  */
 public interface PropertyManager {
@@ -7,5 +10,61 @@ public interface PropertyManager {
     <T> T propertiesFor(Class<T> providerClass);
 
     Iterable<Value<?>> properties();
-}
 
+    /**
+     * Pins the current values of all properties. Reads through the returned snapshot are unaffected by any reload that
+     * happens afterwards, so related properties can be read consistently.
+     *
+     * @return the current snapshot
+     */
+    ConfigSnapshot snapshot();
+
+    /**
+     * Returns the manager's snapshots as a stream: the current snapshot, then each new snapshot as reloads publish
+     * them. A subscriber that hasn't requested more when another reload is published only receives the latest
+     * snapshot, never a backlog. Snapshots are published on the reloading thread, before listeners of the changed
+     * values are notified.
+     *
+     * @return the publisher of snapshots
+     */
+    Publisher<ConfigSnapshot> snapshotChanges();
+
+    /**
+     * @return how often and when each property has been read since the manager was built
+     * @throws IllegalStateException if access tracking wasn't enabled when the manager was built
+     */
+    AccessStatistics accessStatistics();
+
+    /**
+     * Converts any values that haven't been converted yet, as happens when the manager was built to convert values
+     * lazily, so that invalid values can be found up front, e.g. as part of a build.
+     *
+     * @throws InvalidPropertiesException listing every value that couldn't be converted
+     */
+    void validateAll();
+
+    /**
+     * Registers a listener to be told whenever the reload of a property source is rejected, leaving every value as it
+     * was. A reload is only ever published as a whole, once every value it changes has been converted and validated
+     * and every constraint on them checked.
+     */
+    void addReloadFailureListener(ReloadFailureListener listener);
+
+    void removeReloadFailureListener(ReloadFailureListener listener);
+
+    /**
+     * Creates a lightweight manager for the same providers in which the properties defined by the given source take
+     * precedence, e.g. the overrides of one tenant on top of config shared by every tenant. Every other value is shared
+     * with this manager, so it follows this manager's reloads, and snapshots, statistics and reload failure listeners
+     * are those of this manager.
+     * <p/>
+     * The overrides are read, converted and validated once, when the overlay is created, and never change; a property
+     * defined by the source that no provider declares is ignored. An overlay can itself be overlaid.
+     *
+     * @param overrides the source of the overridden values
+     * @return the overlay
+     * @throws InvalidPropertiesException if any overridden value can't be converted or is invalid, or any constraint
+     *                                    on an overridden property isn't met
+     */
+    PropertyManager overlay(PropertySource overrides);
+}
@@ -2,6 +2,7 @@ package com.dreweaster.octodubstep.core;
 
 import com.google.common.base.Optional;
 import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.validation.ConfigPropertyValidator;
 
 /**
  */
@@ -17,7 +18,10 @@ public interface PropertyMetadata {
 
     boolean required();
 
-    //Optional<Class<? extends ConfigPropertyValidator>> validatorClass();
+    /**
+     * @return the validator the value is checked with, if the property names one
+     */
+    Optional<Class<? extends ConfigPropertyValidator>> validatorClass();
 
     boolean loadedFromDefaultValue();
 
@@ -0,0 +1,146 @@
+package com.dreweaster.octodubstep.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tree of property names split into their dot separated segments, e.g. {@code db.shards.0.url} is held under the
+ * nodes {@code db}, {@code shards} and {@code 0}. Finding every name under a prefix walks one node per segment of the
+ * prefix and then only the subtree beneath it, however many other names there are.
+ * <p/>
+ * Names are added and removed one at a time, so the tree can be kept up to date as individual properties change.
+ * Not thread safe.
+ */
+final class PropertyNameTree {
+
+    private final Node root = new Node();
+
+    static PropertyNameTree of(MergedProperties properties) {
+        PropertyNameTree tree = new PropertyNameTree();
+        for (String name : properties.names()) {
+            tree.add(name);
+        }
+        return tree;
+    }
+
+    void add(String name) {
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = segmentEnd(name, start);
+            node = node.childFor(name.substring(start, end));
+            if (end == name.length()) {
+                node.name = name;
+                return;
+            }
+            start = end + 1;
+        }
+    }
+
+    void remove(String name) {
+        List<Node> path = new ArrayList<Node>();
+        Node node = root;
+        int start = 0;
+        while (true) {
+            path.add(node);
+            int end = segmentEnd(name, start);
+            node = node.child(name.substring(start, end));
+            if (node == null) {
+                return;
+            }
+            if (end == name.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+        node.name = null;
+
+        // Prune nodes left with neither a name nor children, working back up the path
+        for (int i = path.size() - 1; i >= 0 && node.isEmpty(); i--) {
+            Node parent = path.get(i);
+            parent.children.remove(node.segment);
+            node = parent;
+        }
+    }
+
+    /**
+     * @return the names strictly beneath the prefix, e.g. {@code db.url} but not {@code db} or {@code dbx} for a prefix
+     *         of {@code db}, in no particular order
+     */
+    List<String> namesUnder(String prefix) {
+        Node node = root;
+        int start = 0;
+        while (node != null) {
+            int end = segmentEnd(prefix, start);
+            node = node.child(prefix.substring(start, end));
+            if (end == prefix.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+        List<String> names = new ArrayList<String>();
+        if (node != null) {
+            node.collectDescendants(names);
+        }
+        return names;
+    }
+
+    private static int segmentEnd(String name, int start) {
+        int end = name.indexOf('.', start);
+        return end >= 0 ? end : name.length();
+    }
+
+    /**
+     * A segment of one or more names, holding the full name if a property is defined with exactly this path.
+     */
+    private static final class Node {
+
+        private final String segment;
+
+        private String name;
+
+        private Map<String, Node> children;
+
+        private Node() {
+            this(null);
+        }
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String segment) {
+            return children != null ? children.get(segment) : null;
+        }
+
+        private Node childFor(String segment) {
+            if (children == null) {
+                children = new HashMap<String, Node>(4);
+            }
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node(segment);
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        private boolean isEmpty() {
+            return name == null && (children == null || children.isEmpty());
+        }
+
+        private void collectDescendants(List<String> names) {
+            if (children == null) {
+                return;
+            }
+            for (Node child : children.values()) {
+                if (child.name != null) {
+                    names.add(child.name);
+                }
+                child.collectDescendants(names);
+            }
+        }
+    }
+}
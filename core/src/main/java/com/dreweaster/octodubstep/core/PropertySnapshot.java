@@ -0,0 +1,152 @@
+package com.dreweaster.octodubstep.core;
+
+import com.google.common.base.Optional;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current state of every dynamic property of a manager. Each dynamic value owns a slot in the snapshot;
+ * static values never change, so they hold their own state and simply read it.
+ * <p/>
+ * A snapshot is never modified once published. Reloads copy it, apply their changes to the copy and publish the copy
+ * with a single write to the manager's {@link AtomicReference}.
+ */
+final class PropertySnapshot implements ConfigSnapshot {
+
+    private final AtomicReference<PropertySnapshot> owner;
+
+    private final long version;
+
+    private final Object[] values;
+
+    private final long[] primitives;
+
+    private final PropertyMetadata[] metadata;
+
+    PropertySnapshot(
+            AtomicReference<PropertySnapshot> owner,
+            long version,
+            Object[] values,
+            long[] primitives,
+            PropertyMetadata[] metadata) {
+        this.owner = owner;
+        this.version = version;
+        this.values = values;
+        this.primitives = primitives;
+        this.metadata = metadata;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> Optional<V> valueOf(Value<V> value) {
+        if (ownsSlotOf(value)) {
+            ((DynamicSnapshotValue<V>) value).recordAccess();
+            return ((DynamicSnapshotValue<V>) value).valueIn(this);
+        }
+        return value.currentValue();
+    }
+
+    @Override
+    public int intValueOf(IntValue value) {
+        return ownsSlotOf(value) ? (int) primitiveOf(value) : value.getAsInt();
+    }
+
+    @Override
+    public long longValueOf(LongValue value) {
+        return ownsSlotOf(value) ? primitiveOf(value) : value.getAsLong();
+    }
+
+    @Override
+    public boolean booleanValueOf(BooleanValue value) {
+        return ownsSlotOf(value) ? primitiveOf(value) != 0 : value.getAsBoolean();
+    }
+
+    @Override
+    public PropertyMetadata metadataOf(Value<?> value) {
+        return ownsSlotOf(value) ? metadata[((DynamicSnapshotValue<?>) value).slot()] : value.metadata();
+    }
+
+    Object value(int slot) {
+        return values[slot];
+    }
+
+    long primitive(int slot) {
+        return primitives[slot];
+    }
+
+    PropertyMetadata metadata(int slot) {
+        return metadata[slot];
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    Builder toBuilder() {
+        return new Builder(owner, version + 1, values.clone(), primitives.clone(), metadata.clone());
+    }
+
+    private long primitiveOf(Value<?> value) {
+        DynamicSnapshotValue<?> dynamicValue = (DynamicSnapshotValue<?>) value;
+        dynamicValue.recordAccess();
+        return primitives[dynamicValue.slot()];
+    }
+
+    private boolean ownsSlotOf(Value<?> value) {
+        return value instanceof DynamicSnapshotValue && ((DynamicSnapshotValue<?>) value).snapshots() == owner;
+    }
+
+    /**
+     * Builds the next snapshot.
+     */
+    static final class Builder {
+
+        private final AtomicReference<PropertySnapshot> owner;
+
+        private final long version;
+
+        private final Object[] values;
+
+        private final long[] primitives;
+
+        private final PropertyMetadata[] metadata;
+
+        Builder(AtomicReference<PropertySnapshot> owner, int size) {
+            this(owner, 0, new Object[size], new long[size], new PropertyMetadata[size]);
+        }
+
+        private Builder(
+                AtomicReference<PropertySnapshot> owner,
+                long version,
+                Object[] values,
+                long[] primitives,
+                PropertyMetadata[] metadata) {
+            this.owner = owner;
+            this.version = version;
+            this.values = values;
+            this.primitives = primitives;
+            this.metadata = metadata;
+        }
+
+        Builder value(int slot, Object value, PropertyMetadata propertyMetadata) {
+            values[slot] = value;
+            metadata[slot] = propertyMetadata;
+            return this;
+        }
+
+        Builder primitive(int slot, long value, PropertyMetadata propertyMetadata) {
+            primitives[slot] = value;
+            metadata[slot] = propertyMetadata;
+            return this;
+        }
+
+        PropertySnapshot build() {
+            return new PropertySnapshot(owner, version, values, primitives, metadata);
+        }
+    }
+}
@@ -1,22 +1,52 @@
 package com.dreweaster.octodubstep.core;
 
 import com.google.common.base.Optional;
+import com.dreweaster.octodubstep.core.accessor.ProviderFactory;
+import com.dreweaster.octodubstep.core.binding.PropertyBinding;
+import com.dreweaster.octodubstep.core.binding.ProviderBinding;
+import com.dreweaster.octodubstep.core.binding.ProviderBindings;
+import com.dreweaster.octodubstep.core.conversion.BooleanConverter;
+import com.dreweaster.octodubstep.core.conversion.BooleanPropertyConverter;
+import com.dreweaster.octodubstep.core.conversion.CollectionConverter;
+import com.dreweaster.octodubstep.core.conversion.ConverterRegistry;
+import com.dreweaster.octodubstep.core.conversion.IntPropertyConverter;
+import com.dreweaster.octodubstep.core.conversion.IntegerConverter;
+import com.dreweaster.octodubstep.core.conversion.LongConverter;
+import com.dreweaster.octodubstep.core.conversion.LongPropertyConverter;
 import com.dreweaster.octodubstep.core.conversion.PropertyConverter;
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+import com.dreweaster.octodubstep.core.metrics.Gauge;
+import com.dreweaster.octodubstep.core.reporter.ConfigReporter;
+import com.dreweaster.octodubstep.core.source.PreconvertedPropertySource;
 import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.dreweaster.octodubstep.core.stream.ConflatingPublisher;
+import com.dreweaster.octodubstep.core.stream.Publisher;
+import com.dreweaster.octodubstep.core.validation.ConfigPropertyValidator;
+import com.dreweaster.octodubstep.core.validation.DoNothingValidator;
+import com.dreweaster.octodubstep.core.validation.PropertyConstraint;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  */
@@ -24,74 +54,212 @@ public class PropertySourcePropertyManager implements PropertyManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(PropertySourcePropertyManager.class);
 
+    /**
+     * The number of dynamic properties a reload must affect before they're converted and validated in parallel.
+     */
+    static final int PARALLEL_RELOAD_THRESHOLD = 256;
+
     private Map<Class<?>, Object> configProviders = new HashMap<Class<?>, Object>();
 
-    private Map<Method, Value<?>> configPropertyValues = new HashMap<Method, Value<?>>();
+    /**
+     * The instance of each top level provider, which overlays copy.
+     */
+    private Map<Class<?>, ProviderInstance> providerInstances = new HashMap<Class<?>, ProviderInstance>();
+
+    private List<Value<?>> configPropertyValues = new ArrayList<Value<?>>();
+
+    private final ConverterRegistry converters;
+
+    private final CollectionConverter collectionConverter;
+
+    private List<PropertySource> propertySources;
+
+    private List<DynamicProperty> dynamicProperties = new ArrayList<DynamicProperty>();
+
+    private Map<String, List<DynamicProperty>> dynamicPropertiesByName = new HashMap<String, List<DynamicProperty>>();
+
+    private Map<String, List<DynamicProperty>> dynamicMapPropertiesByPrefix =
+            new HashMap<String, List<DynamicProperty>>();
+
+    private RawProperties[] loadedValues;
+
+    private MergedProperties mergedValues;
+
+    private Interpolator interpolator;
+
+    /**
+     * Index of the merged property names by prefix, only built if a map property needs it.
+     */
+    private PropertyNameTree nameTree;
+
+    private final AtomicReference<PropertySnapshot> snapshots = new AtomicReference<PropertySnapshot>();
+
+    private final ConflatingPublisher<ConfigSnapshot> snapshotChanges = new ConflatingPublisher<ConfigSnapshot>(
+            new Supplier<ConfigSnapshot>() {
+                @Override
+                public ConfigSnapshot get() {
+                    return snapshots.get();
+                }
+            });
+
+    private final ListenerDispatcher listenerDispatcher;
+
+    private final AccessTracker accessTracker;
+
+    private final Map<Class<?>, ConfigPropertyValidator<Object>> validators =
+            new HashMap<Class<?>, ConfigPropertyValidator<Object>>();
+
+    private final List<PropertyConstraint> constraints;
+
+    private final Map<String, List<PropertyConstraint>> constraintsByName =
+            new HashMap<String, List<PropertyConstraint>>();
+
+    /**
+     * The value of each static property named by a constraint.
+     */
+    private final Map<String, Supplier<?>> constrainedStaticValues = new HashMap<String, Supplier<?>>();
 
-    private Map<Class<?>, PropertyConverter> converters = new HashMap<Class<?>, PropertyConverter>();
+    private final List<ReloadFailureListener> reloadFailureListeners =
+            new CopyOnWriteArrayList<ReloadFailureListener>();
+
+    private final int reloadParallelism;
+
+    /**
+     * Converts and validates the values changed by large reloads, created by the first of them and kept for the next.
+     */
+    private Bootstrap stagingBootstrap;
+
+    private final Metrics metrics;
+
+    /**
+     * Told about every value once the manager is built, and every dynamic value a reload changes, or null.
+     */
+    private final ConfigReporter reporter;
 
     public PropertySourcePropertyManager(
             List<Class<?>> propertyProviderClasses,
             List<PropertySource> propertySources,
             List<PropertyConverter<?>> propertyConverters) {
+        this(propertyProviderClasses, propertySources, propertyConverters, new ManagerSettings(), Bootstrap.serial());
+    }
 
-        for (PropertyConverter<?> converter : propertyConverters) {
-            converters.put(converter.valueType(), converter);
-        }
-
-        Map<String, Map.Entry<PropertySource, String>> properties =
-                new HashMap<String, Map.Entry<PropertySource, String>>();
+    /**
+     * Builds the manager, running the steps that don't depend on each other with the given bootstrap: reading the
+     * property sources, binding the provider interfaces and converting static values. Any failures to resolve,
+     * convert or validate a property, or to meet a constraint, are collected, then reported together once every
+     * property has been looked at.
+     *
+     * @param bootstrap the bootstrap to build the manager with, shut down once it's built; its parallelism is also
+     *                  used to convert and validate the values changed by a reload of more than
+     *                  {@value #PARALLEL_RELOAD_THRESHOLD} of them
+     * @throws InvalidPropertiesException if any property has no converter, is required but not defined, has
+     *                                    placeholders that can't be resolved or, unless converting lazily, has a value
+     *                                    that can't be converted or is invalid, or if any constraint isn't met
+     */
+    PropertySourcePropertyManager(
+            List<Class<?>> propertyProviderClasses,
+            List<PropertySource> propertySources,
+            List<PropertyConverter<?>> propertyConverters,
+            ManagerSettings settings,
+            Bootstrap bootstrap) {
 
-        for (PropertySource propertySource : propertySources) {
-            for (String propertyName : propertySource.getPropertyNames()) {
-                if (!properties.containsKey(propertyName)) {
-                    properties.put(propertyName, new AbstractMap.SimpleEntry<PropertySource, String>(
-                            propertySource,
-                            propertySource.getValue(propertyName).get()));
+        this.metrics = new Metrics(settings.instrumentation);
+        this.reporter = settings.reporter;
+        this.listenerDispatcher = metrics.instrument(settings.listenerDispatcher);
+        this.reloadParallelism = bootstrap.parallelism();
+        this.constraints = new ArrayList<PropertyConstraint>(settings.constraints);
+        for (PropertyConstraint constraint : this.constraints) {
+            for (String propertyName : constraint.propertyNames()) {
+                List<PropertyConstraint> constraintsWithName = constraintsByName.get(propertyName);
+                if (constraintsWithName == null) {
+                    constraintsWithName = new ArrayList<PropertyConstraint>();
+                    constraintsByName.put(propertyName, constraintsWithName);
                 }
+                constraintsWithName.add(constraint);
             }
         }
 
-        for (Class<?> propertyProviderClass : propertyProviderClasses) {
-
-            for (Method method : propertyProviderClass.getMethods()) {
-                Property configProperty = method.getAnnotation(Property.class);
-                if (configProperty != null) {
-                    ParameterizedType parameterizedType = (ParameterizedType) method.getGenericReturnType();
-                    Type type = parameterizedType.getActualTypeArguments()[0];
-                    if (type instanceof ParameterizedType) {
-                        ParameterizedType embeddedParameterizedType = (ParameterizedType) type;
-                        parsePropertyAsList(
-                                properties,
-                                method,
-                                configProperty,
-                                parameterizedType.getRawType().equals(DynamicValue.class),
-                                embeddedParameterizedType);
-                    } else {
-                        parsePropertyAsSimpleType(
-                                properties,
-                                method,
-                                configProperty,
-                                parameterizedType.getRawType().equals(DynamicValue.class),
-                                type);
-                    }
-                }
+        converters = new ConverterRegistry(propertyConverters);
+        collectionConverter = new CollectionConverter(converters);
+
+        this.propertySources = new ArrayList<PropertySource>(propertySources);
+        try {
+            loadedValues = readSources(this.propertySources, bootstrap, metrics);
+            long mergeStart = metrics.start();
+            mergedValues = MergedProperties.merge(loadedValues);
+            metrics.merged(mergeStart);
+            interpolator = settings.interpolatePlaceholders ? Interpolator.of(mergedValues) : Interpolator.disabled();
+
+            Map<Class<?>, ProviderBinding<?>> providerBindings =
+                    bindingsFor(propertyProviderClasses, settings.providerFactory, bootstrap);
+            Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+            int propertyCount = 0;
+            for (Class<?> propertyProviderClass : propertyProviderClasses) {
+                propertyCount += bindProvider(propertyProviderClass, null, settings.providerFactory, providerBindings,
+                        new ArrayList<Class<?>>(), failures);
             }
+            accessTracker = settings.trackAccess ? new AccessTracker(propertyCount, CoarseClock.shared()) : null;
 
-            Object proxy = Proxy.newProxyInstance(
-                    propertyProviderClass.getClassLoader(),
-                    new Class[]{propertyProviderClass},
-                    new ConfigPropertyInvocationHandler());
+            List<PropertySourceConfigPropertyValue<?>> unconvertedValues =
+                    new ArrayList<PropertySourceConfigPropertyValue<?>>();
+            for (Class<?> propertyProviderClass : propertyProviderClasses) {
+                ProviderInstance providerInstance = newProvider(providerBindings.get(propertyProviderClass), null,
+                        providerBindings, failures, unconvertedValues);
+                providerInstances.put(propertyProviderClass, providerInstance);
+                configProviders.put(propertyProviderClass, providerInstance.provider());
+            }
+            if (!settings.convertLazily) {
+                failures.putAll(resolveAll(unconvertedValues, bootstrap));
+            }
+            List<PropertyConstraint> checkableConstraints = new ArrayList<PropertyConstraint>();
+            for (PropertyConstraint constraint : this.constraints) {
+                if (Collections.disjoint(constraint.propertyNames(), failures.keySet())) {
+                    checkableConstraints.add(constraint);
+                }
+            }
+            failures.putAll(checkConstraints(checkableConstraints, Collections.<String, Object>emptyMap()));
+            if (!failures.isEmpty()) {
+                throw new InvalidPropertiesException(failures);
+            }
+        } finally {
+            bootstrap.shutdown();
+        }
 
-            configProviders.put(propertyProviderClass, proxy);
+        PropertySnapshot.Builder initialSnapshot = new PropertySnapshot.Builder(snapshots, dynamicProperties.size());
+        for (DynamicProperty dynamicProperty : dynamicProperties) {
+            dynamicProperty.writeTo(initialSnapshot);
+        }
+        snapshots.set(initialSnapshot.build());
+        metrics.snapshotPublished();
+        final int propertyCount = configPropertyValues.size();
+        metrics.gauge(Metrics.PROPERTIES, new Gauge() {
+            @Override
+            public long value() {
+                return propertyCount;
+            }
+        });
+        if (reporter != null) {
+            for (Value<?> value : configPropertyValues) {
+                reporter.propertyLoaded(value);
+            }
+        }
 
-            // TODO: Don't fail to startup until all undefined required properties have been parsed
+        PropertySourceListener reloadListener = new PropertySourceListener() {
+            @Override
+            public void propertySourceReloaded(PropertySource source) {
+                reload(source);
+            }
+        };
+        for (PropertySource propertySource : this.propertySources) {
+            if (propertySource.isReloadable()) {
+                propertySource.addListener(reloadListener);
+            }
         }
     }
 
     @Override
     public Iterable<Value<?>> properties() {
-        return configPropertyValues.values();
+        return configPropertyValues;
     }
 
 
@@ -100,137 +268,1194 @@ public class PropertySourcePropertyManager implements PropertyManager {
         return (T) configProviders.get(providerClass);
     }
 
-    private void parsePropertyAsSimpleType(
-            Map<String, Map.Entry<PropertySource, String>> properties,
-            Method method,
-            Property configProperty,
-            boolean dynamic,
-            Type type) {
-        PropertyConverter<?> converter = converters.get(type);
-        Map.Entry<PropertySource, String> propertyEntry = properties.get(configProperty.name());
-        Object value = propertyEntry != null
-                ? converter.convert(propertyEntry.getValue())
-                : !configProperty.required()
-                ? converter.convert(configProperty.defaultValue())
-                : null; // TODO: Need to throw error here as property is required!!!
-
-        Optional<PropertySource> source = propertyEntry == null
-                ? Optional.<PropertySource>absent()
-                : Optional.of(propertyEntry.getKey());
+    @Override
+    public ConfigSnapshot snapshot() {
+        return snapshots.get();
+    }
+
+    @Override
+    public Publisher<ConfigSnapshot> snapshotChanges() {
+        return snapshotChanges;
+    }
+
+    @Override
+    public AccessStatistics accessStatistics() {
+        if (accessTracker == null) {
+            throw new IllegalStateException("Access tracking is not enabled for this property manager");
+        }
+        return accessTracker.statistics();
+    }
 
-        if (dynamic) {
-            configPropertyValues.put(method, new PropertySourceDynamicConfigPropertyValue<Object>(
-                    Optional.of(value),
-                    configProperty,
-                    ((Class) type).getName(),
-                    source,
-                    !source.isPresent()));
-        } else {
-            configPropertyValues.put(method, new PropertySourceConfigPropertyValue<Object>(
-                    Optional.of(value),
-                    configProperty,
-                    ((Class) type).getName(),
-                    source,
-                    !source.isPresent()));
-        }
-    }
-
-    private void parsePropertyAsList(
-            Map<String, Map.Entry<PropertySource, String>> properties,
-            Method method,
-            Property configProperty,
-            boolean dynamic,
-            ParameterizedType embeddedParameterizedType) {
-
-        if (List.class.equals(embeddedParameterizedType.getRawType())) {
-            Map.Entry<PropertySource, String> propertyEntry = properties.get(configProperty.name());
-            Class<?> listItemType = (Class) embeddedParameterizedType.getActualTypeArguments()[0];
-            PropertyConverter<?> converter = converters.get(listItemType);
-            List<Object> items = new ArrayList<Object>();
-            String[] values = propertyEntry != null
-                    ? propertyEntry.getValue().split(",")
-                    : !configProperty.required()
-                    ? configProperty.defaultValue().split(",")
-                    : null; // TODO: Need to throw error here as property is required!!!
-
-            for (String value : values) {
-                items.add(converter.convert(value));
-            }
-
-            Optional<PropertySource> source = propertyEntry == null
-                    ? Optional.<PropertySource>absent()
-                    : Optional.of(propertyEntry.getKey());
-
-            if(dynamic) {
-                configPropertyValues.put(method, new PropertySourceDynamicConfigPropertyValue<List<Object>>(
-                        Optional.of(items),
-                        configProperty,
-                        embeddedParameterizedType.toString(),
-                        source,
-                        !source.isPresent()));
+    @Override
+    public void validateAll() {
+        List<PropertySourceConfigPropertyValue<?>> values = new ArrayList<PropertySourceConfigPropertyValue<?>>();
+        for (Value<?> value : configPropertyValues) {
+            if (value instanceof PropertySourceConfigPropertyValue) {
+                values.add((PropertySourceConfigPropertyValue<?>) value);
+            }
+        }
+        Map<String, RuntimeException> failures = resolveAll(values, Bootstrap.serial());
+        if (!failures.isEmpty()) {
+            throw new InvalidPropertiesException(failures);
+        }
+    }
+
+    @Override
+    public void addReloadFailureListener(ReloadFailureListener listener) {
+        reloadFailureListeners.add(listener);
+    }
+
+    @Override
+    public void removeReloadFailureListener(ReloadFailureListener listener) {
+        reloadFailureListeners.remove(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Each provider of the overlay is a copy of this manager's, made only if it, or one of its groups, declares an
+     * overridden property, and sharing every value that isn't overridden. An overlay of an overlay copies the providers
+     * of the overlay in the same way, so reads through any overlay, however deep, cost the same as reads through this
+     * manager, and a reload is published to every overlay by the same single write of the snapshot.
+     */
+    @Override
+    public PropertyManager overlay(PropertySource overrides) {
+        return new OverlayPropertyManager(this, this, providerInstances, Collections.<String, Object>emptyMap(),
+                overrides);
+    }
+
+    /**
+     * Creates the value an overlay gives a property it overrides, converted and validated like the value of any other
+     * property. The value never changes: a dynamic property is given a snapshot of its own, which no reload replaces.
+     * A map property can only be overridden as a whole, with {@code key=value} pairs.
+     *
+     * @throws RuntimeException if the value can't be converted or is invalid
+     */
+    synchronized Value<?> overrideValue(PropertyBinding binding, String rawValue, PropertySource overrides) {
+        Type type = binding.valueType();
+        Optional<PropertySource> source = Optional.of(overrides);
+        ConfigPropertyValidator<Object> validator = validatorFor(binding);
+        PropertyMetadata metadata = new SimpleConfigPropertyMetadata(
+                binding, typeName(type), binding.dynamic(), source, false);
+        AtomicReference<PropertySnapshot> fixedSnapshot = new AtomicReference<PropertySnapshot>();
+        PropertySnapshot.Builder snapshot = new PropertySnapshot.Builder(fixedSnapshot, 1);
+
+        if (int.class.equals(type)) {
+            int intValue = convertToInt(binding.name(), source, rawValue);
+            validate(validator, intValue);
+            if (!binding.dynamic()) {
+                return new PrimitivePropertyValues.PropertySourceIntValue(intValue, metadata, null);
+            }
+            fixedSnapshot.set(snapshot.primitive(0, intValue, metadata).build());
+            return new PrimitivePropertyValues.PropertySourceDynamicIntValue(
+                    fixedSnapshot, 0, listenerDispatcher, null);
+        } else if (long.class.equals(type)) {
+            long longValue = convertToLong(binding.name(), source, rawValue);
+            validate(validator, longValue);
+            if (!binding.dynamic()) {
+                return new PrimitivePropertyValues.PropertySourceLongValue(longValue, metadata, null);
+            }
+            fixedSnapshot.set(snapshot.primitive(0, longValue, metadata).build());
+            return new PrimitivePropertyValues.PropertySourceDynamicLongValue(
+                    fixedSnapshot, 0, listenerDispatcher, null);
+        } else if (boolean.class.equals(type)) {
+            boolean booleanValue = convertToBoolean(binding.name(), source, rawValue);
+            validate(validator, booleanValue);
+            if (!binding.dynamic()) {
+                return new PrimitivePropertyValues.PropertySourceBooleanValue(booleanValue, metadata, null);
+            }
+            fixedSnapshot.set(snapshot.primitive(0, booleanValue ? 1 : 0, metadata).build());
+            return new PrimitivePropertyValues.PropertySourceDynamicBooleanValue(
+                    fixedSnapshot, 0, listenerDispatcher, null);
+        }
+
+        Object value = type instanceof ParameterizedType && Map.class.equals(((ParameterizedType) type).getRawType())
+                ? convertMap(type, new RawMap(rawValue, null, source))
+                : convert(type, rawValue);
+        validate(validator, value);
+        if (!binding.dynamic()) {
+            return new PropertySourceConfigPropertyValue<Object>(Optional.of(value), metadata, null);
+        }
+        fixedSnapshot.set(snapshot.value(0, Optional.of(value), metadata).build());
+        return new PropertySourceDynamicConfigPropertyValue<Object>(fixedSnapshot, 0, listenerDispatcher, null);
+    }
+
+    /**
+     * Checks the constraints naming any of the given properties, taking the overridden values of an overlay in place
+     * of the current ones. Synchronized with reloads, so the other values are consistent.
+     *
+     * @return the failure of each constraint that isn't met, keyed by its description
+     */
+    synchronized Map<String, RuntimeException> checkOverriddenConstraints(
+            Set<String> propertyNames,
+            Map<String, Object> overriddenValues) {
+        Set<PropertyConstraint> affectedConstraints = new LinkedHashSet<PropertyConstraint>();
+        for (String propertyName : propertyNames) {
+            List<PropertyConstraint> constraintsWithName = constraintsByName.get(propertyName);
+            if (constraintsWithName != null) {
+                affectedConstraints.addAll(constraintsWithName);
+            }
+        }
+        return checkConstraints(new ArrayList<PropertyConstraint>(affectedConstraints), overriddenValues);
+    }
+
+    /**
+     * Reads every property source, in parallel if the bootstrap allows, sharing one {@link RawProperties.Deduplicator}
+     * between them. The values are returned in the order of the sources, so precedence is unaffected.
+     */
+    private static RawProperties[] readSources(
+            List<PropertySource> propertySources,
+            Bootstrap bootstrap,
+            final Metrics metrics) {
+        final RawProperties.Deduplicator strings = new RawProperties.Deduplicator();
+        List<Callable<RawProperties>> tasks = new ArrayList<Callable<RawProperties>>();
+        for (final PropertySource propertySource : propertySources) {
+            tasks.add(new Callable<RawProperties>() {
+                @Override
+                public RawProperties call() {
+                    long start = metrics.start();
+                    RawProperties values = RawProperties.read(propertySource, strings);
+                    metrics.sourceLoaded(propertySource, start);
+                    return values;
+                }
+            });
+        }
+        List<RawProperties> loadedValues = bootstrap.invokeAll(tasks);
+        return loadedValues.toArray(new RawProperties[loadedValues.size()]);
+    }
+
+    /**
+     * Finds the bindings of the top level provider interfaces, reflecting over them in parallel if the bootstrap
+     * allows. The bindings of any groups they declare are found afterwards, by {@link #bindProvider}.
+     */
+    private static Map<Class<?>, ProviderBinding<?>> bindingsFor(
+            List<Class<?>> providerClasses,
+            final ProviderFactory providerFactory,
+            Bootstrap bootstrap) {
+        List<Callable<ProviderBinding<?>>> tasks = new ArrayList<Callable<ProviderBinding<?>>>();
+        for (final Class<?> providerClass : providerClasses) {
+            tasks.add(new Callable<ProviderBinding<?>>() {
+                @Override
+                public ProviderBinding<?> call() {
+                    return ProviderBindings.bindingFor(providerClass, providerFactory);
+                }
+            });
+        }
+        List<ProviderBinding<?>> bindings = bootstrap.invokeAll(tasks);
+        Map<Class<?>, ProviderBinding<?>> providerBindings = new HashMap<Class<?>, ProviderBinding<?>>();
+        for (int i = 0; i < providerClasses.size(); i++) {
+            providerBindings.put(providerClasses.get(i), bindings.get(i));
+        }
+        return providerBindings;
+    }
+
+    /**
+     * Converts the raw values of lazily converted values, split into a chunk per thread if the bootstrap allows.
+     *
+     * @return the failure of each value that couldn't be converted, by property name, in the order of the values
+     */
+    private static Map<String, RuntimeException> resolveAll(
+            List<PropertySourceConfigPropertyValue<?>> values,
+            Bootstrap bootstrap) {
+        List<Callable<Map<String, RuntimeException>>> tasks = new ArrayList<Callable<Map<String, RuntimeException>>>();
+        for (final List<PropertySourceConfigPropertyValue<?>> chunk : bootstrap.partition(values)) {
+            tasks.add(new Callable<Map<String, RuntimeException>>() {
+                @Override
+                public Map<String, RuntimeException> call() {
+                    Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+                    for (PropertySourceConfigPropertyValue<?> value : chunk) {
+                        try {
+                            value.resolve();
+                        } catch (RuntimeException e) {
+                            failures.put(value.metadata().name(), e);
+                        }
+                    }
+                    return failures;
+                }
+            });
+        }
+        Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+        for (Map<String, RuntimeException> chunkFailures : bootstrap.invokeAll(tasks)) {
+            failures.putAll(chunkFailures);
+        }
+        return failures;
+    }
+
+    /**
+     * Finds the binding for a provider interface and, recursively, those of the groups it declares, checking that a
+     * converter is available for each property.
+     *
+     * @param prefix    the prefix of the group being bound, or null for a top level provider
+     * @param enclosing the provider interfaces of the enclosing groups, used to detect cycles
+     * @param failures  collects the properties no converter is available for
+     * @return the number of properties declared by the provider and its groups
+     */
+    private int bindProvider(
+            Class<?> providerClass,
+            String prefix,
+            ProviderFactory providerFactory,
+            Map<Class<?>, ProviderBinding<?>> providerBindings,
+            List<Class<?>> enclosing,
+            Map<String, RuntimeException> failures) {
+        ProviderBinding<?> providerBinding = providerBindings.get(providerClass);
+        if (providerBinding == null) {
+            providerBinding = ProviderBindings.bindingFor(providerClass, providerFactory);
+            providerBindings.put(providerClass, providerBinding);
+        }
+
+        int propertyCount = 0;
+        enclosing.add(providerClass);
+        for (PropertyBinding propertyBinding : providerBinding.properties()) {
+            if (prefix != null) {
+                propertyBinding = propertyBinding.withPrefix(prefix);
+            }
+            if (!propertyBinding.group()) {
+                propertyCount++;
+                try {
+                    converters.checkSupported(propertyBinding.valueType());
+                } catch (IllegalArgumentException e) {
+                    failures.put(propertyBinding.name(), e);
+                }
+            } else if (enclosing.contains(propertyBinding.returnType())) {
+                throw new IllegalArgumentException("Property group " + propertyBinding.methodName() + " of "
+                        + providerClass.getName() + " nests its own provider "
+                        + propertyBinding.returnType().getName());
             } else {
-                configPropertyValues.put(method, new PropertySourceConfigPropertyValue<List<Object>>(
-                        Optional.of(items),
-                        configProperty,
-                        embeddedParameterizedType.toString(),
-                        source,
-                        !source.isPresent()));
+                propertyCount += bindProvider(propertyBinding.returnType(), propertyBinding.name(), providerFactory,
+                        providerBindings, enclosing, failures);
             }
         }
+        enclosing.remove(enclosing.size() - 1);
+        return propertyCount;
     }
 
     /**
-     * Implementation of {@link DynamicValue}
+     * Creates a provider, creating the values of its properties and the providers of its groups. A property that can't
+     * be created is recorded as a failure, and left null, so that the remaining properties are still looked at.
      *
-     * @param <T> the value type
+     * @param prefix            the prefix of the group the provider is created for, or null for a top level provider
+     * @param failures          collects the failure of each property that can't be created
+     * @param unconvertedValues collects the static values left to be converted
+     * @return the provider, along with what it was created with
      */
-    private final class PropertySourceDynamicConfigPropertyValue<T> implements DynamicValue<T> {
+    private ProviderInstance newProvider(
+            ProviderBinding<?> providerBinding,
+            String prefix,
+            Map<Class<?>, ProviderBinding<?>> providerBindings,
+            Map<String, RuntimeException> failures,
+            List<PropertySourceConfigPropertyValue<?>> unconvertedValues) {
+        List<PropertyBinding> propertyBindings = providerBinding.properties();
+        if (prefix != null) {
+            List<PropertyBinding> prefixedBindings = new ArrayList<PropertyBinding>(propertyBindings.size());
+            for (PropertyBinding propertyBinding : propertyBindings) {
+                prefixedBindings.add(propertyBinding.withPrefix(prefix));
+            }
+            propertyBindings = prefixedBindings;
+        }
+        Object[] values = new Object[propertyBindings.size()];
+        ProviderInstance[] groups = new ProviderInstance[values.length];
 
-        private Optional<T> currentValue;
+        for (int i = 0; i < values.length; i++) {
+            PropertyBinding propertyBinding = propertyBindings.get(i);
+            if (propertyBinding.group()) {
+                groups[i] = newProvider(providerBindings.get(propertyBinding.returnType()), propertyBinding.name(),
+                        providerBindings, failures, unconvertedValues);
+                values[i] = groups[i].provider();
+            } else if (!failures.containsKey(propertyBinding.name())) {
+                try {
+                    Value<?> value = createValue(propertyBinding, unconvertedValues);
+                    configPropertyValues.add(value);
+                    values[i] = value;
+                } catch (RuntimeException e) {
+                    failures.put(propertyBinding.name(), e);
+                }
+            }
+        }
+
+        return new ProviderInstance(providerBinding, propertyBindings, values, groups);
+    }
+
+    /**
+     * Finds the source a property should be loaded from, being the first source that defines it, along with its raw
+     * value there.
+     *
+     * @return the source and raw value, or null if no source defines the property
+     */
+    private Map.Entry<PropertySource, String> resolveProperty(String propertyName) {
+        String rawValue = mergedValues.value(propertyName);
+        return rawValue != null
+                ? new AbstractMap.SimpleEntry<PropertySource, String>(
+                        propertySources.get(mergedValues.source(propertyName)),
+                        interpolator.resolve(propertyName, rawValue))
+                : null;
+    }
+
+    /**
+     * Finds the raw form of a map property: the property's own value, if any source defines it, otherwise the
+     * properties beneath it, if there are any, otherwise its default value.
+     */
+    private RawMap resolveMap(PropertyBinding configProperty) {
+        Map.Entry<PropertySource, String> propertyEntry = resolveProperty(configProperty.name());
+        if (propertyEntry != null) {
+            return new RawMap(propertyEntry.getValue(), null, sourceOf(propertyEntry));
+        }
+        Map<String, String> entries = resolvePropertiesUnder(configProperty.name());
+        return !entries.isEmpty() || configProperty.defaultValue().length() == 0
+                ? new RawMap(null, entries, Optional.<PropertySource>absent())
+                : new RawMap(configProperty.defaultValue(), null, Optional.<PropertySource>absent());
+    }
+
+    /**
+     * Collects the raw values of every property beneath a prefix, keyed by their names relative to it.
+     */
+    private Map<String, String> resolvePropertiesUnder(String prefix) {
+        if (nameTree == null) {
+            nameTree = PropertyNameTree.of(mergedValues);
+        }
+        Map<String, String> rawValues = new TreeMap<String, String>();
+        for (String propertyName : nameTree.namesUnder(prefix)) {
+            rawValues.put(
+                    propertyName.substring(prefix.length() + 1),
+                    interpolator.resolve(propertyName, mergedValues.value(propertyName)));
+        }
+        return rawValues;
+    }
+
+    /**
+     * Pushes new values into dynamic properties following the reload of a property source. Static properties keep the
+     * value they were loaded with at startup.
+     * <p/>
+     * Only properties whose raw value in the reloaded source changed, or whose placeholders reference such a property,
+     * are looked at again: their precedence across sources is recomputed and, if the value they resolve to changed,
+     * they are converted and validated. Everything else is left alone. Likewise, the prefix index is only updated for
+     * the changed names and map properties are only looked at again if a changed name falls beneath their prefix.
+     * <p/>
+     * The reload is all or nothing. Every changed value is staged, off to the side of the properties themselves, then
+     * the constraints on the changed properties are checked against the staged values. Only if every value converts,
+     * passes its validator and meets its constraints are the values committed, written to a copy of the current
+     * snapshot and published in one go; readers see either all of the changes or none of them. Otherwise the reload
+     * is rejected, the manager keeps everything it had before it, and the failures are passed to any
+     * {@link ReloadFailureListener}s. Listeners of values are only notified once the new snapshot is visible.
+     */
+    private synchronized void reload(PropertySource reloadedSource) {
+        long start = metrics.start();
+        try {
+            applyReload(reloadedSource);
+        } catch (RuntimeException e) {
+            metrics.reloadFailed();
+            throw e;
+        } finally {
+            metrics.sourceReloaded(reloadedSource, start);
+        }
+    }
+
+    private void applyReload(PropertySource reloadedSource) {
+        LOG.info("Property source reloaded: " + reloadedSource.getDescription());
+        int ordinal = ordinalOf(reloadedSource);
+        RawProperties newValues = RawProperties.read(reloadedSource, new RawProperties.Deduplicator());
+        List<String> changedNames = RawProperties.changedNames(loadedValues[ordinal], newValues);
+        metrics.reloaded(changedNames.size());
+        if (changedNames.isEmpty()) {
+            return;
+        }
+        RawProperties previousValues = loadedValues[ordinal];
+        MergedProperties previousMergedValues = mergedValues;
+        loadedValues[ordinal] = newValues;
+        long mergeStart = metrics.start();
+        mergedValues = mergedValues.withChanges(changedNames, loadedValues);
+        metrics.merged(mergeStart);
+        updateNameTree(changedNames);
+        Interpolator.Update interpolation = interpolator.update(mergedValues, changedNames);
+        List<String> affectedNames = interpolation.affectedNames();
+
+        List<DynamicProperty> affectedProperties = new ArrayList<DynamicProperty>();
+        for (String propertyName : affectedNames) {
+            List<DynamicProperty> propertiesWithName = dynamicPropertiesByName.get(propertyName);
+            if (propertiesWithName != null) {
+                affectedProperties.addAll(propertiesWithName);
+            }
+        }
+        Set<DynamicProperty> affectedMapProperties = affectedMapProperties(affectedNames);
+        if (!affectedMapProperties.isEmpty() && nameTree == null) {
+            // Built up front, as map properties may be staged in parallel
+            nameTree = PropertyNameTree.of(mergedValues);
+        }
+        affectedProperties.addAll(affectedMapProperties);
+
+        Staging staging = stageAll(affectedProperties);
+        if (staging.failures.isEmpty()) {
+            staging.failures.putAll(checkConstraints(constraintsOn(staging.staged), staging.stagedValues()));
+        }
+        if (!staging.failures.isEmpty()) {
+            loadedValues[ordinal] = previousValues;
+            mergedValues = previousMergedValues;
+            updateNameTree(changedNames);
+            interpolation.revert();
+            metrics.reloadFailed();
+            rejectReload(reloadedSource, new InvalidPropertiesException(staging.failures));
+            return;
+        }
+
+        List<ValueChange> changes = new ArrayList<ValueChange>();
+        if (!staging.staged.isEmpty()) {
+            PropertySnapshot.Builder nextSnapshot = snapshots.get().toBuilder();
+            for (StagedValue staged : staging.staged) {
+                staged.property.commit(staged, changes);
+                staged.property.writeTo(nextSnapshot);
+            }
+            PropertySnapshot snapshot = nextSnapshot.build();
+            snapshots.set(snapshot);
+            metrics.snapshotPublished();
+            snapshotChanges.publish(snapshot);
+            if (reporter != null) {
+                for (StagedValue staged : staging.staged) {
+                    reporter.propertyLoaded(staged.property.value);
+                }
+            }
+        }
+        for (ValueChange change : changes) {
+            change.fire();
+        }
+    }
+
+    /**
+     * Brings the prefix index, if it's been built, in line with the merged values for the given names.
+     */
+    private void updateNameTree(List<String> changedNames) {
+        if (nameTree == null) {
+            return;
+        }
+        for (String propertyName : changedNames) {
+            if (mergedValues.contains(propertyName)) {
+                nameTree.add(propertyName);
+            } else {
+                nameTree.remove(propertyName);
+            }
+        }
+    }
+
+    /**
+     * Stages the new value of each of the given properties, split into a chunk per thread if there are enough of them
+     * to be worth it and the manager was built with more than one thread, in which case the same pool is reused by
+     * every such reload. Staging only reads the merged values and prefix index, so the chunks don't interfere with
+     * each other.
+     */
+    private Staging stageAll(List<DynamicProperty> properties) {
+        Bootstrap bootstrap = Bootstrap.serial();
+        if (properties.size() > PARALLEL_RELOAD_THRESHOLD && reloadParallelism > 1) {
+            if (stagingBootstrap == null) {
+                stagingBootstrap = Bootstrap.reusable(reloadParallelism);
+            }
+            bootstrap = stagingBootstrap;
+        }
+        List<Callable<Staging>> tasks = new ArrayList<Callable<Staging>>();
+        for (final List<DynamicProperty> chunk : bootstrap.partition(properties)) {
+            tasks.add(new Callable<Staging>() {
+                @Override
+                public Staging call() {
+                    Staging staging = new Staging();
+                    for (DynamicProperty property : chunk) {
+                        staging.stage(property);
+                    }
+                    return staging;
+                }
+            });
+        }
+        Staging staging = new Staging();
+        for (Staging chunkStaging : bootstrap.invokeAll(tasks)) {
+            staging.staged.addAll(chunkStaging.staged);
+            staging.failures.putAll(chunkStaging.failures);
+        }
+        return staging;
+    }
+
+    /**
+     * Finds the constraints on any of the staged properties.
+     */
+    private List<PropertyConstraint> constraintsOn(List<StagedValue> staged) {
+        if (constraintsByName.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<PropertyConstraint> affectedConstraints = new LinkedHashSet<PropertyConstraint>();
+        for (StagedValue stagedValue : staged) {
+            List<PropertyConstraint> constraintsWithName = constraintsByName.get(stagedValue.property.binding.name());
+            if (constraintsWithName != null) {
+                affectedConstraints.addAll(constraintsWithName);
+            }
+        }
+        return new ArrayList<PropertyConstraint>(affectedConstraints);
+    }
+
+    /**
+     * Checks each constraint against the current values of its properties, or the values given in their place, such as
+     * the values staged by a reload.
+     *
+     * @return the failure of each constraint that isn't met, keyed by its description
+     */
+    private Map<String, RuntimeException> checkConstraints(
+            List<PropertyConstraint> constraintsToCheck,
+            Map<String, Object> replacedValues) {
+        Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+        for (PropertyConstraint constraint : constraintsToCheck) {
+            try {
+                Map<String, Object> values = new HashMap<String, Object>();
+                for (String propertyName : constraint.propertyNames()) {
+                    values.put(propertyName, constrainedValue(propertyName, replacedValues));
+                }
+                constraint.check(values);
+            } catch (RuntimeException e) {
+                failures.put(constraint.toString(), e);
+            }
+        }
+        return failures;
+    }
+
+    private Object constrainedValue(String propertyName, Map<String, Object> replacedValues) {
+        if (replacedValues.containsKey(propertyName)) {
+            return replacedValues.get(propertyName);
+        }
+        List<DynamicProperty> properties = dynamicPropertiesByName.get(propertyName);
+        if (properties == null) {
+            properties = dynamicMapPropertiesByPrefix.get(propertyName);
+        }
+        if (properties != null) {
+            return properties.get(0).convertedValue();
+        }
+        Supplier<?> staticValue = constrainedStaticValues.get(propertyName);
+        if (staticValue == null) {
+            throw new IllegalArgumentException("Constraint names a property no provider declares: " + propertyName);
+        }
+        return staticValue.get();
+    }
+
+    private void rejectReload(PropertySource reloadedSource, InvalidPropertiesException failures) {
+        LOG.error("Rejected reload of property source, keeping current values: " + reloadedSource.getDescription()
+                + "\n" + failures.getMessage());
+        for (ReloadFailureListener listener : reloadFailureListeners) {
+            try {
+                listener.reloadRejected(reloadedSource, failures);
+            } catch (RuntimeException e) {
+                LOG.error("Reload failure listener failed for property source: " + reloadedSource.getDescription(), e);
+            }
+        }
+    }
+
+    /**
+     * Finds the dynamic map properties named by, or whose name is a parent of, any of the given names, by looking up
+     * each name and its parents in turn, e.g. {@code db.shards.0}, {@code db.shards} and {@code db} for
+     * {@code db.shards.0}.
+     */
+    private Set<DynamicProperty> affectedMapProperties(List<String> changedNames) {
+        if (dynamicMapPropertiesByPrefix.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<DynamicProperty> affectedProperties = new LinkedHashSet<DynamicProperty>();
+        for (String propertyName : changedNames) {
+            for (int end = propertyName.length(); end > 0; end = propertyName.lastIndexOf('.', end - 1)) {
+                List<DynamicProperty> propertiesWithPrefix = dynamicMapPropertiesByPrefix.get(
+                        propertyName.substring(0, end));
+                if (propertiesWithPrefix != null) {
+                    affectedProperties.addAll(propertiesWithPrefix);
+                }
+            }
+        }
+        return affectedProperties;
+    }
+
+    private int ordinalOf(PropertySource propertySource) {
+        for (int i = 0; i < propertySources.size(); i++) {
+            if (propertySources.get(i) == propertySource) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown property source: " + propertySource.getDescription());
+    }
+
+    /**
+     * @param unconvertedValues collects static, non-primitive values, which are created holding their raw value and
+     *                          converted once every value has been created
+     * @throws IllegalStateException if the property is required but no source defines it
+     */
+    private Value<?> createValue(
+            PropertyBinding configProperty,
+            List<PropertySourceConfigPropertyValue<?>> unconvertedValues) {
+        Type type = configProperty.valueType();
+        if (type instanceof ParameterizedType && Map.class.equals(((ParameterizedType) type).getRawType())) {
+            return createMapValue(configProperty);
+        }
+
+        Map.Entry<PropertySource, String> propertyEntry = resolveProperty(configProperty.name());
+        if (propertyEntry == null && configProperty.required()) {
+            throw new IllegalStateException("Required property is not defined by any property source");
+        }
+        String rawValue = propertyEntry != null ? propertyEntry.getValue() : configProperty.defaultValue();
+
+        Optional<PropertySource> source = sourceOf(propertyEntry);
+
+        ConfigPropertyValidator<Object> validator = validatorFor(configProperty);
+        PropertyMetadata metadata = new SimpleConfigPropertyMetadata(
+                configProperty, typeName(type), configProperty.dynamic(), source, !source.isPresent());
+        AccessTracker.PropertyAccess access = accessTracker != null
+                ? accessTracker.register(configProperty.name())
+                : null;
+
+        if (configProperty.dynamic()) {
+            DynamicProperty dynamicProperty = new DynamicProperty(
+                    configProperty, dynamicProperties.size(), rawValue, source, validator, metadata, access);
+            dynamicProperties.add(dynamicProperty);
+            List<DynamicProperty> propertiesWithName = dynamicPropertiesByName.get(configProperty.name());
+            if (propertiesWithName == null) {
+                propertiesWithName = new ArrayList<DynamicProperty>();
+                dynamicPropertiesByName.put(configProperty.name(), propertiesWithName);
+            }
+            propertiesWithName.add(dynamicProperty);
+            return dynamicProperty.value;
+        } else if (int.class.equals(type)) {
+            int intValue = convertToInt(configProperty.name(), source, rawValue);
+            checkStaticValue(configProperty, validator, intValue);
+            return new PrimitivePropertyValues.PropertySourceIntValue(intValue, metadata, access);
+        } else if (long.class.equals(type)) {
+            long longValue = convertToLong(configProperty.name(), source, rawValue);
+            checkStaticValue(configProperty, validator, longValue);
+            return new PrimitivePropertyValues.PropertySourceLongValue(longValue, metadata, access);
+        } else if (boolean.class.equals(type)) {
+            boolean booleanValue = convertToBoolean(configProperty.name(), source, rawValue);
+            checkStaticValue(configProperty, validator, booleanValue);
+            return new PrimitivePropertyValues.PropertySourceBooleanValue(booleanValue, metadata, access);
+        }
+
+        final PropertySourceConfigPropertyValue<Object> value =
+                new PropertySourceConfigPropertyValue<Object>(type, rawValue, validator, metadata, access);
+        unconvertedValues.add(value);
+        if (constraintsByName.containsKey(configProperty.name())) {
+            constrainedStaticValues.put(configProperty.name(), new Supplier<Object>() {
+                @Override
+                public Object get() {
+                    return value.resolve().orNull();
+                }
+            });
+        }
+        return value;
+    }
+
+    /**
+     * Finds the validator named by a property, creating it if no other property has named it yet.
+     *
+     * @return the validator, or null if the property doesn't name one
+     * @throws IllegalArgumentException if the validator can't be created
+     */
+    @SuppressWarnings("unchecked")
+    private ConfigPropertyValidator<Object> validatorFor(PropertyBinding configProperty) {
+        Class<? extends ConfigPropertyValidator> validatorClass = configProperty.validatorClass();
+        if (validatorClass == null || validatorClass == DoNothingValidator.class) {
+            return null;
+        }
+        ConfigPropertyValidator<Object> validator = validators.get(validatorClass);
+        if (validator == null) {
+            try {
+                validator = validatorClass.newInstance();
+            } catch (InstantiationException e) {
+                throw new IllegalArgumentException("Cannot create validator " + validatorClass.getName(), e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot create validator " + validatorClass.getName(), e);
+            }
+            validators.put(validatorClass, validator);
+        }
+        return validator;
+    }
+
+    /**
+     * Validates the converted value of a static property, keeping hold of it if a constraint names the property.
+     */
+    private void checkStaticValue(
+            PropertyBinding configProperty, ConfigPropertyValidator<Object> validator, Object value) {
+        validate(validator, value);
+        if (constraintsByName.containsKey(configProperty.name())) {
+            constrainedStaticValues.put(configProperty.name(), Suppliers.ofInstance(value));
+        }
+    }
+
+    private static void validate(ConfigPropertyValidator<Object> validator, Object value) {
+        if (validator != null) {
+            validator.validate(value);
+        }
+    }
+
+    /**
+     * Creates the value of a map property, either parsed from {@code key=value} pairs or holding every property beneath
+     * the property name keyed by its name relative to it (see {@link #resolveMap(PropertyBinding)}). The values of
+     * properties beneath the name may come from several sources, so no single source is recorded in its metadata.
+     */
+    private Value<?> createMapValue(PropertyBinding configProperty) {
+        Type type = configProperty.valueType();
+        RawMap rawMap = resolveMap(configProperty);
+        ConfigPropertyValidator<Object> validator = validatorFor(configProperty);
+        PropertyMetadata metadata = new SimpleConfigPropertyMetadata(configProperty, typeName(type),
+                configProperty.dynamic(), rawMap.source, rawMap.loadedFromDefaultValue(configProperty));
+        AccessTracker.PropertyAccess access = accessTracker != null
+                ? accessTracker.register(configProperty.name())
+                : null;
+
+        if (configProperty.dynamic()) {
+            DynamicProperty dynamicProperty = new DynamicProperty(
+                    configProperty, dynamicProperties.size(), rawMap, validator, metadata, access);
+            dynamicProperties.add(dynamicProperty);
+            List<DynamicProperty> propertiesWithPrefix = dynamicMapPropertiesByPrefix.get(configProperty.name());
+            if (propertiesWithPrefix == null) {
+                propertiesWithPrefix = new ArrayList<DynamicProperty>();
+                dynamicMapPropertiesByPrefix.put(configProperty.name(), propertiesWithPrefix);
+            }
+            propertiesWithPrefix.add(dynamicProperty);
+            return dynamicProperty.value;
+        }
+        Object mapValue = convertMap(type, rawMap);
+        checkStaticValue(configProperty, validator, mapValue);
+        return new PropertySourceConfigPropertyValue<Object>(Optional.of(mapValue), metadata, access);
+    }
+
+    private Object convertMap(Type type, RawMap rawMap) {
+        long start = metrics.start();
+        Object value = rawMap.pairs != null
+                ? collectionConverter.convert(type, rawMap.pairs)
+                : collectionConverter.convertEntries((ParameterizedType) type, rawMap.entries);
+        metrics.converted(collectionConverter, start);
+        return value;
+    }
+
+    private Object convert(Type type, String rawValue) {
+        long start = metrics.start();
+        if (CollectionConverter.supports(type)) {
+            Object value = collectionConverter.convert(type, rawValue);
+            metrics.converted(collectionConverter, start);
+            return value;
+        }
+        PropertyConverter<?> converter = converters.converterFor((Class<?>) type);
+        Object value = converter.convert(rawValue);
+        metrics.converted(converter, start);
+        return value;
+    }
+
+    private int convertToInt(String propertyName, Optional<PropertySource> source, String rawValue) {
+        PreconvertedPropertySource preconverted = preconvertedSource(source, Integer.class, IntegerConverter.class);
+        if (preconverted != null && preconverted.hasLongValue(propertyName)) {
+            long value = preconverted.getLongValue(propertyName);
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+        }
+        PropertyConverter<?> converter = converters.converterFor(Integer.class);
+        long start = metrics.start();
+        int value = converter instanceof IntPropertyConverter
+                ? ((IntPropertyConverter) converter).convertToInt(rawValue)
+                : (Integer) converter.convert(rawValue);
+        metrics.converted(converter, start);
+        return value;
+    }
+
+    private long convertToLong(String propertyName, Optional<PropertySource> source, String rawValue) {
+        PreconvertedPropertySource preconverted = preconvertedSource(source, Long.class, LongConverter.class);
+        if (preconverted != null && preconverted.hasLongValue(propertyName)) {
+            return preconverted.getLongValue(propertyName);
+        }
+        PropertyConverter<?> converter = converters.converterFor(Long.class);
+        long start = metrics.start();
+        long value = converter instanceof LongPropertyConverter
+                ? ((LongPropertyConverter) converter).convertToLong(rawValue)
+                : (Long) converter.convert(rawValue);
+        metrics.converted(converter, start);
+        return value;
+    }
+
+    private boolean convertToBoolean(String propertyName, Optional<PropertySource> source, String rawValue) {
+        PreconvertedPropertySource preconverted = preconvertedSource(source, Boolean.class, BooleanConverter.class);
+        if (preconverted != null && preconverted.hasBooleanValue(propertyName)) {
+            return preconverted.getBooleanValue(propertyName);
+        }
+        PropertyConverter<?> converter = converters.converterFor(Boolean.class);
+        long start = metrics.start();
+        boolean value = converter instanceof BooleanPropertyConverter
+                ? ((BooleanPropertyConverter) converter).convertToBoolean(rawValue)
+                : (Boolean) converter.convert(rawValue);
+        metrics.converted(converter, start);
+        return value;
+    }
+
+    /**
+     * Returns the source if it can supply preconverted values and the value type is converted by the default
+     * converter, which the preconverted values match.
+     */
+    private PreconvertedPropertySource preconvertedSource(
+            Optional<PropertySource> source,
+            Class<?> valueType,
+            Class<?> defaultConverterClass) {
+        PropertyConverter<?> converter = converters.find(valueType);
+        return source.isPresent()
+                && source.get() instanceof PreconvertedPropertySource
+                && converter != null
+                && converter.getClass() == defaultConverterClass
+                ? (PreconvertedPropertySource) source.get()
+                : null;
+    }
+
+    private static String typeName(Type type) {
+        if (type instanceof Class) {
+            Class<?> typeClass = (Class<?>) type;
+            return typeClass.isArray() ? typeClass.getComponentType().getName() + "[]" : typeClass.getName();
+        }
+        return type.toString();
+    }
+
+    /**
+     * Compares converted values, including arrays by their contents.
+     */
+    private static boolean sameValue(Optional<Object> value, Optional<Object> otherValue) {
+        return Arrays.deepEquals(new Object[]{value.orNull()}, new Object[]{otherValue.orNull()});
+    }
+
+    private static Optional<PropertySource> sourceOf(Map.Entry<PropertySource, String> propertyEntry) {
+        return propertyEntry == null
+                ? Optional.<PropertySource>absent()
+                : Optional.of(propertyEntry.getKey());
+    }
+
+    /**
+     * A dynamic property, along with the raw value and source it was last loaded from. This is the reload thread's view
+     * of the property; readers only ever see the copy of its state held in the published snapshot.
+     */
+    private final class DynamicProperty {
+
+        private final PropertyBinding binding;
+
+        private final Type type;
+
+        private final int slot;
+
+        private final ConfigPropertyValidator<Object> validator;
+
+        private final DynamicSnapshotValue<?> value;
+
+        private String rawValue;
+
+        private RawMap rawMap;
+
+        private Optional<PropertySource> source;
 
         private PropertyMetadata metadata;
 
-        private PropertySourceDynamicConfigPropertyValue(
-                Optional<T> currentValue,
-                Property configProperty,
-                String type,
+        private Optional<Object> objectValue;
+
+        private long primitiveValue;
+
+        private DynamicProperty(
+                PropertyBinding binding,
+                int slot,
+                String rawValue,
+                Optional<PropertySource> source,
+                ConfigPropertyValidator<Object> validator,
+                PropertyMetadata metadata,
+                AccessTracker.PropertyAccess access) {
+            this.binding = binding;
+            this.type = binding.valueType();
+            this.slot = slot;
+            this.validator = validator;
+            this.rawValue = rawValue;
+            this.source = source;
+            this.metadata = metadata;
+
+            if (int.class.equals(type)) {
+                primitiveValue = convertToInt(binding.name(), source, rawValue);
+                value = new PrimitivePropertyValues.PropertySourceDynamicIntValue(
+                        snapshots, slot, listenerDispatcher, access);
+            } else if (long.class.equals(type)) {
+                primitiveValue = convertToLong(binding.name(), source, rawValue);
+                value = new PrimitivePropertyValues.PropertySourceDynamicLongValue(
+                        snapshots, slot, listenerDispatcher, access);
+            } else if (boolean.class.equals(type)) {
+                primitiveValue = convertToBoolean(binding.name(), source, rawValue) ? 1 : 0;
+                value = new PrimitivePropertyValues.PropertySourceDynamicBooleanValue(
+                        snapshots, slot, listenerDispatcher, access);
+            } else {
+                objectValue = Optional.of(convert(type, rawValue));
+                value = new PropertySourceDynamicConfigPropertyValue<Object>(
+                        snapshots, slot, listenerDispatcher, access);
+            }
+            validate(validator, convertedValue());
+        }
+
+        /**
+         * Constructor for a map property.
+         */
+        private DynamicProperty(
+                PropertyBinding binding,
+                int slot,
+                RawMap rawMap,
+                ConfigPropertyValidator<Object> validator,
+                PropertyMetadata metadata,
+                AccessTracker.PropertyAccess access) {
+            this.binding = binding;
+            this.type = binding.valueType();
+            this.slot = slot;
+            this.validator = validator;
+            this.rawMap = rawMap;
+            this.source = rawMap.source;
+            this.metadata = metadata;
+            objectValue = Optional.of(convertMap(type, rawMap));
+            value = new PropertySourceDynamicConfigPropertyValue<Object>(snapshots, slot, listenerDispatcher, access);
+            validate(validator, convertedValue());
+        }
+
+        /**
+         * @return the current value, with primitives boxed
+         */
+        private Object convertedValue() {
+            return objectValue == null ? boxed(primitiveValue) : objectValue.orNull();
+        }
+
+        /**
+         * Converts and validates the property's new raw value, or its new raw form for a map property, leaving the
+         * property itself untouched. Safe to call for different properties at once, but not alongside a commit.
+         *
+         * @return the staged value, or null if the raw value hasn't changed
+         * @throws RuntimeException if the property is required but no longer defined, or the new value can't be
+         *                          converted or is invalid
+         */
+        private StagedValue stage() {
+            if (rawMap != null) {
+                return stageMap();
+            }
+            Map.Entry<PropertySource, String> propertyEntry = resolveProperty(binding.name());
+            if (propertyEntry == null && binding.required()) {
+                throw new IllegalStateException("Required property is no longer defined by any property source");
+            }
+
+            String newRawValue = propertyEntry != null ? propertyEntry.getValue() : binding.defaultValue();
+            Optional<PropertySource> newSource = sourceOf(propertyEntry);
+            if (newRawValue.equals(rawValue) && newSource.equals(source)) {
+                return null;
+            }
+
+            StagedValue staged = new StagedValue(this, newRawValue, null, newSource, !newSource.isPresent());
+            if (objectValue == null) {
+                staged.primitiveValue = int.class.equals(type)
+                        ? convertToInt(binding.name(), newSource, newRawValue)
+                        : long.class.equals(type)
+                        ? convertToLong(binding.name(), newSource, newRawValue)
+                        : convertToBoolean(binding.name(), newSource, newRawValue) ? 1 : 0;
+            } else {
+                staged.objectValue = Optional.of(convert(type, newRawValue));
+            }
+            validate(validator, staged.convertedValue());
+            return staged;
+        }
+
+        private StagedValue stageMap() {
+            RawMap newRawMap = resolveMap(binding);
+            if (newRawMap.equals(rawMap)) {
+                return null;
+            }
+            StagedValue staged = new StagedValue(
+                    this, null, newRawMap, newRawMap.source, newRawMap.loadedFromDefaultValue(binding));
+            staged.objectValue = Optional.of(convertMap(type, newRawMap));
+            validate(validator, staged.convertedValue());
+            return staged;
+        }
+
+        /**
+         * Takes on a staged value, recording the change if the converted value differs.
+         */
+        private void commit(StagedValue staged, List<ValueChange> changes) {
+            if (objectValue == null) {
+                if (staged.primitiveValue != primitiveValue) {
+                    changes.add(new ValueChange(value, boxed(primitiveValue), boxed(staged.primitiveValue)));
+                }
+                primitiveValue = staged.primitiveValue;
+            } else {
+                if (!sameValue(staged.objectValue, objectValue)) {
+                    changes.add(new ValueChange(value, objectValue.orNull(), staged.objectValue.orNull()));
+                }
+                objectValue = staged.objectValue;
+            }
+            rawValue = staged.rawValue;
+            rawMap = staged.rawMap;
+            source = staged.source;
+            metadata = new SimpleConfigPropertyMetadata(
+                    binding, typeName(type), true, staged.source, staged.loadedFromDefaultValue);
+        }
+
+        private void writeTo(PropertySnapshot.Builder snapshot) {
+            if (objectValue == null) {
+                snapshot.primitive(slot, primitiveValue, metadata);
+            } else {
+                snapshot.value(slot, objectValue, metadata);
+            }
+        }
+
+        private Object boxed(long primitive) {
+            return int.class.equals(type)
+                    ? Integer.valueOf((int) primitive)
+                    : long.class.equals(type)
+                    ? Long.valueOf(primitive)
+                    : Boolean.valueOf(primitive != 0);
+        }
+    }
+
+    /**
+     * The converted and validated new value of a dynamic property, waiting to be committed once every other value in
+     * the same reload has been staged and the constraints checked.
+     */
+    private static final class StagedValue {
+
+        private final DynamicProperty property;
+
+        private final String rawValue;
+
+        private final RawMap rawMap;
+
+        private final Optional<PropertySource> source;
+
+        private final boolean loadedFromDefaultValue;
+
+        private Optional<Object> objectValue;
+
+        private long primitiveValue;
+
+        private StagedValue(
+                DynamicProperty property,
+                String rawValue,
+                RawMap rawMap,
                 Optional<PropertySource> source,
                 boolean loadedFromDefaultValue) {
-            this.currentValue = currentValue;
-            this.metadata = new SimpleConfigPropertyMetadata(
-                    configProperty, type, true, source, loadedFromDefaultValue);
+            this.property = property;
+            this.rawValue = rawValue;
+            this.rawMap = rawMap;
+            this.source = source;
+            this.loadedFromDefaultValue = loadedFromDefaultValue;
+        }
 
-            //LOG.info("Loaded config property: @(name = " + configProperty.name() + ", type = " + type + ", value = " + currentValue.orNull() + ", from = " + (!loadedFromDefaultValue ? source.get().getDescription() : "default value") + ")");
+        private Object convertedValue() {
+            return objectValue == null ? property.boxed(primitiveValue) : objectValue.orNull();
         }
+    }
 
-        @Override
-        public Optional<T> currentValue() {
-            return currentValue;
+    /**
+     * The values staged by a reload, along with the failure of each property that couldn't be staged.
+     */
+    private static final class Staging {
+
+        private final List<StagedValue> staged = new ArrayList<StagedValue>();
+
+        private final Map<String, RuntimeException> failures = new LinkedHashMap<String, RuntimeException>();
+
+        private void stage(DynamicProperty property) {
+            try {
+                StagedValue stagedValue = property.stage();
+                if (stagedValue != null) {
+                    staged.add(stagedValue);
+                }
+            } catch (RuntimeException e) {
+                failures.put(property.binding.name(), e);
+            }
         }
 
-        @Override
-        public Optional<DateTime> lastAccessed() {
-            return null;
+        private Map<String, Object> stagedValues() {
+            Map<String, Object> stagedValues = new HashMap<String, Object>();
+            for (StagedValue stagedValue : staged) {
+                stagedValues.put(stagedValue.property.binding.name(), stagedValue.convertedValue());
+            }
+            return stagedValues;
+        }
+    }
+
+    /**
+     * The raw form of a map property: either a list of {@code key=value} pairs, from the property itself or its default
+     * value, or the raw values of the properties beneath it keyed by their relative names.
+     */
+    private static final class RawMap {
+
+        private final String pairs;
+
+        private final Map<String, String> entries;
+
+        private final Optional<PropertySource> source;
+
+        private RawMap(String pairs, Map<String, String> entries, Optional<PropertySource> source) {
+            this.pairs = pairs;
+            this.entries = entries;
+            this.source = source;
+        }
+
+        private boolean loadedFromDefaultValue(PropertyBinding binding) {
+            return !source.isPresent() && (pairs != null || binding.defaultValue().length() == 0);
         }
 
         @Override
-        public PropertyMetadata metadata() {
-            return metadata;
+        public boolean equals(Object o) {
+            if (!(o instanceof RawMap)) {
+                return false;
+            }
+            RawMap other = (RawMap) o;
+            return (pairs == null ? other.pairs == null : pairs.equals(other.pairs))
+                    && (entries == null ? other.entries == null : entries.equals(other.entries))
+                    && source.equals(other.source);
         }
 
         @Override
-        public void addListener(ValueListener<T> listener) {
-            throw new UnsupportedOperationException();
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{pairs, entries, source});
+        }
+    }
+
+    /**
+     * A change to a dynamic value, to be passed to its listeners once the snapshot containing it has been published.
+     */
+    private static final class ValueChange {
+
+        private final DynamicSnapshotValue<Object> value;
+
+        private final Object oldValue;
+
+        private final Object newValue;
+
+        @SuppressWarnings("unchecked")
+        private ValueChange(DynamicSnapshotValue<?> value, Object oldValue, Object newValue) {
+            this.value = (DynamicSnapshotValue<Object>) value;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        private void fire() {
+            value.fireValueChanged(oldValue, newValue);
+        }
+    }
+
+    /**
+     * Implementation of {@link DynamicValue}. The value lives in the manager's current {@link PropertySnapshot}.
+     *
+     * @param <T> the value type
+     */
+    private static final class PropertySourceDynamicConfigPropertyValue<T> extends DynamicSnapshotValue<T> {
+
+        private PropertySourceDynamicConfigPropertyValue(
+                AtomicReference<PropertySnapshot> snapshots,
+                int slot,
+                ListenerDispatcher dispatcher,
+                AccessTracker.PropertyAccess access) {
+            super(snapshots, slot, dispatcher, access);
         }
 
         @Override
-        public void removeListener(ValueListener<T> listener) {
-            throw new UnsupportedOperationException();
+        @SuppressWarnings("unchecked")
+        Optional<T> valueIn(PropertySnapshot snapshot) {
+            return (Optional<T>) snapshot.value(slot());
         }
     }
 
     /**
      * Implementation of {@link Value}
+     * <p/>
+     * A lazily converted value holds on to its raw value until it's first read. The converted value is an immutable
+     * {@link Optional}, so once set it's safely visible to other threads through a plain field read; conversion itself
+     * is synchronized so that it happens only once.
      *
      * @param <T> the value type
      */
@@ -238,29 +1463,67 @@ public class PropertySourcePropertyManager implements PropertyManager {
 
         private Optional<T> currentValue;
 
+        private Type type;
+
+        private String rawValue;
+
+        private ConfigPropertyValidator<Object> validator;
+
         private PropertyMetadata metadata;
 
+        private AccessTracker.PropertyAccess access;
+
         private PropertySourceConfigPropertyValue(
                 Optional<T> currentValue,
-                Property configProperty,
-                String type,
-                Optional<PropertySource> source,
-                boolean loadedFromDefaultValue) {
+                PropertyMetadata metadata,
+                AccessTracker.PropertyAccess access) {
             this.currentValue = currentValue;
-            this.metadata = new SimpleConfigPropertyMetadata(
-                    configProperty, type, false, source, loadedFromDefaultValue);
+            this.metadata = metadata;
+            this.access = access;
             //LOG.info("Loaded config property: @(name = " + configProperty.name() + ", type = " + type + ", value = " + currentValue.orNull() + ", from = " + (!loadedFromDefaultValue ? source.get().getDescription() : "default value") + ")");
 
         }
 
+        private PropertySourceConfigPropertyValue(
+                Type type,
+                String rawValue,
+                ConfigPropertyValidator<Object> validator,
+                PropertyMetadata metadata,
+                AccessTracker.PropertyAccess access) {
+            this.type = type;
+            this.rawValue = rawValue;
+            this.validator = validator;
+            this.metadata = metadata;
+            this.access = access;
+        }
+
         @Override
         public Optional<T> currentValue() {
+            if (access != null) {
+                access.record();
+            }
+            Optional<T> value = currentValue;
+            return value != null ? value : resolve();
+        }
+
+        /**
+         * Converts and validates the raw value if that hasn't happened yet.
+         */
+        @SuppressWarnings("unchecked")
+        private synchronized Optional<T> resolve() {
+            if (currentValue == null) {
+                T value = (T) convert(type, rawValue);
+                validate(validator, value);
+                currentValue = Optional.of(value);
+                rawValue = null;
+                validator = null;
+            }
             return currentValue;
         }
 
         @Override
         public Optional<DateTime> lastAccessed() {
-            return null;
+            return AccessTracker.PropertyAccess.lastAccessed(access);
         }
 
         @Override
@@ -284,7 +1547,7 @@ public class PropertySourcePropertyManager implements PropertyManager {
      */
     private final class SimpleConfigPropertyMetadata implements PropertyMetadata {
 
-        private Property configProperty;
+        private PropertyBinding configProperty;
 
         private Optional<PropertySource> source;
 
@@ -295,7 +1558,7 @@ public class PropertySourcePropertyManager implements PropertyManager {
         private boolean loadedFromDefaultValue;
 
         private SimpleConfigPropertyMetadata(
-                Property configProperty,
+                PropertyBinding configProperty,
                 String type,
                 boolean dynamic,
                 Optional<PropertySource> source,
@@ -332,6 +1595,14 @@ public class PropertySourcePropertyManager implements PropertyManager {
             return configProperty.required();
         }
 
+        @Override
+        public Optional<Class<? extends ConfigPropertyValidator>> validatorClass() {
+            Class<? extends ConfigPropertyValidator> validatorClass = configProperty.validatorClass();
+            return validatorClass == null || validatorClass == DoNothingValidator.class
+                    ? Optional.<Class<? extends ConfigPropertyValidator>>absent()
+                    : Optional.<Class<? extends ConfigPropertyValidator>>of(validatorClass);
+        }
+
         @Override
         public Optional<PropertySource> source() {
             return source;
@@ -342,14 +1613,4 @@ public class PropertySourcePropertyManager implements PropertyManager {
             return loadedFromDefaultValue;
         }
     }
-
-    /**
-     * Invocation handler.
-     */
-    private class ConfigPropertyInvocationHandler implements InvocationHandler {
-        @Override
-        public Object invoke(Object o, Method method, Object[] objects) throws Throwable {
-            return configPropertyValues.get(method);
-        }
-    }
 }
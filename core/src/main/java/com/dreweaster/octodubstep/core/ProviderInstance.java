@@ -0,0 +1,126 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.binding.PropertyBinding;
+import com.dreweaster.octodubstep.core.binding.ProviderBinding;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A provider created by a manager, along with the values and group providers it was created with, so that an overlay
+ * can copy it with some values replaced.
+ * <p/>
+ * Copies are made on write: a provider is only copied if an overridden property is declared by it or one of its
+ * groups, and the copy shares every other value, and every group provider left untouched, with the original. Reading
+ * a value through a copy costs exactly what it does through the original, however many overlays it was copied through.
+ */
+final class ProviderInstance {
+
+    /**
+     * Gives overridden properties their new value.
+     */
+    interface ValueOverrider {
+
+        /**
+         * @param binding the binding of the property, with the prefix of any enclosing groups applied
+         * @param current the value the provider being copied has for the property
+         * @return the value the copy should have
+         */
+        Value<?> override(PropertyBinding binding, Value<?> current);
+    }
+
+    private final ProviderBinding<?> binding;
+
+    /**
+     * The bindings of the provider's properties and groups, with the prefix of any enclosing groups applied.
+     */
+    private final List<PropertyBinding> properties;
+
+    private final Object[] values;
+
+    /**
+     * The instance of each group, at the index of its binding, or null for a property.
+     */
+    private final ProviderInstance[] groups;
+
+    /**
+     * The name of every property declared by the provider or its groups.
+     */
+    private final Set<String> names;
+
+    private final Object provider;
+
+    ProviderInstance(
+            ProviderBinding<?> binding,
+            List<PropertyBinding> properties,
+            Object[] values,
+            ProviderInstance[] groups) {
+        this(binding, properties, values, groups, namesOf(properties, groups));
+    }
+
+    private ProviderInstance(
+            ProviderBinding<?> binding,
+            List<PropertyBinding> properties,
+            Object[] values,
+            ProviderInstance[] groups,
+            Set<String> names) {
+        this.binding = binding;
+        this.properties = properties;
+        this.values = values;
+        this.groups = groups;
+        this.names = names;
+        this.provider = binding.newProvider(values);
+    }
+
+    Object provider() {
+        return provider;
+    }
+
+    /**
+     * Copies the provider, giving each of the overridden properties it or its groups declare the value the overrider
+     * returns for it.
+     *
+     * @return the copy, or this instance if it declares none of the overridden properties
+     */
+    ProviderInstance overriddenWith(Set<String> overriddenNames, ValueOverrider overrider) {
+        if (!declaresAnyOf(overriddenNames)) {
+            return this;
+        }
+        Object[] newValues = values.clone();
+        ProviderInstance[] newGroups = groups.clone();
+        for (int i = 0; i < newValues.length; i++) {
+            if (groups[i] != null) {
+                newGroups[i] = groups[i].overriddenWith(overriddenNames, overrider);
+                newValues[i] = newGroups[i].provider;
+            } else if (overriddenNames.contains(properties.get(i).name())) {
+                newValues[i] = overrider.override(properties.get(i), (Value<?>) values[i]);
+            }
+        }
+        return new ProviderInstance(binding, properties, newValues, newGroups, names);
+    }
+
+    /**
+     * Looks up each overridden name, of which there are usually far fewer than names the provider declares.
+     */
+    private boolean declaresAnyOf(Set<String> overriddenNames) {
+        for (String name : overriddenNames) {
+            if (names.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> namesOf(List<PropertyBinding> properties, ProviderInstance[] groups) {
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i] != null) {
+                names.addAll(groups[i].names);
+            } else {
+                names.add(properties.get(i).name());
+            }
+        }
+        return names;
+    }
+}
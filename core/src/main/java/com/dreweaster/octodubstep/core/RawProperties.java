@@ -0,0 +1,107 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.google.common.base.Optional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The raw values read from a property source, held in a {@link NameTable} and an array of values rather than a hash
+ * map.
+ */
+final class RawProperties {
+
+    static final RawProperties EMPTY = new RawProperties(new NameTable(0), new String[0]);
+
+    private final NameTable names;
+
+    private final String[] values;
+
+    private RawProperties(NameTable names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Reads the current values of a property source.
+     *
+     * @param source  the source
+     * @param strings the strings already held by the manager, so that names and values repeated across sources are
+     *                only held once
+     */
+    static RawProperties read(PropertySource source, Deduplicator strings) {
+        List<String> propertyNames = new ArrayList<String>();
+        for (String name : source.getPropertyNames()) {
+            propertyNames.add(name);
+        }
+
+        NameTable names = new NameTable(propertyNames.size());
+        String[] values = new String[propertyNames.size()];
+        for (String name : propertyNames) {
+            Optional<String> value = source.getValue(name);
+            if (value.isPresent()) {
+                values[names.add(strings.canonical(name))] = strings.canonical(value.get());
+            }
+        }
+        return new RawProperties(
+                names.trim(),
+                values.length == names.size() ? values : Arrays.copyOf(values, names.size()));
+    }
+
+    /**
+     * @return the names whose values differ between two versions of a source, including names added or removed
+     */
+    static List<String> changedNames(RawProperties oldProperties, RawProperties newProperties) {
+        List<String> changedNames = new ArrayList<String>();
+        for (int index = 0; index < newProperties.size(); index++) {
+            String name = newProperties.name(index);
+            if (!newProperties.value(index).equals(oldProperties.get(name))) {
+                changedNames.add(name);
+            }
+        }
+        for (int index = 0; index < oldProperties.size(); index++) {
+            String name = oldProperties.name(index);
+            if (newProperties.names.indexOf(name) < 0) {
+                changedNames.add(name);
+            }
+        }
+        return changedNames;
+    }
+
+    /**
+     * @return the value of the given property, or null if the source doesn't define it
+     */
+    String get(String name) {
+        int index = names.indexOf(name);
+        return index >= 0 ? values[index] : null;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String name(int index) {
+        return names.name(index);
+    }
+
+    String value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces equal strings with a single instance. Thread safe, so one can be shared by sources read in parallel.
+     */
+    static final class Deduplicator {
+
+        private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<String, String>();
+
+        String canonical(String string) {
+            String canonical = strings.putIfAbsent(string, string);
+            return canonical != null ? canonical : string;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+
+import java.util.List;
+
+/**
+ * The index of raw property values a manager keeps, built from a list of sources just as a manager builds it, so the
+ * benchmarks can measure it on its own. Not meant for use outside them.
+ */
+public final class RawPropertyIndex {
+
+    private final RawProperties[] sources;
+
+    private final MergedProperties merged;
+
+    private RawPropertyIndex(RawProperties[] sources, MergedProperties merged) {
+        this.sources = sources;
+        this.merged = merged;
+    }
+
+    /**
+     * Reads and merges the values of several sources.
+     *
+     * @param sources the sources, highest precedence first
+     */
+    public static RawPropertyIndex of(List<PropertySource> sources) {
+        RawProperties[] rawProperties = new RawProperties[sources.size()];
+        RawProperties.Deduplicator strings = new RawProperties.Deduplicator();
+        for (int i = 0; i < rawProperties.length; i++) {
+            rawProperties[i] = RawProperties.read(sources.get(i), strings);
+        }
+        return new RawPropertyIndex(rawProperties, MergedProperties.merge(rawProperties));
+    }
+
+    /**
+     * @return the raw value of the given property in the first source defining it, or null if none does
+     */
+    public String value(String name) {
+        return merged.value(name);
+    }
+}
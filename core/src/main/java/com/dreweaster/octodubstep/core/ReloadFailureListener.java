@@ -0,0 +1,17 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+
+/**
+ * Notified when the reload of a property source is rejected because one of the values it changes can't be converted
+ * or is invalid, a required property is no longer defined, or a constraint would no longer be met. The manager keeps
+ * every value it had before the reload.
+ */
+public interface ReloadFailureListener {
+
+    /**
+     * @param source   the reloaded property source
+     * @param failures the failure of each property or constraint, see {@link InvalidPropertiesException#failures()}
+     */
+    void reloadRejected(PropertySource source, InvalidPropertiesException failures);
+}
@@ -0,0 +1,46 @@
+package com.dreweaster.octodubstep.core;
+
+import com.dreweaster.octodubstep.core.listener.ListenerDispatcher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@link ValueListener}s registered with a {@link DynamicValue}. Changes are handed to the manager's
+ * {@link ListenerDispatcher} for delivery.
+ *
+ * @param <V> the value type
+ */
+final class ValueListeners<V> {
+
+    private final DynamicValue<V> value;
+
+    private final ListenerDispatcher dispatcher;
+
+    private final List<ValueListener<V>> listeners = new CopyOnWriteArrayList<ValueListener<V>>();
+
+    ValueListeners(DynamicValue<V> value, ListenerDispatcher dispatcher) {
+        this.value = value;
+        this.dispatcher = dispatcher;
+    }
+
+    void add(ValueListener<V> listener) {
+        listeners.add(listener);
+    }
+
+    void remove(ValueListener<V> listener) {
+        if (listeners.remove(listener)) {
+            dispatcher.listenerRemoved(value, listener);
+        }
+    }
+
+    boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    void fireValueChanged(String propertyName, V oldValue, V newValue) {
+        for (ValueListener<V> listener : listeners) {
+            dispatcher.dispatch(value, propertyName, listener, oldValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.dreweaster.octodubstep.core.accessor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class file for a provider accessor: a final class implementing the provider interface that holds one
+ * final field per method and simply returns it.
+ * <p/>
+ * The generated class has a single public constructor taking an {@code Object[]} of values, in the same order as the
+ * methods passed to {@link #AccessorClassWriter(String, Class, List)}. Class file version 49 is used so that no stack
+ * map frames are required (the generated code has no branches anyway).
+ */
+final class AccessorClassWriter {
+
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+    private static final int CLASS_FILE_MAJOR_VERSION = 49;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int AALOAD = 0x32;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int CHECKCAST = 0xc0;
+
+    static final String CONSTRUCTOR_DESCRIPTOR = "([Ljava/lang/Object;)V";
+
+    private final String className;
+
+    private final Class<?> providerClass;
+
+    private final List<Method> methods;
+
+    private final ConstantPool pool = new ConstantPool();
+
+    private int codeAttribute;
+
+    AccessorClassWriter(String className, Class<?> providerClass, List<Method> methods) {
+        this.className = className;
+        this.providerClass = providerClass;
+        this.methods = methods;
+    }
+
+    byte[] toByteArray() {
+        try {
+            codeAttribute = pool.utf8("Code");
+            int thisClass = pool.classRef(internalName(className));
+            int superClass = pool.classRef("java/lang/Object");
+            int providerInterface = pool.classRef(internalName(providerClass.getName()));
+
+            ByteArrayOutputStream fieldsBytes = new ByteArrayOutputStream();
+            DataOutputStream fields = new DataOutputStream(fieldsBytes);
+            for (int i = 0; i < methods.size(); i++) {
+                fields.writeShort(ACC_PRIVATE | ACC_FINAL);
+                fields.writeShort(pool.utf8(fieldName(i)));
+                fields.writeShort(pool.utf8(descriptor(methods.get(i).getReturnType())));
+                fields.writeShort(0);
+            }
+
+            ByteArrayOutputStream methodsBytes = new ByteArrayOutputStream();
+            DataOutputStream methodsOut = new DataOutputStream(methodsBytes);
+            writeConstructor(methodsOut, thisClass, superClass);
+            for (int i = 0; i < methods.size(); i++) {
+                writeAccessor(methodsOut, thisClass, i);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(CLASS_FILE_MAGIC);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_MAJOR_VERSION);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(providerInterface);
+            out.writeShort(methods.size());
+            fieldsBytes.writeTo(out);
+            out.writeShort(methods.size() + 1);
+            methodsBytes.writeTo(out);
+            out.writeShort(0);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write accessor class for " + providerClass.getName(), e);
+        }
+    }
+
+    private void writeConstructor(DataOutputStream out, int thisClass, int superClass) throws IOException {
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        code.writeByte(ALOAD_0);
+        code.writeByte(INVOKESPECIAL);
+        code.writeShort(pool.methodRef(superClass, "<init>", "()V"));
+        for (int i = 0; i < methods.size(); i++) {
+            Class<?> returnType = methods.get(i).getReturnType();
+            code.writeByte(ALOAD_0);
+            code.writeByte(ALOAD_1);
+            pushInt(code, i);
+            code.writeByte(AALOAD);
+            code.writeByte(CHECKCAST);
+            code.writeShort(pool.classRef(internalName(returnType.getName())));
+            code.writeByte(PUTFIELD);
+            code.writeShort(pool.fieldRef(thisClass, fieldName(i), descriptor(returnType)));
+        }
+        code.writeByte(RETURN);
+
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(pool.utf8("<init>"));
+        out.writeShort(pool.utf8(CONSTRUCTOR_DESCRIPTOR));
+        writeCode(out, codeBytes.toByteArray(), 4, 2);
+    }
+
+    private void writeAccessor(DataOutputStream out, int thisClass, int index) throws IOException {
+        Method method = methods.get(index);
+        String returnDescriptor = descriptor(method.getReturnType());
+
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        code.writeByte(ALOAD_0);
+        code.writeByte(GETFIELD);
+        code.writeShort(pool.fieldRef(thisClass, fieldName(index), returnDescriptor));
+        code.writeByte(ARETURN);
+
+        out.writeShort(ACC_PUBLIC | ACC_FINAL);
+        out.writeShort(pool.utf8(method.getName()));
+        out.writeShort(pool.utf8("()" + returnDescriptor));
+        writeCode(out, codeBytes.toByteArray(), 1, 1);
+    }
+
+    private void writeCode(DataOutputStream out, byte[] code, int maxStack, int maxLocals) throws IOException {
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private void pushInt(DataOutputStream code, int value) throws IOException {
+        if (value <= 5) {
+            code.writeByte(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.writeByte(BIPUSH);
+            code.writeByte(value);
+        } else if (value <= Short.MAX_VALUE) {
+            code.writeByte(SIPUSH);
+            code.writeShort(value);
+        } else {
+            code.writeByte(LDC_W);
+            code.writeShort(pool.integer(value));
+        }
+    }
+
+    private static String fieldName(int index) {
+        return "value" + index;
+    }
+
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return internalName(type.getName());
+        }
+        return "L" + internalName(type.getName()) + ";";
+    }
+
+    /**
+     * Minimal constant pool builder.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private final Map<String, Integer> entries = new HashMap<String, Integer>();
+
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            String key = "U" + value;
+            Integer index = entries.get(key);
+            if (index == null) {
+                out.writeByte(CONSTANT_UTF8);
+                out.writeUTF(value);
+                index = register(key);
+            }
+            return index;
+        }
+
+        int integer(int value) throws IOException {
+            String key = "I" + value;
+            Integer index = entries.get(key);
+            if (index == null) {
+                out.writeByte(CONSTANT_INTEGER);
+                out.writeInt(value);
+                index = register(key);
+            }
+            return index;
+        }
+
+        int classRef(String internalName) throws IOException {
+            String key = "C" + internalName;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int name = utf8(internalName);
+                out.writeByte(CONSTANT_CLASS);
+                out.writeShort(name);
+                index = register(key);
+            }
+            return index;
+        }
+
+        int fieldRef(int owner, String name, String descriptor) throws IOException {
+            return memberRef(CONSTANT_FIELDREF, owner, name, descriptor);
+        }
+
+        int methodRef(int owner, String name, String descriptor) throws IOException {
+            return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, int owner, String name, String descriptor) throws IOException {
+            String key = "M" + tag + ":" + owner + ":" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int nameAndType = nameAndType(name, descriptor);
+                out.writeByte(tag);
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+                index = register(key);
+            }
+            return index;
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int nameIndex = utf8(name);
+                int descriptorIndex = utf8(descriptor);
+                out.writeByte(CONSTANT_NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+                index = register(key);
+            }
+            return index;
+        }
+
+        private int register(String key) {
+            int index = count++;
+            entries.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dreweaster.octodubstep.core.accessor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ProviderFactory} that generates a real implementation class for each provider interface, so calling a
+ * provider method is a plain field read rather than a reflective dispatch and map lookup.
+ * <p/>
+ * Provider interfaces that can't be implemented this way (non-public interfaces, or interfaces declaring methods that
+ * aren't {@link com.dreweaster.octodubstep.core.Property} or {@link com.dreweaster.octodubstep.core.PropertyGroup}
+ * methods) are handed to the fallback factory instead.
+ */
+public final class GeneratedProviderFactory implements ProviderFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratedProviderFactory.class);
+
+    private static final String ACCESSOR_CLASS_SUFFIX = "$$OctodubstepAccessor$";
+
+    private static final AtomicInteger ACCESSOR_COUNTER = new AtomicInteger();
+
+    private ProviderFactory fallback;
+
+    public GeneratedProviderFactory() {
+        this(new ProxyProviderFactory());
+    }
+
+    public GeneratedProviderFactory(ProviderFactory fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public <T> T newProvider(Class<T> providerClass, Map<Method, ?> values) {
+        List<Method> methods = accessorMethods(providerClass, values);
+        if (methods == null) {
+            return fallback.newProvider(providerClass, values);
+        }
+
+        Object[] methodValues = new Object[methods.size()];
+        for (int i = 0; i < methods.size(); i++) {
+            methodValues[i] = values.get(methods.get(i));
+        }
+
+        try {
+            Class<?> accessorClass = defineAccessorClass(providerClass, methods);
+            Constructor<?> constructor = accessorClass.getConstructor(Object[].class);
+            return providerClass.cast(constructor.newInstance(new Object[]{methodValues}));
+        } catch (Exception e) {
+            LOG.warn("Unable to generate accessor for " + providerClass.getName() + ", falling back", e);
+            return fallback.newProvider(providerClass, values);
+        } catch (LinkageError e) {
+            LOG.warn("Unable to generate accessor for " + providerClass.getName() + ", falling back", e);
+            return fallback.newProvider(providerClass, values);
+        }
+    }
+
+    private List<Method> accessorMethods(Class<?> providerClass, Map<Method, ?> values) {
+        if (!providerClass.isInterface() || !Modifier.isPublic(providerClass.getModifiers())) {
+            return null;
+        }
+        List<Method> methods = new ArrayList<Method>();
+        for (Method method : providerClass.getMethods()) {
+            if (!values.containsKey(method) || method.getParameterTypes().length > 0) {
+                return null;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    private Class<?> defineAccessorClass(Class<?> providerClass, List<Method> methods) {
+        String className = providerClass.getName() + ACCESSOR_CLASS_SUFFIX + ACCESSOR_COUNTER.incrementAndGet();
+        byte[] classBytes = new AccessorClassWriter(className, providerClass, methods).toByteArray();
+        return new AccessorClassLoader(providerClass.getClassLoader()).define(className, classBytes);
+    }
+
+    /**
+     * Class loader used to define accessor classes as children of the provider interface's class loader.
+     */
+    private static final class AccessorClassLoader extends ClassLoader {
+
+        private AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private Class<?> define(String className, byte[] classBytes) {
+            return defineClass(className, classBytes, 0, classBytes.length);
+        }
+    }
+}
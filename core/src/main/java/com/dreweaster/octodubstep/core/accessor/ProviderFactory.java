@@ -0,0 +1,21 @@
+package com.dreweaster.octodubstep.core.accessor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Creates the instances handed out by {@link com.dreweaster.octodubstep.core.PropertyManager#propertiesFor(Class)}.
+ */
+public interface ProviderFactory {
+
+    /**
+     * Creates an instance of the given provider interface whose methods return the supplied values.
+     *
+     * @param providerClass the provider interface
+     * @param values the value to return for each {@link com.dreweaster.octodubstep.core.Property} method, and the
+     *               nested provider to return for each {@link com.dreweaster.octodubstep.core.PropertyGroup} method
+     * @param <T> the provider type
+     * @return the provider instance
+     */
+    <T> T newProvider(Class<T> providerClass, Map<Method, ?> values);
+}
@@ -0,0 +1,39 @@
+package com.dreweaster.octodubstep.core.accessor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * {@link ProviderFactory} backed by {@link Proxy}. Works for any provider interface, but every call goes through
+ * reflection and a map lookup.
+ */
+public final class ProxyProviderFactory implements ProviderFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T newProvider(Class<T> providerClass, Map<Method, ?> values) {
+        return (T) Proxy.newProxyInstance(
+                providerClass.getClassLoader(),
+                new Class[]{providerClass},
+                new ConfigPropertyInvocationHandler(values));
+    }
+
+    /**
+     * Invocation handler.
+     */
+    private static final class ConfigPropertyInvocationHandler implements InvocationHandler {
+
+        private Map<Method, ?> values;
+
+        private ConfigPropertyInvocationHandler(Map<Method, ?> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object o, Method method, Object[] objects) throws Throwable {
+            return values.get(method);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.dreweaster.octodubstep.core.binding;
+
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.validation.ConfigPropertyValidator;
+import com.dreweaster.octodubstep.core.validation.DoNothingValidator;
+
+import java.lang.reflect.Type;
+
+/**
+ * Describes a single {@link com.dreweaster.octodubstep.core.Property} or
+ * {@link com.dreweaster.octodubstep.core.PropertyGroup} method of a provider interface.
+ */
+public final class PropertyBinding {
+
+    private String methodName;
+
+    private String name;
+
+    private String defaultValue;
+
+    private boolean required;
+
+    private Class<?> returnType;
+
+    private Type valueType;
+
+    private Class<? extends ConfigPropertyValidator> validatorClass;
+
+    private boolean group;
+
+    /**
+     * Constructor.
+     *
+     * @param methodName   the provider method name
+     * @param name         the property name
+     * @param defaultValue the default value
+     * @param required     whether the property is required
+     * @param returnType   the raw return type of the provider method, e.g.
+     *                     {@link com.dreweaster.octodubstep.core.Value}
+     * @param valueType    the value type, e.g. {@code String.class}, {@code Types.listOf(Integer.class)} or
+     *                     {@code int.class} for an {@link com.dreweaster.octodubstep.core.IntValue}
+     */
+    public PropertyBinding(
+            String methodName,
+            String name,
+            String defaultValue,
+            boolean required,
+            Class<?> returnType,
+            Type valueType) {
+        this(methodName, name, defaultValue, required, returnType, valueType, DoNothingValidator.class);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param validatorClass the validator to check the value with, {@link DoNothingValidator} if there's none
+     */
+    public PropertyBinding(
+            String methodName,
+            String name,
+            String defaultValue,
+            boolean required,
+            Class<?> returnType,
+            Type valueType,
+            Class<? extends ConfigPropertyValidator> validatorClass) {
+        this.methodName = methodName;
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.required = required;
+        this.returnType = returnType;
+        this.valueType = valueType;
+        this.validatorClass = validatorClass;
+    }
+
+    /**
+     * Describes a {@link com.dreweaster.octodubstep.core.PropertyGroup} method.
+     *
+     * @param methodName    the provider method name
+     * @param prefix        the prefix of the group's property names
+     * @param providerClass the nested provider interface returned by the method
+     * @return the binding
+     */
+    public static PropertyBinding group(String methodName, String prefix, Class<?> providerClass) {
+        PropertyBinding binding = new PropertyBinding(methodName, prefix, "", true, providerClass, providerClass);
+        binding.group = true;
+        return binding;
+    }
+
+    /**
+     * Returns a copy of this binding whose name is qualified with the prefix of the group declaring it.
+     *
+     * @param prefix the group prefix
+     * @return the qualified binding
+     */
+    public PropertyBinding withPrefix(String prefix) {
+        PropertyBinding binding = new PropertyBinding(
+                methodName, prefix + "." + name, defaultValue, required, returnType, valueType, validatorClass);
+        binding.group = group;
+        return binding;
+    }
+
+    public String methodName() {
+        return methodName;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String defaultValue() {
+        return defaultValue;
+    }
+
+    public boolean required() {
+        return required;
+    }
+
+    public Class<?> returnType() {
+        return returnType;
+    }
+
+    public Type valueType() {
+        return valueType;
+    }
+
+    public Class<? extends ConfigPropertyValidator> validatorClass() {
+        return validatorClass;
+    }
+
+    /**
+     * @return true if the method returns a nested provider rather than a value, in which case {@link #name()} is the
+     *         group's prefix and {@link #returnType()} its provider interface
+     */
+    public boolean group() {
+        return group;
+    }
+
+    public boolean dynamic() {
+        return DynamicValue.class.isAssignableFrom(returnType);
+    }
+}
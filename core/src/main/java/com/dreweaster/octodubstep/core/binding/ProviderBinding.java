@@ -0,0 +1,30 @@
+package com.dreweaster.octodubstep.core.binding;
+
+import java.util.List;
+
+/**
+ * Describes the {@link com.dreweaster.octodubstep.core.Property} and
+ * {@link com.dreweaster.octodubstep.core.PropertyGroup} methods of a provider interface and knows how to
+ * create an instance of it.
+ * <p/>
+ * Implementations are either generated at compile time by the Octodubstep annotation processor or built at runtime
+ * by reflecting over the provider interface (see {@link ProviderBindings}).
+ *
+ * @param <T> the provider type
+ */
+public interface ProviderBinding<T> {
+
+    Class<T> providerClass();
+
+    List<PropertyBinding> properties();
+
+    /**
+     * Creates a provider instance.
+     *
+     * @param values the values to return, in the same order as {@link #properties()}: a
+     *               {@link com.dreweaster.octodubstep.core.Value} for each property and a nested provider for each
+     *               group
+     * @return the provider instance
+     */
+    T newProvider(Object[] values);
+}
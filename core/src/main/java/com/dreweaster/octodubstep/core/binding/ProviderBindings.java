@@ -0,0 +1,64 @@
+package com.dreweaster.octodubstep.core.binding;
+
+import com.dreweaster.octodubstep.core.accessor.ProviderFactory;
+
+/**
+ * Locates the {@link ProviderBinding} for a provider interface, preferring one generated at compile time and falling
+ * back to reflection.
+ */
+public final class ProviderBindings {
+
+    /**
+     * Suffix of the class generated by the annotation processor for each provider interface.
+     */
+    public static final String GENERATED_BINDING_SUFFIX = "_OctodubstepBinding";
+
+    private ProviderBindings() {
+    }
+
+    public static <T> ProviderBinding<T> bindingFor(Class<T> providerClass, ProviderFactory providerFactory) {
+        ProviderBinding<T> generated = generatedBindingFor(providerClass);
+        return generated != null ? generated : new ReflectiveProviderBinding<T>(providerClass, providerFactory);
+    }
+
+    /**
+     * Returns the name of the binding class generated for a provider interface, e.g.
+     * {@code a.b.Outer_Inner_OctodubstepBinding} for {@code a.b.Outer$Inner}.
+     *
+     * @param providerBinaryName the binary name of the provider interface
+     * @return the generated binding class name
+     */
+    public static String generatedBindingName(String providerBinaryName) {
+        int packageEnd = providerBinaryName.lastIndexOf('.');
+        String packagePrefix = providerBinaryName.substring(0, packageEnd + 1);
+        String simpleName = providerBinaryName.substring(packageEnd + 1).replace('$', '_');
+        return packagePrefix + simpleName + GENERATED_BINDING_SUFFIX;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ProviderBinding<T> generatedBindingFor(Class<T> providerClass) {
+        Class<?> bindingClass;
+        try {
+            bindingClass = Class.forName(
+                    generatedBindingName(providerClass.getName()),
+                    true,
+                    providerClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        if (!ProviderBinding.class.isAssignableFrom(bindingClass)) {
+            return null;
+        }
+
+        ProviderBinding<T> binding;
+        try {
+            binding = (ProviderBinding<T>) bindingClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Unable to create generated binding " + bindingClass.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to create generated binding " + bindingClass.getName(), e);
+        }
+        return providerClass.equals(binding.providerClass()) ? binding : null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dreweaster.octodubstep.core.binding;
+
+import com.dreweaster.octodubstep.core.BooleanValue;
+import com.dreweaster.octodubstep.core.IntValue;
+import com.dreweaster.octodubstep.core.LongValue;
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.PropertyGroup;
+import com.dreweaster.octodubstep.core.accessor.ProviderFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ProviderBinding} built by reflecting over a provider interface at runtime.
+ *
+ * @param <T> the provider type
+ */
+final class ReflectiveProviderBinding<T> implements ProviderBinding<T> {
+
+    private Class<T> providerClass;
+
+    private ProviderFactory providerFactory;
+
+    private List<Method> methods = new ArrayList<Method>();
+
+    private List<PropertyBinding> properties = new ArrayList<PropertyBinding>();
+
+    ReflectiveProviderBinding(Class<T> providerClass, ProviderFactory providerFactory) {
+        this.providerClass = providerClass;
+        this.providerFactory = providerFactory;
+
+        for (Method method : providerClass.getMethods()) {
+            Property configProperty = method.getAnnotation(Property.class);
+            if (configProperty != null) {
+                Type returnType = method.getGenericReturnType();
+                Class<?> rawReturnType;
+                Type valueType;
+                if (returnType instanceof ParameterizedType) {
+                    ParameterizedType parameterizedType = (ParameterizedType) returnType;
+                    rawReturnType = (Class<?>) parameterizedType.getRawType();
+                    valueType = parameterizedType.getActualTypeArguments()[0];
+                } else {
+                    rawReturnType = method.getReturnType();
+                    valueType = primitiveValueTypeOf(rawReturnType);
+                }
+                methods.add(method);
+                properties.add(new PropertyBinding(
+                        method.getName(),
+                        configProperty.name(),
+                        configProperty.defaultValue(),
+                        configProperty.required(),
+                        rawReturnType,
+                        valueType,
+                        configProperty.validator()));
+            }
+
+            PropertyGroup group = method.getAnnotation(PropertyGroup.class);
+            if (group != null) {
+                if (!method.getReturnType().isInterface()) {
+                    throw new IllegalArgumentException(
+                            "Property group methods must return an interface: " + method.getName());
+                }
+                methods.add(method);
+                properties.add(PropertyBinding.group(method.getName(), group.prefix(), method.getReturnType()));
+            }
+        }
+    }
+
+    private static Class<?> primitiveValueTypeOf(Class<?> returnType) {
+        if (IntValue.class.isAssignableFrom(returnType)) {
+            return int.class;
+        } else if (LongValue.class.isAssignableFrom(returnType)) {
+            return long.class;
+        } else if (BooleanValue.class.isAssignableFrom(returnType)) {
+            return boolean.class;
+        }
+        throw new IllegalArgumentException("Unsupported property return type: " + returnType.getName());
+    }
+
+    @Override
+    public Class<T> providerClass() {
+        return providerClass;
+    }
+
+    @Override
+    public List<PropertyBinding> properties() {
+        return Collections.unmodifiableList(properties);
+    }
+
+    @Override
+    public T newProvider(Object[] values) {
+        Map<Method, Object> methodValues = new HashMap<Method, Object>();
+        for (int i = 0; i < values.length; i++) {
+            methodValues.put(methods.get(i), values[i]);
+        }
+        return providerFactory.newProvider(providerClass, methodValues);
+    }
+}
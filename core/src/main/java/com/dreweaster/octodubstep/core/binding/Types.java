@@ -0,0 +1,97 @@
+package com.dreweaster.octodubstep.core.binding;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds {@link Type} instances for generated bindings without having to reflect over provider interfaces.
+ */
+public final class Types {
+
+    private Types() {
+    }
+
+    public static ParameterizedType listOf(Class<?> itemType) {
+        return parameterized(List.class, itemType);
+    }
+
+    public static ParameterizedType setOf(Class<?> itemType) {
+        return parameterized(Set.class, itemType);
+    }
+
+    public static ParameterizedType mapOf(Class<?> keyType, Class<?> valueType) {
+        return parameterized(Map.class, keyType, valueType);
+    }
+
+    public static ParameterizedType parameterized(Class<?> rawType, Type... typeArguments) {
+        return new SimpleParameterizedType(rawType, typeArguments);
+    }
+
+    /**
+     * A top level {@link ParameterizedType} that compares equal to the JDK's own implementation.
+     */
+    private static final class SimpleParameterizedType implements ParameterizedType {
+
+        private Class<?> rawType;
+
+        private Type[] typeArguments;
+
+        private SimpleParameterizedType(Class<?> rawType, Type[] typeArguments) {
+            this.rawType = rawType;
+            this.typeArguments = typeArguments.clone();
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return rawType.getDeclaringClass();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType other = (ParameterizedType) o;
+            Type otherOwner = other.getOwnerType();
+            Type owner = getOwnerType();
+            return rawType.equals(other.getRawType())
+                    && (owner == null ? otherOwner == null : owner.equals(otherOwner))
+                    && Arrays.equals(typeArguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            Type owner = getOwnerType();
+            return Arrays.hashCode(typeArguments) ^ (owner == null ? 0 : owner.hashCode()) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < typeArguments.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                Type typeArgument = typeArguments[i];
+                builder.append(typeArgument instanceof Class
+                        ? ((Class<?>) typeArgument).getName()
+                        : typeArgument.toString());
+            }
+            return builder.append('>').toString();
+        }
+    }
+}
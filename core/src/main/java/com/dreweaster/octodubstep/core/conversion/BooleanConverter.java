@@ -2,7 +2,7 @@ package com.dreweaster.octodubstep.core.conversion;
 
 /**
  */
-public class BooleanConverter implements PropertyConverter<Boolean> {
+public class BooleanConverter implements BooleanPropertyConverter {
 
     @Override
     public Class<Boolean> valueType() {
@@ -11,6 +11,11 @@ public class BooleanConverter implements PropertyConverter<Boolean> {
 
     @Override
     public Boolean convert(String value) {
+        return convertToBoolean(value);
+    }
+
+    @Override
+    public boolean convertToBoolean(String value) {
         if ("true".equalsIgnoreCase(value)) {
             return true;
         } else if ("false".equalsIgnoreCase(value)) {
@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+/**
+ * A {@link PropertyConverter} that can also convert straight to a primitive {@code boolean}, without boxing.
+ */
+public interface BooleanPropertyConverter extends PropertyConverter<Boolean> {
+
+    boolean convertToBoolean(String value);
+}
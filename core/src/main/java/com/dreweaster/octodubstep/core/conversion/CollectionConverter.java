@@ -0,0 +1,175 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts the raw values of collection properties, split by {@link ValueSplitter}, using the converters the
+ * {@link ConverterRegistry} finds for their item types. Supports:
+ * <ul>
+ * <li>{@code int[]} and {@code long[]}, converted without boxing if the item converter allows it</li>
+ * <li>{@code List<T>}, as an immutable list</li>
+ * <li>{@code Set<T>}, as an immutable set keeping the order items first appear in, or an immutable
+ * {@link java.util.EnumSet} for enum items</li>
+ * <li>{@code Map<K, V>} from {@code key=value} pairs, as an immutable map keeping the order keys first appear in</li>
+ * </ul>
+ * <p/>
+ * Collections are immutable, so the collection converted from a raw value is cached and handed out again for the same
+ * raw value, whichever property it's for. Arrays are never shared, as their holders could modify them.
+ */
+public final class CollectionConverter {
+
+    private static final int CACHE_SIZE = 256;
+
+    private final ConverterRegistry converters;
+
+    private final Map<CacheKey, Object> cache = Collections.synchronizedMap(
+            new LinkedHashMap<CacheKey, Object>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, Object> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    public CollectionConverter(ConverterRegistry converters) {
+        this.converters = converters;
+    }
+
+    /**
+     * @return true if the given type is a collection type this converter supports
+     */
+    public static boolean supports(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) type).getRawType();
+            return List.class.equals(rawType) || Set.class.equals(rawType) || Map.class.equals(rawType);
+        }
+        return int[].class.equals(type) || long[].class.equals(type);
+    }
+
+    public Object convert(Type type, String value) {
+        if (int[].class.equals(type)) {
+            return convertToIntArray(value);
+        } else if (long[].class.equals(type)) {
+            return convertToLongArray(value);
+        }
+
+        CacheKey key = new CacheKey(type, value);
+        Object converted = cache.get(key);
+        if (converted == null) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type rawType = parameterizedType.getRawType();
+            converted = Map.class.equals(rawType)
+                    ? convertEntries(parameterizedType, ValueSplitter.splitPairs(value))
+                    : Set.class.equals(rawType)
+                    ? convertToSet(itemType(parameterizedType, 0), ValueSplitter.split(value))
+                    : convertToList(itemType(parameterizedType, 0), ValueSplitter.split(value));
+            cache.put(key, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Converts the keys and values of a map.
+     *
+     * @param mapType the map type
+     * @param entries the raw keys and values
+     * @return an immutable map
+     */
+    public Map<Object, Object> convertEntries(ParameterizedType mapType, Map<String, String> entries) {
+        PropertyConverter<?> keyConverter = converterFor(itemType(mapType, 0));
+        PropertyConverter<?> valueConverter = converterFor(itemType(mapType, 1));
+        Map<Object, Object> converted = new LinkedHashMap<Object, Object>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            converted.put(keyConverter.convert(entry.getKey()), valueConverter.convert(entry.getValue()));
+        }
+        return ImmutableMap.copyOf(converted);
+    }
+
+    private List<Object> convertToList(Class<?> itemType, List<String> items) {
+        PropertyConverter<?> converter = converterFor(itemType);
+        Object[] converted = new Object[items.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = converter.convert(items.get(i));
+        }
+        return ImmutableList.copyOf(converted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<?> convertToSet(Class<?> itemType, List<String> items) {
+        List<Object> converted = convertToList(itemType, items);
+        return itemType.isEnum()
+                ? Sets.immutableEnumSet((List<Enum>) (List<?>) converted)
+                : ImmutableSet.copyOf(converted);
+    }
+
+    private int[] convertToIntArray(String value) {
+        List<String> items = ValueSplitter.split(value);
+        PropertyConverter<?> converter = converterFor(Integer.class);
+        int[] converted = new int[items.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = converter instanceof IntPropertyConverter
+                    ? ((IntPropertyConverter) converter).convertToInt(items.get(i))
+                    : (Integer) converter.convert(items.get(i));
+        }
+        return converted;
+    }
+
+    private long[] convertToLongArray(String value) {
+        List<String> items = ValueSplitter.split(value);
+        PropertyConverter<?> converter = converterFor(Long.class);
+        long[] converted = new long[items.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = converter instanceof LongPropertyConverter
+                    ? ((LongPropertyConverter) converter).convertToLong(items.get(i))
+                    : (Long) converter.convert(items.get(i));
+        }
+        return converted;
+    }
+
+    private static Class<?> itemType(ParameterizedType type, int index) {
+        return (Class<?>) type.getActualTypeArguments()[index];
+    }
+
+    private PropertyConverter<?> converterFor(Class<?> type) {
+        return converters.converterFor(type);
+    }
+
+    /**
+     * A collection type and raw value.
+     */
+    private static final class CacheKey {
+
+        private final Type type;
+
+        private final String value;
+
+        private CacheKey(Type type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return type.equals(other.type) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import com.google.common.primitives.Primitives;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the converter for a value type. A type is converted by, in order:
+ * <ol>
+ * <li>the converter registered for exactly that type, the last one registered if there are several</li>
+ * <li>for a primitive type, the converter for its wrapper type</li>
+ * <li>for an enum, an {@link EnumConverter}</li>
+ * <li>the first converter registered whose value type is assignable to the type, e.g. the {@code String} converter for
+ * {@code CharSequence}</li>
+ * <li>for {@code String}, the identity conversion</li>
+ * </ol>
+ * Each type is only resolved once; the converter found, or the lack of one, is cached.
+ */
+public final class ConverterRegistry {
+
+    private static final PropertyConverter<?> NONE = new StringConverter();
+
+    private final List<PropertyConverter<?>> converters;
+
+    private final Map<Class<?>, PropertyConverter<?>> exactConverters = new HashMap<Class<?>, PropertyConverter<?>>();
+
+    private final Map<Class<?>, PropertyConverter<?>> resolved =
+            new ConcurrentHashMap<Class<?>, PropertyConverter<?>>();
+
+    public ConverterRegistry(List<PropertyConverter<?>> converters) {
+        this.converters = new ArrayList<PropertyConverter<?>>(converters);
+        for (PropertyConverter<?> converter : converters) {
+            exactConverters.put(converter.valueType(), converter);
+        }
+    }
+
+    /**
+     * @return the converter for the type, or null if there isn't one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PropertyConverter<T> find(Class<T> type) {
+        PropertyConverter<?> converter = resolved.get(type);
+        if (converter == null) {
+            converter = resolve(type);
+            resolved.put(type, converter != null ? converter : NONE);
+        }
+        return converter != NONE ? (PropertyConverter<T>) converter : null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there's no converter for the type
+     */
+    public <T> PropertyConverter<T> converterFor(Class<T> type) {
+        PropertyConverter<T> converter = find(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("No converter available for type " + type.getName());
+        }
+        return converter;
+    }
+
+    /**
+     * Checks that values of the given property value type can be converted: a class with a converter, or a collection
+     * type supported by {@link CollectionConverter} whose item types have converters.
+     *
+     * @throws IllegalArgumentException if they can't
+     */
+    public void checkSupported(Type type) {
+        if (int[].class.equals(type)) {
+            converterFor(Integer.class);
+        } else if (long[].class.equals(type)) {
+            converterFor(Long.class);
+        } else if (type instanceof Class && !((Class<?>) type).isArray()) {
+            converterFor((Class<?>) type);
+        } else if (type instanceof ParameterizedType && CollectionConverter.supports(type)) {
+            for (Type itemType : ((ParameterizedType) type).getActualTypeArguments()) {
+                if (!(itemType instanceof Class)) {
+                    throw new IllegalArgumentException("Unsupported collection item type " + itemType);
+                }
+                converterFor((Class<?>) itemType);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported property type " + type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PropertyConverter<?> resolve(Class<?> type) {
+        PropertyConverter<?> converter = exactConverters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isPrimitive()) {
+            return exactConverters.get(Primitives.wrap(type));
+        }
+        if (type.isEnum()) {
+            return new EnumConverter(type);
+        }
+        for (PropertyConverter<?> candidate : converters) {
+            if (type.isAssignableFrom(candidate.valueType())) {
+                return candidate;
+            }
+        }
+        return String.class.equals(type) ? new StringConverter() : null;
+    }
+}
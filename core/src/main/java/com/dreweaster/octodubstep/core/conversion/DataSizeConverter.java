@@ -0,0 +1,19 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import com.dreweaster.octodubstep.core.unit.DataSize;
+
+/**
+ * Converts values such as {@code 512KB} or {@code 64MB}, see {@link DataSize#parse(String)}.
+ */
+public class DataSizeConverter implements PropertyConverter<DataSize> {
+
+    @Override
+    public Class<DataSize> valueType() {
+        return DataSize.class;
+    }
+
+    @Override
+    public DataSize convert(String value) {
+        return DataSize.parse(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+/**
+ */
+public class DoubleConverter implements PropertyConverter<Double> {
+
+    @Override
+    public Class<Double> valueType() {
+        return Double.class;
+    }
+
+    @Override
+    public Double convert(String value) {
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import com.dreweaster.octodubstep.core.unit.Duration;
+
+/**
+ * Converts values such as {@code 30s} or {@code 5m}, see {@link Duration#parse(String)}.
+ */
+public class DurationConverter implements PropertyConverter<Duration> {
+
+    @Override
+    public Class<Duration> valueType() {
+        return Duration.class;
+    }
+
+    @Override
+    public Duration convert(String value) {
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,37 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+/**
+ * Converts values to the enum constant of the same name, ignoring case if there's no exact match.
+ *
+ * @param <E> the enum type
+ */
+final class EnumConverter<E extends Enum<E>> implements PropertyConverter<E> {
+
+    private final Class<E> enumType;
+
+    EnumConverter(Class<E> enumType) {
+        this.enumType = enumType;
+    }
+
+    @Override
+    public Class<E> valueType() {
+        return enumType;
+    }
+
+    @Override
+    public E convert(String value) {
+        String name = value.trim();
+        E[] constants = enumType.getEnumConstants();
+        for (E constant : constants) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        for (E constant : constants) {
+            if (constant.name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No constant of " + enumType.getName() + " named " + name);
+    }
+}
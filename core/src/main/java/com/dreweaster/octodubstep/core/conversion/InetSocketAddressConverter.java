@@ -0,0 +1,37 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Converts values of the form {@code host:port}, or {@code [address]:port} for IPv6 addresses.
+ * <p/>
+ * Addresses are left unresolved, so loading properties never waits on a DNS lookup; the host is looked up when the
+ * address is connected to.
+ */
+public class InetSocketAddressConverter implements PropertyConverter<InetSocketAddress> {
+
+    @Override
+    public Class<InetSocketAddress> valueType() {
+        return InetSocketAddress.class;
+    }
+
+    @Override
+    public InetSocketAddress convert(String value) {
+        String trimmed = value.trim();
+        int portSeparator = trimmed.lastIndexOf(':');
+        String host = portSeparator > 0 ? trimmed.substring(0, portSeparator) : "";
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (host.indexOf(':') >= 0) {
+            host = "";
+        }
+        if (host.length() == 0) {
+            throw new IllegalArgumentException("Invalid socket address, expected host:port: " + value);
+        }
+        try {
+            return InetSocketAddress.createUnresolved(host, Integer.parseInt(trimmed.substring(portSeparator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid socket address, expected host:port: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+/**
+ * A {@link PropertyConverter} that can also convert straight to a primitive {@code int}, without boxing.
+ */
+public interface IntPropertyConverter extends PropertyConverter<Integer> {
+
+    int convertToInt(String value);
+}
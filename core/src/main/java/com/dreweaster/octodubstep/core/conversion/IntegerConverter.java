@@ -2,7 +2,7 @@ package com.dreweaster.octodubstep.core.conversion;
 
 /**
  */
-public class IntegerConverter implements PropertyConverter<Integer>{
+public class IntegerConverter implements IntPropertyConverter {
 
     @Override
     public Class<Integer> valueType() {
@@ -11,6 +11,11 @@ public class IntegerConverter implements PropertyConverter<Integer>{
 
     @Override
     public Integer convert(String value) {
+        return convertToInt(value);
+    }
+
+    @Override
+    public int convertToInt(String value) {
         return Integer.parseInt(value);
     }
 }
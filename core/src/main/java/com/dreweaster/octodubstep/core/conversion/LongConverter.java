@@ -2,7 +2,7 @@ package com.dreweaster.octodubstep.core.conversion;
 
 /**
  */
-public class LongConverter implements PropertyConverter<Long> {
+public class LongConverter implements LongPropertyConverter {
 
     @Override
     public Class<Long> valueType() {
@@ -11,6 +11,11 @@ public class LongConverter implements PropertyConverter<Long> {
 
     @Override
     public Long convert(String value) {
+        return convertToLong(value);
+    }
+
+    @Override
+    public long convertToLong(String value) {
         return Long.parseLong(value);
     }
 }
@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+/**
+ * A {@link PropertyConverter} that can also convert straight to a primitive {@code long}, without boxing.
+ */
+public interface LongPropertyConverter extends PropertyConverter<Long> {
+
+    long convertToLong(String value);
+}
@@ -0,0 +1,19 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compiles values as regular expressions, once, when they're loaded.
+ */
+public class PatternConverter implements PropertyConverter<Pattern> {
+
+    @Override
+    public Class<Pattern> valueType() {
+        return Pattern.class;
+    }
+
+    @Override
+    public Pattern convert(String value) {
+        return Pattern.compile(value);
+    }
+}
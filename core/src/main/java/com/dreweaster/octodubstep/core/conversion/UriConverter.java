@@ -0,0 +1,18 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import java.net.URI;
+
+/**
+ */
+public class UriConverter implements PropertyConverter<URI> {
+
+    @Override
+    public Class<URI> valueType() {
+        return URI.class;
+    }
+
+    @Override
+    public URI convert(String value) {
+        return URI.create(value.trim());
+    }
+}
@@ -0,0 +1,132 @@
+package com.dreweaster.octodubstep.core.conversion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the raw value of a collection property into its items, e.g. {@code a, b, c}, or into key value pairs, e.g.
+ * {@code a=1, b=2}.
+ * <p/>
+ * Items are separated by commas and keys from values by equals signs. Whitespace around each item, key and value is
+ * trimmed. A backslash escapes the character following it, so {@code a\,b} is the single item {@code a,b} and
+ * {@code \ a} keeps its leading space. A blank value has no items.
+ * <p/>
+ * Values are scanned once, without regular expressions, and items without escapes are taken straight from the value
+ * with {@link String#substring(int, int)}.
+ */
+public final class ValueSplitter {
+
+    public static final char SEPARATOR = ',';
+
+    public static final char KEY_VALUE_SEPARATOR = '=';
+
+    private static final char ESCAPE = '\\';
+
+    private ValueSplitter() {
+    }
+
+    public static List<String> split(String value) {
+        List<String> items = new ArrayList<String>();
+        if (isBlank(value)) {
+            return items;
+        }
+        int length = value.length();
+        for (int start = 0; ; ) {
+            int end = indexOfUnescaped(value, SEPARATOR, start, length);
+            items.add(item(value, start, end));
+            if (end == length) {
+                return items;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return the pairs in the order they appear, a later pair replacing an earlier one with the same key
+     * @throws IllegalArgumentException if an item has no key value separator
+     */
+    public static Map<String, String> splitPairs(String value) {
+        Map<String, String> pairs = new LinkedHashMap<String, String>();
+        if (isBlank(value)) {
+            return pairs;
+        }
+        int length = value.length();
+        for (int start = 0; ; ) {
+            int end = indexOfUnescaped(value, SEPARATOR, start, length);
+            int separator = indexOfUnescaped(value, KEY_VALUE_SEPARATOR, start, end);
+            if (separator == end) {
+                throw new IllegalArgumentException("Expected key" + KEY_VALUE_SEPARATOR + "value pair but found '"
+                        + value.substring(start, end).trim() + "' in: " + value);
+            }
+            pairs.put(item(value, start, separator), item(value, separator + 1, end));
+            if (end == length) {
+                return pairs;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return the position of the first unescaped occurrence of the character between the given positions, or the
+     *         end position if there is none
+     */
+    private static int indexOfUnescaped(String value, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char current = value.charAt(i);
+            if (current == ESCAPE) {
+                i++;
+            } else if (current == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Trims and unescapes the item between the given positions.
+     */
+    private static String item(String value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1)) && !isEscaped(value, start, end - 1)) {
+            end--;
+        }
+
+        int escape = value.indexOf(ESCAPE, start);
+        if (escape < 0 || escape >= end) {
+            return value.substring(start, end);
+        }
+        StringBuilder item = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == ESCAPE && i + 1 < end) {
+                c = value.charAt(++i);
+            }
+            item.append(c);
+        }
+        return item.toString();
+    }
+
+    /**
+     * @return true if the character at the given position is preceded by an odd number of escapes
+     */
+    private static boolean isEscaped(String value, int start, int position) {
+        int escapes = 0;
+        for (int i = position - 1; i >= start && value.charAt(i) == ESCAPE; i--) {
+            escapes++;
+        }
+        return escapes % 2 == 1;
+    }
+
+    private static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
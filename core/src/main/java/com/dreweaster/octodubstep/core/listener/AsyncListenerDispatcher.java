@@ -0,0 +1,340 @@
+package com.dreweaster.octodubstep.core.listener;
+
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.ValueListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notifies listeners on an {@link Executor}, so a slow listener can't hold up the reload thread or other listeners.
+ * <p/>
+ * Each listener has its own bounded queue of pending notifications, which is drained by one task at a time, so a
+ * listener sees changes in the order they happened. If a value changes again before the listener has been told about
+ * the previous change, the two notifications are coalesced into one going from the oldest value to the latest. When a
+ * queue is full, new notifications are either dropped or the reload thread blocks until there's space, depending on the
+ * {@link OverflowPolicy}.
+ * <p/>
+ * Listeners taking longer than the slow listener threshold are logged, and counts of what happened to notifications
+ * are available from {@link #statistics()}.
+ */
+public final class AsyncListenerDispatcher implements ListenerDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncListenerDispatcher.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    public static final long DEFAULT_SLOW_LISTENER_THRESHOLD_MILLIS = 1000;
+
+    /**
+     * What to do with a notification for a listener whose queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Discard the notification.
+         */
+        DROP,
+
+        /**
+         * Block the reloading thread until the listener has caught up.
+         */
+        BLOCK
+    }
+
+    /**
+     * Creates a dispatcher notifying listeners on a fixed pool of daemon threads, with the default queue capacity,
+     * blocking when a queue is full.
+     *
+     * @param threads the number of threads in the pool
+     */
+    public static AsyncListenerDispatcher withFixedThreadPool(int threads) {
+        return new AsyncListenerDispatcher(
+                Executors.newFixedThreadPool(threads, new DispatcherThreadFactory()),
+                DEFAULT_QUEUE_CAPACITY,
+                OverflowPolicy.BLOCK,
+                DEFAULT_SLOW_LISTENER_THRESHOLD_MILLIS);
+    }
+
+    private final Executor executor;
+
+    private final int queueCapacity;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final long slowListenerThresholdNanos;
+
+    private final ConcurrentMap<ValueListener<?>, Mailbox> mailboxes =
+            new ConcurrentHashMap<ValueListener<?>, Mailbox>();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong slow = new AtomicLong();
+
+    public AsyncListenerDispatcher(Executor executor) {
+        this(executor, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK, DEFAULT_SLOW_LISTENER_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor                     runs the tasks delivering notifications
+     * @param queueCapacity                the maximum number of pending notifications per listener
+     * @param overflowPolicy               what to do when a listener's queue is full
+     * @param slowListenerThresholdMillis  how long a listener can take before it's reported as slow
+     */
+    public AsyncListenerDispatcher(
+            Executor executor,
+            int queueCapacity,
+            OverflowPolicy overflowPolicy,
+            long slowListenerThresholdMillis) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.slowListenerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowListenerThresholdMillis);
+    }
+
+    @Override
+    public <V> void dispatch(
+            DynamicValue<V> value,
+            String propertyName,
+            ValueListener<V> listener,
+            V oldValue,
+            V newValue) {
+        while (!mailboxFor(listener).offer(value, propertyName, oldValue, newValue)) {
+            // The mailbox was closed after we looked it up, so try again with a new one
+        }
+    }
+
+    @Override
+    public void listenerRemoved(DynamicValue<?> value, ValueListener<?> listener) {
+        Mailbox mailbox = mailboxes.get(listener);
+        if (mailbox != null) {
+            mailbox.discard(value);
+        }
+    }
+
+    public DispatchStatistics statistics() {
+        return new DispatchStatistics(delivered.get(), coalesced.get(), dropped.get(), failed.get(), slow.get());
+    }
+
+    /**
+     * Stops the executor, if it's an {@link ExecutorService}. Pending notifications are not delivered.
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    /**
+     * @return the number of listeners with a mailbox; a removed listener's mailbox is closed once it's drained
+     */
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mailbox mailboxFor(ValueListener<?> listener) {
+        Mailbox mailbox = mailboxes.get(listener);
+        if (mailbox == null) {
+            Mailbox newMailbox = new Mailbox((ValueListener<Object>) listener);
+            mailbox = mailboxes.putIfAbsent(listener, newMailbox);
+            if (mailbox == null) {
+                mailbox = newMailbox;
+            }
+        }
+        return mailbox;
+    }
+
+    /**
+     * A change waiting to be delivered.
+     */
+    private static final class Notification {
+
+        private final String propertyName;
+
+        private final Object oldValue;
+
+        private Object newValue;
+
+        private Notification(String propertyName, Object oldValue, Object newValue) {
+            this.propertyName = propertyName;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+
+    /**
+     * The pending notifications for a single listener, keyed by the value that changed. At most one task drains a
+     * mailbox at any time.
+     */
+    private final class Mailbox implements Runnable {
+
+        private final ValueListener<Object> listener;
+
+        private final LinkedHashMap<DynamicValue<?>, Notification> pending =
+                new LinkedHashMap<DynamicValue<?>, Notification>();
+
+        private boolean scheduled;
+
+        /**
+         * Whether the listener was removed while a task was draining the mailbox, which then closes it once it's empty.
+         */
+        private boolean removed;
+
+        private boolean closed;
+
+        private Mailbox(ValueListener<Object> listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * @return false if the mailbox has been closed and the notification should go to a new one
+         */
+        private boolean offer(DynamicValue<?> value, String propertyName, Object oldValue, Object newValue) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+
+                Notification existing = pending.get(value);
+                if (existing != null) {
+                    existing.newValue = newValue;
+                    coalesced.incrementAndGet();
+                    return true;
+                }
+
+                while (pending.size() >= queueCapacity) {
+                    if (overflowPolicy == OverflowPolicy.DROP || !awaitSpace()) {
+                        dropped.incrementAndGet();
+                        LOG.warn("Dropped change to property " + propertyName + " as listener " + listener
+                                + " has " + pending.size() + " pending notifications");
+                        return true;
+                    }
+                    if (closed) {
+                        return false;
+                    }
+                }
+
+                pending.put(value, new Notification(propertyName, oldValue, newValue));
+                if (scheduled) {
+                    return true;
+                }
+                scheduled = true;
+            }
+            executor.execute(this);
+            return true;
+        }
+
+        private boolean awaitSpace() {
+            try {
+                wait();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private synchronized void discard(DynamicValue<?> value) {
+            pending.remove(value);
+            notifyAll();
+            if (scheduled) {
+                removed = true;
+            } else {
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            Notification notification;
+            while ((notification = next()) != null) {
+                deliver(notification);
+            }
+        }
+
+        private synchronized Notification next() {
+            Iterator<Map.Entry<DynamicValue<?>, Notification>> iterator = pending.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                scheduled = false;
+                if (removed) {
+                    close();
+                }
+                return null;
+            }
+            Notification notification = iterator.next().getValue();
+            iterator.remove();
+            notifyAll();
+            return notification;
+        }
+
+        private void close() {
+            closed = true;
+            mailboxes.remove(listener, this);
+        }
+
+        private void deliver(Notification notification) {
+            if (notification.oldValue == null
+                    ? notification.newValue == null
+                    : notification.oldValue.equals(notification.newValue)) {
+                // Changed and then changed back before the listener saw either change
+                coalesced.incrementAndGet();
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                listener.valueChanged(notification.oldValue, notification.newValue);
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                LOG.error("Value listener failed for property: " + notification.propertyName, e);
+            }
+            delivered.incrementAndGet();
+
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > slowListenerThresholdNanos) {
+                slow.incrementAndGet();
+                LOG.warn("Slow value listener " + listener + " took " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                        + "ms to handle change to property: " + notification.propertyName);
+            }
+        }
+    }
+
+    /**
+     * Creates daemon dispatcher threads.
+     */
+    private static final class DispatcherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "octodubstep-listener-dispatcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dreweaster.octodubstep.core.listener;
+
+/**
+ * Counts of the notifications handled by an {@link AsyncListenerDispatcher} since it was created.
+ */
+public final class DispatchStatistics {
+
+    private final long delivered;
+
+    private final long coalesced;
+
+    private final long dropped;
+
+    private final long failed;
+
+    private final long slow;
+
+    DispatchStatistics(long delivered, long coalesced, long dropped, long failed, long slow) {
+        this.delivered = delivered;
+        this.coalesced = coalesced;
+        this.dropped = dropped;
+        this.failed = failed;
+        this.slow = slow;
+    }
+
+    /**
+     * @return the number of notifications passed to listeners, including those that failed
+     */
+    public long delivered() {
+        return delivered;
+    }
+
+    /**
+     * @return the number of notifications merged into a later notification for the same value
+     */
+    public long coalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return the number of notifications discarded because a listener's queue was full
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * @return the number of notifications where the listener threw an exception
+     */
+    public long failed() {
+        return failed;
+    }
+
+    /**
+     * @return the number of notifications a listener took longer than the slow listener threshold to handle
+     */
+    public long slow() {
+        return slow;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchStatistics(delivered = " + delivered + ", coalesced = " + coalesced + ", dropped = " + dropped
+                + ", failed = " + failed + ", slow = " + slow + ")";
+    }
+}
@@ -0,0 +1,27 @@
+package com.dreweaster.octodubstep.core.listener;
+
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.ValueListener;
+
+/**
+ * Delivers changes to dynamic values to their {@link ValueListener}s.
+ */
+public interface ListenerDispatcher {
+
+    /**
+     * Delivers a change to a listener, either immediately or at some later point.
+     *
+     * @param value        the value that changed
+     * @param propertyName the name of the property behind the value
+     * @param listener     the listener to notify
+     * @param oldValue     the previous value
+     * @param newValue     the new value
+     * @param <V>          the value type
+     */
+    <V> void dispatch(DynamicValue<V> value, String propertyName, ValueListener<V> listener, V oldValue, V newValue);
+
+    /**
+     * Called when a listener is removed from a value, so any undelivered changes to that value can be discarded.
+     */
+    void listenerRemoved(DynamicValue<?> value, ValueListener<?> listener);
+}
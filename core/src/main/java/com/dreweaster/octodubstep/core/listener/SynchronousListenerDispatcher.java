@@ -0,0 +1,37 @@
+package com.dreweaster.octodubstep.core.listener;
+
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.ValueListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notifies listeners on the thread that reloaded the property. This is the default.
+ */
+public final class SynchronousListenerDispatcher implements ListenerDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SynchronousListenerDispatcher.class);
+
+    public static final SynchronousListenerDispatcher INSTANCE = new SynchronousListenerDispatcher();
+
+    private SynchronousListenerDispatcher() {
+    }
+
+    @Override
+    public <V> void dispatch(
+            DynamicValue<V> value,
+            String propertyName,
+            ValueListener<V> listener,
+            V oldValue,
+            V newValue) {
+        try {
+            listener.valueChanged(oldValue, newValue);
+        } catch (RuntimeException e) {
+            LOG.error("Value listener failed for property: " + propertyName, e);
+        }
+    }
+
+    @Override
+    public void listenerRemoved(DynamicValue<?> value, ValueListener<?> listener) {
+    }
+}
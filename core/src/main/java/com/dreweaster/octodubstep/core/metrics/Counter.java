@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+/**
+ * Counts occurrences of something, e.g. reloads.
+ */
+public interface Counter {
+
+    void increment(long amount);
+}
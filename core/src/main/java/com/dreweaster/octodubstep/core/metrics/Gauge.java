@@ -0,0 +1,9 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+/**
+ * Reports the current value of something, e.g. the number of properties, whenever it's asked for.
+ */
+public interface Gauge {
+
+    long value();
+}
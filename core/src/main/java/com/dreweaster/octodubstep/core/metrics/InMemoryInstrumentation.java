@@ -0,0 +1,137 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every instrument in memory, so what a manager reported can be checked, e.g. by tests, or exported, e.g. by
+ * {@link JmxInstrumentation}. Timers keep their count, total and maximum rather than every duration.
+ */
+public final class InMemoryInstrumentation implements Instrumentation {
+
+    private final ConcurrentMap<String, InMemoryTimer> timers = new ConcurrentHashMap<String, InMemoryTimer>();
+
+    private final ConcurrentMap<String, InMemoryCounter> counters = new ConcurrentHashMap<String, InMemoryCounter>();
+
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<String, Gauge>();
+
+    /**
+     * @return the timer with the given name, created if nothing has reported to it yet
+     */
+    @Override
+    public InMemoryTimer timer(String name) {
+        InMemoryTimer timer = timers.get(name);
+        if (timer == null) {
+            InMemoryTimer newTimer = new InMemoryTimer();
+            timer = timers.putIfAbsent(name, newTimer);
+            if (timer == null) {
+                timer = newTimer;
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * @return the counter with the given name, created if nothing has reported to it yet
+     */
+    @Override
+    public InMemoryCounter counter(String name) {
+        InMemoryCounter counter = counters.get(name);
+        if (counter == null) {
+            InMemoryCounter newCounter = new InMemoryCounter();
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * @return the gauge registered with the given name, or null if there isn't one
+     */
+    public Gauge gauge(String name) {
+        return gauges.get(name);
+    }
+
+    public Set<String> timerNames() {
+        return Collections.unmodifiableSet(timers.keySet());
+    }
+
+    public Set<String> counterNames() {
+        return Collections.unmodifiableSet(counters.keySet());
+    }
+
+    public Set<String> gaugeNames() {
+        return Collections.unmodifiableSet(gauges.keySet());
+    }
+
+    public static final class InMemoryTimer implements Timer {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private InMemoryTimer() {
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(durationNanos);
+            long max;
+            do {
+                max = maxNanos.get();
+            } while (durationNanos > max && !maxNanos.compareAndSet(max, durationNanos));
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        public long totalNanos() {
+            return totalNanos.get();
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Timer(count = " + count() + ", totalNanos = " + totalNanos() + ", maxNanos = " + maxNanos() + ")";
+        }
+    }
+
+    public static final class InMemoryCounter implements Counter {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private InMemoryCounter() {
+        }
+
+        @Override
+        public void increment(long amount) {
+            count.addAndGet(amount);
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Counter(count = " + count() + ")";
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+/**
+ * Creates the timers, counters and gauges a property manager reports its work through, so they can be backed by any
+ * metrics library. Each instrument is asked for once, when first needed, and kept; instruments must be thread safe.
+ * <p/>
+ * A manager reports:
+ * <ul>
+ * <li>{@code octodubstep.source.load.<source>}, timing the reading of each property source when the manager is
+ * built</li>
+ * <li>{@code octodubstep.source.reload.<source>}, timing the handling of each reload of a source, including notifying
+ * listeners on the reloading thread</li>
+ * <li>{@code octodubstep.merge}, timing the merging of the sources' properties</li>
+ * <li>{@code octodubstep.conversion.<converter>}, timing each conversion by the converter of that simple class
+ * name</li>
+ * <li>{@code octodubstep.listener}, timing each call to a listener, on whichever thread the dispatcher delivers it
+ * from</li>
+ * <li>{@code octodubstep.reloads}, {@code octodubstep.reload.failures} and {@code octodubstep.reload.changed.keys},
+ * counting reloads, reloads that were rejected or couldn't be read, and the property names reloads changed</li>
+ * <li>{@code octodubstep.properties} and {@code octodubstep.snapshot.age}, gauging the number of properties and the
+ * milliseconds since the current snapshot was published</li>
+ * </ul>
+ * Instruments are only used while loading, converting and reloading; reading a value never touches them.
+ */
+public interface Instrumentation {
+
+    Timer timer(String name);
+
+    Counter counter(String name);
+
+    void gauge(String name, Gauge gauge);
+}
@@ -0,0 +1,192 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Publishes a manager's instruments as the attributes of an MBean, where JConsole, or the JMX support of metrics
+ * libraries such as Dropwizard Metrics and Micrometer, or the Prometheus JMX exporter, can pick them up. Each counter
+ * and gauge is an attribute named after it; each timer is three attributes, {@code <name>.count},
+ * {@code <name>.meanMillis} and {@code <name>.maxMillis}. The instruments themselves are kept by an
+ * {@link InMemoryInstrumentation}.
+ */
+public final class JmxInstrumentation implements Instrumentation {
+
+    public static final String DOMAIN = "com.dreweaster.octodubstep";
+
+    private static final String COUNT = ".count";
+
+    private static final String MEAN_MILLIS = ".meanMillis";
+
+    private static final String MAX_MILLIS = ".maxMillis";
+
+    private final InMemoryInstrumentation instruments = new InMemoryInstrumentation();
+
+    private final MBeanServer server;
+
+    private final ObjectName objectName;
+
+    /**
+     * Registers the instruments with the platform MBean server as
+     * {@code com.dreweaster.octodubstep:type=Metrics,name=<name>}.
+     *
+     * @param name distinguishes the manager from any others in the same JVM
+     */
+    public static JmxInstrumentation register(String name) {
+        try {
+            return new JmxInstrumentation(ManagementFactory.getPlatformMBeanServer(),
+                    new ObjectName(DOMAIN + ":type=Metrics,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid MBean name: " + name, e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the MBean can't be registered, e.g. because the name is taken
+     */
+    public JmxInstrumentation(MBeanServer server, ObjectName objectName) {
+        this.server = server;
+        this.objectName = objectName;
+        try {
+            server.registerMBean(new MetricsMBean(), objectName);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register MBean " + objectName, e);
+        }
+    }
+
+    public ObjectName objectName() {
+        return objectName;
+    }
+
+    /**
+     * @return the instruments, for reading them directly
+     */
+    public InMemoryInstrumentation instruments() {
+        return instruments;
+    }
+
+    /**
+     * Removes the MBean, e.g. when the manager is no longer used.
+     */
+    public void unregister() {
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister MBean " + objectName, e);
+        }
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return instruments.timer(name);
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return instruments.counter(name);
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge) {
+        instruments.gauge(name, gauge);
+    }
+
+    /**
+     * Lists the instruments as read only attributes, looking them up afresh each time, so instruments created after
+     * the MBean was registered show up too.
+     */
+    private final class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (instruments.counterNames().contains(attribute)) {
+                return instruments.counter(attribute).count();
+            }
+            Gauge gauge = instruments.gauge(attribute);
+            if (gauge != null) {
+                return gauge.value();
+            }
+            if (attribute.endsWith(COUNT)) {
+                return timerFor(attribute, COUNT).count();
+            } else if (attribute.endsWith(MEAN_MILLIS)) {
+                InMemoryInstrumentation.InMemoryTimer timer = timerFor(attribute, MEAN_MILLIS);
+                long count = timer.count();
+                return count > 0 ? timer.totalNanos() / 1e6 / count : 0.0;
+            } else if (attribute.endsWith(MAX_MILLIS)) {
+                return timerFor(attribute, MAX_MILLIS).maxNanos() / 1e6;
+            }
+            throw new AttributeNotFoundException("No such metric: " + attribute);
+        }
+
+        private InMemoryInstrumentation.InMemoryTimer timerFor(String attribute, String suffix)
+                throws AttributeNotFoundException {
+            String name = attribute.substring(0, attribute.length() - suffix.length());
+            if (!instruments.timerNames().contains(name)) {
+                throw new AttributeNotFoundException("No such metric: " + attribute);
+            }
+            return instruments.timer(name);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList values = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    values.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Left out, as the JMX contract asks
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+            for (String name : new TreeSet<String>(instruments.counterNames())) {
+                attributes.add(attribute(name, Long.class, "Counter"));
+            }
+            for (String name : new TreeSet<String>(instruments.gaugeNames())) {
+                attributes.add(attribute(name, Long.class, "Gauge"));
+            }
+            for (String name : new TreeSet<String>(instruments.timerNames())) {
+                attributes.add(attribute(name + COUNT, Long.class, "Number of timings"));
+                attributes.add(attribute(name + MEAN_MILLIS, Double.class, "Mean time in milliseconds"));
+                attributes.add(attribute(name + MAX_MILLIS, Double.class, "Maximum time in milliseconds"));
+            }
+            return new MBeanInfo(JmxInstrumentation.class.getName(), "Octodubstep property manager metrics",
+                    attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null);
+        }
+
+        private MBeanAttributeInfo attribute(String name, Class<?> type, String description) {
+            return new MBeanAttributeInfo(name, type.getName(), description, true, false, false);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+/**
+ * Reports nothing. This is the default; a manager given it doesn't even tell the time.
+ */
+public final class NoopInstrumentation implements Instrumentation {
+
+    public static final NoopInstrumentation INSTANCE = new NoopInstrumentation();
+
+    private static final Timer TIMER = new Timer() {
+        @Override
+        public void record(long durationNanos) {
+        }
+    };
+
+    private static final Counter COUNTER = new Counter() {
+        @Override
+        public void increment(long amount) {
+        }
+    };
+
+    private NoopInstrumentation() {
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return TIMER;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return COUNTER;
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge) {
+    }
+}
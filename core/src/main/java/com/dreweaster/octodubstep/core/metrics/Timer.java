@@ -0,0 +1,12 @@
+package com.dreweaster.octodubstep.core.metrics;
+
+/**
+ * Records how long something took.
+ */
+public interface Timer {
+
+    /**
+     * @param durationNanos the duration, in nanoseconds
+     */
+    void record(long durationNanos);
+}
@@ -0,0 +1,22 @@
+package com.dreweaster.octodubstep.core.source;
+
+/**
+ * A {@link PropertySource} able to supply some values already converted to primitives, so the property manager can skip
+ * converting them. Only used for properties converted by the default converters.
+ */
+public interface PreconvertedPropertySource extends PropertySource {
+
+    /**
+     * @return true if the value of the named property is a decimal integer available from {@link #getLongValue(String)}
+     */
+    boolean hasLongValue(String name);
+
+    long getLongValue(String name);
+
+    /**
+     * @return true if the value of the named property is a boolean available from {@link #getBooleanValue(String)}
+     */
+    boolean hasBooleanValue(String name);
+
+    boolean getBooleanValue(String name);
+}
@@ -0,0 +1,83 @@
+package com.dreweaster.octodubstep.core.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads property sources that poll for changes on a schedule, from a single background thread however many sources
+ * are scheduled. A source's {@link PropertySource#reload()} is expected to be cheap when nothing has changed, and to
+ * only notify its listeners when something has.
+ */
+public final class ReloadScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReloadScheduler.class);
+
+    private static final ReloadScheduler SHARED = new ReloadScheduler();
+
+    /**
+     * @return the scheduler shared by all sources that don't specify their own
+     */
+    public static ReloadScheduler shared() {
+        return SHARED;
+    }
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Starts reloading the given source every interval. The scheduler thread is started on first use.
+     *
+     * @return the scheduled reloads, which can be cancelled to stop reloading the source
+     */
+    public synchronized ScheduledFuture<?> schedule(final PropertySource source, long interval, TimeUnit unit) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new SchedulerThreadFactory());
+        }
+        return executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                reload(source);
+            }
+        }, interval, interval, unit);
+    }
+
+    /**
+     * Stops the scheduler thread, cancelling every scheduled source. Sources can still be scheduled afterwards, which
+     * restarts it.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void reload(PropertySource source) {
+        try {
+            source.reload();
+        } catch (IOException e) {
+            LOG.error("Failed to reload property source: " + source.getDescription(), e);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to reload property source: " + source.getDescription(), e);
+        }
+    }
+
+    /**
+     * Creates the daemon scheduler thread.
+     */
+    private static final class SchedulerThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "octodubstep-reload-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
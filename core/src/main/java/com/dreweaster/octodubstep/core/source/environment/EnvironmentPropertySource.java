@@ -3,11 +3,95 @@ package com.dreweaster.octodubstep.core.source.environment;
 import com.google.common.base.Optional;
 import com.dreweaster.octodubstep.core.source.PropertySource;
 import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.dreweaster.octodubstep.core.source.ReloadScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * A property source holding the system properties and environment variables, system properties taking precedence.
+ * <p/>
+ * Both are copied into a snapshot when the source is created, so reads never touch the synchronized system
+ * {@link Properties}. Environment variables are also given relaxed names, lower case with underscores replaced by
+ * dots, so that {@code DB_POOL_SIZE} defines {@code db.pool.size}. Names are mapped once, up front; a variable can be
+ * looked up by either name but is only listed under its relaxed name. If several variables map to the same relaxed
+ * name, the first in name order wins.
+ * <p/>
+ * A source created by {@link #reloadingEvery(long, TimeUnit)} copies the system properties again on a schedule and
+ * takes a new snapshot, notifying its listeners, only if they differ from the last one. Environment variables can't
+ * change once the JVM has started, so are only read once.
+ */
 public final class EnvironmentPropertySource implements PropertySource {
 
+    private static final Logger LOG = LoggerFactory.getLogger(EnvironmentPropertySource.class);
+
+    /**
+     * The value of each environment variable, by both its relaxed and original name.
+     */
+    private final Map<String, String> environment;
+
+    private final Set<String> environmentNames;
+
+    private final boolean reloadable;
+
+    private volatile Snapshot snapshot;
+
+    private volatile ScheduledFuture<?> scheduledReloads;
+
+    private final List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    /**
+     * Creates a source holding a snapshot of the system properties and environment variables that's never reloaded.
+     */
+    public EnvironmentPropertySource() {
+        this(System.getenv(), false);
+    }
+
+    /**
+     * Creates a source that checks for changes to the system properties every interval, using the shared
+     * {@link ReloadScheduler}.
+     */
+    public static EnvironmentPropertySource reloadingEvery(long interval, TimeUnit unit) {
+        EnvironmentPropertySource source = new EnvironmentPropertySource(System.getenv(), true);
+        source.scheduledReloads = ReloadScheduler.shared().schedule(source, interval, unit);
+        return source;
+    }
+
+    EnvironmentPropertySource(Map<String, String> environmentVariables, boolean reloadable) {
+        this.reloadable = reloadable;
+        Map<String, String> environment = new HashMap<String, String>();
+        Set<String> environmentNames = new LinkedHashSet<String>();
+        for (Map.Entry<String, String> variable : new TreeMap<String, String>(environmentVariables).entrySet()) {
+            String relaxedName = relaxedName(variable.getKey());
+            if (environmentNames.add(relaxedName)) {
+                environment.put(relaxedName, variable.getValue());
+            }
+            environment.put(variable.getKey(), variable.getValue());
+        }
+        this.environment = environment;
+        this.environmentNames = environmentNames;
+        this.snapshot = new Snapshot(readSystemProperties());
+    }
+
+    /**
+     * @return the name, e.g. {@code db.pool.size}, an environment variable, e.g. {@code DB_POOL_SIZE}, defines
+     */
+    public static String relaxedName(String environmentVariable) {
+        return environmentVariable.toLowerCase(Locale.ENGLISH).replace('_', '.');
+    }
+
     @Override
     public String getDescription() {
         return "Environment";
@@ -15,31 +99,93 @@ public final class EnvironmentPropertySource implements PropertySource {
 
     @Override
     public Iterable<String> getPropertyNames() {
-        return System.getProperties().stringPropertyNames();
+        return snapshot.names;
     }
 
     @Override
     public Optional<String> getValue(String name) {
-        return Optional.fromNullable(System.getProperty(name));
+        return Optional.fromNullable(snapshot.values.get(name));
     }
 
     @Override
     public boolean isReloadable() {
-        return false;
+        return reloadable;
     }
 
+    /**
+     * Takes a new snapshot if the system properties have changed since the last one, notifying listeners. Does nothing
+     * for a source that isn't reloadable.
+     */
     @Override
-    public void reload() throws IOException {
-       // does nothing
+    public void reload() {
+        if (!reloadable) {
+            return;
+        }
+        Map<String, String> systemProperties = readSystemProperties();
+        if (systemProperties.equals(snapshot.systemProperties)) {
+            return;
+        }
+        snapshot = new Snapshot(systemProperties);
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops checking for changes to the system properties on a schedule.
+     */
+    public void stop() {
+        ScheduledFuture<?> reloads = scheduledReloads;
+        if (reloads != null) {
+            reloads.cancel(false);
+        }
     }
 
     @Override
     public void addListener(PropertySourceListener listener) {
-       // does nothing
+        listeners.add(listener);
     }
 
     @Override
     public void removeListener(PropertySourceListener listener) {
-       // does nothing
+        listeners.remove(listener);
+    }
+
+    /**
+     * Copies the system properties, cloning them first so that the system properties are only locked once.
+     */
+    private static Map<String, String> readSystemProperties() {
+        Properties properties = (Properties) System.getProperties().clone();
+        Map<String, String> systemProperties = new HashMap<String, String>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames()) {
+            systemProperties.put(name, properties.getProperty(name));
+        }
+        return systemProperties;
+    }
+
+    /**
+     * The system properties at a point in time, merged with the environment variables.
+     */
+    private final class Snapshot {
+
+        private final Map<String, String> systemProperties;
+
+        private final Map<String, String> values;
+
+        private final Set<String> names;
+
+        private Snapshot(Map<String, String> systemProperties) {
+            this.systemProperties = systemProperties;
+            Map<String, String> values = new HashMap<String, String>(environment);
+            values.putAll(systemProperties);
+            this.values = values;
+            Set<String> names = new LinkedHashSet<String>(environmentNames);
+            names.addAll(systemProperties.keySet());
+            this.names = Collections.unmodifiableSet(names);
+        }
     }
 }
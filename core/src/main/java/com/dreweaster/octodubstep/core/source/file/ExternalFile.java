@@ -10,4 +10,14 @@ public interface ExternalFile {
     InputStream getInputStream() throws IOException;
 
     String getPath();
+
+    /**
+     * @return the time the file was last modified, in milliseconds since the epoch, or 0 if it doesn't exist
+     */
+    long lastModified();
+
+    /**
+     * @return the length of the file in bytes, or 0 if it doesn't exist
+     */
+    long length();
 }
@@ -0,0 +1,12 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+
+/**
+ * A {@link PropertySource} loaded from one or more {@link ExternalFile}s, which can be watched for changes by a
+ * {@link FileWatcher}.
+ */
+public interface FileBackedPropertySource extends PropertySource {
+
+    Iterable<ExternalFile> getFiles();
+}
@@ -0,0 +1,185 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the files behind {@link FileBackedPropertySource}s and reloads a source when any of its files change.
+ * <p/>
+ * Files are polled for changes to their modification time and size from a single background thread, however many
+ * sources are being watched. A change is only acted upon once a file has stopped changing for the quiet period, so a
+ * burst of writes (as many editors produce when saving) results in a single reload.
+ */
+public final class FileWatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileWatcher.class);
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000;
+
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 500;
+
+    private static final FileWatcher SHARED =
+            new FileWatcher(DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_QUIET_PERIOD_MILLIS);
+
+    /**
+     * @return the watcher shared by all property managers that don't specify their own
+     */
+    public static FileWatcher shared() {
+        return SHARED;
+    }
+
+    private final long pollIntervalMillis;
+
+    private final long quietPeriodMillis;
+
+    private final List<WatchedSource> watchedSources = new CopyOnWriteArrayList<WatchedSource>();
+
+    private ScheduledExecutorService executor;
+
+    public FileWatcher(long pollIntervalMillis, long quietPeriodMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    /**
+     * Starts watching the files behind the given source. The watcher thread is started on first use.
+     *
+     * @param source the source to reload when its files change
+     */
+    public synchronized void watch(FileBackedPropertySource source) {
+        List<WatchedFile> files = new ArrayList<WatchedFile>();
+        for (ExternalFile file : source.getFiles()) {
+            files.add(new WatchedFile(file));
+        }
+        watchedSources.add(new WatchedSource(source, files));
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new WatcherThreadFactory());
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            }, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void unwatch(FileBackedPropertySource source) {
+        for (WatchedSource watchedSource : watchedSources) {
+            if (watchedSource.source == source) {
+                watchedSources.remove(watchedSource);
+            }
+        }
+    }
+
+    /**
+     * Stops the watcher thread. Sources can still be watched afterwards, which restarts it.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void poll() {
+        long now = System.currentTimeMillis();
+        Set<FileBackedPropertySource> changedSources = new LinkedHashSet<FileBackedPropertySource>();
+        for (WatchedSource watchedSource : watchedSources) {
+            for (WatchedFile file : watchedSource.files) {
+                if (file.settledChange(now)) {
+                    changedSources.add(watchedSource.source);
+                }
+            }
+        }
+
+        for (FileBackedPropertySource source : changedSources) {
+            try {
+                LOG.info("Reloading property source: " + source.getDescription());
+                source.reload();
+            } catch (IOException e) {
+                LOG.error("Failed to reload property source: " + source.getDescription(), e);
+            } catch (RuntimeException e) {
+                LOG.error("Failed to reload property source: " + source.getDescription(), e);
+            }
+        }
+    }
+
+    /**
+     * A watched source and its files.
+     */
+    private static final class WatchedSource {
+
+        private final FileBackedPropertySource source;
+
+        private final List<WatchedFile> files;
+
+        private WatchedSource(FileBackedPropertySource source, List<WatchedFile> files) {
+            this.source = source;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Tracks the last seen state of a file. Only ever accessed from the watcher thread once created.
+     */
+    private final class WatchedFile {
+
+        private final ExternalFile file;
+
+        private long lastModified;
+
+        private long length;
+
+        private long changedAt = -1;
+
+        private WatchedFile(ExternalFile file) {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        /**
+         * @return true if the file changed and has since been left alone for the quiet period
+         */
+        private boolean settledChange(long now) {
+            long currentLastModified = file.lastModified();
+            long currentLength = file.length();
+            if (currentLastModified != lastModified || currentLength != length) {
+                lastModified = currentLastModified;
+                length = currentLength;
+                changedAt = now;
+                return false;
+            }
+            if (changedAt >= 0 && now - changedAt >= quietPeriodMillis) {
+                changedAt = -1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Creates the daemon watcher thread.
+     */
+    private static final class WatcherThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "octodubstep-file-watcher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
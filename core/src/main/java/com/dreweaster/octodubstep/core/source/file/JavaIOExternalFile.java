@@ -28,4 +28,14 @@ public final class JavaIOExternalFile implements ExternalFile {
     public String getPath() {
         return file.getAbsolutePath();
     }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public long length() {
+        return file.length();
+    }
 }
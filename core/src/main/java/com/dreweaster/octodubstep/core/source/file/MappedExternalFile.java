@@ -0,0 +1,62 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An {@link ExternalFile} that can also be memory-mapped.
+ */
+public final class MappedExternalFile implements ExternalFile {
+
+    public static MappedExternalFile create(String path) {
+        return new MappedExternalFile(new File(path));
+    }
+
+    private File file;
+
+    public MappedExternalFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Maps the whole file read-only. The mapping stays valid after this method returns, until it is garbage collected.
+     * If the file is modified in place while mapped, the contents of the mapping change with it.
+     *
+     * @return the mapped contents of the file
+     * @throws IOException if the file can't be mapped
+     */
+    public ByteBuffer map() throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FileInputStream(file);
+    }
+
+    @Override
+    public String getPath() {
+        return file.getAbsolutePath();
+    }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public long length() {
+        return file.length();
+    }
+}
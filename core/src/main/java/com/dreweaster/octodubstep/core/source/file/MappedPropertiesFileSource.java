@@ -0,0 +1,101 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.google.common.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A properties file source that memory-maps the file and parses it in a single pass, rather than reading it through
+ * {@link java.util.Properties}. The file must use the standard ISO-8859-1 {@code .properties} syntax.
+ * <p/>
+ * Keys are held in a compact open-addressing index and values are only turned into strings the first time they are
+ * requested, straight from the mapped file. As a result, a file modified in place (rather than replaced) may show
+ * its new contents through values not yet requested before the source is reloaded.
+ */
+public final class MappedPropertiesFileSource implements FileBackedPropertySource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedPropertiesFileSource.class);
+
+    public static PropertySource create(String path) throws IOException {
+        return new MappedPropertiesFileSource(MappedExternalFile.create(path));
+    }
+
+    private MappedExternalFile externalFile;
+
+    private volatile PropertiesIndex properties;
+
+    private List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    /**
+     * Constructor.
+     *
+     * @param externalFile the properties file
+     * @throws IOException if the file can't be mapped
+     */
+    public MappedPropertiesFileSource(MappedExternalFile externalFile) throws IOException {
+        this.externalFile = externalFile;
+        this.properties = loadProperties();
+    }
+
+    @Override
+    public String getDescription() {
+        return externalFile.getPath();
+    }
+
+    @Override
+    public Iterable<ExternalFile> getFiles() {
+        return Collections.<ExternalFile>singletonList(externalFile);
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        return properties.keys();
+    }
+
+    @Override
+    public Optional<String> getValue(String name) {
+        return Optional.fromNullable(properties.get(name));
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    @Override
+    public void reload() throws IOException {
+        properties = loadProperties();
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(PropertySourceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PropertySourceListener listener) {
+        listeners.remove(listener);
+    }
+
+    private PropertiesIndex loadProperties() throws IOException {
+        try {
+            return PropertiesParser.parse(externalFile.map());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unable to parse " + getDescription() + ": " + e.getMessage());
+        }
+    }
+}
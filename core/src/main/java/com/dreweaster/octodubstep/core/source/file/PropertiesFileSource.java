@@ -3,15 +3,21 @@ package com.dreweaster.octodubstep.core.source.file;
 import com.google.common.base.Optional;
 import com.dreweaster.octodubstep.core.source.PropertySource;
 import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  */
-public final class PropertiesFileSource implements PropertySource {
+public final class PropertiesFileSource implements FileBackedPropertySource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertiesFileSource.class);
 
     public static PropertySource create(String path) throws IOException {
         return new PropertiesFileSource(JavaIOExternalFile.create(path));
@@ -19,7 +25,9 @@ public final class PropertiesFileSource implements PropertySource {
 
     private ExternalFile externalFile;
 
-    private Properties properties;
+    private volatile Properties properties;
+
+    private List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
 
     /**
      * Constructor.
@@ -29,8 +37,7 @@ public final class PropertiesFileSource implements PropertySource {
      */
     public PropertiesFileSource(ExternalFile externalFile) throws IOException {
         this.externalFile = externalFile;
-        this.properties = new Properties();
-        loadProperties();
+        this.properties = loadProperties();
     }
 
     @Override
@@ -38,6 +45,11 @@ public final class PropertiesFileSource implements PropertySource {
         return externalFile.getPath();
     }
 
+    @Override
+    public Iterable<ExternalFile> getFiles() {
+        return Collections.singletonList(externalFile);
+    }
+
     @Override
     public Iterable<String> getPropertyNames() {
         return properties.stringPropertyNames();
@@ -45,10 +57,7 @@ public final class PropertiesFileSource implements PropertySource {
 
     @Override
     public Optional<String> getValue(String name) {
-        if (properties.containsKey(name)) {
-            return Optional.of(properties.getProperty(name));
-        }
-        return Optional.absent();
+        return Optional.fromNullable(properties.getProperty(name));
     }
 
     @Override
@@ -56,26 +65,34 @@ public final class PropertiesFileSource implements PropertySource {
 
     @Override
     public void reload() throws IOException {
-        loadProperties();
-        // TODO: Fire reloaded event
+        properties = loadProperties();
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
     }
 
     @Override
     public void addListener(PropertySourceListener listener) {
-        // TODO: Add listener
+        listeners.add(listener);
     }
 
     @Override
     public void removeListener(PropertySourceListener listener) {
-        // TODO: Remove listener
+        listeners.remove(listener);
     }
 
-    private void loadProperties() throws IOException {
+    private Properties loadProperties() throws IOException {
+        Properties loaded = new Properties();
         InputStream is = externalFile.getInputStream();
         try {
-            properties.load(externalFile.getInputStream());
+            loaded.load(is);
         } finally {
             is.close();
         }
+        return loaded;
     }
 }
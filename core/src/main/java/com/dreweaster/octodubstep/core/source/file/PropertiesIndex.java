@@ -0,0 +1,143 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An open-addressing hash index of the properties parsed from a buffer.
+ * <p/>
+ * Values that need no unescaping are kept as a range of the buffer and only turned into a {@link String} the first
+ * time they're asked for. Entries are held in parallel arrays, in the order keys were first seen, with the hash table
+ * holding entry numbers.
+ */
+final class PropertiesIndex {
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    private final ByteBuffer buffer;
+
+    private String[] keys = new String[16];
+
+    private int[] valueStarts = new int[16];
+
+    private int[] valueEnds = new int[16];
+
+    private String[] values = new String[16];
+
+    private int size;
+
+    private int[] table = new int[32];
+
+    PropertiesIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Adds a value held in the buffer between the given positions. A later value for the same key replaces an
+     * earlier one.
+     */
+    void put(String key, int valueStart, int valueEnd) {
+        int entry = entryFor(key);
+        valueStarts[entry] = valueStart;
+        valueEnds[entry] = valueEnd;
+        values[entry] = null;
+    }
+
+    /**
+     * Adds an already decoded value.
+     */
+    void put(String key, String value) {
+        values[entryFor(key)] = value;
+    }
+
+    String get(String key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return null;
+        }
+        String value = values[entry];
+        if (value == null) {
+            // Strings are immutable, so racing threads at worst decode the same value twice
+            value = decode(valueStarts[entry], valueEnds[entry]);
+            values[entry] = value;
+        }
+        return value;
+    }
+
+    List<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(keys).subList(0, size));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, ISO_8859_1);
+    }
+
+    private int find(String key) {
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (keys[entry].equals(key)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int entryFor(String key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (keys[entry].equals(key)) {
+                return entry;
+            }
+        }
+
+        if (size == keys.length) {
+            growEntries();
+        }
+        int entry = size++;
+        keys[entry] = key;
+        table[slot] = entry + 1;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return entry;
+    }
+
+    private void growEntries() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        valueStarts = Arrays.copyOf(valueStarts, capacity);
+        valueEnds = Arrays.copyOf(valueEnds, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys[entry]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
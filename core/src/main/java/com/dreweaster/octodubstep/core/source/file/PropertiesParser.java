@@ -0,0 +1,263 @@
+package com.dreweaster.octodubstep.core.source.file;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Parses ISO-8859-1 encoded {@code .properties} content from a buffer in a single pass, following the same rules as
+ * {@link java.util.Properties#load(java.io.InputStream)}.
+ * <p/>
+ * Most lines contain no backslashes at all: their keys are read straight from the buffer and their values are left in
+ * it, to be decoded on demand by the {@link PropertiesIndex}. Lines containing escapes or continuations are assembled
+ * into a logical line and fully decoded as they're parsed.
+ */
+final class PropertiesParser {
+
+    private final ByteBuffer buffer;
+
+    private final int limit;
+
+    private char[] line = new char[256];
+
+    private PropertiesParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the content contains a malformed {@code \\uxxxx} escape
+     */
+    static PropertiesIndex parse(ByteBuffer buffer) {
+        return new PropertiesParser(buffer).parse();
+    }
+
+    private PropertiesIndex parse() {
+        PropertiesIndex index = new PropertiesIndex(buffer);
+        int position = 0;
+        while (true) {
+            // Skip blank lines and leading whitespace
+            while (position < limit && isWhitespaceOrNewline(charAt(position))) {
+                position++;
+            }
+            if (position >= limit) {
+                return index;
+            }
+
+            char first = charAt(position);
+            if (first == '#' || first == '!') {
+                while (position < limit && !isNewline(charAt(position))) {
+                    position++;
+                }
+                continue;
+            }
+
+            int lineStart = position;
+            boolean hasBackslash = false;
+            boolean precedingBackslash = false;
+            boolean continuedAtEnd = false;
+            while (position < limit) {
+                char c = charAt(position);
+                if (isNewline(c)) {
+                    if (!precedingBackslash) {
+                        break;
+                    }
+                    if (position == limit - 1) {
+                        continuedAtEnd = true;
+                        break;
+                    }
+                    position = skipContinuation(position);
+                    precedingBackslash = false;
+                    continue;
+                }
+                if (c == '\\') {
+                    hasBackslash = true;
+                    precedingBackslash = !precedingBackslash;
+                } else {
+                    precedingBackslash = false;
+                }
+                position++;
+            }
+
+            if (hasBackslash) {
+                parseEscapedLine(index, lineStart, position, continuedAtEnd);
+            } else {
+                parseSimpleLine(index, lineStart, position);
+            }
+        }
+    }
+
+    /**
+     * Splits a line without backslashes into its key and value, leaving the value in the buffer.
+     */
+    private void parseSimpleLine(PropertiesIndex index, int start, int end) {
+        int keyEnd = start;
+        while (keyEnd < end && !isSeparator(charAt(keyEnd)) && !isWhitespace(charAt(keyEnd))) {
+            keyEnd++;
+        }
+        int valueStart = skipSeparator(keyEnd, end);
+
+        char[] key = new char[keyEnd - start];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = charAt(start + i);
+        }
+        index.put(new String(key), valueStart, end);
+    }
+
+    private int skipSeparator(int position, int end) {
+        boolean hasSeparator = false;
+        while (position < end) {
+            char c = charAt(position);
+            if (!isWhitespace(c)) {
+                if (!hasSeparator && isSeparator(c)) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Assembles a line containing backslashes into a logical line, joining continuation lines, then splits and decodes
+     * it exactly as {@link java.util.Properties} does.
+     *
+     * @param continuedAtEnd true if the line ends with a continuation whose newline is the last character of the
+     *                       content, which {@link java.util.Properties} treats as a line even if it's otherwise empty
+     */
+    private void parseEscapedLine(PropertiesIndex index, int start, int end, boolean continuedAtEnd) {
+        int length = 0;
+        boolean precedingBackslash = false;
+        for (int position = start; position < end; ) {
+            char c = charAt(position);
+            if (isNewline(c)) {
+                // Only reached for continuations, the line's terminating newline being at end
+                length--;
+                position = skipContinuation(position);
+                precedingBackslash = false;
+                continue;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[length++] = c;
+            precedingBackslash = c == '\\' && !precedingBackslash;
+            position++;
+        }
+        if (continuedAtEnd) {
+            length--;
+        } else if (length == 0) {
+            return;
+        } else if (precedingBackslash && end == limit) {
+            // A trailing backslash at the end of the content is dropped, even if that leaves an empty line
+            length--;
+        }
+
+        int keyLength = 0;
+        int valueStart = length;
+        boolean hasSeparator = false;
+        precedingBackslash = false;
+        while (keyLength < length) {
+            char c = line[keyLength];
+            if (isSeparator(c) && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                hasSeparator = true;
+                break;
+            } else if (isWhitespace(c) && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                break;
+            }
+            precedingBackslash = c == '\\' && !precedingBackslash;
+            keyLength++;
+        }
+        while (valueStart < length) {
+            char c = line[valueStart];
+            if (!isWhitespace(c)) {
+                if (!hasSeparator && isSeparator(c)) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+
+        index.put(unescape(line, 0, keyLength), unescape(line, valueStart, length));
+    }
+
+    /**
+     * Skips the newline ending a continued line, and any leading whitespace on the next line.
+     */
+    private int skipContinuation(int position) {
+        if (charAt(position) == '\r' && position + 1 < limit && charAt(position + 1) == '\n') {
+            position++;
+        }
+        position++;
+        while (position < limit && isWhitespace(charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static String unescape(char[] chars, int start, int end) {
+        StringBuilder out = new StringBuilder(end - start);
+        int position = start;
+        while (position < end) {
+            char c = chars[position++];
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (position == end) {
+                break;
+            }
+            c = chars[position++];
+            if (c == 'u') {
+                if (end - position < 4) {
+                    throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(chars[position++], 16);
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    value = (value << 4) + digit;
+                }
+                out.append((char) value);
+            } else if (c == 't') {
+                out.append('\t');
+            } else if (c == 'r') {
+                out.append('\r');
+            } else if (c == 'n') {
+                out.append('\n');
+            } else if (c == 'f') {
+                out.append('\f');
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private char charAt(int position) {
+        return (char) (buffer.get(position) & 0xff);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '=' || c == ':';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isNewline(char c) {
+        return c == '\r' || c == '\n';
+    }
+
+    private static boolean isWhitespaceOrNewline(char c) {
+        return isWhitespace(c) || isNewline(c);
+    }
+}
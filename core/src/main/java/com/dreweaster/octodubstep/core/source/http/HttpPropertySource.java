@@ -0,0 +1,492 @@
+package com.dreweaster.octodubstep.core.source.http;
+
+import com.google.common.base.Optional;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.dreweaster.octodubstep.core.source.ReloadScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A property source fetching {@code .properties} content from a remote config service over HTTP.
+ * <p/>
+ * Each reload is a conditional GET, sending the {@code ETag} of the last response as {@code If-None-Match}, so that a
+ * service with nothing new to say can answer {@code 304 Not Modified} without sending the properties again. Sources
+ * can either be reloaded on a schedule, by a {@link ReloadScheduler}, or long poll: each request then asks the service,
+ * with a {@code Prefer: wait=<seconds>} header, to hold on to it until the properties change or the wait runs out, and
+ * a new request is made as soon as one completes, but no sooner than a minimum interval after the previous one was
+ * made, so that a service answering straight away, e.g. one that ignores {@code Prefer}, isn't polled in a tight loop.
+ * Long polls block, so each long polling source has its own thread.
+ * <p/>
+ * Responses may be gzip encoded, and are decompressed and parsed as they're read. After a failed request, further
+ * attempts are held back for a period that doubles with each consecutive failure, up to a maximum, and is jittered so
+ * that many clients failing together don't retry together.
+ * <p/>
+ * With a cache file, the content of every successful response is also written to the file. A source built when the
+ * file exists is loaded from it, without waiting on the service, and checks with the service on its first reload.
+ * Listeners are only notified when a reload actually changes the properties.
+ */
+public final class HttpPropertySource implements PropertySource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpPropertySource.class);
+
+    private static final String ETAG_COMMENT = "#ETag: ";
+
+    private static final Random JITTER = new Random();
+
+    public static Builder forUrl(URL url) {
+        return new Builder(url);
+    }
+
+    private final URL url;
+
+    private final File cacheFile;
+
+    private final int connectTimeoutMillis;
+
+    private final int readTimeoutMillis;
+
+    private final long longPollWaitSeconds;
+
+    private final long minLongPollIntervalMillis;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    private volatile Map<String, String> values;
+
+    private String etag;
+
+    private int consecutiveFailures;
+
+    private long nextAttemptMillis;
+
+    private volatile ScheduledFuture<?> scheduledReloads;
+
+    private volatile Thread longPollThread;
+
+    private HttpPropertySource(Builder builder) throws IOException {
+        this.url = builder.url;
+        this.cacheFile = builder.cacheFile;
+        this.connectTimeoutMillis = (int) builder.connectTimeoutMillis;
+        this.longPollWaitSeconds = builder.longPollWaitSeconds;
+        this.minLongPollIntervalMillis = builder.minLongPollIntervalMillis;
+        this.readTimeoutMillis = (int) (builder.readTimeoutMillis + TimeUnit.SECONDS.toMillis(longPollWaitSeconds));
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+
+        if (cacheFile != null && cacheFile.isFile()) {
+            values = readCache();
+            LOG.info("Loaded " + getDescription() + " from cache " + cacheFile.getPath());
+        } else {
+            values = Collections.emptyMap();
+            fetch(false);
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return url.toString();
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        return values.keySet();
+    }
+
+    @Override
+    public Optional<String> getValue(String name) {
+        return Optional.fromNullable(values.get(name));
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    /**
+     * Makes a conditional request for the properties, unless still backing off following a failed request, in which
+     * case it does nothing.
+     *
+     * @throws IOException if the request fails
+     */
+    @Override
+    public synchronized void reload() throws IOException {
+        if (System.currentTimeMillis() < nextAttemptMillis) {
+            return;
+        }
+        fetch(longPollWaitSeconds > 0);
+    }
+
+    /**
+     * Stops reloading the source on a schedule or long polling.
+     */
+    public void stop() {
+        ScheduledFuture<?> reloads = scheduledReloads;
+        if (reloads != null) {
+            reloads.cancel(false);
+        }
+        Thread thread = longPollThread;
+        if (thread != null) {
+            longPollThread = null;
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void addListener(PropertySourceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PropertySourceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the time until the next request may be made, following any failures
+     */
+    synchronized long backoffRemainingMillis() {
+        return Math.max(0, nextAttemptMillis - System.currentTimeMillis());
+    }
+
+    private void fetch(boolean longPoll) throws IOException {
+        try {
+            Map<String, String> fetched = request(longPoll);
+            consecutiveFailures = 0;
+            nextAttemptMillis = 0;
+            if (fetched != null && !fetched.equals(values)) {
+                values = fetched;
+                notifyListeners();
+            }
+        } catch (IOException e) {
+            backOff();
+            throw e;
+        } catch (RuntimeException e) {
+            backOff();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the fetched properties, or null if they haven't changed
+     */
+    private Map<String, String> request(boolean longPoll) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setUseCaches(false);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (longPoll) {
+                connection.setRequestProperty("Prefer", "wait=" + longPollWaitSeconds);
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return null;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response from " + url + ": " + status);
+            }
+
+            String responseEtag = connection.getHeaderField("ETag");
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+                in = new GZIPInputStream(in);
+            }
+            Map<String, String> fetched = cacheFile != null ? readAndCache(in, responseEtag) : read(in);
+            etag = responseEtag;
+            return fetched;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static Map<String, String> read(InputStream in) throws IOException {
+        try {
+            return load(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Parses the properties while copying them to a temporary file, which replaces the cache file once the whole
+     * response has been read.
+     */
+    private Map<String, String> readAndCache(InputStream in, String responseEtag) throws IOException {
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(temporaryFile));
+        Map<String, String> fetched;
+        try {
+            if (responseEtag != null) {
+                out.write((ETAG_COMMENT + responseEtag + "\n").getBytes("ISO-8859-1"));
+            }
+            fetched = load(new CopyingInputStream(in, out));
+        } finally {
+            try {
+                in.close();
+            } finally {
+                out.close();
+            }
+        }
+        if (!temporaryFile.renameTo(cacheFile)) {
+            // Renaming over an existing file fails on some platforms
+            if (!cacheFile.delete() || !temporaryFile.renameTo(cacheFile)) {
+                LOG.warn("Unable to update cache " + cacheFile.getPath() + " for " + getDescription());
+            }
+        }
+        return fetched;
+    }
+
+    private Map<String, String> readCache() throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(cacheFile), "ISO-8859-1"));
+        try {
+            String firstLine = reader.readLine();
+            if (firstLine != null && firstLine.startsWith(ETAG_COMMENT)) {
+                etag = firstLine.substring(ETAG_COMMENT.length());
+            }
+        } finally {
+            reader.close();
+        }
+        return read(new BufferedInputStream(new FileInputStream(cacheFile)));
+    }
+
+    private static Map<String, String> load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        Map<String, String> loaded = new HashMap<String, String>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames()) {
+            loaded.put(name, properties.getProperty(name));
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Holds back the next request for a jittered period of between half and all of the current backoff, which doubles
+     * with each consecutive failure.
+     */
+    private void backOff() {
+        consecutiveFailures++;
+        long backoff = initialBackoffMillis << Math.min(consecutiveFailures - 1, 30);
+        if (backoff <= 0 || backoff > maxBackoffMillis) {
+            backoff = maxBackoffMillis;
+        }
+        long jittered = backoff / 2 + (long) (JITTER.nextDouble() * (backoff - backoff / 2));
+        nextAttemptMillis = System.currentTimeMillis() + jittered;
+    }
+
+    private void notifyListeners() {
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
+    }
+
+    private void startLongPolling() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                longPoll();
+            }
+        }, "octodubstep-long-poll-" + url.getHost());
+        thread.setDaemon(true);
+        longPollThread = thread;
+        thread.start();
+    }
+
+    private void longPoll() {
+        long lastPollMillis = 0;
+        while (longPollThread == Thread.currentThread()) {
+            try {
+                long wait = Math.max(backoffRemainingMillis(),
+                        lastPollMillis + minLongPollIntervalMillis - System.currentTimeMillis());
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+                lastPollMillis = System.currentTimeMillis();
+                reload();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                logLongPollFailure(e);
+            } catch (RuntimeException e) {
+                logLongPollFailure(e);
+            }
+        }
+    }
+
+    private void logLongPollFailure(Exception e) {
+        // A poll in flight when the source is stopped can fail, which isn't worth reporting
+        if (longPollThread == Thread.currentThread()) {
+            LOG.error("Failed to reload property source: " + getDescription(), e);
+        }
+    }
+
+    /**
+     * Copies everything read from a stream to another stream.
+     */
+    private static final class CopyingInputStream extends FilterInputStream {
+
+        private final OutputStream copy;
+
+        private CopyingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy.write(buffer, offset, read);
+            }
+            return read;
+        }
+    }
+
+    public static final class Builder {
+
+        private final URL url;
+
+        private File cacheFile;
+
+        private long connectTimeoutMillis = 5000;
+
+        private long readTimeoutMillis = 10000;
+
+        private long longPollWaitSeconds;
+
+        private long minLongPollIntervalMillis = 1000;
+
+        private long initialBackoffMillis = 1000;
+
+        private long maxBackoffMillis = TimeUnit.MINUTES.toMillis(5);
+
+        private ReloadScheduler scheduler;
+
+        private long pollInterval;
+
+        private TimeUnit pollIntervalUnit;
+
+        private Builder(URL url) {
+            this.url = url;
+        }
+
+        /**
+         * Keeps the last properties fetched in the given file, and loads them from it when the source is built.
+         */
+        public Builder cachingTo(File file) {
+            cacheFile = file;
+            return this;
+        }
+
+        public Builder withTimeouts(long connectTimeout, long readTimeout, TimeUnit unit) {
+            connectTimeoutMillis = unit.toMillis(connectTimeout);
+            readTimeoutMillis = unit.toMillis(readTimeout);
+            return this;
+        }
+
+        /**
+         * @param initialBackoff the period requests are held back for after a first failure, 1 second by default
+         * @param maxBackoff     the longest period requests are held back for, 5 minutes by default
+         */
+        public Builder backingOffBetween(long initialBackoff, long maxBackoff, TimeUnit unit) {
+            initialBackoffMillis = unit.toMillis(initialBackoff);
+            maxBackoffMillis = unit.toMillis(maxBackoff);
+            return this;
+        }
+
+        /**
+         * Reloads the source every interval using the shared {@link ReloadScheduler}.
+         */
+        public Builder pollingEvery(long interval, TimeUnit unit) {
+            return pollingEvery(interval, unit, ReloadScheduler.shared());
+        }
+
+        public Builder pollingEvery(long interval, TimeUnit unit, ReloadScheduler scheduler) {
+            this.pollInterval = interval;
+            this.pollIntervalUnit = unit;
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Long polls the service for changes from a thread of the source's own, asking it to wait up to the given
+         * period, rounded up to a whole number of seconds, before answering when nothing has changed. Polls are made
+         * at most once a second.
+         */
+        public Builder longPolling(long wait, TimeUnit unit) {
+            longPollWaitSeconds = Math.max(1, (unit.toMillis(wait) + 999) / 1000);
+            return this;
+        }
+
+        /**
+         * @param minInterval the least time between making one poll and the next, however soon the first is answered
+         */
+        public Builder longPolling(long wait, long minInterval, TimeUnit unit) {
+            minLongPollIntervalMillis = unit.toMillis(minInterval);
+            return longPolling(wait, unit);
+        }
+
+        /**
+         * Loads the properties, from the cache file if there is one and otherwise from the service, and starts
+         * reloading them.
+         *
+         * @throws IOException if there's no cache file and the service can't be reached
+         */
+        public HttpPropertySource build() throws IOException {
+            HttpPropertySource source = new HttpPropertySource(this);
+            if (longPollWaitSeconds > 0) {
+                source.startLongPolling();
+            } else if (scheduler != null) {
+                source.scheduledReloads = scheduler.schedule(source, pollInterval, pollIntervalUnit);
+            }
+            return source;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.dreweaster.octodubstep.core.source.jdbc;
+
+import com.google.common.base.Optional;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.dreweaster.octodubstep.core.source.ReloadScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A property source over a database table holding a row per property, with a name column and a value column.
+ * <p/>
+ * The whole table is loaded when the source is built, with a single query whose rows are streamed in batches of the
+ * fetch size rather than read into memory in one go. If the table has a version column, such as a sequence number or
+ * last updated timestamp that increases whenever a row is written, each reload only fetches the rows at or above the
+ * highest version seen so far. Rows at exactly the highest version are fetched again, so that rows written in the
+ * same instant but committed after the previous poll aren't missed; rows whose value is unchanged are ignored. A row
+ * whose value is null removes the property. Rows deleted outright can only be noticed by {@link #reloadFully()}, and
+ * without a version column every reload reads the whole table.
+ * <p/>
+ * Listeners are only notified when a reload changes at least one property. Sources built with
+ * {@link Builder#pollingEvery(long, TimeUnit)} are reloaded by a {@link ReloadScheduler}, which polls every source it
+ * schedules from a single thread.
+ */
+public final class JdbcPropertySource implements PropertySource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcPropertySource.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)*");
+
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    public static Builder forTable(DataSource dataSource, String table) {
+        return new Builder(dataSource, table);
+    }
+
+    private final DataSource dataSource;
+
+    private final String table;
+
+    private final String selectAll;
+
+    private final String selectChanged;
+
+    private final int fetchSize;
+
+    private final List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    private volatile Map<String, String> values;
+
+    /**
+     * The highest version seen so far, or null if the table has no version column or no versioned rows.
+     */
+    private Object highestVersion;
+
+    private volatile ScheduledFuture<?> scheduledReloads;
+
+    private JdbcPropertySource(Builder builder) throws SQLException {
+        this.dataSource = builder.dataSource;
+        this.table = builder.table;
+        this.fetchSize = builder.fetchSize;
+
+        String columns = builder.nameColumn + ", " + builder.valueColumn
+                + (builder.versionColumn != null ? ", " + builder.versionColumn : "");
+        this.selectAll = "SELECT " + columns + " FROM " + table;
+        this.selectChanged = builder.versionColumn != null
+                ? selectAll + " WHERE " + builder.versionColumn + " >= ?"
+                : null;
+
+        Map<String, String> loaded = new HashMap<String, String>();
+        this.highestVersion = query(selectAll, null, loaded);
+        this.values = Collections.unmodifiableMap(loaded);
+    }
+
+    @Override
+    public String getDescription() {
+        return "JDBC table " + table;
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        return values.keySet();
+    }
+
+    @Override
+    public Optional<String> getValue(String name) {
+        return Optional.fromNullable(values.get(name));
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    /**
+     * Fetches the rows changed since the last reload, or the whole table if it has no version column.
+     */
+    @Override
+    public synchronized void reload() throws IOException {
+        if (selectChanged == null || highestVersion == null) {
+            reloadFully();
+            return;
+        }
+        Map<String, String> changedRows = new HashMap<String, String>();
+        Object newHighestVersion;
+        try {
+            newHighestVersion = query(selectChanged, highestVersion, changedRows);
+        } catch (SQLException e) {
+            throw new IOException("Failed to query " + getDescription(), e);
+        }
+
+        Map<String, String> newValues = null;
+        for (Map.Entry<String, String> row : changedRows.entrySet()) {
+            String value = row.getValue();
+            String currentValue = values.get(row.getKey());
+            if (value == null ? currentValue != null : !value.equals(currentValue)) {
+                if (newValues == null) {
+                    newValues = new HashMap<String, String>(values);
+                }
+                if (value == null) {
+                    newValues.remove(row.getKey());
+                } else {
+                    newValues.put(row.getKey(), value);
+                }
+            }
+        }
+        if (newValues != null) {
+            publish(newValues);
+        }
+        highestVersion = newHighestVersion;
+    }
+
+    /**
+     * Reads the whole table again, picking up rows that were deleted outright.
+     */
+    public synchronized void reloadFully() throws IOException {
+        Map<String, String> newValues = new HashMap<String, String>();
+        Object newHighestVersion;
+        try {
+            newHighestVersion = query(selectAll, null, newValues);
+        } catch (SQLException e) {
+            throw new IOException("Failed to query " + getDescription(), e);
+        }
+        if (!newValues.equals(values)) {
+            publish(newValues);
+        }
+        highestVersion = newHighestVersion;
+    }
+
+    /**
+     * Stops reloading the source on a schedule.
+     */
+    public void stop() {
+        ScheduledFuture<?> reloads = scheduledReloads;
+        if (reloads != null) {
+            reloads.cancel(false);
+        }
+    }
+
+    @Override
+    public void addListener(PropertySourceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PropertySourceListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void publish(Map<String, String> newValues) {
+        values = Collections.unmodifiableMap(newValues);
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
+    }
+
+    /**
+     * Streams the rows of a query into the given map. Null values are kept, marking removed properties, except when
+     * reading the whole table. The highest version seen is only returned once every row has been read, so that the
+     * caller only moves past the rows of a query that didn't fail partway through.
+     *
+     * @param fromVersion the version to fetch rows from, or null to fetch every row
+     * @return the highest version of the rows read, or of fromVersion if none is higher, or null if the table has no
+     *         version column
+     */
+    @SuppressWarnings("unchecked")
+    private Object query(String sql, Object fromVersion, Map<String, String> rows) throws SQLException {
+        Object highestVersionRead = fromVersion;
+        Connection connection = dataSource.getConnection();
+        try {
+            // Some drivers, e.g. PostgreSQL's, only honour the fetch size within a transaction
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                try {
+                    statement.setFetchSize(fetchSize);
+                    if (fromVersion != null) {
+                        statement.setObject(1, fromVersion);
+                    }
+                    ResultSet resultSet = statement.executeQuery();
+                    try {
+                        boolean versioned = selectChanged != null;
+                        while (resultSet.next()) {
+                            String value = resultSet.getString(2);
+                            if (value != null || fromVersion != null) {
+                                rows.put(resultSet.getString(1), value);
+                            }
+                            if (versioned) {
+                                Object version = resultSet.getObject(3);
+                                if (version != null && (highestVersionRead == null
+                                        || ((Comparable<Object>) version).compareTo(highestVersionRead) > 0)) {
+                                    highestVersionRead = version;
+                                }
+                            }
+                        }
+                    } finally {
+                        resultSet.close();
+                    }
+                } finally {
+                    statement.close();
+                }
+            } finally {
+                if (autoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+        } finally {
+            connection.close();
+        }
+        return highestVersionRead;
+    }
+
+    private static String identifier(String identifier) {
+        if (!IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("Invalid table or column name: " + identifier);
+        }
+        return identifier;
+    }
+
+    public static final class Builder {
+
+        private final DataSource dataSource;
+
+        private final String table;
+
+        private String nameColumn = "name";
+
+        private String valueColumn = "value";
+
+        private String versionColumn;
+
+        private int fetchSize = DEFAULT_FETCH_SIZE;
+
+        private ReloadScheduler scheduler;
+
+        private long pollInterval;
+
+        private TimeUnit pollIntervalUnit;
+
+        private Builder(DataSource dataSource, String table) {
+            this.dataSource = dataSource;
+            this.table = identifier(table);
+        }
+
+        /**
+         * @param column the column holding property names, {@code name} by default
+         */
+        public Builder withNameColumn(String column) {
+            nameColumn = identifier(column);
+            return this;
+        }
+
+        /**
+         * @param column the column holding property values, {@code value} by default
+         */
+        public Builder withValueColumn(String column) {
+            valueColumn = identifier(column);
+            return this;
+        }
+
+        /**
+         * Only fetches changed rows when reloading, using a column whose value increases whenever a row is written,
+         * such as a sequence number or last updated timestamp.
+         */
+        public Builder withVersionColumn(String column) {
+            versionColumn = identifier(column);
+            return this;
+        }
+
+        /**
+         * @param rows the number of rows to fetch from the database at a time, {@link #DEFAULT_FETCH_SIZE} by default
+         */
+        public Builder fetchingInBatchesOf(int rows) {
+            fetchSize = rows;
+            return this;
+        }
+
+        /**
+         * Reloads the source every interval using the shared {@link ReloadScheduler}.
+         */
+        public Builder pollingEvery(long interval, TimeUnit unit) {
+            return pollingEvery(interval, unit, ReloadScheduler.shared());
+        }
+
+        public Builder pollingEvery(long interval, TimeUnit unit, ReloadScheduler scheduler) {
+            this.pollInterval = interval;
+            this.pollIntervalUnit = unit;
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Loads the table and, if polling, starts reloading it on a schedule.
+         */
+        public JdbcPropertySource build() throws SQLException {
+            JdbcPropertySource source = new JdbcPropertySource(this);
+            if (scheduler != null) {
+                source.scheduledReloads = scheduler.schedule(source, pollInterval, pollIntervalUnit);
+            }
+            return source;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.dreweaster.octodubstep.core.source.precompiled;
+
+import com.dreweaster.octodubstep.core.source.PreconvertedPropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySource;
+import com.dreweaster.octodubstep.core.source.PropertySourceListener;
+import com.dreweaster.octodubstep.core.source.file.ExternalFile;
+import com.dreweaster.octodubstep.core.source.file.FileBackedPropertySource;
+import com.dreweaster.octodubstep.core.source.file.JavaIOExternalFile;
+import com.google.common.base.Optional;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * A properties file source that keeps a precompiled binary snapshot of the file alongside it, so later starts can skip
+ * parsing the file.
+ * <p/>
+ * The snapshot holds the raw values along with the primitive form of any numeric or boolean values, and records the
+ * length and checksum of the properties file it was built from. If the snapshot is missing, stale or corrupt, the
+ * properties file is parsed as normal and a new snapshot written. Snapshots can also be built ahead of time, as part
+ * of a build, using {@link #compile(ExternalFile, File)} or {@link #main(String[])}.
+ */
+public final class PrecompiledPropertiesFileSource implements FileBackedPropertySource, PreconvertedPropertySource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrecompiledPropertiesFileSource.class);
+
+    public static PropertySource create(String propertiesPath, String snapshotPath) throws IOException {
+        return new PrecompiledPropertiesFileSource(JavaIOExternalFile.create(propertiesPath), new File(snapshotPath));
+    }
+
+    /**
+     * Builds a snapshot of a properties file.
+     *
+     * @param propertiesFile the properties file
+     * @param snapshotFile   the snapshot file to write
+     * @throws IOException if the properties file can't be read or the snapshot can't be written
+     */
+    public static void compile(ExternalFile propertiesFile, File snapshotFile) throws IOException {
+        byte[] content = readFully(propertiesFile);
+        SnapshotFormat.write(
+                snapshotFile,
+                propertiesFile.getPath(),
+                content.length,
+                propertiesFile.lastModified(),
+                checksumOf(content),
+                parse(content));
+    }
+
+    /**
+     * Builds a snapshot from the command line: {@code <properties file> <snapshot file>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: " + PrecompiledPropertiesFileSource.class.getName()
+                    + " <properties file> <snapshot file>");
+            System.exit(1);
+        }
+        compile(JavaIOExternalFile.create(args[0]), new File(args[1]));
+    }
+
+    private ExternalFile propertiesFile;
+
+    private File snapshotFile;
+
+    private volatile Map<String, PrecompiledValue> values;
+
+    private volatile boolean loadedFromSnapshot;
+
+    private List<PropertySourceListener> listeners = new CopyOnWriteArrayList<PropertySourceListener>();
+
+    /**
+     * Constructor.
+     *
+     * @param propertiesFile the properties file
+     * @param snapshotFile   where the snapshot of the properties file is kept
+     * @throws IOException if the properties file can't be read
+     */
+    public PrecompiledPropertiesFileSource(ExternalFile propertiesFile, File snapshotFile) throws IOException {
+        this.propertiesFile = propertiesFile;
+        this.snapshotFile = snapshotFile;
+        this.values = load();
+    }
+
+    /**
+     * @return true if the current values were loaded from the snapshot rather than by parsing the properties file
+     */
+    public boolean loadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
+    @Override
+    public String getDescription() {
+        return propertiesFile.getPath();
+    }
+
+    @Override
+    public Iterable<ExternalFile> getFiles() {
+        return Collections.singletonList(propertiesFile);
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        return values.keySet();
+    }
+
+    @Override
+    public Optional<String> getValue(String name) {
+        PrecompiledValue value = values.get(name);
+        return value != null ? Optional.of(value.value()) : Optional.<String>absent();
+    }
+
+    @Override
+    public boolean hasLongValue(String name) {
+        PrecompiledValue value = values.get(name);
+        return value != null && value.primitiveKind() == PrecompiledValue.LONG;
+    }
+
+    @Override
+    public long getLongValue(String name) {
+        return values.get(name).primitive();
+    }
+
+    @Override
+    public boolean hasBooleanValue(String name) {
+        PrecompiledValue value = values.get(name);
+        return value != null && value.primitiveKind() == PrecompiledValue.BOOLEAN;
+    }
+
+    @Override
+    public boolean getBooleanValue(String name) {
+        return values.get(name).primitive() != 0;
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    @Override
+    public void reload() throws IOException {
+        values = load();
+        for (PropertySourceListener listener : listeners) {
+            try {
+                listener.propertySourceReloaded(this);
+            } catch (RuntimeException e) {
+                LOG.error("Property source listener failed following reload of " + getDescription(), e);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(PropertySourceListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PropertySourceListener listener) {
+        listeners.remove(listener);
+    }
+
+    private Map<String, PrecompiledValue> load() throws IOException {
+        byte[] content = readFully(propertiesFile);
+        long checksum = checksumOf(content);
+
+        if (snapshotFile.exists()) {
+            try {
+                Map<String, PrecompiledValue> snapshotValues =
+                        SnapshotFormat.read(snapshotFile, content.length, checksum);
+                if (snapshotValues != null) {
+                    loadedFromSnapshot = true;
+                    return snapshotValues;
+                }
+                LOG.info("Snapshot " + snapshotFile + " is out of date, parsing " + getDescription());
+            } catch (IOException e) {
+                LOG.warn("Unable to read snapshot " + snapshotFile + ", parsing " + getDescription(), e);
+            }
+        }
+
+        Map<String, PrecompiledValue> parsedValues = parse(content);
+        loadedFromSnapshot = false;
+        try {
+            SnapshotFormat.write(
+                    snapshotFile,
+                    propertiesFile.getPath(),
+                    content.length,
+                    propertiesFile.lastModified(),
+                    checksum,
+                    parsedValues);
+        } catch (IOException e) {
+            LOG.warn("Unable to write snapshot " + snapshotFile, e);
+        }
+        return parsedValues;
+    }
+
+    private static byte[] readFully(ExternalFile file) throws IOException {
+        InputStream is = file.getInputStream();
+        try {
+            return ByteStreams.toByteArray(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    private static long checksumOf(byte[] content) {
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+        return checksum.getValue();
+    }
+
+    private static Map<String, PrecompiledValue> parse(byte[] content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(content));
+        Map<String, PrecompiledValue> parsed = new HashMap<String, PrecompiledValue>();
+        for (String name : properties.stringPropertyNames()) {
+            parsed.put(name, PrecompiledValue.of(properties.getProperty(name)));
+        }
+        return parsed;
+    }
+}
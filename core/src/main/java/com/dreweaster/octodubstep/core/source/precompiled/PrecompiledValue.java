@@ -0,0 +1,59 @@
+package com.dreweaster.octodubstep.core.source.precompiled;
+
+import java.util.regex.Pattern;
+
+/**
+ * A raw property value, along with its primitive form if it has one.
+ */
+final class PrecompiledValue {
+
+    static final byte NO_PRIMITIVE = 0;
+
+    static final byte LONG = 1;
+
+    static final byte BOOLEAN = 2;
+
+    private static final Pattern DECIMAL = Pattern.compile("-?[0-9]{1,19}");
+
+    /**
+     * Works out the primitive form of a raw value the same way the default converters would.
+     */
+    static PrecompiledValue of(String value) {
+        if (DECIMAL.matcher(value).matches()) {
+            try {
+                return new PrecompiledValue(value, LONG, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                // Out of range, so keep it as a string
+            }
+        } else if ("true".equalsIgnoreCase(value)) {
+            return new PrecompiledValue(value, BOOLEAN, 1);
+        } else if ("false".equalsIgnoreCase(value)) {
+            return new PrecompiledValue(value, BOOLEAN, 0);
+        }
+        return new PrecompiledValue(value, NO_PRIMITIVE, 0);
+    }
+
+    private final String value;
+
+    private final byte primitiveKind;
+
+    private final long primitive;
+
+    PrecompiledValue(String value, byte primitiveKind, long primitive) {
+        this.value = value;
+        this.primitiveKind = primitiveKind;
+        this.primitive = primitive;
+    }
+
+    String value() {
+        return value;
+    }
+
+    byte primitiveKind() {
+        return primitiveKind;
+    }
+
+    long primitive() {
+        return primitive;
+    }
+}
@@ -0,0 +1,180 @@
+package com.dreweaster.octodubstep.core.source.precompiled;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes precompiled property snapshots. A snapshot file is laid out as:
+ * <pre>
+ * int     magic
+ * int     format version
+ * string  path of the properties file the snapshot was built from
+ * long    length of the properties file
+ * long    last modified time of the properties file
+ * long    CRC32 checksum of the properties file
+ * int     number of properties
+ * for each property:
+ *   string  name
+ *   string  raw value
+ *   byte    primitive kind (none, long or boolean)
+ *   long    primitive value, if there is one
+ * long    CRC32 checksum of everything above
+ * </pre>
+ * Strings are written as an int byte count followed by UTF-8 bytes.
+ */
+final class SnapshotFormat {
+
+    private static final int MAGIC = 0x4f435444;
+
+    private static final int VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int CHECKSUM_CHUNK_SIZE = 8192;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Writes a snapshot. The snapshot is written to a temporary file which then replaces the target, so a reader never
+     * sees a partially written snapshot.
+     */
+    static void write(
+            File snapshotFile,
+            String sourcePath,
+            long sourceLength,
+            long sourceLastModified,
+            long sourceChecksum,
+            Map<String, PrecompiledValue> values) throws IOException {
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        try {
+            BufferedOutputStream bufferedOut = new BufferedOutputStream(fileOut);
+            CRC32 checksum = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(bufferedOut, checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, sourcePath);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceLastModified);
+            out.writeLong(sourceChecksum);
+            out.writeInt(values.size());
+            for (Map.Entry<String, PrecompiledValue> entry : values.entrySet()) {
+                PrecompiledValue value = entry.getValue();
+                writeString(out, entry.getKey());
+                writeString(out, value.value());
+                out.writeByte(value.primitiveKind());
+                if (value.primitiveKind() != PrecompiledValue.NO_PRIMITIVE) {
+                    out.writeLong(value.primitive());
+                }
+            }
+            out.flush();
+
+            DataOutputStream trailer = new DataOutputStream(bufferedOut);
+            trailer.writeLong(checksum.getValue());
+            trailer.flush();
+        } finally {
+            fileOut.close();
+        }
+
+        if (!tempFile.renameTo(snapshotFile)) {
+            snapshotFile.delete();
+            if (!tempFile.renameTo(snapshotFile)) {
+                tempFile.delete();
+                throw new IOException("Unable to replace snapshot " + snapshotFile);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping of the file.
+     *
+     * @return the values in the snapshot, or null if it wasn't built from a properties file with the expected length
+     * and checksum
+     * @throws IOException if the snapshot can't be read or is corrupt
+     */
+    static Map<String, PrecompiledValue> read(
+            File snapshotFile,
+            long expectedSourceLength,
+            long expectedSourceChecksum) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(snapshotFile, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            long size = channel.size();
+            if (size < 16 || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] scratch = new byte[CHECKSUM_CHUNK_SIZE];
+            verifyChecksum(buffer, scratch);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            readString(buffer, scratch);
+            long sourceLength = buffer.getLong();
+            buffer.getLong();
+            long sourceChecksum = buffer.getLong();
+            if (sourceLength != expectedSourceLength || sourceChecksum != expectedSourceChecksum) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            Map<String, PrecompiledValue> values = new HashMap<String, PrecompiledValue>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer, scratch);
+                String value = readString(buffer, scratch);
+                byte primitiveKind = buffer.get();
+                long primitive = primitiveKind != PrecompiledValue.NO_PRIMITIVE ? buffer.getLong() : 0;
+                values.put(name, new PrecompiledValue(value, primitiveKind, primitive));
+            }
+            return values;
+        } catch (RuntimeException e) {
+            // Thrown by the buffer if the snapshot is truncated
+            throw new IOException("Corrupt snapshot " + snapshotFile + ": " + e);
+        } finally {
+            file.close();
+        }
+    }
+
+    private static void verifyChecksum(ByteBuffer buffer, byte[] scratch) throws IOException {
+        int dataLength = buffer.limit() - 8;
+        CRC32 checksum = new CRC32();
+        buffer.position(0);
+        while (buffer.position() < dataLength) {
+            int chunk = Math.min(scratch.length, dataLength - buffer.position());
+            buffer.get(scratch, 0, chunk);
+            checksum.update(scratch, 0, chunk);
+        }
+        if (buffer.getLong() != checksum.getValue()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        buffer.position(0);
+        buffer.limit(dataLength);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, UTF_8);
+    }
+}
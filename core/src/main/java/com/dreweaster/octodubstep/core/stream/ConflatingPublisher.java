@@ -0,0 +1,173 @@
+package com.dreweaster.octodubstep.core.stream;
+
+import com.google.common.base.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the latest state of something that changes over time, such as a dynamic value or the manager's snapshot,
+ * to any number of subscribers fed from a single upstream: whoever calls {@link #publish(Object)}.
+ * <p/>
+ * A new subscriber is first given the current state, then each state published afterwards. Only the latest state is
+ * ever held for a subscriber, so one that hasn't requested anything when the state changes again simply misses the
+ * intermediate states rather than building up a backlog, and publishing never waits for a subscriber to catch up.
+ * Elements are delivered on the thread that publishes them or the thread that requests them, whichever finds the
+ * subscriber with demand, but never concurrently to the same subscriber; subscribers with slow work to do should hand
+ * it off.
+ * <p/>
+ * A subscriber whose {@link Subscriber#onNext(Object)} throws is cancelled.
+ *
+ * @param <T> the element type
+ */
+public final class ConflatingPublisher<T> implements Publisher<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConflatingPublisher.class);
+
+    private final Supplier<? extends T> currentState;
+
+    private final List<ConflatingSubscription> subscriptions = new CopyOnWriteArrayList<ConflatingSubscription>();
+
+    /**
+     * @param currentState supplies the state given to each new subscriber
+     */
+    public ConflatingPublisher(Supplier<? extends T> currentState) {
+        this.currentState = currentState;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        ConflatingSubscription subscription = new ConflatingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // Reading the current state and adding the subscriber under the same lock as publish() means no state
+        // published in between can be missed or overtaken by an older one
+        synchronized (this) {
+            if (subscription.cancelled) {
+                return;
+            }
+            subscriptions.add(subscription);
+            subscription.offer(currentState.get());
+        }
+        subscription.drain();
+    }
+
+    /**
+     * Publishes a new state to every subscriber, replacing any state they haven't yet requested.
+     */
+    public void publish(T state) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (ConflatingSubscription subscription : subscriptions) {
+                subscription.offer(state);
+            }
+        }
+        for (ConflatingSubscription subscription : subscriptions) {
+            subscription.drain();
+        }
+    }
+
+    /**
+     * @return true if anything is subscribed
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * A subscriber's outstanding demand and latest undelivered state. Signals are serialized by the usual work in
+     * progress counter: whichever thread increments it from zero delivers, looping until no other thread has asked it
+     * to go round again.
+     */
+    private final class ConflatingSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicReference<T> latest = new AtomicReference<T>();
+
+        private final AtomicInteger workInProgress = new AtomicInteger();
+
+        /**
+         * The last state offered, guarded by the publisher's lock, so that a state isn't offered twice when a
+         * subscriber is added between the state changing and it being published.
+         */
+        private T lastOffered;
+
+        private volatile Throwable failure;
+
+        private volatile boolean cancelled;
+
+        private ConflatingSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void offer(T state) {
+            if (!state.equals(lastOffered)) {
+                lastOffered = state;
+                latest.set(state);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Requested a non-positive number of elements: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            latest.set(null);
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (failure != null && !cancelled) {
+                    cancel();
+                    subscriber.onError(failure);
+                }
+                while (!cancelled && demand.get() > 0) {
+                    T state = latest.getAndSet(null);
+                    if (state == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(state);
+                    } catch (RuntimeException e) {
+                        LOG.error("Subscriber failed, cancelling its subscription: " + subscriber, e);
+                        cancel();
+                    }
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
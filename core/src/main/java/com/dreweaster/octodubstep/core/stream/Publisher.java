@@ -0,0 +1,17 @@
+package com.dreweaster.octodubstep.core.stream;
+
+/**
+ * A source of a potentially unbounded sequence of elements, published to each {@link Subscriber} as it signals
+ * demand. Mirrors {@code org.reactivestreams.Publisher}, method for method, so that it can be adapted to any Reactive
+ * Streams or {@code java.util.concurrent.Flow} library with a one line wrapper.
+ *
+ * @param <T> the element type
+ */
+public interface Publisher<T> {
+
+    /**
+     * Starts publishing to the subscriber once it has requested elements through the {@link Subscription} passed to
+     * its {@link Subscriber#onSubscribe(Subscription)}.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
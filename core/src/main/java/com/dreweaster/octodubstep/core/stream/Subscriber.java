@@ -0,0 +1,28 @@
+package com.dreweaster.octodubstep.core.stream;
+
+/**
+ * Receives the elements of a {@link Publisher} it has subscribed to. Signals to a subscriber are never concurrent.
+ * Mirrors {@code org.reactivestreams.Subscriber}.
+ *
+ * @param <T> the element type
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Called once, before any other signal. Nothing is published until the subscriber calls
+     * {@link Subscription#request(long)}.
+     */
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T element);
+
+    /**
+     * Called at most once, ending the subscription.
+     */
+    void onError(Throwable failure);
+
+    /**
+     * Called at most once, ending the subscription.
+     */
+    void onComplete();
+}
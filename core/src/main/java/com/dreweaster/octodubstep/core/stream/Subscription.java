@@ -0,0 +1,20 @@
+package com.dreweaster.octodubstep.core.stream;
+
+/**
+ * A subscriber's link to a {@link Publisher}, through which it signals demand. Mirrors
+ * {@code org.reactivestreams.Subscription}.
+ */
+public interface Subscription {
+
+    /**
+     * Allows up to another n elements to be published, where {@link Long#MAX_VALUE} means unbounded.
+     *
+     * @param n the number of elements, which must be positive
+     */
+    void request(long n);
+
+    /**
+     * Stops publishing to the subscriber. Elements already being published may still arrive.
+     */
+    void cancel();
+}
@@ -0,0 +1,92 @@
+package com.dreweaster.octodubstep.core.unit;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of data, held as a number of bytes so it never needs parsing or converting again once loaded.
+ * <p/>
+ * Parsed from a number followed by a unit, e.g. {@code 512KB}, {@code 64MB} or {@code 1.5GB}. Units are binary, so a
+ * kilobyte is 1024 bytes: {@code B}, {@code KB}, {@code MB}, {@code GB} and {@code TB}, also accepted as {@code K},
+ * {@code KiB} and so on. A number without a unit is in bytes.
+ */
+public final class DataSize implements Comparable<DataSize> {
+
+    private static final String[] UNIT_NAMES = {"B", "KB", "MB", "GB", "TB"};
+
+    private static final long[] UNIT_BYTES = {1L, 1L << 10, 1L << 20, 1L << 30, 1L << 40};
+
+    private final long bytes;
+
+    private DataSize(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value isn't a valid data size
+     */
+    public static DataSize parse(String value) {
+        String trimmed = value.trim();
+        int unitStart = UnitParsing.unitStart(trimmed);
+        String unit = trimmed.substring(unitStart).trim();
+        int unitIndex = unit.length() == 0 ? 0 : indexOfUnit(unit);
+        if (unitIndex < 0 || unitStart == 0) {
+            throw new IllegalArgumentException("Invalid data size: " + value);
+        }
+        BigDecimal amount = UnitParsing.amount(trimmed.substring(0, unitStart), value, "data size");
+        return new DataSize(UnitParsing.toLong(amount, UNIT_BYTES[unitIndex], value, "data size"));
+    }
+
+    private static int indexOfUnit(String unit) {
+        for (int i = 0; i < UNIT_NAMES.length; i++) {
+            String name = UNIT_NAMES[i];
+            if (name.equalsIgnoreCase(unit)
+                    || (i > 0 && (unit.equalsIgnoreCase(name.substring(0, 1))
+                    || unit.equalsIgnoreCase(name.charAt(0) + "iB")))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the size in bytes, for sizing buffers and arrays
+     * @throws ArithmeticException if the size doesn't fit in an {@code int}
+     */
+    public int intBytes() {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Data size too large for an int: " + this);
+        }
+        return (int) bytes;
+    }
+
+    @Override
+    public int compareTo(DataSize other) {
+        return bytes < other.bytes ? -1 : bytes == other.bytes ? 0 : 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DataSize && ((DataSize) o).bytes == bytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (bytes ^ (bytes >>> 32));
+    }
+
+    /**
+     * @return the size in the largest unit it's a whole number of, e.g. {@code 64MB}
+     */
+    @Override
+    public String toString() {
+        return UnitParsing.format(bytes, UNIT_NAMES, UNIT_BYTES);
+    }
+}
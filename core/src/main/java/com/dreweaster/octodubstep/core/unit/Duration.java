@@ -0,0 +1,105 @@
+package com.dreweaster.octodubstep.core.unit;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An amount of time, held as a number of nanoseconds so it never needs parsing or converting again once loaded.
+ * <p/>
+ * Parsed from a number followed by a unit, e.g. {@code 30s}, {@code 5m} or {@code 1.5h}. The units are {@code ns},
+ * {@code us}, {@code ms}, {@code s}, {@code m}, {@code h} and {@code d}; a number without a unit is in milliseconds.
+ */
+public final class Duration implements Comparable<Duration> {
+
+    public static final Duration ZERO = new Duration(0);
+
+    private static final String[] UNIT_NAMES = {"ns", "us", "ms", "s", "m", "h", "d"};
+
+    private static final long[] UNIT_NANOS = {
+            1L,
+            TimeUnit.MICROSECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.MINUTES.toNanos(1),
+            TimeUnit.HOURS.toNanos(1),
+            TimeUnit.HOURS.toNanos(24)
+    };
+
+    private static final int MILLISECONDS = 2;
+
+    private final long nanos;
+
+    private Duration(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public static Duration ofNanos(long nanos) {
+        return new Duration(nanos);
+    }
+
+    public static Duration of(long amount, TimeUnit unit) {
+        return new Duration(unit.toNanos(amount));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value isn't a valid duration
+     */
+    public static Duration parse(String value) {
+        String trimmed = value.trim();
+        int unitStart = UnitParsing.unitStart(trimmed);
+        String unit = trimmed.substring(unitStart).trim();
+        int unitIndex = unit.length() == 0 ? MILLISECONDS : indexOfUnit(unit);
+        if (unitIndex < 0 || unitStart == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        BigDecimal amount = UnitParsing.amount(trimmed.substring(0, unitStart), value, "duration");
+        return new Duration(UnitParsing.toLong(amount, UNIT_NANOS[unitIndex], value, "duration"));
+    }
+
+    private static int indexOfUnit(String unit) {
+        for (int i = 0; i < UNIT_NAMES.length; i++) {
+            if (UNIT_NAMES[i].equalsIgnoreCase(unit)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long toNanos() {
+        return nanos;
+    }
+
+    public long toMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @return the duration in the given unit, truncated
+     */
+    public long to(TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Duration other) {
+        return nanos < other.nanos ? -1 : nanos == other.nanos ? 0 : 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Duration && ((Duration) o).nanos == nanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (nanos ^ (nanos >>> 32));
+    }
+
+    /**
+     * @return the duration in the largest unit it's a whole number of, e.g. {@code 90s}
+     */
+    @Override
+    public String toString() {
+        return UnitParsing.format(nanos, UNIT_NAMES, UNIT_NANOS);
+    }
+}
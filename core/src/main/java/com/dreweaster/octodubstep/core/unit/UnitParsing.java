@@ -0,0 +1,56 @@
+package com.dreweaster.octodubstep.core.unit;
+
+import java.math.BigDecimal;
+
+/**
+ * Parsing and formatting shared by the unit types.
+ */
+final class UnitParsing {
+
+    private UnitParsing() {
+    }
+
+    /**
+     * @return the position of the first character of the unit, following the number
+     */
+    static int unitStart(String value) {
+        int position = 0;
+        if (position < value.length() && (value.charAt(position) == '-' || value.charAt(position) == '+')) {
+            position++;
+        }
+        while (position < value.length()
+                && (Character.isDigit(value.charAt(position)) || value.charAt(position) == '.')) {
+            position++;
+        }
+        return position;
+    }
+
+    static BigDecimal amount(String number, String value, String description) {
+        try {
+            return new BigDecimal(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + description + ": " + value);
+        }
+    }
+
+    /**
+     * Multiplies the amount by the size of its unit, rounding to a whole number of the smallest unit.
+     */
+    static long toLong(BigDecimal amount, long unitSize, String value, String description) {
+        BigDecimal scaled = amount.multiply(BigDecimal.valueOf(unitSize)).setScale(0, BigDecimal.ROUND_HALF_UP);
+        if (scaled.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0
+                || scaled.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            throw new IllegalArgumentException("Out of range " + description + ": " + value);
+        }
+        return scaled.longValue();
+    }
+
+    static String format(long amount, String[] unitNames, long[] unitSizes) {
+        for (int i = unitSizes.length - 1; i > 0; i--) {
+            if (amount % unitSizes[i] == 0 && amount != 0) {
+                return (amount / unitSizes[i]) + unitNames[i];
+            }
+        }
+        return amount + unitNames[0];
+    }
+}
@@ -1,6 +1,18 @@
 package com.dreweaster.octodubstep.core.validation;
 
 /**
+ * Checks the converted value of a single property, named by
+ * {@link com.dreweaster.octodubstep.core.Property#validator()}. A validator is created once per validator class when
+ * the manager is built, then run against each value it's named for when the manager is built and whenever a reload
+ * changes the value, so it must be thread safe and have a public no argument constructor. The values of primitive
+ * properties are passed boxed.
+ *
+ * @param <T> the value type
  */
-public interface ConfigPropertyValidator {
+public interface ConfigPropertyValidator<T> {
+
+    /**
+     * @throws IllegalArgumentException if the value is invalid, with a message saying why
+     */
+    void validate(T value);
 }
@@ -0,0 +1,50 @@
+package com.dreweaster.octodubstep.core.validation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factory methods for common {@link PropertyConstraint}s.
+ */
+public final class Constraints {
+
+    private Constraints() {
+    }
+
+    /**
+     * Requires the value of one property to be no greater than another, e.g. {@code pool.min <= pool.max}. Both values
+     * must be {@link Comparable} with each other. The constraint is met if either property has no value.
+     */
+    public static PropertyConstraint ordered(final String lowerPropertyName, final String upperPropertyName) {
+        return new PropertyConstraint() {
+            @Override
+            public List<String> propertyNames() {
+                return Arrays.asList(lowerPropertyName, upperPropertyName);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void check(Map<String, Object> values) {
+                Object lower = values.get(lowerPropertyName);
+                Object upper = values.get(upperPropertyName);
+                if (lower == null || upper == null) {
+                    return;
+                }
+                if (!(lower instanceof Comparable)) {
+                    throw new IllegalArgumentException(lowerPropertyName + " is not comparable: " + lower);
+                }
+                if (((Comparable<Object>) lower).compareTo(upper) > 0) {
+                    throw new IllegalArgumentException(
+                            lowerPropertyName + " (" + lower + ") is greater than " + upperPropertyName
+                                    + " (" + upper + ")");
+                }
+            }
+
+            @Override
+            public String toString() {
+                return lowerPropertyName + " <= " + upperPropertyName;
+            }
+        };
+    }
+}
@@ -1,6 +1,11 @@
 package com.dreweaster.octodubstep.core.validation;
 
 /**
+ * Accepts every value. The default validator of a property, which the manager skips entirely.
  */
-public class DoNothingValidator implements ConfigPropertyValidator {
+public class DoNothingValidator implements ConfigPropertyValidator<Object> {
+
+    @Override
+    public void validate(Object value) {
+    }
 }
@@ -1,6 +1,19 @@
 package com.dreweaster.octodubstep.core.validation;
 
+import java.util.regex.Pattern;
+
 /**
+ * Checks that a value has the form of a JDBC URL, {@code jdbc:<subprotocol>:<subname>}. Whether the subprotocol names
+ * a driver that's actually available is left to the driver manager.
  */
-public class JdbcUrlValidator implements ConfigPropertyValidator {
+public class JdbcUrlValidator implements ConfigPropertyValidator<String> {
+
+    private static final Pattern JDBC_URL = Pattern.compile("jdbc:[A-Za-z0-9_\\-]+:.+");
+
+    @Override
+    public void validate(String value) {
+        if (!JDBC_URL.matcher(value).matches()) {
+            throw new IllegalArgumentException("Not a JDBC URL, expected jdbc:<subprotocol>:<subname>: " + value);
+        }
+    }
 }
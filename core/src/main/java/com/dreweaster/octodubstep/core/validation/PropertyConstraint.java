@@ -0,0 +1,27 @@
+package com.dreweaster.octodubstep.core.validation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rule relating the values of several properties, such as one being no greater than another, checked when the
+ * manager is built and before any reload that changes one of the properties is published. A reload that would break
+ * a constraint is rejected as a whole.
+ * <p/>
+ * See {@link Constraints} for common constraints. The constraint's {@code toString()} identifies it in failure
+ * reports.
+ */
+public interface PropertyConstraint {
+
+    /**
+     * @return the names of the properties the constraint relates, each of which must be declared by a provider
+     */
+    List<String> propertyNames();
+
+    /**
+     * @param values the converted value of each of the properties, by name, with primitives boxed and properties
+     *               without a value mapped to null
+     * @throws IllegalArgumentException if the values break the constraint, with a message saying why
+     */
+    void check(Map<String, Object> values);
+}
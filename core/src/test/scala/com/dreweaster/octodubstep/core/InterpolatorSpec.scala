@@ -0,0 +1,112 @@
+package com.dreweaster.octodubstep.core
+
+import com.dreweaster.octodubstep.core.source.PropertySource
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+import org.scalatest.mock.MockitoSugar
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class InterpolatorSpec extends FlatSpec with GivenWhenThen with Matchers with MockitoSugar {
+
+  private def merged(properties: (String, String)*) = {
+    val source = mock[PropertySource]
+    properties.foldLeft(new PropertySourceMocker(source).containingNoProperties)(_ containing _)
+    MergedProperties.merge(Array(RawProperties.read(source, new RawProperties.Deduplicator)))
+  }
+
+  private def resolved(interpolator: Interpolator, values: MergedProperties, name: String) =
+    interpolator.resolve(name, values.value(name))
+
+  it should "resolve placeholders recursively, using defaults for undefined properties" in {
+    Given("values referencing other values, some themselves templates")
+    val values = merged(
+      "db.host" -> "localhost",
+      "db.address" -> "${db.host}:${db.port:5432}",
+      "db.url" -> "jdbc:postgresql://${db.address}/${db.name}",
+      "db.name" -> "app")
+
+    When("an interpolator is built for the values")
+    val interpolator = Interpolator.of(values)
+
+    Then("each template should resolve to its full value")
+    resolved(interpolator, values, "db.address") should equal("localhost:5432")
+    resolved(interpolator, values, "db.url") should equal("jdbc:postgresql://localhost:5432/app")
+
+    And("values without placeholders should be left alone")
+    resolved(interpolator, values, "db.host") should equal("localhost")
+  }
+
+  it should "fail to resolve templates forming a cycle or referencing undefined properties" in {
+    Given("values with a cycle, a template depending on the cycle and a reference to an undefined property")
+    val values = merged(
+      "a" -> "${b}",
+      "b" -> "x${a}",
+      "c" -> "${a}!",
+      "d" -> "${undefined}")
+
+    When("an interpolator is built for the values")
+    val interpolator = Interpolator.of(values)
+
+    Then("each member of the cycle and its dependent should fail, naming the cycle")
+    for (name <- List("a", "b", "c")) {
+      val thrown = the[IllegalArgumentException] thrownBy resolved(interpolator, values, name)
+      thrown.getMessage should include("cycle")
+    }
+
+    And("the reference to an undefined property should fail")
+    val thrown = the[IllegalArgumentException] thrownBy resolved(interpolator, values, "d")
+    thrown.getMessage should include("${undefined}")
+  }
+
+  it should "only resolve the templates depending on changed properties again, and revert on request" in {
+    Given("an interpolator over two independent chains of templates")
+    val values = merged(
+      "host" -> "one",
+      "address" -> "${host}:80",
+      "url" -> "http://${address}/",
+      "other.host" -> "two",
+      "other.url" -> "http://${other.host}/")
+    val interpolator = Interpolator.of(values)
+
+    When("the interpolator is updated for a change to one host")
+    val newValues = merged(
+      "host" -> "three",
+      "address" -> "${host}:80",
+      "url" -> "http://${address}/",
+      "other.host" -> "two",
+      "other.url" -> "http://${other.host}/")
+    val update = interpolator.update(newValues, List("host"))
+
+    Then("the host and the templates depending on it should be affected, and nothing else")
+    update.affectedNames.toSet should equal(Set("host", "address", "url"))
+    resolved(interpolator, newValues, "url") should equal("http://three:80/")
+
+    When("the update is reverted")
+    update.revert()
+
+    Then("the templates should resolve to their previous values")
+    resolved(interpolator, values, "url") should equal("http://one:80/")
+  }
+
+  it should "track templates that change their references on update" in {
+    Given("an interpolator over a template referencing one property")
+    val values = merged("first" -> "1", "second" -> "2", "choice" -> "${first}")
+    val interpolator = Interpolator.of(values)
+
+    When("the template is changed to reference another property")
+    val changedTemplate = merged("first" -> "1", "second" -> "2", "choice" -> "${second}")
+    interpolator.update(changedTemplate, List("choice"))
+
+    Then("changes to the old reference should no longer affect it and changes to the new one should")
+    val changedFirst = merged("first" -> "10", "second" -> "2", "choice" -> "${second}")
+    interpolator.update(changedFirst, List("first")).affectedNames.toList should equal(List("first"))
+    val changedSecond = merged("first" -> "10", "second" -> "20", "choice" -> "${second}")
+    interpolator.update(changedSecond, List("second")).affectedNames.toList should equal(List("second", "choice"))
+    resolved(interpolator, changedSecond, "choice") should equal("20")
+  }
+}
@@ -0,0 +1,142 @@
+package com.dreweaster.octodubstep.core
+
+import com.dreweaster.octodubstep.core.source.PropertySource
+import com.google.common.base.Optional
+import org.junit.runner.RunWith
+import org.mockito.Mockito
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+import org.scalatest.mock.MockitoSugar
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class MergedPropertiesSpec extends FlatSpec with GivenWhenThen with Matchers with MockitoSugar {
+
+  def aSourceContaining(properties: (String, String)*): PropertySource = {
+    val source = mock[PropertySource]
+    Mockito.when(source.getPropertyNames).thenReturn(properties.map(_._1).toList)
+    for ((name, value) <- properties) {
+      Mockito.when(source.getValue(name)).thenReturn(Optional.of(value))
+    }
+    source
+  }
+
+  "MergedProperties" should "resolve each property from the first source defining it" in {
+    Given("several sources defining overlapping properties")
+    val strings = new RawProperties.Deduplicator
+    val sources = Array(
+      RawProperties.read(aSourceContaining("b" -> "first", "d" -> "first"), strings),
+      RawProperties.read(aSourceContaining("a" -> "second", "b" -> "second", "c" -> "second"), strings),
+      RawProperties.EMPTY,
+      RawProperties.read(aSourceContaining("c" -> "fourth", "e" -> "fourth"), strings))
+
+    When("merging the sources")
+    val merged = MergedProperties.merge(sources)
+
+    Then("every property should be resolved from the first source defining it")
+    merged.names.toSet should equal(Set("a", "b", "c", "d", "e"))
+    for ((name, value, source) <- List(("a", "second", 1), ("b", "first", 0), ("c", "second", 1), ("d", "first", 0), ("e", "fourth", 3))) {
+      merged.value(name) should equal(value)
+      merged.source(name) should equal(source)
+    }
+
+    And("undefined properties should not be found")
+    merged.contains("f") should be(false)
+    merged.value("f") should be(null)
+  }
+
+  it should "resolve only the changed names again on reload, leaving the previous values as they were" in {
+    Given("two sources defining a hundred properties between them")
+    val strings = new RawProperties.Deduplicator
+    val names = (0 until 100).map("property" + _)
+    val overrides = RawProperties.read(aSourceContaining("property0" -> "override"), strings)
+    val defaults = RawProperties.read(aSourceContaining(names.map(_ -> "default"): _*), strings)
+    val merged = MergedProperties.merge(Array(overrides, defaults))
+
+    When("the defaults are reloaded with two properties changed, one added and one removed, but only one reported")
+    val reloaded = RawProperties.read(aSourceContaining(
+      (names.filterNot(_ == "property99").map(_ -> "default") ++ Seq("property1" -> "changed", "property2" -> "changed",
+        "property100" -> "added")): _*), strings)
+    val updated = merged.withChanges(List("property1", "property99", "property100"), Array(overrides, reloaded))
+
+    Then("the reported names should be resolved again")
+    updated.value("property1") should equal("changed")
+    updated.source("property1") should equal(1)
+    updated.contains("property99") should be(false)
+    updated.value("property100") should equal("added")
+
+    And("every other name should be left as it was, even if its value in the source changed")
+    updated.value("property2") should equal("default")
+    updated.value("property0") should equal("override")
+    updated.source("property0") should equal(0)
+    updated.names.toSet should equal(names.toSet - "property99" + "property100")
+
+    And("the previous values should be unchanged")
+    merged.value("property1") should equal("default")
+    merged.value("property99") should equal("default")
+    merged.contains("property100") should be(false)
+  }
+
+  it should "agree with merging every source again after any number of reloads" in {
+    Given("three sources defining overlapping properties")
+    val random = new scala.util.Random(0)
+    val strings = new RawProperties.Deduplicator
+    val versions = Array.fill(3)(scala.collection.mutable.Map[String, String]())
+    for (version <- versions; property <- 0 until 400 if random.nextInt(3) == 0) {
+      version("property" + property) = "initial"
+    }
+    def read(source: Int) = RawProperties.read(aSourceContaining(versions(source).toSeq: _*), strings)
+    val sources = Array.tabulate(versions.length)(read)
+    var merged = MergedProperties.merge(sources)
+
+    When("reloading random sources many times, each changing, adding or removing a few properties")
+    val disagreements = scala.collection.mutable.ListBuffer[String]()
+    for (reload <- 0 until 500) {
+      val source = random.nextInt(sources.length)
+      for (change <- 0 until 1 + random.nextInt(4)) {
+        val name = "property" + random.nextInt(400)
+        if (random.nextBoolean()) versions(source) -= name else versions(source)(name) = "value" + reload
+      }
+      val newValues = read(source)
+      val changedNames = RawProperties.changedNames(sources(source), newValues)
+      sources(source) = newValues
+      merged = merged.withChanges(changedNames, sources)
+
+      val expected = MergedProperties.merge(sources)
+      if (merged.names.toSet != expected.names.toSet) {
+        disagreements += "names after reload " + reload
+      }
+      for (name <- expected.names
+           if merged.value(name) != expected.value(name) || merged.source(name) != expected.source(name)) {
+        disagreements += name + " after reload " + reload
+      }
+    }
+
+    Then("every property should have resolved as it does when merging every source again")
+    disagreements should be('empty)
+  }
+
+  it should "hold equal strings from different sources only once" in {
+    Given("two sources sharing property names and values")
+    val strings = new RawProperties.Deduplicator
+    val first = RawProperties.read(aSourceContaining(new String("name") -> new String("value")), strings)
+    val second = RawProperties.read(aSourceContaining(new String("name") -> new String("value")), strings)
+
+    Then("both should hold the same instances")
+    first.name(0) should be theSameInstanceAs second.name(0)
+    first.value(0) should be theSameInstanceAs second.value(0)
+  }
+
+  "RawProperties" should "find the names of added, removed and changed properties" in {
+    Given("two versions of a source")
+    val oldValues = RawProperties.read(aSourceContaining("a" -> "1", "b" -> "2", "c" -> "3", "d" -> "4"), new RawProperties.Deduplicator)
+    val newValues = RawProperties.read(aSourceContaining("b" -> "2", "c" -> "changed", "d" -> "4", "e" -> "5"), new RawProperties.Deduplicator)
+
+    Then("only the names whose values differ should be reported")
+    RawProperties.changedNames(oldValues, newValues).toSet should equal(Set("a", "c", "e"))
+    RawProperties.changedNames(oldValues, oldValues) should be('empty)
+  }
+}
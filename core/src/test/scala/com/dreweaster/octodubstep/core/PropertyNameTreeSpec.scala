@@ -0,0 +1,48 @@
+package com.dreweaster.octodubstep.core
+
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class PropertyNameTreeSpec extends FlatSpec with GivenWhenThen with Matchers {
+
+  "PropertyNameTree" should "find every name beneath a prefix" in {
+    Given("a tree of names sharing some prefixes")
+    val tree = new PropertyNameTree
+    Seq("db", "db.url", "db.shards.0.url", "db.shards.1.url", "dbx.url", "cache.size").foreach(tree.add)
+
+    Then("only names strictly beneath each prefix should be found")
+    tree.namesUnder("db").toSet should equal(Set("db.url", "db.shards.0.url", "db.shards.1.url"))
+    tree.namesUnder("db.shards").toSet should equal(Set("db.shards.0.url", "db.shards.1.url"))
+    tree.namesUnder("db.shards.0.url") should be(empty)
+    tree.namesUnder("missing.prefix") should be(empty)
+  }
+
+  it should "forget removed names while keeping names sharing their prefix" in {
+    Given("a tree of names sharing some prefixes")
+    val tree = new PropertyNameTree
+    Seq("db", "db.url", "db.shards.0.url", "db.shards.1.url").foreach(tree.add)
+
+    When("removing some of the names, including one that isn't there")
+    tree.remove("db.shards.0.url")
+    tree.remove("db")
+    tree.remove("db.shards.2.url")
+
+    Then("only the remaining names should be found")
+    tree.namesUnder("db").toSet should equal(Set("db.url", "db.shards.1.url"))
+
+    And("removing the rest should leave nothing beneath the prefix")
+    tree.remove("db.url")
+    tree.remove("db.shards.1.url")
+    tree.namesUnder("db") should be(empty)
+
+    And("names can be added again")
+    tree.add("db.shards.0.url")
+    tree.namesUnder("db.shards").toList should equal(List("db.shards.0.url"))
+  }
+}
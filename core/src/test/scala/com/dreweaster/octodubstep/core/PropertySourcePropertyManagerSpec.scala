@@ -1,12 +1,21 @@
 package com.dreweaster.octodubstep.core
 
+import java.lang.reflect.Proxy
 import java.util
-
-import com.dreweaster.octodubstep.core.source.PropertySource
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import com.dreweaster.octodubstep.core.accessor.GeneratedProviderFactory
+import com.dreweaster.octodubstep.core.conversion.{IntegerConverter, PropertyConverter}
+import com.dreweaster.octodubstep.core.listener.AsyncListenerDispatcher
+import com.dreweaster.octodubstep.core.metrics.InMemoryInstrumentation
+import com.dreweaster.octodubstep.core.reporter.ConfigReporter
+import com.dreweaster.octodubstep.core.source.{PropertySource, PropertySourceListener}
+import com.dreweaster.octodubstep.core.stream.{Subscriber, Subscription}
+import com.dreweaster.octodubstep.core.validation.{ConfigPropertyValidator, Constraints, JdbcUrlValidator}
 import com.google.common.base.Optional
 import org.junit.runner.RunWith
 import org.mockito.Matchers._
-import org.mockito.Mockito
+import org.mockito.{ArgumentCaptor, Mockito}
 import org.scalatest._
 import org.scalatest.junit.JUnitRunner
 import org.scalatest.mock.MockitoSugar
@@ -100,6 +109,71 @@ class PropertySourceConfigPropertyManagerSpec extends FlatSpec with GivenWhenThe
     currentValueOf(configProvider2.testIntegerProperty) should equal(10)
   }
 
+  it should "support fetching properties through generated accessors" in {
+    Given("a property source containing a series of variously typed properties")
+    aPropertySource
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "100")
+      .containing("test.long.property" -> "2000000")
+      .containing("test.boolean.property" -> "true")
+      .containing("test.list.string.property" -> "the,quick,brown,fox")
+      .containing("test.list.integer.property" -> "1,2,3,4")
+      .containing("test.list.long.property" -> "1,2,3,4")
+      .containing("test.list.boolean.property" -> "true,false,false,true")
+
+    And("a config provider referencing those properties")
+    val configProviderClass = classOf[ConfigProviderWithVariousProperties]
+
+    When("attempting to fetch the properties from a provider with a generated accessor")
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters,
+      settingsWith(_.providerFactory = new GeneratedProviderFactory), Bootstrap.serial())
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithVariousProperties])
+
+    Then("the provider should not be a dynamic proxy")
+    Proxy.isProxyClass(configProvider.getClass) should be(false)
+
+    And("the properties should be returned correctly")
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+    currentValueOf(configProvider.testIntegerProperty) should equal(100)
+    currentValueOf(configProvider.testLongProperty) should equal(2000000)
+    currentValueOf(configProvider.testBooleanProperty) should equal(true)
+    currentValueOf(configProvider.testStringListProperty) should equal(util.Arrays.asList("the", "quick", "brown", "fox"))
+    currentValueOf(configProvider.testBooleanListProperty) should equal(util.Arrays.asList(true, false, false, true))
+
+    And("the same value instances should be returned on every call")
+    configProvider.testStringProperty should be theSameInstanceAs configProvider.testStringProperty
+  }
+
+  it should "support fetching primitive properties without boxing" in {
+    Given("a property source containing some primitive properties")
+    aPropertySource
+      .containing("test.integer.property" -> "100")
+      .containing("test.long.property" -> "2000000")
+      .containing("test.boolean.property" -> "true")
+
+    And("a config provider referencing those properties as primitive values")
+    val configProviderClass = classOf[ConfigProviderWithPrimitiveProperties]
+
+    When("attempting to fetch the properties from the provider")
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+
+    Then("the primitive values should be returned correctly")
+    configProvider.testIntProperty.getAsInt should equal(100)
+    configProvider.testLongProperty.getAsLong should equal(2000000L)
+    configProvider.testBooleanProperty.getAsBoolean should be(true)
+    configProvider.testDynamicIntProperty.getAsInt should equal(100)
+
+    And("the boxed values should be returned correctly")
+    currentValueOf(configProvider.testIntProperty) should equal(100)
+    currentValueOf(configProvider.testDynamicIntProperty) should equal(100)
+
+    And("the property metadata should describe the primitive types")
+    metadataTypeOf(configProvider.testIntProperty) should equal("int")
+    metadataDynamicOf(configProvider.testIntProperty) should be(false)
+    metadataDynamicOf(configProvider.testDynamicIntProperty) should be(true)
+  }
+
   it should "load property from the first instance encountered when more than one property source defines the property" in {
     Given("a property source containing a string property")
     aPropertySource
@@ -329,10 +403,28 @@ class PropertySourceConfigPropertyManagerSpec extends FlatSpec with GivenWhenThe
   // FAILURE CASES
 
   it should "fail if property is required and not found in property sources" in {
+    Given("a property source containing no properties")
+    aPropertySource.containingNoProperties
+
+    When("a property manager is created for a config provider referencing a required property")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInteger]), List(propertySource), defaultConverters)
+
+    Then("the missing property should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.integer.property"))
+    thrown.failures.get("test.integer.property") shouldBe an[IllegalStateException]
   }
 
   it should "fail if list property is required and not found in property sources" in {
+    Given("a property source containing no properties")
+    aPropertySource.containingNoProperties
+
+    When("a property manager is created for a config provider referencing a required list property")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithIntegerList]), List(propertySource), defaultConverters)
 
+    Then("the missing property should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.list.integer.property"))
   }
 
   it should "fail if property is not required, has no default value and is not found in property sources" in {
@@ -343,25 +435,548 @@ class PropertySourceConfigPropertyManagerSpec extends FlatSpec with GivenWhenThe
 
   }
 
-  it should "fail if a property value can't be converted" in (pending)
+  it should "fail if a property value can't be converted" in {
+    Given("a property source containing a property that isn't a valid integer")
+    aPropertySource.containing("test.integer.property" -> "not a number")
+
+    When("a property manager is created for a config provider referencing it")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInteger]), List(propertySource), defaultConverters)
+
+    Then("the conversion failure should be reported")
+    thrown.failures.get("test.integer.property") shouldBe a[NumberFormatException]
+  }
+
+  it should "fail if a list property value can't be converted" in {
+    Given("a property source containing a list property with an item that isn't a valid integer")
+    aPropertySource.containing("test.list.integer.property" -> "1, two, 3")
+
+    When("a property manager is created for a config provider referencing it")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithIntegerList]), List(propertySource), defaultConverters)
+
+    Then("the conversion failure should be reported")
+    thrown.failures.get("test.list.integer.property") shouldBe a[NumberFormatException]
+  }
+
+  it should "fail if a property default value can't be converted" in {
+    Given("a property source containing no properties")
+    aPropertySource.containingNoProperties
+
+    When("a property manager is created for a config provider with an invalid default value")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInvalidDefaults]), List(propertySource), defaultConverters)
+
+    Then("the conversion failure should be reported")
+    thrown.failures.get("test.integer.property") shouldBe a[NumberFormatException]
+  }
+
+  it should "fail if a list property default value can't be converted" in {
+    Given("a property source containing no properties")
+    aPropertySource.containingNoProperties
+
+    When("a property manager is created for a config provider with an invalid default list value")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInvalidDefaults]), List(propertySource), defaultConverters)
+
+    Then("the conversion failure should be reported")
+    thrown.failures.get("test.list.integer.property") shouldBe a[NumberFormatException]
+  }
+
+  it should "report every missing and invalid property across providers together" in {
+    Given("a property source missing one required property and containing another that isn't valid")
+    aPropertySource.containing("test.list.integer.property" -> "1, two, 3")
+
+    When("a property manager is created for several config providers referencing them")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInteger], classOf[ConfigProviderWithIntegerList],
+        classOf[ConfigProviderWithDynamicPrimitive]), List(propertySource), defaultConverters)
+
+    Then("each failing property should be reported, not just the first")
+    thrown.failures.keySet.toSet should equal(Set("test.integer.property", "test.list.integer.property"))
+    thrown.getMessage should include("2 properties are invalid")
+  }
 
-  it should "fail if a list property value can't be converted" in (pending)
+  it should "build the same manager when bootstrapping in parallel" in {
+    Given("two property sources defining some of the same properties")
+    aPropertySource
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "1")
+      .containing("test.list.string.property" -> "one, two")
+    anAlternativePropertySource
+      .containing("test.integer.property" -> "2")
+      .containing("test.long.property" -> "3")
+      .containing("test.boolean.property" -> "true")
+      .containing("test.list.integer.property" -> "1, 2")
+      .containing("test.list.long.property" -> "3, 4")
+      .containing("test.list.boolean.property" -> "true, false")
+
+    When("a property manager is built across several threads")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithVariousProperties], classOf[ConfigProviderWithPrimitiveProperties]),
+      List(propertySource, alternativePropertySource), defaultConverters, new ManagerSettings,
+      Bootstrap.withParallelism(4))
+
+    Then("values should be converted and sources applied in precedence order")
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithVariousProperties])
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+    currentValueOf(configProvider.testIntegerProperty) should equal(1)
+    currentValueOf(configProvider.testLongListProperty).toList should equal(List(3L, 4L))
+    manager.propertiesFor(classOf[ConfigProviderWithPrimitiveProperties]).testIntProperty.getAsInt should equal(1)
+  }
 
-  it should "fail if a property default value can't be converted" in (pending)
+  it should "report failures found while bootstrapping in parallel" in {
+    Given("a property source containing an invalid property and missing a required one")
+    aPropertySource.containing("test.list.integer.property" -> "1, two, 3")
 
-  it should "fail if a list property default value can't be converted" in (pending)
+    When("a property manager is built across several threads")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithInteger], classOf[ConfigProviderWithIntegerList]),
+      List(propertySource), defaultConverters, new ManagerSettings, Bootstrap.withParallelism(4))
 
-  it should "fail if a property is required but is not found in property sources" in (pending)
+    Then("both failures should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.integer.property", "test.list.integer.property"))
+  }
 
   // RELOAD CASES
 
-  it should "not overwrite existing non-reloadable properties following reload" in (pending)
+  it should "not overwrite existing non-reloadable properties following reload" in {
+    Given("a reloadable property source containing a string property")
+    aPropertySource.reloadable.containing("test.string.property" -> "testValue")
+
+    And("a config provider referencing that property as non-dynamic")
+    val configProviderClass = classOf[ConfigProviderWithString]
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+
+    When("the property source is reloaded with a new value for the property")
+    aPropertySource.containing("test.string.property" -> "newTestValue").reloaded
+
+    Then("the property should keep its original value")
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+  }
+
+  it should "overwrite reloadable property from default value if property no longer defined in property source following reload" in {
+    Given("a reloadable property source containing a string property")
+    aPropertySource.reloadable.containing("test.string.property" -> "testValue").withDescription("Property Source 1")
+
+    And("a config provider referencing that property as dynamic with a default value")
+    val configProviderClass = classOf[ConfigProviderWithNonRequiredDynamicString]
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+
+    When("the property source is reloaded without the property")
+    aPropertySource.notContaining("test.string.property").reloaded
+
+    Then("the property should take the default value")
+    currentValueOf(configProvider.testStringProperty) should equal("default string")
+
+    And("the property metadata should show it was loaded from default value")
+    metadataLoadedFromDefaultValueOf(configProvider.testStringProperty) should be(true)
+  }
+
+  it should "overwrite reloadable properties from same property source following reload" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "10")
+
+    And("config providers referencing those properties as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithDynamicConfigProperty], classOf[ConfigProviderWithDynamicPrimitive]),
+      List(propertySource),
+      defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicConfigProperty])
+    val primitiveConfigProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicPrimitive])
+
+    And("listeners registered with those properties")
+    val changes = new ListBuffer[(String, String)]()
+    configProvider.testStringProperty.addListener(new ValueListener[String] {
+      def valueChanged(oldValue: String, newValue: String) {
+        changes.append(oldValue -> newValue)
+      }
+    })
+    val primitiveChanges = new ListBuffer[(Integer, Integer)]()
+    primitiveConfigProvider.testIntProperty.addListener(new ValueListener[Integer] {
+      def valueChanged(oldValue: Integer, newValue: Integer) {
+        primitiveChanges.append(oldValue -> newValue)
+      }
+    })
+
+    When("the property source is reloaded with new values for the properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.integer.property" -> "20")
+      .reloaded
+
+    Then("the properties should take the new values")
+    currentValueOf(configProvider.testStringProperty) should equal("newTestValue")
+    primitiveConfigProvider.testIntProperty.getAsInt should equal(20)
+
+    And("the listeners should be notified of the changes")
+    changes should equal(List("testValue" -> "newTestValue"))
+    primitiveChanges should equal(List((10: Integer) -> (20: Integer)))
+  }
+
+  it should "overwrite reloadable properties from different property source following reload" in {
+    Given("a reloadable property source not containing a string property")
+    aPropertySource.reloadable.containingNoProperties.withDescription("Property Source 1")
+
+    And("another property source containing the string property")
+    anAlternativePropertySource.containing("test.string.property" -> "testValueFromPropertySource2").withDescription("Property Source 2")
+
+    And("a config provider referencing that property as dynamic")
+    val configProviderClass = classOf[ConfigProviderWithDynamicConfigProperty]
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource, alternativePropertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+
+    When("the first property source is reloaded containing the property")
+    aPropertySource.containing("test.string.property" -> "testValueFromPropertySource1").reloaded
+
+    Then("the property should take the value from the first property source")
+    currentValueOf(configProvider.testStringProperty) should equal("testValueFromPropertySource1")
+    metadataSourceDescriptionOf(configProvider.testStringProperty) should equal("Property Source 1")
+  }
+
+  it should "only convert properties whose values changed following reload" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+
+    And("a converter counting the values it converts")
+    val converted = new ListBuffer[String]()
+    val countingConverter = new PropertyConverter[String] {
+      def valueType = classOf[String]
+      def convert(value: String) = {
+        converted.append(value)
+        value
+      }
+    }
+
+    And("a config provider referencing those properties as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithTwoDynamicStrings]),
+      List(propertySource),
+      List[PropertyConverter[_]](countingConverter))
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+    converted.clear()
+
+    When("the property source is reloaded with a new value for only one of the properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+      .reloaded
+
+    Then("only the changed value should have been converted")
+    converted should equal(List("newTestValue"))
+    currentValueOf(configProvider.testStringProperty) should equal("newTestValue")
+    currentValueOf(configProvider.testOtherStringProperty) should equal("otherTestValue")
+  }
+
+  it should "keep values read through a pinned snapshot consistent across a reload" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "10")
+
+    And("config providers referencing those properties as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithDynamicConfigProperty], classOf[ConfigProviderWithDynamicPrimitive]),
+      List(propertySource),
+      defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicConfigProperty])
+    val primitiveConfigProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicPrimitive])
+
+    And("a pinned snapshot")
+    val snapshot = manager.snapshot
+
+    When("the property source is reloaded with new values for the properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.integer.property" -> "20")
+      .reloaded
+
+    Then("the pinned snapshot should still hold the old values")
+    snapshot.valueOf(configProvider.testStringProperty).get should equal("testValue")
+    snapshot.intValueOf(primitiveConfigProvider.testIntProperty) should equal(10)
+
+    And("a new snapshot should hold the new values under a later version")
+    val newSnapshot = manager.snapshot
+    newSnapshot.valueOf(configProvider.testStringProperty).get should equal("newTestValue")
+    newSnapshot.intValueOf(primitiveConfigProvider.testIntProperty) should equal(20)
+    newSnapshot.version should be > snapshot.version
+  }
+
+  it should "count reads of each property when access tracking is enabled" in {
+    Given("a property source containing some properties")
+    aPropertySource
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "100")
+      .containing("test.long.property" -> "2000000")
+      .containing("test.boolean.property" -> "true")
+
+    And("a property manager tracking access to its properties")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithString], classOf[ConfigProviderWithPrimitiveProperties]),
+      List(propertySource),
+      defaultConverters,
+      settingsWith(_.trackAccess = true),
+      Bootstrap.serial())
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithPrimitiveProperties])
+
+    When("some of the properties are read")
+    configProvider.testIntProperty.getAsInt
+    configProvider.testIntProperty.currentValue
+    configProvider.testDynamicIntProperty.getAsInt
+    manager.snapshot.intValueOf(configProvider.testDynamicIntProperty)
+    configProvider.testBooleanProperty.getAsBoolean
+
+    Then("the reads of every value bound to a property should be counted against it")
+    val statistics = manager.accessStatistics
+    statistics.readCount("test.integer.property") should equal(4)
+    statistics.readCount("test.boolean.property") should equal(1)
+    statistics.readCounts.keySet.head should equal("test.integer.property")
+
+    And("properties that haven't been read should be reported as unread")
+    statistics.unreadProperties.toSet should equal(Set("test.string.property", "test.long.property"))
+    statistics.lastAccessed("test.long.property").isPresent should be(false)
+
+    And("values should know when they were last read")
+    configProvider.testIntProperty.lastAccessed.isPresent should be(true)
+    configProvider.testLongProperty.lastAccessed.isPresent should be(false)
+  }
+
+  it should "defer converting values until they're first read when converting lazily" in {
+    Given("a property source containing some properties")
+    aPropertySource
+      .containing("test.string.property" -> "testValue")
+      .containing("test.list.string.property" -> "one,two")
+
+    And("a converter counting the values it converts")
+    val converted = new ListBuffer[String]()
+    val countingConverter = new PropertyConverter[String] {
+      def valueType = classOf[String]
+      def convert(value: String) = {
+        converted.append(value)
+        value
+      }
+    }
+
+    When("a property manager converting lazily is created")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithString], classOf[ConfigProviderWithStringList]),
+      List(propertySource),
+      List[PropertyConverter[_]](countingConverter),
+      settingsWith(_.convertLazily = true),
+      Bootstrap.serial())
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithString])
+
+    Then("no values should have been converted")
+    converted should be('empty)
+
+    And("a value should be converted once, when it's first read")
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+    converted should equal(List("testValue"))
+
+    And("validating all values should convert the remaining values")
+    manager.validateAll()
+    converted should equal(List("testValue", "one", "two"))
+  }
+
+  it should "report every value that can't be converted when validating all values" in {
+    Given("a property source containing some invalid properties")
+    aPropertySource
+      .containing("test.string.property" -> "testValue")
+      .containing("test.integer.property" -> "notAnInteger")
+      .containing("test.list.integer.property" -> "1,two,3")
+
+    And("a property manager converting lazily")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithString], classOf[ConfigProviderWithInteger], classOf[ConfigProviderWithIntegerList]),
+      List(propertySource),
+      defaultConverters,
+      settingsWith(_.convertLazily = true),
+      Bootstrap.serial())
+
+    When("validating all values")
+    val thrown = the[InvalidPropertiesException] thrownBy manager.validateAll()
+
+    Then("each invalid value should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.integer.property", "test.list.integer.property"))
+
+    And("valid values should still be readable")
+    currentValueOf(manager.propertiesFor(classOf[ConfigProviderWithString]).testStringProperty) should equal("testValue")
+  }
+
+  it should "not track access to properties unless enabled" in {
+    Given("a property source containing a property")
+    aPropertySource.containing("test.string.property" -> "testValue")
+
+    When("a property manager is created without access tracking")
+    val manager = new PropertySourcePropertyManager(List(classOf[ConfigProviderWithString]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithString])
+    currentValueOf(configProvider.testStringProperty)
+
+    Then("values should have no last accessed time")
+    configProvider.testStringProperty.lastAccessed.isPresent should be(false)
+
+    And("access statistics should be unavailable")
+    an[IllegalStateException] should be thrownBy manager.accessStatistics
+  }
+
+  it should "support primitive array, set and key value map properties" in {
+    Given("a property source containing lists of values and key value pairs")
+    aPropertySource
+      .containing("test.array.int.property" -> " 1, 2 ,3 ")
+      .containing("test.set.enum.property" -> "SECONDS, MINUTES, SECONDS")
+      .containing("test.limits" -> "reads = 100, writes = 10")
+
+    When("a config provider referencing those properties is created")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithCollections], classOf[ConfigProviderWithIntegerMap]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithCollections])
+
+    Then("the properties should be converted to the declared types")
+    currentValueOf(configProvider.testIntArrayProperty) should equal(Array(1, 2, 3))
+    currentValueOf(configProvider.testEnumSetProperty).toSet should equal(
+      Set(java.util.concurrent.TimeUnit.SECONDS, java.util.concurrent.TimeUnit.MINUTES))
+    metadataTypeOf(configProvider.testIntArrayProperty) should equal("int[]")
+
+    And("a map property defined as key value pairs should be parsed from them")
+    val limits = manager.propertiesFor(classOf[ConfigProviderWithIntegerMap]).testLimits
+    currentValueOf(limits).toMap should equal(Map("reads" -> 100, "writes" -> 10))
+    metadataSourceDescriptionOf(limits) should equal(propertySource.getDescription)
+  }
+
+  it should "support duration, data size and enum properties" in {
+    Given("a property source containing values with units and an enum name in lower case")
+    aPropertySource.containing("test.timeout" -> "1.5s").containing("test.buffer.size" -> "64KB").containing("test.unit" -> "minutes")
+
+    When("a config provider referencing those properties is created")
+    val manager = new PropertySourcePropertyManager(List(classOf[ConfigProviderWithUnits]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithUnits])
+
+    Then("the values should be normalised to the declared types")
+    currentValueOf(configProvider.testTimeout).toMillis should equal(1500)
+    currentValueOf(configProvider.testBufferSize).bytes should equal(65536)
+    currentValueOf(configProvider.testUnit) should equal(java.util.concurrent.TimeUnit.MINUTES)
+  }
+
+  it should "report every property without a converter when created" in {
+    Given("a property source containing some properties")
+    aPropertySource.containing("test.string.property" -> "testValue")
+
+    When("a property manager is created for a config provider with several properties no converter exists for")
+    val thrown = the[InvalidPropertiesException] thrownBy new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithUnconvertibleProperties]), List(propertySource), defaultConverters)
+
+    Then("each of them should be reported together")
+    thrown.failures.keySet.toSet should equal(Set("test.thread.property", "test.list.thread.property"))
+  }
+
+  it should "collect every property beneath a prefix into a map property" in {
+    Given("property sources defining several properties beneath a prefix")
+    aPropertySource
+      .containing("test.limits.reads" -> "100")
+      .containing("test.limits.writes" -> "10")
+      .containing("test.limitsx.other" -> "1")
+    anAlternativePropertySource
+      .containing("test.limits.writes" -> "20")
+      .containing("test.limits.deletes" -> "1")
+
+    When("a config provider referencing the prefix as a map property is created")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithIntegerMap]), List(propertySource, alternativePropertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithIntegerMap])
 
-  it should "overwrite reloadable property from default value if property no longer defined in property source following reload" in (pending)
+    Then("the map should hold each property beneath the prefix, keyed by its relative name")
+    currentValueOf(configProvider.testLimits).toMap should equal(Map("deletes" -> 1, "reads" -> 100, "writes" -> 10))
+    metadataTypeOf(configProvider.testLimits) should equal("java.util.Map<java.lang.String, java.lang.Integer>")
+  }
 
-  it should "overwrite reloadable properties from same property source following reload" in (pending)
+  it should "resolve the properties of nested groups relative to their prefix" in {
+    Given("a property source containing properties for two instances of the same group")
+    aPropertySource
+      .containing("test.db.primary.url" -> "jdbc:primary")
+      .containing("test.db.primary.pool.size" -> "10")
+      .containing("test.db.replica.url" -> "jdbc:replica")
+      .containing("test.db.replica.pool.size" -> "5")
+
+    When("a config provider referencing the groups is created")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithGroups]), List(propertySource), defaultConverters,
+      settingsWith(_.providerFactory = new GeneratedProviderFactory), Bootstrap.serial())
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithGroups])
+
+    Then("each group should resolve its properties beneath its own prefix")
+    currentValueOf(configProvider.primary.url) should equal("jdbc:primary")
+    configProvider.primary.pool.size.getAsInt should equal(10)
+    currentValueOf(configProvider.replica.url) should equal("jdbc:replica")
+    configProvider.replica.pool.size.getAsInt should equal(5)
+    metadataNameOf(configProvider.replica.pool.size) should equal("test.db.replica.pool.size")
+
+    And("the group values should be listed with the manager's properties")
+    manager.properties.map(_.metadata.name).toSet should contain("test.db.primary.pool.size")
+  }
 
-  it should "overwrite reloadable properties from different property source following reload" in (pending)
+  it should "fail if a property group nests its own provider" in {
+    Given("a config provider whose group returns the provider itself")
+    aPropertySource.containingNoProperties
+    val configProviderClass = classOf[ConfigProviderWithRecursiveGroup]
+
+    Then("creating a property manager should fail")
+    an[IllegalArgumentException] should be thrownBy new PropertySourcePropertyManager(
+      List(configProviderClass), List(propertySource), defaultConverters)
+  }
+
+  it should "only reload map properties whose prefix contains a changed property following reload" in {
+    Given("a reloadable property source containing properties beneath two prefixes")
+    aPropertySource.reloadable
+      .containing("test.limits.reads" -> "100")
+      .containing("test.limits.writes" -> "10")
+      .containing("test.timeouts.connect" -> "5")
+
+    And("a converter counting the values it converts")
+    val converted = new ListBuffer[String]()
+    val countingConverter = new PropertyConverter[Integer] {
+      def valueType = classOf[Integer]
+      def convert(value: String) = {
+        converted.append(value)
+        Integer.valueOf(value)
+      }
+    }
+
+    And("config providers referencing the prefixes as dynamic map properties, with a listener on one")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithDynamicIntegerMaps]), List(propertySource), List[PropertyConverter[_]](countingConverter))
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicIntegerMaps])
+    val changes = new ListBuffer[(Map[String, Integer], Map[String, Integer])]()
+    configProvider.testLimits.addListener(new ValueListener[java.util.Map[String, Integer]] {
+      def valueChanged(oldValue: java.util.Map[String, Integer], newValue: java.util.Map[String, Integer]) {
+        changes.append(oldValue.toMap -> newValue.toMap)
+      }
+    })
+    converted.clear()
+
+    When("the property source is reloaded adding, removing and changing properties beneath only one prefix")
+    aPropertySource
+      .notContaining("test.limits.writes")
+      .containing("test.limits.reads" -> "200")
+      .containing("test.limits.deletes" -> "1")
+      .containing("test.timeouts.connect" -> "5")
+      .reloaded
+
+    Then("only the map beneath that prefix should have been converted again")
+    converted.toSet should equal(Set("200", "1"))
+    currentValueOf(configProvider.testLimits).toMap should equal(Map[String, Integer]("reads" -> 200, "deletes" -> 1))
+    currentValueOf(configProvider.testTimeouts).toMap should equal(Map[String, Integer]("connect" -> 5))
+
+    And("the map's listeners should be notified of the change")
+    changes should equal(List(
+      Map[String, Integer]("reads" -> 100, "writes" -> 10) -> Map[String, Integer]("reads" -> 200, "deletes" -> 1)))
+  }
 
   // Should be unique instance of a ConfigPropertyValue where it's used in multiple places in the code
 
@@ -369,9 +984,539 @@ class PropertySourceConfigPropertyManagerSpec extends FlatSpec with GivenWhenThe
 
   // We should synchronize reloading, can't happen in parallel. And only reload one source at a time
 
-  // If reloading a property would lead to some kind of failure, then it won't be reloaded
+  it should "report every value that fails its validator when created" in {
+    Given("a property source containing a malformed JDBC URL and a negative pool size")
+    aPropertySource.containing("test.db.url" -> "postgres://localhost/test").containing("test.pool.size" -> "-1")
+
+    When("a property manager is created for a config provider validating both properties")
+    val thrown = the[InvalidPropertiesException] thrownBy {
+      new PropertySourcePropertyManager(List(classOf[ConfigProviderWithValidatedProperties]), List(propertySource), defaultConverters)
+    }
+
+    Then("both properties should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.db.url", "test.pool.size"))
+    thrown.failures.get("test.pool.size").getMessage should include("must be positive")
+  }
+
+  it should "report the validator of a property in its metadata" in {
+    Given("a property source containing valid values")
+    aPropertySource.containing("test.db.url" -> "jdbc:h2:mem:test").containing("test.pool.size" -> "5")
+
+    When("a property manager is created for a config provider validating its properties")
+    val configProviderClass = classOf[ConfigProviderWithValidatedProperties]
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+
+    Then("the metadata should name the validators")
+    configProvider.testDbUrl.metadata.validatorClass.get should equal(classOf[JdbcUrlValidator])
+    configProvider.testPoolSize.metadata.validatorClass.get should equal(classOf[PositiveValidator])
+  }
+
+  it should "fail if a constraint between properties isn't met when created" in {
+    Given("a property source containing a minimum greater than the maximum")
+    aPropertySource.containing("test.pool.min" -> "10").containing("test.pool.max" -> "5")
+
+    When("a property manager is created with a constraint ordering the two")
+    val thrown = the[InvalidPropertiesException] thrownBy {
+      managerWithPoolLimits()
+    }
+
+    Then("the constraint should be reported")
+    thrown.failures.keySet.toSet should equal(Set("test.pool.min <= test.pool.max"))
+    thrown.failures.get("test.pool.min <= test.pool.max").getMessage should include("is greater than")
+  }
+
+  it should "reject a reload containing an invalid value, keeping every previous value" in {
+    Given("a reloadable property source containing valid values")
+    aPropertySource.reloadable
+      .containing("test.db.url" -> "jdbc:h2:mem:test")
+      .containing("test.pool.size" -> "5")
+      .withDescription("Property Source 1")
+
+    And("a config provider validating those properties, with a listener for rejected reloads")
+    val configProviderClass = classOf[ConfigProviderWithValidatedProperties]
+    val manager = new PropertySourcePropertyManager(List(configProviderClass), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(configProviderClass)
+    val rejections = new ListBuffer[InvalidPropertiesException]()
+    manager.addReloadFailureListener(new ReloadFailureListener {
+      def reloadRejected(source: PropertySource, failures: InvalidPropertiesException) {
+        rejections.append(failures)
+      }
+    })
+    val snapshot = manager.snapshot
+
+    When("the property source is reloaded with a valid new URL but an invalid pool size")
+    aPropertySource
+      .containing("test.db.url" -> "jdbc:h2:mem:other")
+      .containing("test.pool.size" -> "0")
+      .reloaded
+
+    Then("neither property should change")
+    currentValueOf(configProvider.testDbUrl) should equal("jdbc:h2:mem:test")
+    configProvider.testPoolSize.getAsInt should equal(5)
+    manager.snapshot.version should equal(snapshot.version)
+
+    And("the rejection should be reported")
+    rejections should have size 1
+    rejections.head.failures.keySet.toSet should equal(Set("test.pool.size"))
+
+    When("the property source is reloaded again with valid values")
+    aPropertySource
+      .containing("test.db.url" -> "jdbc:h2:mem:other")
+      .containing("test.pool.size" -> "8")
+      .reloaded
+
+    Then("both properties should take the new values")
+    currentValueOf(configProvider.testDbUrl) should equal("jdbc:h2:mem:other")
+    configProvider.testPoolSize.getAsInt should equal(8)
+  }
+
+  it should "reject a reload that would break a constraint between properties" in {
+    Given("a reloadable property source containing a minimum and maximum")
+    aPropertySource.reloadable.containing("test.pool.min" -> "1").containing("test.pool.max" -> "10")
+
+    And("a property manager with a constraint ordering the two")
+    val manager = managerWithPoolLimits()
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithPoolLimits])
+    val rejections = new ListBuffer[InvalidPropertiesException]()
+    manager.addReloadFailureListener(new ReloadFailureListener {
+      def reloadRejected(source: PropertySource, failures: InvalidPropertiesException) {
+        rejections.append(failures)
+      }
+    })
+
+    When("the property source is reloaded lowering the maximum below the minimum")
+    aPropertySource.containing("test.pool.min" -> "1").containing("test.pool.max" -> "0").reloaded
+
+    Then("the maximum should keep its value and the broken constraint should be reported")
+    configProvider.testMax.getAsInt should equal(10)
+    rejections.head.failures.keySet.toSet should equal(Set("test.pool.min <= test.pool.max"))
+
+    When("the property source is reloaded raising both")
+    aPropertySource.containing("test.pool.min" -> "20").containing("test.pool.max" -> "30").reloaded
+
+    Then("both should take their new values")
+    configProvider.testMin.getAsInt should equal(20)
+    configProvider.testMax.getAsInt should equal(30)
+  }
+
+  it should "fail if no value is available for a reloadable property following reload" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+
+    And("a config provider requiring those properties as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithTwoDynamicStrings]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+    val rejections = new ListBuffer[InvalidPropertiesException]()
+    manager.addReloadFailureListener(new ReloadFailureListener {
+      def reloadRejected(source: PropertySource, failures: InvalidPropertiesException) {
+        rejections.append(failures)
+      }
+    })
+
+    When("the property source is reloaded changing one property and no longer containing the other")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .notContaining("test.other.string.property")
+      .reloaded
+
+    Then("the reload should be rejected, keeping both values")
+    currentValueOf(configProvider.testStringProperty) should equal("testValue")
+    currentValueOf(configProvider.testOtherStringProperty) should equal("otherTestValue")
+    rejections.head.failures.keySet.toSet should equal(Set("test.other.string.property"))
+  }
+
+  it should "convert and validate the values of a large reload in parallel, publishing all or none of them" in {
+    Given("a reloadable property source containing hundreds of properties")
+    val names = for (group <- List("a", "b", "c"); i <- 0 to 9; j <- 0 to 9) yield s"test.many.$group.g$i.p$j"
+    names.foldLeft(aPropertySource.reloadable)((source, name) => source.containing(name -> "1"))
+
+    And("a property manager built in parallel for a config provider referencing them as dynamic")
+    val manager = new PropertySourcePropertyManager(List(classOf[ConfigProviderWithManyDynamicProperties]),
+      List(propertySource), defaultConverters, new ManagerSettings, Bootstrap.withParallelism(4))
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithManyDynamicProperties])
+    val rejections = new ListBuffer[InvalidPropertiesException]()
+    manager.addReloadFailureListener(new ReloadFailureListener {
+      def reloadRejected(source: PropertySource, failures: InvalidPropertiesException) {
+        rejections.append(failures)
+      }
+    })
+
+    When("the property source is reloaded changing every property")
+    names.foldLeft(aPropertySource)((source, name) => source.containing(name -> "2"))
+      .reloaded
+
+    Then("every property should take its new value")
+    configProvider.a.g0.p0.getAsInt should equal(2)
+    configProvider.c.g9.p9.getAsInt should equal(2)
+    manager.properties().map(_.currentValue.get).toSet should equal(Set(2))
+
+    When("the property source is reloaded changing every property, one of them to an invalid value")
+    names.foldLeft(aPropertySource)((source, name) => source.containing(name -> (if (name == "test.many.b.g5.p5") "x" else "3")))
+      .reloaded
+
+    Then("no property should change and only the invalid one should be reported")
+    manager.properties().map(_.currentValue.get).toSet should equal(Set(2))
+    rejections.head.failures.keySet.toSet should equal(Set("test.many.b.g5.p5"))
+  }
+
+  it should "reuse the same threads for every large reload" in {
+    Given("a reloadable property source containing hundreds of properties")
+    val names = for (group <- List("a", "b", "c"); i <- 0 to 9; j <- 0 to 9) yield s"test.many.$group.g$i.p$j"
+    names.foldLeft(aPropertySource.reloadable)((source, name) => source.containing(name -> "1"))
+
+    And("a property manager built in parallel, converting with a converter recording the threads it's called on")
+    val threads = util.Collections.newSetFromMap(new util.concurrent.ConcurrentHashMap[Thread, java.lang.Boolean]())
+    val recordingConverter = new IntegerConverter {
+      override def convertToInt(value: String) = {
+        threads.add(Thread.currentThread)
+        super.convertToInt(value)
+      }
+    }
+    new PropertySourcePropertyManager(List(classOf[ConfigProviderWithManyDynamicProperties]),
+      List(propertySource), List[PropertyConverter[_]](recordingConverter), new ManagerSettings,
+      Bootstrap.withParallelism(4))
+
+    When("the property source is reloaded changing every property")
+    threads.clear()
+    names.foldLeft(aPropertySource)((source, name) => source.containing(name -> "2")).reloaded
+    val firstReloadThreads = threads.toSet
+
+    And("reloaded again")
+    threads.clear()
+    names.foldLeft(aPropertySource)((source, name) => source.containing(name -> "3")).reloaded
+
+    Then("the second reload should have been converted on the threads started by the first")
+    firstReloadThreads.size should be > 1
+    threads.toSet.subsetOf(firstReloadThreads) should be(true)
+  }
+
+  it should "stream changes to dynamic values and snapshots to subscribers as they request them" in {
+    Given("a reloadable property source containing a property")
+    aPropertySource.reloadable.containing("test.string.property" -> "testValue")
+
+    And("a config provider referencing that property as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithDynamicConfigProperty]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithDynamicConfigProperty])
+
+    And("subscribers to the value's changes and to the manager's snapshots, each requesting one element")
+    val values = new ListBuffer[String]()
+    var valueSubscription: Subscription = null
+    configProvider.testStringProperty.changes.subscribe(new Subscriber[String] {
+      def onSubscribe(subscription: Subscription) {
+        valueSubscription = subscription
+        subscription.request(1)
+      }
+      def onNext(value: String) {
+        values.append(value)
+      }
+      def onError(failure: Throwable) {}
+      def onComplete() {}
+    })
+    val versions = new ListBuffer[Long]()
+    manager.snapshotChanges.subscribe(new Subscriber[ConfigSnapshot] {
+      def onSubscribe(subscription: Subscription) {
+        subscription.request(Long.MaxValue)
+      }
+      def onNext(snapshot: ConfigSnapshot) {
+        versions.append(snapshot.version)
+      }
+      def onError(failure: Throwable) {}
+      def onComplete() {}
+    })
+    val initialVersion = manager.snapshot.version
+
+    When("the property source is reloaded twice with new values")
+    aPropertySource.containing("test.string.property" -> "secondValue").reloaded
+    aPropertySource.containing("test.string.property" -> "thirdValue").reloaded
+
+    Then("the value subscriber should only have received the value it requested")
+    values should equal(List("testValue"))
+
+    And("the snapshot subscriber should have received every snapshot")
+    versions should have size 3
+    versions.head should equal(initialVersion)
+
+    When("the value subscriber requests more")
+    valueSubscription.request(5)
+
+    Then("it should receive only the latest value")
+    values should equal(List("testValue", "thirdValue"))
+  }
+
+  it should "resolve placeholders, converting the properties referencing a changed property again following reload" in {
+    Given("a reloadable property source containing a URL built from other properties")
+    aPropertySource.reloadable
+      .containing("test.host" -> "localhost")
+      .containing("test.port" -> "5432")
+      .containing("test.string.property" -> "jdbc:postgresql://${test.host}:${test.port}/app")
+      .containing("test.other.string.property" -> "unrelated")
+
+    And("a converter counting the values it converts")
+    val converted = new ListBuffer[String]()
+    val countingConverter = new PropertyConverter[String] {
+      def valueType = classOf[String]
+      def convert(value: String) = {
+        converted.append(value)
+        value
+      }
+    }
+
+    And("a property manager interpolating placeholders, for a config provider referencing the URL as dynamic")
+    val manager = interpolatingManager(List[PropertyConverter[_]](countingConverter))
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+
+    Then("the URL should be resolved")
+    currentValueOf(configProvider.testStringProperty) should equal("jdbc:postgresql://localhost:5432/app")
+    converted.clear()
+
+    When("the property source is reloaded with a new host")
+    aPropertySource
+      .containing("test.host" -> "db.example.com")
+      .containing("test.port" -> "5432")
+      .containing("test.string.property" -> "jdbc:postgresql://${test.host}:${test.port}/app")
+      .containing("test.other.string.property" -> "unrelated")
+      .reloaded
+
+    Then("only the URL should have been resolved and converted again")
+    converted should equal(List("jdbc:postgresql://db.example.com:5432/app"))
+    currentValueOf(configProvider.testStringProperty) should equal("jdbc:postgresql://db.example.com:5432/app")
+  }
+
+  it should "fail if the placeholders of a property form a cycle" in {
+    Given("a property source containing properties whose placeholders reference each other")
+    aPropertySource.containing("test.string.property" -> "${test.other.string.property}")
+      .containing("test.other.string.property" -> "${test.string.property}")
+
+    When("a property manager interpolating placeholders is created for a config provider referencing them")
+    val thrown = the[InvalidPropertiesException] thrownBy interpolatingManager(defaultConverters)
+
+    Then("both properties should be reported as forming a cycle")
+    thrown.failures.keySet.toSet should equal(Set("test.string.property", "test.other.string.property"))
+    thrown.failures.get("test.string.property").getMessage should include("cycle")
+  }
+
+  it should "share every value and group an overlay doesn't override with the manager beneath it" in {
+    Given("a property source containing the config of two databases")
+    aPropertySource.containing("test.db.primary.url" -> "jdbc:h2:mem:primary")
+      .containing("test.db.primary.pool.size" -> "10")
+      .containing("test.db.replica.url" -> "jdbc:h2:mem:replica")
+      .containing("test.db.replica.pool.size" -> "5")
+
+    And("a property manager for a config provider grouping those properties")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithGroups]), List(propertySource), defaultConverters)
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithGroups])
+
+    When("an overlay is created overriding the pool size of one database")
+    anAlternativePropertySource.withDescription("Tenant overrides").containing("test.db.primary.pool.size" -> "20")
+    val overlay = manager.overlay(alternativePropertySource)
+    val overlaidProvider = overlay.propertiesFor(classOf[ConfigProviderWithGroups])
+
+    Then("the overlay should have the overridden value, loaded from the overrides")
+    overlaidProvider.primary.pool.size.getAsInt should equal(20)
+    metadataSourceDescriptionOf(overlaidProvider.primary.pool.size) should equal("Tenant overrides")
+
+    And("the manager beneath it should keep its own value")
+    configProvider.primary.pool.size.getAsInt should equal(10)
+
+    And("every other value and untouched group should be shared with the manager beneath it")
+    overlaidProvider.primary.url should be theSameInstanceAs configProvider.primary.url
+    overlaidProvider.replica should be theSameInstanceAs configProvider.replica
+    overlay.properties.toSet should equal(
+      manager.properties.toSet - configProvider.primary.pool.size + overlaidProvider.primary.pool.size)
+  }
+
+  it should "follow reloads of the manager beneath overlays for every value they don't override" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+
+    And("a property manager for a config provider referencing those properties as dynamic")
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithTwoDynamicStrings]), List(propertySource), defaultConverters)
+
+    And("an overlay overriding one property, itself overlaid overriding the other")
+    anAlternativePropertySource.containing("test.other.string.property" -> "tenantValue")
+    val overlay = manager.overlay(alternativePropertySource)
+    val userOverrides = mock[PropertySource]
+    new PropertySourceMocker(userOverrides).containing("test.string.property" -> "userValue")
+    val deepOverlay = overlay.overlay(userOverrides)
+    val overlaidProvider = overlay.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+    val deeplyOverlaidProvider = deepOverlay.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+
+    When("the property source is reloaded with new values for both properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.other.string.property" -> "newOtherTestValue")
+      .reloaded
+
+    Then("the overlay should have the new value of the property it doesn't override")
+    currentValueOf(overlaidProvider.testStringProperty) should equal("newTestValue")
+    currentValueOf(overlaidProvider.testOtherStringProperty) should equal("tenantValue")
+
+    And("the overlay of the overlay should keep both overrides")
+    currentValueOf(deeplyOverlaidProvider.testStringProperty) should equal("userValue")
+    currentValueOf(deeplyOverlaidProvider.testOtherStringProperty) should equal("tenantValue")
+    deeplyOverlaidProvider.testOtherStringProperty should be theSameInstanceAs overlaidProvider.testOtherStringProperty
+
+    And("the overlays should read through the manager's snapshot")
+    deepOverlay.snapshot.valueOf(deeplyOverlaidProvider.testStringProperty).get should equal("userValue")
+    overlay.snapshot.valueOf(overlaidProvider.testStringProperty).get should equal("newTestValue")
+  }
+
+  it should "reject an overlay whose overrides can't be converted or don't meet a constraint" in {
+    Given("a property source containing pool limits")
+    aPropertySource.containing("test.pool.min" -> "1").containing("test.pool.max" -> "10")
+
+    And("a property manager constraining the minimum to be no greater than the maximum")
+    val manager = managerWithPoolLimits()
+
+    When("overlays are created with a minimum above the maximum, and with a maximum that isn't a number")
+    anAlternativePropertySource.containing("test.pool.min" -> "20")
+    val brokenConstraint = the[InvalidPropertiesException] thrownBy manager.overlay(alternativePropertySource)
+    val unconvertibleOverrides = mock[PropertySource]
+    new PropertySourceMocker(unconvertibleOverrides).containing("test.pool.max" -> "lots")
+    val unconvertible = the[InvalidPropertiesException] thrownBy manager.overlay(unconvertibleOverrides)
+
+    Then("each should be rejected, naming what's wrong")
+    brokenConstraint.failures.keySet.toSet should equal(Set("test.pool.min <= test.pool.max"))
+    unconvertible.failures.keySet.toSet should equal(Set("test.pool.max"))
+  }
+
+  it should "report loading, conversion, reloads and listener notifications to its instrumentation" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .withDescription("Test source")
+      .containing("test.string.property" -> "testValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+
+    And("an instrumented property manager for a config provider referencing those properties as dynamic")
+    val instrumentation = new InMemoryInstrumentation
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithTwoDynamicStrings]), List(propertySource), defaultConverters,
+      settingsWith(_.instrumentation = instrumentation), Bootstrap.serial())
+    val configProvider = manager.propertiesFor(classOf[ConfigProviderWithTwoDynamicStrings])
+    configProvider.testStringProperty.addListener(new ValueListener[String] {
+      def valueChanged(oldValue: String, newValue: String) {}
+    })
+
+    When("the property source is reloaded with a new value for one of the properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+      .reloaded
+
+    Then("the loading and reloading of the source, and the merging of the sources, should have been timed")
+    instrumentation.timer("octodubstep.source.load.Test source").count should equal(1)
+    instrumentation.timer("octodubstep.source.reload.Test source").count should equal(1)
+    instrumentation.timer("octodubstep.merge").count should equal(2)
+
+    And("each conversion and listener notification should have been timed")
+    instrumentation.timer("octodubstep.conversion.StringConverter").count should equal(3)
+    instrumentation.timer("octodubstep.listener").count should equal(1)
+
+    And("the reload and its changed key should have been counted")
+    instrumentation.counter("octodubstep.reloads").count should equal(1)
+    instrumentation.counter("octodubstep.reload.changed.keys").count should equal(1)
+    instrumentation.counter("octodubstep.reload.failures").count should equal(0)
+
+    And("the number of properties and age of the snapshot should be gauged")
+    instrumentation.gauge("octodubstep.properties").value should equal(2)
+    instrumentation.gauge("octodubstep.snapshot.age").value should be >= 0L
+  }
+
+  it should "time each listener call where it's delivered, rather than its hand off to the dispatcher" in {
+    Given("a reloadable property source containing a property")
+    aPropertySource.reloadable.containing("test.string.property" -> "testValue")
+
+    And("an instrumented property manager notifying listeners asynchronously")
+    val instrumentation = new InMemoryInstrumentation
+    val dispatcher = AsyncListenerDispatcher.withFixedThreadPool(1)
+    val manager = new PropertySourcePropertyManager(
+      List(classOf[ConfigProviderWithDynamicConfigProperty]), List(propertySource), defaultConverters,
+      settingsWith { settings =>
+        settings.instrumentation = instrumentation
+        settings.listenerDispatcher = dispatcher
+      }, Bootstrap.serial())
+
+    And("a listener taking a while to handle each change")
+    val handled = new CountDownLatch(1)
+    manager.propertiesFor(classOf[ConfigProviderWithDynamicConfigProperty]).testStringProperty.addListener(
+      new ValueListener[String] {
+        def valueChanged(oldValue: String, newValue: String) {
+          Thread.sleep(50)
+          handled.countDown()
+        }
+      })
+
+    try {
+      When("the property source is reloaded with a new value for the property")
+      aPropertySource.containing("test.string.property" -> "newTestValue").reloaded
+      handled.await(5, TimeUnit.SECONDS) should be(true)
+
+      Then("the time the listener took should have been recorded once it's been notified")
+      val timer = instrumentation.timer("octodubstep.listener")
+      val deadline = System.currentTimeMillis() + 5000
+      while (timer.count == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5)
+      }
+      timer.count should equal(1)
+      timer.totalNanos should be >= TimeUnit.MILLISECONDS.toNanos(50)
+    } finally {
+      dispatcher.shutdown()
+    }
+  }
+
+  it should "tell its reporter about every value when built and every dynamic value a reload changes" in {
+    Given("a reloadable property source containing some properties")
+    aPropertySource.reloadable
+      .containing("test.string.property" -> "testValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+
+    And("a property manager reporting to a reporter recording the values it's told about")
+    val reported = new ListBuffer[String]()
+    val manager = Octodubstep.newPropertyManager()
+      .withPropertySource(propertySource)
+      .withProvider(classOf[ConfigProviderWithTwoDynamicStrings])
+      .usingDefaultConverters()
+      .reportingTo(new ConfigReporter {
+        def propertyLoaded(propertyValue: Value[_]) {
+          reported.append(propertyValue.metadata.name + "=" + propertyValue.currentValue.get)
+        }
+      })
+      .build()
+
+    When("the property source is reloaded with a new value for one of the properties")
+    aPropertySource
+      .containing("test.string.property" -> "newTestValue")
+      .containing("test.other.string.property" -> "otherTestValue")
+      .reloaded
+
+    Then("every value should have been reported, in no particular order, followed by the changed value")
+    reported.take(2).toSet should equal(
+      Set("test.string.property=testValue", "test.other.string.property=otherTestValue"))
+    reported.drop(2) should equal(List("test.string.property=newTestValue"))
+  }
+
+  private def managerWithPoolLimits() = new PropertySourcePropertyManager(
+    List(classOf[ConfigProviderWithPoolLimits]), List(propertySource), defaultConverters,
+    settingsWith(_.constraints.add(Constraints.ordered("test.pool.min", "test.pool.max"))), Bootstrap.serial())
 
-  it should "fail if no value is available for a reloadable property following reload" in (pending)
+  private def interpolatingManager(converters: util.List[PropertyConverter[_]]) = new PropertySourcePropertyManager(
+    List(classOf[ConfigProviderWithTwoDynamicStrings]), List(propertySource), converters,
+    settingsWith(_.interpolatePlaceholders = true), Bootstrap.serial())
+
+  private def settingsWith(configure: ManagerSettings => Unit) = {
+    val settings = new ManagerSettings
+    configure(settings)
+    settings
+  }
 }
 
 trait ConfigProviderWithString {
@@ -394,6 +1539,37 @@ trait ConfigProviderWithStringList {
   def testStringListProperty: Value[java.util.List[String]]
 }
 
+trait ConfigProviderWithIntegerList {
+  @Property(name = "test.list.integer.property")
+  def testIntegerListProperty: Value[java.util.List[Integer]]
+}
+
+trait ConfigProviderWithInvalidDefaults {
+  @Property(name = "test.integer.property", required = false, defaultValue = "not a number")
+  def testIntegerProperty: Value[Integer]
+
+  @Property(name = "test.list.integer.property", required = false, defaultValue = "1, two")
+  def testIntegerListProperty: Value[java.util.List[Integer]]
+}
+
+trait ConfigProviderWithNonRequiredDynamicString {
+  @Property(name = "test.string.property", defaultValue = "default string", required = false)
+  def testStringProperty: DynamicValue[String]
+}
+
+trait ConfigProviderWithDynamicPrimitive {
+  @Property(name = "test.integer.property")
+  def testIntProperty: DynamicIntValue
+}
+
+trait ConfigProviderWithTwoDynamicStrings {
+  @Property(name = "test.string.property")
+  def testStringProperty: DynamicValue[String]
+
+  @Property(name = "test.other.string.property")
+  def testOtherStringProperty: DynamicValue[String]
+}
+
 trait ConfigProviderWithDynamicConfigProperty {
 
   @Property(name = "test.string.property")
@@ -427,6 +1603,151 @@ trait ConfigProviderWithVariousProperties {
   def testBooleanListProperty: Value[java.util.List[java.lang.Boolean]]
 }
 
+trait ConfigProviderWithPrimitiveProperties {
+
+  @Property(name = "test.integer.property")
+  def testIntProperty: IntValue
+
+  @Property(name = "test.long.property")
+  def testLongProperty: LongValue
+
+  @Property(name = "test.boolean.property")
+  def testBooleanProperty: BooleanValue
+
+  @Property(name = "test.integer.property")
+  def testDynamicIntProperty: DynamicIntValue
+}
+
+trait ConfigProviderWithCollections {
+  @Property(name = "test.array.int.property")
+  def testIntArrayProperty: Value[Array[Int]]
+
+  @Property(name = "test.set.enum.property")
+  def testEnumSetProperty: Value[java.util.Set[java.util.concurrent.TimeUnit]]
+}
+
+trait ConfigProviderWithUnits {
+  @Property(name = "test.timeout")
+  def testTimeout: Value[com.dreweaster.octodubstep.core.unit.Duration]
+
+  @Property(name = "test.buffer.size")
+  def testBufferSize: Value[com.dreweaster.octodubstep.core.unit.DataSize]
+
+  @Property(name = "test.unit")
+  def testUnit: Value[java.util.concurrent.TimeUnit]
+}
+
+trait ConfigProviderWithUnconvertibleProperties {
+  @Property(name = "test.string.property")
+  def testStringProperty: Value[String]
+
+  @Property(name = "test.thread.property")
+  def testThreadProperty: Value[Thread]
+
+  @Property(name = "test.list.thread.property")
+  def testThreadListProperty: Value[java.util.List[Thread]]
+}
+
+trait ConfigProviderWithIntegerMap {
+  @Property(name = "test.limits")
+  def testLimits: Value[java.util.Map[String, Integer]]
+}
+
+trait ConfigProviderWithDynamicIntegerMaps {
+  @Property(name = "test.limits")
+  def testLimits: DynamicValue[java.util.Map[String, Integer]]
+
+  @Property(name = "test.timeouts")
+  def testTimeouts: DynamicValue[java.util.Map[String, Integer]]
+}
+
+trait ConfigProviderWithGroups {
+  @PropertyGroup(prefix = "test.db.primary")
+  def primary: DatabaseConfigProvider
+
+  @PropertyGroup(prefix = "test.db.replica")
+  def replica: DatabaseConfigProvider
+}
+
+trait DatabaseConfigProvider {
+  @Property(name = "url")
+  def url: Value[String]
+
+  @PropertyGroup(prefix = "pool")
+  def pool: PoolConfigProvider
+}
+
+trait PoolConfigProvider {
+  @Property(name = "size")
+  def size: IntValue
+}
+
+class PositiveValidator extends ConfigPropertyValidator[Integer] {
+  def validate(value: Integer) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("Value must be positive: " + value)
+    }
+  }
+}
+
+trait ConfigProviderWithValidatedProperties {
+  @Property(name = "test.db.url", validator = classOf[JdbcUrlValidator])
+  def testDbUrl: DynamicValue[String]
+
+  @Property(name = "test.pool.size", validator = classOf[PositiveValidator])
+  def testPoolSize: DynamicIntValue
+}
+
+trait ConfigProviderWithPoolLimits {
+  @Property(name = "test.pool.min")
+  def testMin: DynamicIntValue
+
+  @Property(name = "test.pool.max")
+  def testMax: DynamicIntValue
+}
+
+trait ConfigProviderWithManyDynamicProperties {
+  @PropertyGroup(prefix = "test.many.a")
+  def a: HundredDynamicProperties
+
+  @PropertyGroup(prefix = "test.many.b")
+  def b: HundredDynamicProperties
+
+  @PropertyGroup(prefix = "test.many.c")
+  def c: HundredDynamicProperties
+}
+
+trait HundredDynamicProperties {
+  @PropertyGroup(prefix = "g0") def g0: TenDynamicProperties
+  @PropertyGroup(prefix = "g1") def g1: TenDynamicProperties
+  @PropertyGroup(prefix = "g2") def g2: TenDynamicProperties
+  @PropertyGroup(prefix = "g3") def g3: TenDynamicProperties
+  @PropertyGroup(prefix = "g4") def g4: TenDynamicProperties
+  @PropertyGroup(prefix = "g5") def g5: TenDynamicProperties
+  @PropertyGroup(prefix = "g6") def g6: TenDynamicProperties
+  @PropertyGroup(prefix = "g7") def g7: TenDynamicProperties
+  @PropertyGroup(prefix = "g8") def g8: TenDynamicProperties
+  @PropertyGroup(prefix = "g9") def g9: TenDynamicProperties
+}
+
+trait TenDynamicProperties {
+  @Property(name = "p0") def p0: DynamicIntValue
+  @Property(name = "p1") def p1: DynamicIntValue
+  @Property(name = "p2") def p2: DynamicIntValue
+  @Property(name = "p3") def p3: DynamicIntValue
+  @Property(name = "p4") def p4: DynamicIntValue
+  @Property(name = "p5") def p5: DynamicIntValue
+  @Property(name = "p6") def p6: DynamicIntValue
+  @Property(name = "p7") def p7: DynamicIntValue
+  @Property(name = "p8") def p8: DynamicIntValue
+  @Property(name = "p9") def p9: DynamicIntValue
+}
+
+trait ConfigProviderWithRecursiveGroup {
+  @PropertyGroup(prefix = "test.nested")
+  def nested: ConfigProviderWithRecursiveGroup
+}
+
 class PropertySourceMocker(mockPropertySource: PropertySource) {
 
   val propertyNames: ListBuffer[String] = new ListBuffer[String]()
@@ -448,6 +1769,25 @@ class PropertySourceMocker(mockPropertySource: PropertySource) {
     Mockito.when(mockPropertySource.getPropertyNames).thenReturn(propertyNames)
     this
   }
+
+  def notContaining(propertyName: String): PropertySourceMocker = {
+    propertyNames -= propertyName
+    Mockito.when(mockPropertySource.getPropertyNames).thenReturn(propertyNames)
+    Mockito.when(mockPropertySource.getValue(propertyName)).thenReturn(Optional.absent[String]())
+    this
+  }
+
+  def reloadable: PropertySourceMocker = {
+    Mockito.when(mockPropertySource.isReloadable).thenReturn(true)
+    this
+  }
+
+  def reloaded: PropertySourceMocker = {
+    val listener = ArgumentCaptor.forClass(classOf[PropertySourceListener])
+    Mockito.verify(mockPropertySource, Mockito.atLeastOnce()).addListener(listener.capture())
+    listener.getAllValues.foreach(_.propertySourceReloaded(mockPropertySource))
+    this
+  }
 }
 
 
@@ -0,0 +1,85 @@
+package com.dreweaster.octodubstep.core.conversion
+
+import java.util.concurrent.TimeUnit
+
+import com.dreweaster.octodubstep.core.DefaultPropertySourcePropertyManager
+import com.dreweaster.octodubstep.core.binding.Types
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class CollectionConverterSpec extends FlatSpec with GivenWhenThen with Matchers {
+
+  def aCollectionConverter =
+    new CollectionConverter(new ConverterRegistry(DefaultPropertySourcePropertyManager.defaultConverters()))
+
+  "ValueSplitter" should "split values into trimmed items" in {
+    ValueSplitter.split(" a, b ,c ").toList should equal(List("a", "b", "c"))
+    ValueSplitter.split("a,,b").toList should equal(List("a", "", "b"))
+    ValueSplitter.split("single").toList should equal(List("single"))
+  }
+
+  it should "find no items in a blank value" in {
+    ValueSplitter.split("") should be(empty)
+    ValueSplitter.split("   ") should be(empty)
+  }
+
+  it should "keep escaped separators and whitespace" in {
+    ValueSplitter.split("a\\,b, c\\\\,\\ d\\ ").toList should equal(List("a,b", "c\\", " d "))
+  }
+
+  it should "split values into key value pairs" in {
+    ValueSplitter.splitPairs(" a = 1, b=2 , c\\=d = 3, a = 4").toMap should equal(Map("a" -> "4", "b" -> "2", "c=d" -> "3"))
+    ValueSplitter.splitPairs("  ") should be(empty)
+  }
+
+  it should "fail to split an item without a key value separator into a pair" in {
+    an[IllegalArgumentException] should be thrownBy ValueSplitter.splitPairs("a=1,b")
+  }
+
+  "CollectionConverter" should "convert values to primitive arrays" in {
+    val converter = aCollectionConverter
+    converter.convert(classOf[Array[Int]], "1, 2, 3").asInstanceOf[Array[Int]] should equal(Array(1, 2, 3))
+    converter.convert(classOf[Array[Long]], "10000000000").asInstanceOf[Array[Long]] should equal(Array(10000000000L))
+  }
+
+  it should "convert values to immutable lists, sets and maps" in {
+    Given("a collection converter")
+    val converter = aCollectionConverter
+
+    When("converting values to collections")
+    val list = converter.convert(Types.listOf(classOf[Integer]), "3, 1, 3").asInstanceOf[java.util.List[Integer]]
+    val set = converter.convert(Types.setOf(classOf[String]), "b, a, b").asInstanceOf[java.util.Set[String]]
+    val enumSet = converter.convert(Types.setOf(classOf[TimeUnit]), "SECONDS, DAYS").asInstanceOf[java.util.Set[TimeUnit]]
+    val map = converter.convert(Types.mapOf(classOf[java.lang.Long], classOf[java.lang.Boolean]), "2=true, 1=false")
+      .asInstanceOf[java.util.Map[java.lang.Long, java.lang.Boolean]]
+
+    Then("the collections should hold the converted items in order")
+    list.toList should equal(List(3, 1, 3))
+    set.toList should equal(List("b", "a"))
+    enumSet.toSet should equal(Set(TimeUnit.SECONDS, TimeUnit.DAYS))
+    map.toList should equal(List((2L: java.lang.Long) -> java.lang.Boolean.TRUE, (1L: java.lang.Long) -> java.lang.Boolean.FALSE))
+
+    And("the collections should be immutable")
+    an[UnsupportedOperationException] should be thrownBy list.add(4)
+    an[UnsupportedOperationException] should be thrownBy set.add("c")
+    an[UnsupportedOperationException] should be thrownBy map.clear()
+  }
+
+  it should "share the collection converted from the same raw value" in {
+    val converter = aCollectionConverter
+    val first = converter.convert(Types.listOf(classOf[String]), "a,b")
+    converter.convert(Types.listOf(classOf[String]), "a,b") should be theSameInstanceAs first
+    converter.convert(Types.setOf(classOf[String]), "a,b") should not be theSameInstanceAs(first)
+    converter.convert(classOf[Array[Int]], "1") should not be theSameInstanceAs(converter.convert(classOf[Array[Int]], "1"))
+  }
+
+  it should "fail to convert items with no converter" in {
+    an[IllegalArgumentException] should be thrownBy aCollectionConverter.convert(Types.listOf(classOf[java.util.Date]), "x")
+  }
+}
@@ -0,0 +1,84 @@
+package com.dreweaster.octodubstep.core.conversion
+
+import java.net.URI
+import java.util.concurrent.TimeUnit
+
+import com.dreweaster.octodubstep.core.DefaultPropertySourcePropertyManager
+import com.dreweaster.octodubstep.core.unit.{DataSize, Duration}
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class ConverterRegistrySpec extends FlatSpec with GivenWhenThen with Matchers {
+
+  def aConverterRegistry = new ConverterRegistry(DefaultPropertySourcePropertyManager.defaultConverters())
+
+  "Duration" should "parse amounts with units, treating a bare number as milliseconds" in {
+    Duration.parse("250").toMillis should equal(250)
+    Duration.parse("1.5s").toMillis should equal(1500)
+    Duration.parse(" 2 m ").to(TimeUnit.SECONDS) should equal(120)
+    Duration.parse("1d") should equal(Duration.of(24, TimeUnit.HOURS))
+    Duration.parse("500us").toNanos should equal(500000)
+  }
+
+  it should "reject unknown units and malformed amounts" in {
+    an[IllegalArgumentException] should be thrownBy Duration.parse("5 fortnights")
+    an[IllegalArgumentException] should be thrownBy Duration.parse("s")
+    an[IllegalArgumentException] should be thrownBy Duration.parse("1.2.3ms")
+  }
+
+  "DataSize" should "parse binary sizes, treating a bare number as bytes" in {
+    DataSize.parse("512").bytes should equal(512)
+    DataSize.parse("64KB").bytes should equal(65536)
+    DataSize.parse("1.5 MiB").bytes should equal(1572864)
+    DataSize.parse("2g") should equal(DataSize.ofBytes(2L * 1024 * 1024 * 1024))
+    an[IllegalArgumentException] should be thrownBy DataSize.parse("10 parsecs")
+  }
+
+  "ConverterRegistry" should "find converters for the default value types" in {
+    val registry = aConverterRegistry
+
+    registry.converterFor(classOf[java.lang.Double]).convert(" 0.25 ") should equal(0.25)
+    registry.converterFor(classOf[URI]).convert("http://localhost:8080/path") should equal(
+      URI.create("http://localhost:8080/path"))
+    registry.converterFor(classOf[java.util.regex.Pattern]).convert("a+b").matcher("aaab").matches should be(true)
+
+    val address = registry.converterFor(classOf[java.net.InetSocketAddress]).convert("[::1]:9000")
+    address.getHostString should equal("::1")
+    address.getPort should equal(9000)
+    an[IllegalArgumentException] should be thrownBy registry.converterFor(classOf[java.net.InetSocketAddress]).convert("localhost")
+  }
+
+  it should "convert enums by name, ignoring case if there's no exact match" in {
+    val converter = aConverterRegistry.converterFor(classOf[TimeUnit])
+
+    converter.convert("SECONDS") should equal(TimeUnit.SECONDS)
+    converter.convert("milliseconds") should equal(TimeUnit.MILLISECONDS)
+    an[IllegalArgumentException] should be thrownBy converter.convert("fortnights")
+  }
+
+  it should "use a converter whose value type is assignable to the requested type" in {
+    aConverterRegistry.converterFor(classOf[CharSequence]).convert("value") should equal("value")
+  }
+
+  it should "resolve each type once" in {
+    val registry = aConverterRegistry
+
+    registry.find(classOf[TimeUnit]) should be theSameInstanceAs registry.find(classOf[TimeUnit])
+    registry.find(classOf[Thread]) should be(null)
+    registry.find(classOf[Thread]) should be(null)
+  }
+
+  it should "check collection item types as well as plain types" in {
+    val registry = aConverterRegistry
+
+    registry.checkSupported(classOf[Array[Int]])
+    registry.checkSupported(com.dreweaster.octodubstep.core.binding.Types.listOf(classOf[Duration]))
+    an[IllegalArgumentException] should be thrownBy registry.checkSupported(
+      com.dreweaster.octodubstep.core.binding.Types.listOf(classOf[Thread]))
+    an[IllegalArgumentException] should be thrownBy registry.checkSupported(classOf[Array[String]])
+  }
+}
@@ -0,0 +1,140 @@
+package com.dreweaster.octodubstep.core.listener
+
+import java.util.concurrent.Executor
+
+import com.dreweaster.octodubstep.core.listener.AsyncListenerDispatcher.OverflowPolicy
+import com.dreweaster.octodubstep.core.{DynamicValue, ValueListener}
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+import org.scalatest.mock.MockitoSugar
+
+import scala.collection.mutable.ListBuffer
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class AsyncListenerDispatcherSpec extends FlatSpec with GivenWhenThen with Matchers with MockitoSugar {
+
+  /**
+    * Holds on to submitted tasks until told to run them.
+    */
+  class ManualExecutor extends Executor {
+
+    val tasks = new ListBuffer[Runnable]()
+
+    def execute(task: Runnable) {
+      tasks.append(task)
+    }
+
+    def runAll() {
+      while (tasks.nonEmpty) {
+        tasks.remove(0).run()
+      }
+    }
+  }
+
+  class RecordingListener extends ValueListener[String] {
+
+    val changes = new ListBuffer[(String, String)]()
+
+    def valueChanged(oldValue: String, newValue: String) {
+      changes.append(oldValue -> newValue)
+    }
+  }
+
+  it should "deliver changes to a listener in order on the executor" in {
+    Given("a dispatcher with a manually run executor")
+    val executor = new ManualExecutor
+    val dispatcher = new AsyncListenerDispatcher(executor)
+    val listener = new RecordingListener
+
+    When("changes to two values are dispatched to a listener")
+    dispatcher.dispatch(mock[DynamicValue[String]], "test.first.property", listener, "a", "b")
+    dispatcher.dispatch(mock[DynamicValue[String]], "test.second.property", listener, "c", "d")
+
+    Then("nothing should be delivered until the executor runs")
+    listener.changes should be(empty)
+
+    And("the changes should then be delivered in order")
+    executor.runAll()
+    listener.changes should equal(List("a" -> "b", "c" -> "d"))
+    dispatcher.statistics.delivered should equal(2)
+  }
+
+  it should "coalesce successive changes to the same value" in {
+    Given("a dispatcher with a manually run executor")
+    val executor = new ManualExecutor
+    val dispatcher = new AsyncListenerDispatcher(executor)
+    val listener = new RecordingListener
+    val value = mock[DynamicValue[String]]
+
+    When("several changes to the same value are dispatched before the listener is notified")
+    dispatcher.dispatch(value, "test.string.property", listener, "a", "b")
+    dispatcher.dispatch(value, "test.string.property", listener, "b", "c")
+    dispatcher.dispatch(value, "test.string.property", listener, "c", "d")
+    executor.runAll()
+
+    Then("the listener should be notified once, from the oldest to the latest value")
+    listener.changes should equal(List("a" -> "d"))
+    dispatcher.statistics.coalesced should equal(2)
+  }
+
+  it should "drop changes when a listener's queue is full and the drop policy is used" in {
+    Given("a dispatcher with a queue capacity of one that drops notifications when full")
+    val executor = new ManualExecutor
+    val dispatcher = new AsyncListenerDispatcher(executor, 1, OverflowPolicy.DROP, 1000)
+    val listener = new RecordingListener
+
+    When("changes to two values are dispatched before the listener is notified")
+    dispatcher.dispatch(mock[DynamicValue[String]], "test.first.property", listener, "a", "b")
+    dispatcher.dispatch(mock[DynamicValue[String]], "test.second.property", listener, "c", "d")
+    executor.runAll()
+
+    Then("only the first change should be delivered")
+    listener.changes should equal(List("a" -> "b"))
+    dispatcher.statistics.dropped should equal(1)
+  }
+
+  it should "discard pending changes for a value once the listener is removed" in {
+    Given("a dispatcher with a manually run executor")
+    val executor = new ManualExecutor
+    val dispatcher = new AsyncListenerDispatcher(executor)
+    val listener = new RecordingListener
+    val value = mock[DynamicValue[String]]
+
+    When("a change is dispatched and the listener removed before it is delivered")
+    dispatcher.dispatch(value, "test.string.property", listener, "a", "b")
+    dispatcher.listenerRemoved(value, listener)
+    executor.runAll()
+
+    Then("the listener should not be notified")
+    listener.changes should be(empty)
+  }
+
+  it should "drop a listener's mailbox once it is drained following the listener's removal" in {
+    Given("a dispatcher with a manually run executor")
+    val executor = new ManualExecutor
+    val dispatcher = new AsyncListenerDispatcher(executor)
+    val value = mock[DynamicValue[String]]
+
+    And("a listener that is removed while its changes are being delivered")
+    val listener = new RecordingListener {
+      override def valueChanged(oldValue: String, newValue: String) {
+        super.valueChanged(oldValue, newValue)
+        dispatcher.listenerRemoved(value, this)
+      }
+    }
+
+    When("changes to two values are dispatched and delivered")
+    dispatcher.dispatch(value, "test.string.property", listener, "a", "b")
+    dispatcher.dispatch(mock[DynamicValue[String]], "test.other.property", listener, "c", "d")
+    executor.runAll()
+
+    Then("the changes should be delivered")
+    listener.changes should equal(List("a" -> "b", "c" -> "d"))
+
+    And("the dispatcher should no longer hold on to the listener")
+    dispatcher.mailboxCount should equal(0)
+  }
+}
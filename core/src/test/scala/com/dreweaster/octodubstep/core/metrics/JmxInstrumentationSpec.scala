@@ -0,0 +1,62 @@
+package com.dreweaster.octodubstep.core.metrics
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class JmxInstrumentationSpec extends FlatSpec with GivenWhenThen with Matchers {
+
+  "An in-memory instrumentation" should "keep the count, total and maximum of each timer" in {
+    Given("an in-memory instrumentation")
+    val instrumentation = new InMemoryInstrumentation
+
+    When("a timer records several durations and a counter is incremented")
+    instrumentation.timer("test.timer").record(5)
+    instrumentation.timer("test.timer").record(20)
+    instrumentation.timer("test.timer").record(10)
+    instrumentation.counter("test.counter").increment(3)
+
+    Then("the timer and counter should hold what was reported to them")
+    val timer = instrumentation.timer("test.timer")
+    (timer.count, timer.totalNanos, timer.maxNanos) should equal((3, 35, 20))
+    instrumentation.counter("test.counter").count should equal(3)
+    instrumentation.timerNames.toArray should equal(Array("test.timer"))
+  }
+
+  "A JMX instrumentation" should "publish every instrument as an attribute of its MBean" in {
+    Given("a JMX instrumentation registered with the platform MBean server")
+    val instrumentation = JmxInstrumentation.register("test")
+    val server = ManagementFactory.getPlatformMBeanServer
+
+    try {
+      When("instruments report to it")
+      instrumentation.timer("test.timer").record(TimeUnit.MILLISECONDS.toNanos(2))
+      instrumentation.timer("test.timer").record(TimeUnit.MILLISECONDS.toNanos(4))
+      instrumentation.counter("test.counter").increment(7)
+      instrumentation.gauge("test.gauge", new Gauge {
+        def value = 42
+      })
+
+      Then("the MBean should list and report every instrument")
+      val attributes = server.getMBeanInfo(instrumentation.objectName).getAttributes.map(_.getName).toSet
+      attributes should equal(Set(
+        "test.counter", "test.gauge", "test.timer.count", "test.timer.meanMillis", "test.timer.maxMillis"))
+      server.getAttribute(instrumentation.objectName, "test.counter") should equal(7L)
+      server.getAttribute(instrumentation.objectName, "test.gauge") should equal(42L)
+      server.getAttribute(instrumentation.objectName, "test.timer.count") should equal(2L)
+      server.getAttribute(instrumentation.objectName, "test.timer.meanMillis") should equal(3.0)
+      server.getAttribute(instrumentation.objectName, "test.timer.maxMillis") should equal(4.0)
+    } finally {
+      instrumentation.unregister()
+    }
+
+    And("the MBean should be gone once unregistered")
+    server.isRegistered(instrumentation.objectName) should be(false)
+  }
+}
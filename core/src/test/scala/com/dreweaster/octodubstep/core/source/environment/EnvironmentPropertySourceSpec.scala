@@ -0,0 +1,127 @@
+package com.dreweaster.octodubstep.core.source.environment
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.dreweaster.octodubstep.core.source.{PropertySource, PropertySourceListener}
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class EnvironmentPropertySourceSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  val systemProperty = "octodubstep.test.environment.property"
+
+  after {
+    System.clearProperty(systemProperty)
+  }
+
+  private def countingReloads(source: PropertySource) = {
+    val reloads = new AtomicInteger()
+    source.addListener(new PropertySourceListener {
+      def propertySourceReloaded(source: PropertySource) {
+        reloads.incrementAndGet()
+      }
+    })
+    reloads
+  }
+
+  private def eventually(condition: => Boolean) {
+    val deadline = System.currentTimeMillis() + 5000
+    while (!condition && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+  }
+
+  "EnvironmentPropertySource" should "define relaxed names for environment variables" in {
+    Given("some environment variables")
+    val source = new EnvironmentPropertySource(Map("DB_POOL_SIZE" -> "10", "CACHE_TTL" -> "30s"), false)
+
+    Then("each variable should be listed under its relaxed name")
+    source.getPropertyNames.toSet should contain allOf("db.pool.size", "cache.ttl")
+    source.getPropertyNames.toSet should not contain "DB_POOL_SIZE"
+
+    And("its value should be found by either name")
+    source.getValue("db.pool.size").get should equal("10")
+    source.getValue("DB_POOL_SIZE").get should equal("10")
+    source.getValue("db.pool.count").isPresent should be(false)
+  }
+
+  it should "give system properties precedence over environment variables" in {
+    Given("a system property and an environment variable mapping to the same name")
+    System.setProperty(systemProperty, "from system properties")
+    val source = new EnvironmentPropertySource(
+      Map("OCTODUBSTEP_TEST_ENVIRONMENT_PROPERTY" -> "from environment"), false)
+
+    Then("the system property should win")
+    source.getValue(systemProperty).get should equal("from system properties")
+  }
+
+  it should "keep its snapshot if it isn't reloadable" in {
+    Given("a source that isn't reloadable")
+    System.setProperty(systemProperty, "testValue")
+    val source = new EnvironmentPropertySource()
+    val reloads = countingReloads(source)
+
+    When("a system property changes and the source is reloaded")
+    System.setProperty(systemProperty, "changedValue")
+    source.reload()
+
+    Then("the source should keep its original value")
+    source.isReloadable should be(false)
+    source.getValue(systemProperty).get should equal("testValue")
+    reloads.get should equal(0)
+  }
+
+  it should "only notify listeners of a reload if the system properties changed" in {
+    Given("a reloadable source")
+    System.setProperty(systemProperty, "testValue")
+    val source = new EnvironmentPropertySource(Map[String, String](), true)
+    val reloads = countingReloads(source)
+
+    When("the source is reloaded without any changes")
+    source.reload()
+
+    Then("listeners should not be notified")
+    reloads.get should equal(0)
+
+    When("a system property changes and the source is reloaded")
+    System.setProperty(systemProperty, "changedValue")
+    source.reload()
+
+    Then("listeners should be notified and the new value available")
+    reloads.get should equal(1)
+    source.getValue(systemProperty).get should equal("changedValue")
+
+    When("the system property is removed and the source is reloaded")
+    System.clearProperty(systemProperty)
+    source.reload()
+
+    Then("the property should no longer be defined")
+    reloads.get should equal(2)
+    source.getValue(systemProperty).isPresent should be(false)
+    source.getPropertyNames.toSet should not contain systemProperty
+  }
+
+  it should "check for changes on a schedule" in {
+    Given("a source reloading on a schedule")
+    val source = EnvironmentPropertySource.reloadingEvery(10, TimeUnit.MILLISECONDS)
+    val reloads = countingReloads(source)
+
+    try {
+      When("a system property is set")
+      System.setProperty(systemProperty, "scheduledValue")
+
+      Then("the source should pick it up")
+      eventually(reloads.get > 0)
+      source.getValue(systemProperty).get should equal("scheduledValue")
+    } finally {
+      source.stop()
+    }
+  }
+}
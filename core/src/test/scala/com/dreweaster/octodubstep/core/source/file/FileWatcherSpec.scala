@@ -0,0 +1,81 @@
+package com.dreweaster.octodubstep.core.source.file
+
+import java.io.File
+import java.nio.charset.Charset
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.dreweaster.octodubstep.core.source.{PropertySource, PropertySourceListener}
+import com.google.common.io.Files
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class FileWatcherSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  var file: File = _
+
+  var watcher: FileWatcher = _
+
+  before {
+    file = File.createTempFile("octodubstep", ".properties")
+    watcher = new FileWatcher(10, 100)
+  }
+
+  after {
+    watcher.stop()
+    file.delete()
+  }
+
+  private def write(content: String) = Files.write(content, file, Charset.forName("ISO-8859-1"))
+
+  private def eventually(condition: => Boolean) {
+    val deadline = System.currentTimeMillis() + 5000
+    while (!condition && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+  }
+
+  it should "reload a watched properties file source once following a burst of writes" in {
+    Given("a properties file source being watched")
+    write("test.string.property=testValue\n")
+    val source = new PropertiesFileSource(new JavaIOExternalFile(file))
+    val reloads = new AtomicInteger()
+    source.addListener(new PropertySourceListener {
+      def propertySourceReloaded(source: PropertySource) {
+        reloads.incrementAndGet()
+      }
+    })
+    watcher.watch(source)
+
+    When("the file is written several times in quick succession")
+    write("test.string.property=newValue\n")
+    write("test.string.property=newerValue\n")
+    write("test.string.property=newestValue\n")
+
+    Then("the source should be reloaded with the final contents")
+    eventually(reloads.get > 0)
+    source.getValue("test.string.property").get should equal("newestValue")
+
+    And("the source should only have been reloaded once")
+    Thread.sleep(300)
+    reloads.get should equal(1)
+  }
+
+  it should "not reload a source that is no longer watched" in {
+    Given("a properties file source that was watched but no longer is")
+    write("test.string.property=testValue\n")
+    val source = new PropertiesFileSource(new JavaIOExternalFile(file))
+    watcher.watch(source)
+    watcher.unwatch(source)
+
+    When("the file is changed")
+    write("test.string.property=changedValue\n")
+    Thread.sleep(300)
+
+    Then("the source should keep its original contents")
+    source.getValue("test.string.property").get should equal("testValue")
+  }
+}
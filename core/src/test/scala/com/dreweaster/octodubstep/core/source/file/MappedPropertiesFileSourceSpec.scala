@@ -0,0 +1,133 @@
+package com.dreweaster.octodubstep.core.source.file
+
+import java.io.{ByteArrayInputStream, File, FileInputStream}
+import java.nio.charset.Charset
+import java.util.Properties
+
+import com.google.common.io.Files
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+import scala.util.Random
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class MappedPropertiesFileSourceSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  var file: File = _
+
+  before {
+    file = File.createTempFile("octodubstep", ".properties")
+  }
+
+  after {
+    file.delete()
+  }
+
+  private val iso88591 = Charset.forName("ISO-8859-1")
+
+  private def write(content: String) = Files.write(content, file, iso88591)
+
+  private def loadedByProperties(content: String): Map[String, String] = {
+    val properties = new Properties()
+    properties.load(new ByteArrayInputStream(content.getBytes(iso88591)))
+    properties.stringPropertyNames.map(name => name -> properties.getProperty(name)).toMap
+  }
+
+  private def loadedByMappedSource(content: String): Map[String, String] = {
+    write(content)
+    val source = new MappedPropertiesFileSource(new MappedExternalFile(file))
+    source.getPropertyNames.map(name => name -> source.getValue(name).get).toMap
+  }
+
+  private def conformanceOf(content: String) {
+    withClue("Content: " + content.replace("\n", "\\n").replace("\r", "\\r") + "\n") {
+      loadedByMappedSource(content) should equal(loadedByProperties(content))
+    }
+  }
+
+  it should "load the same properties as java.util.Properties for each feature of the format" in {
+    Given("content exercising each feature of the properties format")
+    val contents = List(
+      "key=value",
+      "key = value with spaces  ",
+      "key:value\nother.key : other value",
+      "key value",
+      "key\tvalue\fwith form feed",
+      "key",
+      "key=",
+      "=value",
+      "  # a comment\n! another comment\nkey=value\n\n\n",
+      "key=first\nkey=second",
+      "key=value\\\n    continued\\\n\tand continued again",
+      "key=value\\\r\n  continued with crlf",
+      "key=value\\\rcontinued with cr",
+      "key=escaped backslash\\\\\nnext=value",
+      "key=value\\\n\nnext=value",
+      "# comment ending in a backslash\\\nkey=value",
+      "k\\=e\\:y\\ name=value",
+      "key=\\t\\n\\r\\f\\\\\\q",
+      "key=\\u0041\\u00e9\\u20AC",
+      "ke\\\n  y=value",
+      "\\\nkey=value",
+      "key=trailing backslash\\",
+      "key=\u00e9\u00ff latin-1 value",
+      "key1=a\rkey2=b\r\nkey3=c\n",
+      "   \n\t\n  key  =  value  \n")
+
+    Then("each should load the same properties as java.util.Properties")
+    contents.foreach(conformanceOf)
+  }
+
+  it should "load the same properties as java.util.Properties for randomly generated content" in {
+    Given("randomly generated content using the characters significant to the format")
+    // Comments are left out: Properties lets a backslash ending a comment line affect the line after it
+    val alphabet = "ab=: \t\f\\\n\rtn"
+    val random = new Random(42)
+
+    Then("each should load the same properties as java.util.Properties")
+    for (i <- 1 to 500) {
+      conformanceOf(Seq.fill(random.nextInt(60))(alphabet(random.nextInt(alphabet.length))).mkString)
+    }
+  }
+
+  it should "fail to load content containing a malformed unicode escape" in {
+    Given("a properties file containing a malformed unicode escape")
+    write("key=\\u00zz")
+
+    Then("creating a source for the file should fail")
+    an[java.io.IOException] should be thrownBy new MappedPropertiesFileSource(new MappedExternalFile(file))
+  }
+
+  it should "load a large file the same as java.util.Properties" in {
+    Given("a large properties file")
+    val content = (1 to 200000).map(i => "some.fairly.long.property.name." + i + " = value number " + i).mkString("\n")
+    write(content)
+
+    When("loading it with java.util.Properties and the mapped source")
+    def time[T](load: => T): (T, Long) = {
+      val runs = (1 to 5).map { i =>
+        val start = System.nanoTime()
+        val result = load
+        (result, (System.nanoTime() - start) / 1000000)
+      }
+      (runs.last._1, runs.map(_._2).min)
+    }
+    val (properties, propertiesMillis) = time {
+      val properties = new Properties()
+      val in = new FileInputStream(file)
+      try properties.load(in) finally in.close()
+      properties
+    }
+    val (source, mappedMillis) = time(new MappedPropertiesFileSource(new MappedExternalFile(file)))
+    info("Best of 5 - java.util.Properties: " + propertiesMillis + "ms, mapped source: " + mappedMillis + "ms")
+
+    Then("both should contain the same properties")
+    source.getPropertyNames.size should equal(properties.size)
+    source.getValue("some.fairly.long.property.name.123456").get should equal(
+      properties.getProperty("some.fairly.long.property.name.123456"))
+  }
+}
@@ -0,0 +1,236 @@
+package com.dreweaster.octodubstep.core.source.http
+
+import java.io.{File, IOException}
+import java.net.{InetSocketAddress, URL}
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPOutputStream
+
+import com.dreweaster.octodubstep.core.source.{PropertySource, PropertySourceListener}
+import com.sun.net.httpserver.{HttpExchange, HttpHandler, HttpServer}
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class HttpPropertySourceSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  /**
+    * A stand-in config service, serving the current content with an ETag of its version.
+    */
+  class ConfigService extends HttpHandler {
+
+    @volatile var content = ""
+
+    @volatile var version = 0
+
+    @volatile var failing = false
+
+    @volatile var ignoringWait = false
+
+    val requests = new AtomicInteger()
+
+    val notModified = new AtomicInteger()
+
+    val gzipped = new AtomicInteger()
+
+    def update(newContent: String) {
+      synchronized {
+        content = newContent
+        version += 1
+        notifyAll()
+      }
+    }
+
+    def handle(exchange: HttpExchange) {
+      requests.incrementAndGet()
+      if (failing) {
+        exchange.sendResponseHeaders(500, -1)
+        exchange.close()
+        return
+      }
+      val waitSeconds = Option(exchange.getRequestHeaders.getFirst("Prefer")).map(_.stripPrefix("wait=").toLong)
+      if (waitSeconds.isDefined && !ignoringWait) {
+        synchronized {
+          if ("\"" + version + "\"" == exchange.getRequestHeaders.getFirst("If-None-Match")) {
+            wait(TimeUnit.SECONDS.toMillis(waitSeconds.get))
+          }
+        }
+      }
+      val currentEtag = "\"" + version + "\""
+      if (currentEtag == exchange.getRequestHeaders.getFirst("If-None-Match")) {
+        notModified.incrementAndGet()
+        exchange.sendResponseHeaders(304, -1)
+        exchange.close()
+        return
+      }
+      exchange.getResponseHeaders.set("ETag", currentEtag)
+      val body = content.getBytes("ISO-8859-1")
+      if (Option(exchange.getRequestHeaders.getFirst("Accept-Encoding")).exists(_.contains("gzip"))) {
+        gzipped.incrementAndGet()
+        exchange.getResponseHeaders.set("Content-Encoding", "gzip")
+        exchange.sendResponseHeaders(200, 0)
+        val out = new GZIPOutputStream(exchange.getResponseBody)
+        out.write(body)
+        out.close()
+      } else {
+        exchange.sendResponseHeaders(200, body.length)
+        exchange.getResponseBody.write(body)
+        exchange.close()
+      }
+    }
+  }
+
+  var server: HttpServer = _
+
+  var service: ConfigService = _
+
+  var url: URL = _
+
+  var cacheFile: File = _
+
+  before {
+    service = new ConfigService
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+    server.createContext("/config", service)
+    server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool())
+    server.start()
+    url = new URL("http://localhost:" + server.getAddress.getPort + "/config")
+    cacheFile = File.createTempFile("octodubstep", ".cache")
+    cacheFile.delete()
+  }
+
+  after {
+    server.stop(0)
+    cacheFile.delete()
+  }
+
+  private def countingReloads(source: PropertySource) = {
+    val reloads = new AtomicInteger()
+    source.addListener(new PropertySourceListener {
+      def propertySourceReloaded(source: PropertySource) {
+        reloads.incrementAndGet()
+      }
+    })
+    reloads
+  }
+
+  private def eventually(condition: => Boolean) {
+    val deadline = System.currentTimeMillis() + 5000
+    while (!condition && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+  }
+
+  "HttpPropertySource" should "fetch gzipped properties and only notify listeners when they change" in {
+    Given("a config service serving some properties")
+    service.update("test.string.property=testValue\ntest.other.property=otherValue\n")
+
+    When("a source is built for it")
+    val source = HttpPropertySource.forUrl(url).build()
+    val reloads = countingReloads(source)
+
+    Then("the properties should have been fetched, compressed")
+    source.getValue("test.string.property").get should equal("testValue")
+    service.gzipped.get should equal(1)
+
+    When("the source is reloaded without any changes")
+    source.reload()
+
+    Then("the service should answer not modified and listeners should not be notified")
+    service.notModified.get should equal(1)
+    reloads.get should equal(0)
+
+    When("the properties change and the source is reloaded")
+    service.update("test.string.property=newValue\n")
+    source.reload()
+
+    Then("listeners should be notified and the new properties available")
+    reloads.get should equal(1)
+    source.getValue("test.string.property").get should equal("newValue")
+    source.getValue("test.other.property").isPresent should be(false)
+  }
+
+  it should "start from its cache without waiting on the service" in {
+    Given("a source that has cached the properties")
+    service.update("test.string.property=testValue\n")
+    HttpPropertySource.forUrl(url).cachingTo(cacheFile).build()
+    cacheFile.exists should be(true)
+
+    When("the service is unavailable and another source is built with the same cache")
+    service.failing = true
+    val requestsBefore = service.requests.get
+    val source = HttpPropertySource.forUrl(url).cachingTo(cacheFile).build()
+
+    Then("the cached properties should be loaded without a request")
+    source.getValue("test.string.property").get should equal("testValue")
+    service.requests.get should equal(requestsBefore)
+
+    And("once the service is back, the cached ETag should be sent so nothing needs fetching")
+    service.failing = false
+    source.reload()
+    service.notModified.get should equal(1)
+  }
+
+  it should "back off after failed requests" in {
+    Given("a source for a service that then fails")
+    service.update("test.string.property=testValue\n")
+    val source = HttpPropertySource.forUrl(url).backingOffBetween(200, 1000, TimeUnit.MILLISECONDS).build()
+    service.failing = true
+
+    When("a reload fails")
+    an[IOException] should be thrownBy source.reload()
+
+    Then("further requests should be held back for a jittered period no longer than the backoff")
+    val backoff = source.backoffRemainingMillis
+    backoff should be > 0L
+    backoff should be <= 200L
+    val requests = service.requests.get
+    source.reload()
+    service.requests.get should equal(requests)
+
+    And("the properties should be kept")
+    source.getValue("test.string.property").get should equal("testValue")
+  }
+
+  it should "be notified of changes by long polling" in {
+    Given("a long polling source")
+    service.update("test.string.property=testValue\n")
+    val source = HttpPropertySource.forUrl(url).longPolling(5, TimeUnit.SECONDS).build()
+    val reloads = countingReloads(source)
+
+    try {
+      When("the properties change while a poll is waiting")
+      Thread.sleep(100)
+      service.update("test.string.property=newValue\n")
+
+      Then("the source should pick the change up straight away")
+      eventually(reloads.get > 0)
+      source.getValue("test.string.property").get should equal("newValue")
+    } finally {
+      source.stop()
+    }
+  }
+
+  it should "keep a minimum interval between long polls answered straight away" in {
+    Given("a config service that ignores the requested wait")
+    service.update("test.string.property=testValue\n")
+    service.ignoringWait = true
+
+    When("a source long polls it for a second, at most every 200 milliseconds")
+    val requestsBefore = service.requests.get
+    val source = HttpPropertySource.forUrl(url).longPolling(5, 200, TimeUnit.MILLISECONDS).build()
+    try {
+      Thread.sleep(1000)
+    } finally {
+      source.stop()
+    }
+
+    Then("it should have polled a handful of times rather than in a tight loop")
+    val polls = service.requests.get - requestsBefore
+    polls should be >= 3
+    polls should be <= 8
+  }
+}
@@ -0,0 +1,262 @@
+package com.dreweaster.octodubstep.core.source.jdbc
+
+import java.io.IOException
+import java.lang.reflect.{InvocationHandler, InvocationTargetException, Method, Proxy}
+import java.sql.{Connection, PreparedStatement, ResultSet, SQLException}
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger}
+import javax.sql.DataSource
+
+import com.dreweaster.octodubstep.core.source.{PropertySource, PropertySourceListener, ReloadScheduler}
+import org.h2.jdbcx.JdbcDataSource
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class JdbcPropertySourceSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  val databaseCounter = new AtomicInteger()
+
+  var dataSource: JdbcDataSource = _
+
+  var connection: Connection = _
+
+  before {
+    dataSource = new JdbcDataSource
+    dataSource.setURL("jdbc:h2:mem:octodubstep" + databaseCounter.incrementAndGet() + ";DB_CLOSE_DELAY=-1")
+    connection = dataSource.getConnection
+    execute("CREATE TABLE config (name VARCHAR(255) PRIMARY KEY, value VARCHAR(1024), version BIGINT NOT NULL)")
+  }
+
+  after {
+    execute("DROP ALL OBJECTS")
+    connection.close()
+  }
+
+  private def execute(sql: String) {
+    val statement = connection.createStatement()
+    try {
+      statement.execute(sql)
+    } finally {
+      statement.close()
+    }
+  }
+
+  private def write(name: String, value: String, version: Long) {
+    val statement = connection.prepareStatement("MERGE INTO config (name, value, version) VALUES (?, ?, ?)")
+    try {
+      statement.setString(1, name)
+      statement.setString(2, value)
+      statement.setLong(3, version)
+      statement.executeUpdate()
+    } finally {
+      statement.close()
+    }
+  }
+
+  private def countingReloads(source: PropertySource) = {
+    val reloads = new AtomicInteger()
+    source.addListener(new PropertySourceListener {
+      def propertySourceReloaded(source: PropertySource) {
+        reloads.incrementAndGet()
+      }
+    })
+    reloads
+  }
+
+  /**
+    * Wraps the data source so that, while failing is set, each result set fails once the given number of rows have
+    * been read from it.
+    */
+  private def failingPartway(rowsBeforeFailure: Int, failing: AtomicBoolean): DataSource =
+    wrap(classOf[DataSource], dataSource, {
+      case connection: Connection => wrap(classOf[Connection], connection, {
+        case statement: PreparedStatement => wrap(classOf[PreparedStatement], statement, {
+          case resultSet: ResultSet =>
+            val rowsRead = new AtomicInteger()
+            Proxy.newProxyInstance(getClass.getClassLoader, Array(classOf[ResultSet]), new InvocationHandler {
+              def invoke(proxy: AnyRef, method: Method, args: Array[AnyRef]): AnyRef = {
+                if (method.getName == "next" && failing.get && rowsRead.incrementAndGet() > rowsBeforeFailure) {
+                  throw new SQLException("Connection reset")
+                }
+                invokeOn(resultSet, method, args)
+              }
+            })
+        })
+      })
+    })
+
+  private def wrap[T](interface: Class[T], target: AnyRef, wrapResult: PartialFunction[AnyRef, AnyRef]): T =
+    interface.cast(Proxy.newProxyInstance(getClass.getClassLoader, Array(interface), new InvocationHandler {
+      def invoke(proxy: AnyRef, method: Method, args: Array[AnyRef]): AnyRef = {
+        val result = invokeOn(target, method, args)
+        if (wrapResult.isDefinedAt(result)) wrapResult(result) else result
+      }
+    }))
+
+  private def invokeOn(target: AnyRef, method: Method, args: Array[AnyRef]): AnyRef =
+    try {
+      method.invoke(target, args: _*)
+    } catch {
+      case e: InvocationTargetException => throw e.getCause
+    }
+
+  private def eventually(condition: => Boolean) {
+    val deadline = System.currentTimeMillis() + 5000
+    while (!condition && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+  }
+
+  "JdbcPropertySource" should "load every row of the table" in {
+    Given("a table containing several properties")
+    (1 to 1200).foreach(i => write("test.property." + i, "value" + i, i))
+
+    When("a source is built over the table, fetching in small batches")
+    val source = JdbcPropertySource.forTable(dataSource, "config").fetchingInBatchesOf(100).build()
+
+    Then("every property should be loaded")
+    source.getPropertyNames.size should equal(1200)
+    source.getValue("test.property.1").get should equal("value1")
+    source.getValue("test.property.1200").get should equal("value1200")
+    source.getValue("test.property.1201").isPresent should be(false)
+  }
+
+  it should "only notify listeners when polling finds changed rows" in {
+    Given("a source over a versioned table")
+    write("test.string.property", "testValue", 1)
+    write("test.other.property", "otherValue", 2)
+    val source = JdbcPropertySource.forTable(dataSource, "config").withVersionColumn("version").build()
+    val reloads = countingReloads(source)
+
+    When("the source is reloaded without any changes")
+    source.reload()
+
+    Then("listeners should not be notified")
+    reloads.get should equal(0)
+
+    When("a row is updated with a higher version and the source is reloaded")
+    write("test.string.property", "newValue", 3)
+    source.reload()
+
+    Then("listeners should be notified and the new value available")
+    reloads.get should equal(1)
+    source.getValue("test.string.property").get should equal("newValue")
+    source.getValue("test.other.property").get should equal("otherValue")
+  }
+
+  it should "only fetch rows at or above the highest version seen" in {
+    Given("a source over a versioned table")
+    write("test.string.property", "testValue", 5)
+    val source = JdbcPropertySource.forTable(dataSource, "config").withVersionColumn("version").build()
+
+    When("a row is changed without increasing its version, and another is added at the same version")
+    write("test.string.property", "unversionedValue", 1)
+    write("test.new.property", "newValue", 5)
+    source.reload()
+
+    Then("only the row at the highest version should be picked up")
+    source.getValue("test.string.property").get should equal("testValue")
+    source.getValue("test.new.property").get should equal("newValue")
+  }
+
+  it should "fetch the rows of a reload that failed partway through again" in {
+    Given("a source over a versioned table, reading through a connection that can fail partway through a query")
+    write("test.string.property", "testValue", 1)
+    write("test.other.property", "otherValue", 2)
+    val failing = new AtomicBoolean()
+    val source = JdbcPropertySource.forTable(failingPartway(2, failing), "config").withVersionColumn("version").build()
+
+    When("three rows change and a reload fails after reading two of them, whichever order they're read in")
+    write("test.string.property", "newValue", 5)
+    write("test.other.property", "newOtherValue", 4)
+    write("test.new.property", "newValue", 3)
+    failing.set(true)
+    an[IOException] should be thrownBy source.reload()
+
+    Then("none of the changes should be published")
+    source.getValue("test.string.property").get should equal("testValue")
+    source.getValue("test.new.property").isPresent should be(false)
+
+    When("the source is reloaded again once the connection recovers")
+    failing.set(false)
+    source.reload()
+
+    Then("every changed row should be picked up")
+    source.getValue("test.string.property").get should equal("newValue")
+    source.getValue("test.other.property").get should equal("newOtherValue")
+    source.getValue("test.new.property").get should equal("newValue")
+  }
+
+  it should "remove properties whose value is set to null" in {
+    Given("a source over a versioned table")
+    write("test.string.property", "testValue", 1)
+    write("test.other.property", "otherValue", 2)
+    val source = JdbcPropertySource.forTable(dataSource, "config").withVersionColumn("version").build()
+
+    When("a row's value is set to null and the source is reloaded")
+    write("test.string.property", null, 3)
+    source.reload()
+
+    Then("the property should no longer be defined")
+    source.getValue("test.string.property").isPresent should be(false)
+    source.getPropertyNames.toSet should equal(Set("test.other.property"))
+
+    And("rows deleted outright should be picked up by a full reload")
+    execute("DELETE FROM config WHERE name = 'test.other.property'")
+    source.reload()
+    source.getValue("test.other.property").isPresent should be(true)
+    source.reloadFully()
+    source.getPropertyNames.toSet should be(empty)
+  }
+
+  it should "read the whole table on reload without a version column" in {
+    Given("a source over a table without a version column")
+    write("test.string.property", "testValue", 1)
+    val source = JdbcPropertySource.forTable(dataSource, "config").build()
+    val reloads = countingReloads(source)
+
+    When("a row is changed and the source is reloaded")
+    write("test.string.property", "newValue", 1)
+    source.reload()
+
+    Then("the changes should be picked up")
+    reloads.get should equal(1)
+    source.getValue("test.string.property").get should equal("newValue")
+  }
+
+  it should "poll for changes on a shared scheduler" in {
+    Given("two sources polling on a schedule")
+    write("test.string.property", "testValue", 1)
+    val scheduler = new ReloadScheduler
+    val source = JdbcPropertySource.forTable(dataSource, "config").withVersionColumn("version")
+      .pollingEvery(10, TimeUnit.MILLISECONDS, scheduler).build()
+    val otherSource = JdbcPropertySource.forTable(dataSource, "config")
+      .pollingEvery(10, TimeUnit.MILLISECONDS, scheduler).build()
+    val reloads = countingReloads(source)
+    val otherReloads = countingReloads(otherSource)
+
+    try {
+      When("a row changes")
+      write("test.string.property", "newValue", 2)
+
+      Then("both sources should pick it up")
+      eventually(reloads.get > 0 && otherReloads.get > 0)
+      source.getValue("test.string.property").get should equal("newValue")
+      otherSource.getValue("test.string.property").get should equal("newValue")
+    } finally {
+      scheduler.stop()
+    }
+  }
+
+  it should "reject table and column names that aren't plain identifiers" in {
+    an[IllegalArgumentException] should be thrownBy JdbcPropertySource.forTable(dataSource, "config; DROP TABLE config")
+    an[IllegalArgumentException] should be thrownBy JdbcPropertySource.forTable(dataSource, "config")
+      .withVersionColumn("version OR 1=1")
+  }
+}
@@ -0,0 +1,106 @@
+package com.dreweaster.octodubstep.core.source.precompiled
+
+import java.io.{File, RandomAccessFile}
+import java.nio.charset.Charset
+
+import com.dreweaster.octodubstep.core.source.file.JavaIOExternalFile
+import com.google.common.io.Files
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class PrecompiledPropertiesFileSourceSpec extends FlatSpec with GivenWhenThen with BeforeAndAfter with Matchers {
+
+  var file: File = _
+
+  var snapshotFile: File = _
+
+  before {
+    file = File.createTempFile("octodubstep", ".properties")
+    snapshotFile = new File(file.getPath + ".snapshot")
+  }
+
+  after {
+    file.delete()
+    snapshotFile.delete()
+  }
+
+  private def write(content: String) = Files.write(content, file, Charset.forName("ISO-8859-1"))
+
+  private def newSource = new PrecompiledPropertiesFileSource(new JavaIOExternalFile(file), snapshotFile)
+
+  it should "parse the properties file and write a snapshot when there is no snapshot" in {
+    Given("a properties file without a snapshot")
+    write("test.string.property=testValue\ntest.integer.property=10\n")
+
+    When("creating a source for the file")
+    val source = newSource
+
+    Then("the properties should have been parsed from the file")
+    source.loadedFromSnapshot should be(false)
+    source.getValue("test.string.property").get should equal("testValue")
+
+    And("a snapshot should have been written")
+    snapshotFile.exists should be(true)
+  }
+
+  it should "load properties and preconverted values from an up to date snapshot" in {
+    Given("a properties file with an up to date snapshot")
+    write("test.string.property=testValue\ntest.integer.property=10\ntest.boolean.property=TRUE\n")
+    PrecompiledPropertiesFileSource.compile(new JavaIOExternalFile(file), snapshotFile)
+
+    When("creating a source for the file")
+    val source = newSource
+
+    Then("the properties should have been loaded from the snapshot")
+    source.loadedFromSnapshot should be(true)
+    source.getValue("test.string.property").get should equal("testValue")
+    source.getPropertyNames.toSet should have size 3
+
+    And("numeric and boolean values should be available preconverted")
+    source.hasLongValue("test.integer.property") should be(true)
+    source.getLongValue("test.integer.property") should equal(10)
+    source.hasBooleanValue("test.boolean.property") should be(true)
+    source.getBooleanValue("test.boolean.property") should be(true)
+    source.hasLongValue("test.string.property") should be(false)
+  }
+
+  it should "fall back to parsing the properties file when the snapshot is out of date" in {
+    Given("a properties file with a snapshot")
+    write("test.string.property=testValue\n")
+    newSource
+
+    When("the properties file is changed")
+    write("test.string.property=changedValue\n")
+
+    Then("the properties should be parsed from the file")
+    val source = newSource
+    source.loadedFromSnapshot should be(false)
+    source.getValue("test.string.property").get should equal("changedValue")
+
+    And("the snapshot should have been brought up to date")
+    newSource.loadedFromSnapshot should be(true)
+  }
+
+  it should "fall back to parsing the properties file when the snapshot is corrupt" in {
+    Given("a properties file with a corrupt snapshot")
+    write("test.string.property=testValue\n")
+    newSource
+    val snapshot = new RandomAccessFile(snapshotFile, "rw")
+    snapshot.seek(snapshot.length / 2)
+    snapshot.write(0xff)
+    snapshot.close()
+
+    When("creating a source for the file")
+    val source = newSource
+
+    Then("the properties should be parsed from the file")
+    source.loadedFromSnapshot should be(false)
+    source.getValue("test.string.property").get should equal("testValue")
+  }
+}
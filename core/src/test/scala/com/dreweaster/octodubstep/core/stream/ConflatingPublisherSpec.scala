@@ -0,0 +1,148 @@
+package com.dreweaster.octodubstep.core.stream
+
+import java.util.concurrent.atomic.AtomicReference
+
+import com.google.common.base.Supplier
+import org.junit.runner.RunWith
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+
+import scala.collection.mutable.ListBuffer
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class ConflatingPublisherSpec extends FlatSpec with GivenWhenThen with Matchers {
+
+  /**
+    * Records every signal, requesting nothing unless told to.
+    */
+  class RecordingSubscriber extends Subscriber[String] {
+
+    var subscription: Subscription = _
+
+    val elements = new ListBuffer[String]()
+
+    var failure: Throwable = _
+
+    def onSubscribe(subscription: Subscription) {
+      this.subscription = subscription
+    }
+
+    def onNext(element: String) {
+      elements.append(element)
+    }
+
+    def onError(failure: Throwable) {
+      this.failure = failure
+    }
+
+    def onComplete() {
+    }
+  }
+
+  def aPublisherOf(state: AtomicReference[String]) = new ConflatingPublisher[String](new Supplier[String] {
+    def get() = state.get
+  })
+
+  it should "publish nothing until the subscriber requests it" in {
+    Given("a publisher with a current state")
+    val state = new AtomicReference("a")
+    val publisher = aPublisherOf(state)
+
+    When("a subscriber subscribes without requesting anything")
+    val subscriber = new RecordingSubscriber
+    publisher.subscribe(subscriber)
+
+    Then("nothing should be published")
+    subscriber.elements should be(empty)
+
+    When("the subscriber requests an element")
+    subscriber.subscription.request(1)
+
+    Then("the current state should be published")
+    subscriber.elements should equal(List("a"))
+  }
+
+  it should "only publish the latest state to a subscriber without demand" in {
+    Given("a subscriber that has received the current state")
+    val state = new AtomicReference("a")
+    val publisher = aPublisherOf(state)
+    val subscriber = new RecordingSubscriber
+    publisher.subscribe(subscriber)
+    subscriber.subscription.request(1)
+
+    When("the state changes several times before the subscriber requests more")
+    publisher.publish("b")
+    publisher.publish("c")
+    publisher.publish("d")
+
+    Then("nothing more should be published")
+    subscriber.elements should equal(List("a"))
+
+    When("the subscriber requests more")
+    subscriber.subscription.request(10)
+
+    Then("only the latest state should be published")
+    subscriber.elements should equal(List("a", "d"))
+
+    And("later states should be published straight away while demand remains")
+    publisher.publish("e")
+    subscriber.elements should equal(List("a", "d", "e"))
+  }
+
+  it should "share the upstream between subscribers with their own demand" in {
+    Given("two subscribers, one with unbounded demand and one with none")
+    val state = new AtomicReference("a")
+    val publisher = aPublisherOf(state)
+    val eager = new RecordingSubscriber
+    val idle = new RecordingSubscriber
+    publisher.subscribe(eager)
+    publisher.subscribe(idle)
+    eager.subscription.request(Long.MaxValue)
+
+    When("states are published")
+    publisher.publish("b")
+    publisher.publish("c")
+
+    Then("the eager subscriber should receive every state and the idle one none")
+    eager.elements should equal(List("a", "b", "c"))
+    idle.elements should be(empty)
+
+    When("the idle subscriber requests an element")
+    idle.subscription.request(1)
+
+    Then("it should receive the latest state")
+    idle.elements should equal(List("c"))
+  }
+
+  it should "stop publishing to a subscriber once it cancels" in {
+    Given("a subscriber with unbounded demand")
+    val publisher = aPublisherOf(new AtomicReference("a"))
+    val subscriber = new RecordingSubscriber
+    publisher.subscribe(subscriber)
+    subscriber.subscription.request(Long.MaxValue)
+
+    When("the subscriber cancels")
+    subscriber.subscription.cancel()
+    publisher.publish("b")
+
+    Then("nothing more should be published to it")
+    subscriber.elements should equal(List("a"))
+    publisher.hasSubscribers should be(false)
+  }
+
+  it should "signal an error to a subscriber requesting a non-positive number of elements" in {
+    Given("a subscriber")
+    val publisher = aPublisherOf(new AtomicReference("a"))
+    val subscriber = new RecordingSubscriber
+    publisher.subscribe(subscriber)
+
+    When("it requests zero elements")
+    subscriber.subscription.request(0)
+
+    Then("it should be sent an error and cancelled")
+    subscriber.failure shouldBe an[IllegalArgumentException]
+    publisher.hasSubscribers should be(false)
+  }
+}
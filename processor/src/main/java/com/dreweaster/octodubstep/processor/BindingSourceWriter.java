@@ -0,0 +1,197 @@
+package com.dreweaster.octodubstep.processor;
+
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.PropertyGroup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the source of a generated {@link com.dreweaster.octodubstep.core.binding.ProviderBinding}: the binding
+ * itself plus a nested provider implementation holding each value in a final field.
+ */
+final class BindingSourceWriter {
+
+    private static final String PROPERTY_BINDING = "com.dreweaster.octodubstep.core.binding.PropertyBinding";
+
+    private String bindingName;
+
+    private String providerName;
+
+    private List<Method> methods;
+
+    BindingSourceWriter(String bindingName, String providerName, List<Method> methods) {
+        this.bindingName = bindingName;
+        this.providerName = providerName;
+        this.methods = methods;
+    }
+
+    void writeTo(Writer writer) throws IOException {
+        int packageEnd = bindingName.lastIndexOf('.');
+        String simpleName = bindingName.substring(packageEnd + 1);
+
+        StringBuilder out = new StringBuilder();
+        if (packageEnd > 0) {
+            out.append("package ").append(bindingName.substring(0, packageEnd)).append(";\n\n");
+        }
+        out.append("/**\n * Generated by the Octodubstep annotation processor. Do not edit.\n */\n");
+        out.append("public final class ").append(simpleName)
+                .append(" implements com.dreweaster.octodubstep.core.binding.ProviderBinding<")
+                .append(providerName).append("> {\n\n");
+
+        out.append("    private static final java.util.List<").append(PROPERTY_BINDING)
+                .append("> PROPERTIES = java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            if (method.group != null) {
+                out.append("            ").append(PROPERTY_BINDING).append(".group(")
+                        .append(literal(method.name)).append(", ")
+                        .append(literal(method.group.prefix())).append(", ")
+                        .append(method.rawReturnType).append(".class)");
+                continue;
+            }
+            out.append("            new ").append(PROPERTY_BINDING).append("(")
+                    .append(literal(method.name)).append(", ")
+                    .append(literal(method.property.name())).append(", ")
+                    .append(literal(method.property.defaultValue())).append(", ")
+                    .append(method.property.required()).append(", ")
+                    .append(method.rawReturnType).append(".class, ")
+                    .append(method.valueType).append(", ")
+                    .append(method.validatorType).append(".class)");
+        }
+        out.append("));\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public Class<").append(providerName).append("> providerClass() {\n");
+        out.append("        return ").append(providerName).append(".class;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public java.util.List<").append(PROPERTY_BINDING).append("> properties() {\n");
+        out.append("        return PROPERTIES;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public ").append(providerName).append(" newProvider(Object[] values) {\n");
+        out.append("        return new Provider(values);\n");
+        out.append("    }\n\n");
+
+        out.append("    private static final class Provider implements ").append(providerName).append(" {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            out.append("\n        private final ").append(method.returnType).append(" value").append(i).append(";\n");
+        }
+        out.append("\n        @SuppressWarnings(\"unchecked\")\n");
+        out.append("        private Provider(Object[] values) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            out.append("            this.value").append(i).append(" = (").append(method.returnType)
+                    .append(") values[").append(i).append("];\n");
+        }
+        out.append("        }\n");
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            out.append("\n        @Override\n");
+            out.append("        public ").append(method.returnType).append(" ").append(method.name).append("() {\n");
+            out.append("            return value").append(i).append(";\n");
+            out.append("        }\n");
+        }
+        out.append("    }\n");
+        out.append("}\n");
+
+        writer.write(out.toString());
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * A validated {@link Property} or {@link PropertyGroup} method.
+     */
+    static final class Method {
+
+        private String name;
+
+        private String returnType;
+
+        private String rawReturnType;
+
+        private String valueType;
+
+        private String validatorType;
+
+        private Property property;
+
+        private PropertyGroup group;
+
+        /**
+         * Constructor.
+         *
+         * @param name          the method name
+         * @param returnType    the declared return type, e.g.
+         *                      {@code com.dreweaster.octodubstep.core.Value<java.lang.String>}
+         * @param rawReturnType the erased return type
+         * @param valueType     the Java expression evaluating to the value {@link java.lang.reflect.Type}
+         * @param validatorType the canonical name of the property's validator class
+         * @param property      the property annotation
+         */
+        Method(
+                String name,
+                String returnType,
+                String rawReturnType,
+                String valueType,
+                String validatorType,
+                Property property) {
+            this.name = name;
+            this.returnType = returnType;
+            this.rawReturnType = rawReturnType;
+            this.valueType = valueType;
+            this.validatorType = validatorType;
+            this.property = property;
+        }
+
+        /**
+         * Constructor for a group method.
+         *
+         * @param name         the method name
+         * @param providerType the nested provider interface
+         * @param group        the group annotation
+         */
+        Method(String name, String providerType, PropertyGroup group) {
+            this.name = name;
+            this.returnType = providerType;
+            this.rawReturnType = providerType;
+            this.group = group;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.dreweaster.octodubstep.processor;
+
+import com.dreweaster.octodubstep.core.BooleanValue;
+import com.dreweaster.octodubstep.core.DefaultPropertySourcePropertyManager;
+import com.dreweaster.octodubstep.core.DynamicBooleanValue;
+import com.dreweaster.octodubstep.core.DynamicIntValue;
+import com.dreweaster.octodubstep.core.DynamicLongValue;
+import com.dreweaster.octodubstep.core.DynamicValue;
+import com.dreweaster.octodubstep.core.IntValue;
+import com.dreweaster.octodubstep.core.LongValue;
+import com.dreweaster.octodubstep.core.Property;
+import com.dreweaster.octodubstep.core.PropertyGroup;
+import com.dreweaster.octodubstep.core.Value;
+import com.dreweaster.octodubstep.core.binding.ProviderBindings;
+import com.dreweaster.octodubstep.core.conversion.PropertyConverter;
+import com.google.common.primitives.Primitives;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link com.dreweaster.octodubstep.core.binding.ProviderBinding} for every interface declaring
+ * {@link Property} or {@link PropertyGroup} methods, so the property manager doesn't need to reflect over provider
+ * interfaces at startup.
+ * <p/>
+ * Property types are checked against the types the default converters support. Types handled by custom converters
+ * can be declared with the {@value #CONVERTER_TYPES_OPTION} option (a comma separated list of class names).
+ */
+@SupportedAnnotationTypes({
+        "com.dreweaster.octodubstep.core.Property",
+        "com.dreweaster.octodubstep.core.PropertyGroup"})
+@SupportedOptions(PropertyProcessor.CONVERTER_TYPES_OPTION)
+public class PropertyProcessor extends AbstractProcessor {
+
+    public static final String CONVERTER_TYPES_OPTION = "octodubstep.converterTypes";
+
+    private static final Set<String> DEFAULT_CONVERTER_TYPES = new HashSet<String>();
+
+    private static final Map<String, Class<?>> PRIMITIVE_VALUE_TYPES = new HashMap<String, Class<?>>();
+
+    static {
+        for (PropertyConverter<?> converter : DefaultPropertySourcePropertyManager.defaultConverters()) {
+            DEFAULT_CONVERTER_TYPES.add(converter.valueType().getName());
+        }
+        PRIMITIVE_VALUE_TYPES.put(IntValue.class.getName(), int.class);
+        PRIMITIVE_VALUE_TYPES.put(DynamicIntValue.class.getName(), int.class);
+        PRIMITIVE_VALUE_TYPES.put(LongValue.class.getName(), long.class);
+        PRIMITIVE_VALUE_TYPES.put(DynamicLongValue.class.getName(), long.class);
+        PRIMITIVE_VALUE_TYPES.put(BooleanValue.class.getName(), boolean.class);
+        PRIMITIVE_VALUE_TYPES.put(DynamicBooleanValue.class.getName(), boolean.class);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> providers = new LinkedHashSet<TypeElement>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Property.class)) {
+            providers.add((TypeElement) element.getEnclosingElement());
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(PropertyGroup.class)) {
+            providers.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement provider : providers) {
+            List<BindingSourceWriter.Method> methods = providerMethods(provider);
+            if (methods != null) {
+                writeBinding(provider, methods);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates a provider interface, returning its methods or null if no binding should be generated for it.
+     */
+    private List<BindingSourceWriter.Method> providerMethods(TypeElement provider) {
+        if (provider.getKind() != ElementKind.INTERFACE) {
+            error(provider, "@Property and @PropertyGroup methods must be declared on an interface");
+            return null;
+        }
+
+        boolean valid = true;
+        boolean implementable = !isPrivate(provider);
+        List<BindingSourceWriter.Method> methods = new ArrayList<BindingSourceWriter.Method>();
+
+        List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(provider);
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            PropertyGroup group = method.getAnnotation(PropertyGroup.class);
+            if (group != null) {
+                String groupType = groupTypeOf(method);
+                if (groupType == null) {
+                    valid = false;
+                } else {
+                    methods.add(new BindingSourceWriter.Method(
+                            method.getSimpleName().toString(), groupType, group));
+                }
+                continue;
+            }
+            Property property = method.getAnnotation(Property.class);
+            if (property == null) {
+                implementable = false;
+                continue;
+            }
+            String valueType = valueTypeOf(method);
+            if (valueType == null) {
+                valid = false;
+            } else {
+                methods.add(new BindingSourceWriter.Method(
+                        method.getSimpleName().toString(),
+                        method.getReturnType().toString(),
+                        erasure(method.getReturnType()),
+                        valueType,
+                        validatorTypeOf(property),
+                        property));
+            }
+        }
+
+        if (valid && !implementable) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.WARNING,
+                    "No binding generated for " + provider.getQualifiedName()
+                            + " as it is private or declares methods without @Property or @PropertyGroup;"
+                            + " reflection will be used",
+                    provider);
+            return null;
+        }
+        return valid ? methods : null;
+    }
+
+    /**
+     * Returns the provider interface returned by a group method, reporting an error if it isn't an interface.
+     */
+    private String groupTypeOf(ExecutableElement method) {
+        if (!method.getParameters().isEmpty()) {
+            error(method, "@PropertyGroup methods must not take parameters");
+            return null;
+        }
+        TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind() != TypeKind.DECLARED
+                || ((DeclaredType) returnType).asElement().getKind() != ElementKind.INTERFACE
+                || !((DeclaredType) returnType).getTypeArguments().isEmpty()) {
+            error(method, "@PropertyGroup methods must return a non-generic provider interface");
+            return null;
+        }
+        return erasure(returnType);
+    }
+
+    /**
+     * Returns the Java expression for the value type of a property method, reporting an error if it isn't supported.
+     */
+    private String valueTypeOf(ExecutableElement method) {
+        if (!method.getParameters().isEmpty()) {
+            error(method, "@Property methods must not take parameters");
+            return null;
+        }
+
+        TypeMirror returnType = method.getReturnType();
+        String rawReturnType = erasure(returnType);
+        Class<?> primitiveType = PRIMITIVE_VALUE_TYPES.get(rawReturnType);
+        if (primitiveType != null) {
+            return checkConverter(method, Primitives.wrap(primitiveType).getName())
+                    ? primitiveType.getName() + ".class"
+                    : null;
+        }
+        if (!rawReturnType.equals(Value.class.getName()) && !rawReturnType.equals(DynamicValue.class.getName())) {
+            error(method, "@Property methods must return " + Value.class.getSimpleName()
+                    + ", " + DynamicValue.class.getSimpleName() + " or one of the primitive value types");
+            return null;
+        }
+
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) returnType).getTypeArguments();
+        if (typeArguments.size() == 1 && typeArguments.get(0).getKind() == TypeKind.ARRAY) {
+            return arrayTypeOf(method, (ArrayType) typeArguments.get(0));
+        }
+        if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED) {
+            error(method, "@Property methods must declare a concrete value type");
+            return null;
+        }
+
+        DeclaredType valueType = (DeclaredType) typeArguments.get(0);
+        String rawValueType = erasure(valueType);
+        if (valueType.getTypeArguments().isEmpty()) {
+            boolean isEnum = valueType.asElement().getKind() == ElementKind.ENUM;
+            return isEnum || checkConverter(method, rawValueType) ? rawValueType + ".class" : null;
+        }
+
+        List<? extends TypeMirror> itemTypes = valueType.getTypeArguments();
+        String factory = rawValueType.equals(List.class.getName()) && itemTypes.size() == 1
+                ? "listOf"
+                : rawValueType.equals(Set.class.getName()) && itemTypes.size() == 1
+                ? "setOf"
+                : rawValueType.equals(Map.class.getName()) && itemTypes.size() == 2
+                ? "mapOf"
+                : null;
+        if (factory == null) {
+            error(method, "Unsupported generic property type " + valueType);
+            return null;
+        }
+
+        StringBuilder expression = new StringBuilder("com.dreweaster.octodubstep.core.binding.Types.")
+                .append(factory).append('(');
+        for (int i = 0; i < itemTypes.size(); i++) {
+            TypeMirror itemType = itemTypes.get(i);
+            if (itemType.getKind() != TypeKind.DECLARED || !((DeclaredType) itemType).getTypeArguments().isEmpty()) {
+                error(method, "Unsupported collection item type " + itemType);
+                return null;
+            }
+            String rawItemType = erasure(itemType);
+            boolean isEnum = ((DeclaredType) itemType).asElement().getKind() == ElementKind.ENUM;
+            if (!isEnum && !checkConverter(method, rawItemType)) {
+                return null;
+            }
+            expression.append(i > 0 ? ", " : "").append(rawItemType).append(".class");
+        }
+        return expression.append(')').toString();
+    }
+
+    /**
+     * Returns the name of the validator class a property names. The class itself usually isn't loadable while
+     * compiling, so is read from the mirror in the exception thrown on trying to access it.
+     */
+    private static String validatorTypeOf(Property property) {
+        try {
+            return property.validator().getCanonicalName();
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror().toString();
+        }
+    }
+
+    /**
+     * Returns the Java expression for a primitive array value type, reporting an error if it isn't supported.
+     */
+    private String arrayTypeOf(ExecutableElement method, ArrayType arrayType) {
+        TypeKind componentKind = arrayType.getComponentType().getKind();
+        if (componentKind == TypeKind.INT) {
+            return checkConverter(method, Integer.class.getName()) ? "int[].class" : null;
+        } else if (componentKind == TypeKind.LONG) {
+            return checkConverter(method, Long.class.getName()) ? "long[].class" : null;
+        }
+        error(method, "Unsupported array property type " + arrayType);
+        return null;
+    }
+
+    private boolean checkConverter(ExecutableElement method, String type) {
+        if (!converterTypes().contains(type)) {
+            error(method, "No converter available for type " + type
+                    + " (declare custom converter types with -A" + CONVERTER_TYPES_OPTION + ")");
+            return false;
+        }
+        return true;
+    }
+
+    private Set<String> converterTypes() {
+        Set<String> types = new HashSet<String>(DEFAULT_CONVERTER_TYPES);
+        String option = processingEnv.getOptions().get(CONVERTER_TYPES_OPTION);
+        if (option != null) {
+            for (String type : option.split(",")) {
+                if (type.trim().length() > 0) {
+                    types.add(type.trim());
+                }
+            }
+        }
+        return types;
+    }
+
+    private void writeBinding(TypeElement provider, List<BindingSourceWriter.Method> methods) {
+        String bindingName = ProviderBindings.generatedBindingName(
+                processingEnv.getElementUtils().getBinaryName(provider).toString());
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(bindingName, provider);
+            Writer writer = file.openWriter();
+            try {
+                new BindingSourceWriter(bindingName, provider.getQualifiedName().toString(), methods).writeTo(writer);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(provider, "Unable to write binding " + bindingName + ": " + e.getMessage());
+        }
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private boolean isPrivate(Element element) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,232 @@
+package com.dreweaster.octodubstep.processor
+
+import java.io.{File, StringWriter}
+import java.net.URLClassLoader
+import java.nio.charset.Charset
+
+import com.dreweaster.octodubstep.core.binding.{ProviderBinding, ProviderBindings}
+import com.dreweaster.octodubstep.core.accessor.ProxyProviderFactory
+import com.dreweaster.octodubstep.core.source.PropertySource
+import com.dreweaster.octodubstep.core.validation.{DoNothingValidator, JdbcUrlValidator}
+import com.dreweaster.octodubstep.core.{Octodubstep, Value}
+import com.google.common.base.Optional
+import com.google.common.io.Files
+import javax.tools.ToolProvider
+import org.junit.runner.RunWith
+import org.mockito.Mockito
+import org.scalatest._
+import org.scalatest.junit.JUnitRunner
+import org.scalatest.mock.MockitoSugar
+
+import scala.collection.JavaConversions._
+
+/**
+  */
+@RunWith(classOf[JUnitRunner])
+class PropertyProcessorSpec extends FlatSpec with GivenWhenThen with Matchers with MockitoSugar {
+
+  private case class Compilation(success: Boolean, diagnostics: String, classLoader: ClassLoader)
+
+  private def compile(className: String, source: String, options: String*): Compilation = {
+    val workDir = Files.createTempDir()
+    val sourceFile = new File(workDir, className.replace('.', '/') + ".java")
+    sourceFile.getParentFile.mkdirs()
+    Files.write(source, sourceFile, Charset.forName("UTF-8"))
+    val classesDir = new File(workDir, "classes")
+    classesDir.mkdirs()
+
+    val compiler = ToolProvider.getSystemJavaCompiler
+    val fileManager = compiler.getStandardFileManager(null, null, null)
+    val output = new StringWriter()
+    val arguments = List(
+      "-classpath", System.getProperty("java.class.path"),
+      "-processor", classOf[PropertyProcessor].getName,
+      "-d", classesDir.getPath,
+      "-s", classesDir.getPath) ++ options
+    val success = compiler.getTask(output, fileManager, null, arguments, null,
+      fileManager.getJavaFileObjects(sourceFile)).call()
+
+    Compilation(success, output.toString, new URLClassLoader(Array(classesDir.toURI.toURL), getClass.getClassLoader))
+  }
+
+  it should "generate a binding for a provider interface" in {
+    Given("a provider interface declaring a series of variously typed properties")
+    val compilation = compile("test.MyProvider",
+      """package test;
+        |import com.dreweaster.octodubstep.core.*;
+        |import java.util.List;
+        |public interface MyProvider {
+        |  @Property(name = "test.string.property", defaultValue = "a \"quoted\" default")
+        |  Value<String> testStringProperty();
+        |  @Property(name = "test.integer.property")
+        |  DynamicValue<Integer> testIntegerProperty();
+        |  @Property(name = "test.list.long.property", required = false, defaultValue = "1,2")
+        |  Value<List<Long>> testLongListProperty();
+        |  @Property(name = "test.boolean.property")
+        |  DynamicBooleanValue testBooleanProperty();
+        |  @Property(name = "test.array.int.property")
+        |  Value<int[]> testIntArrayProperty();
+        |  @Property(name = "test.set.enum.property")
+        |  Value<java.util.Set<java.util.concurrent.TimeUnit>> testEnumSetProperty();
+        |  @Property(name = "test.map.long.property")
+        |  Value<java.util.Map<Long, String>> testLongKeyedMapProperty();
+        |  @Property(name = "test.jdbc.url.property", validator = com.dreweaster.octodubstep.core.validation.JdbcUrlValidator.class)
+        |  Value<String> testJdbcUrlProperty();
+        |}
+      """.stripMargin)
+
+    When("compiling the provider interface")
+    val providerClass = compilation.classLoader.loadClass("test.MyProvider")
+
+    Then("compilation should succeed")
+    withClue(compilation.diagnostics) {
+      compilation.success should be(true)
+    }
+
+    And("the generated binding should be found for the provider")
+    val binding: ProviderBinding[_] = ProviderBindings.bindingFor(providerClass, new ProxyProviderFactory)
+    binding.getClass.getName should equal("test.MyProvider" + ProviderBindings.GENERATED_BINDING_SUFFIX)
+
+    And("the binding should describe each property")
+    val properties = binding.properties().map(p => p.name -> p).toMap
+    properties("test.string.property").defaultValue should equal("a \"quoted\" default")
+    properties("test.integer.property").dynamic should be(true)
+    properties("test.list.long.property").required should be(false)
+    properties("test.list.long.property").valueType.toString should equal("java.util.List<java.lang.Long>")
+    properties("test.boolean.property").valueType should equal(classOf[Boolean])
+    properties("test.boolean.property").dynamic should be(true)
+    properties("test.array.int.property").valueType should equal(classOf[Array[Int]])
+    properties("test.set.enum.property").valueType.toString should equal("java.util.Set<java.util.concurrent.TimeUnit>")
+    properties("test.map.long.property").valueType.toString should equal("java.util.Map<java.lang.Long, java.lang.String>")
+    properties("test.jdbc.url.property").validatorClass should equal(classOf[JdbcUrlValidator])
+    properties("test.string.property").validatorClass should equal(classOf[DoNothingValidator])
+  }
+
+  it should "use the generated binding when building a property manager" in {
+    Given("a compiled provider interface")
+    val compilation = compile("test.GeneratedProvider",
+      """package test;
+        |import com.dreweaster.octodubstep.core.*;
+        |import java.util.List;
+        |public interface GeneratedProvider {
+        |  @Property(name = "test.string.property")
+        |  Value<String> testStringProperty();
+        |  @Property(name = "test.list.integer.property")
+        |  Value<List<Integer>> testIntegerListProperty();
+        |}
+      """.stripMargin)
+    withClue(compilation.diagnostics) {
+      compilation.success should be(true)
+    }
+    val providerClass = compilation.classLoader.loadClass("test.GeneratedProvider")
+
+    And("a property source containing the properties")
+    val propertySource = mock[PropertySource]
+    Mockito.when(propertySource.getPropertyNames).thenReturn(List("test.string.property", "test.list.integer.property"))
+    Mockito.when(propertySource.getValue("test.string.property")).thenReturn(Optional.of("testValue"))
+    Mockito.when(propertySource.getValue("test.list.integer.property")).thenReturn(Optional.of("1,2,3"))
+
+    When("building a property manager for the provider")
+    val manager = Octodubstep.newPropertyManager()
+      .withPropertySource(propertySource)
+      .withProvider(providerClass)
+      .usingDefaultConverters()
+      .build()
+    val provider = manager.propertiesFor(providerClass)
+
+    Then("the provider should be the generated implementation")
+    provider.getClass.getName should equal("test.GeneratedProvider" + ProviderBindings.GENERATED_BINDING_SUFFIX + "$Provider")
+
+    And("the properties should be returned correctly")
+    def valueOf(method: String) = providerClass.getMethod(method).invoke(provider).asInstanceOf[Value[_]].currentValue.get
+    valueOf("testStringProperty") should equal("testValue")
+    valueOf("testIntegerListProperty") should equal(java.util.Arrays.asList(1, 2, 3))
+  }
+
+  it should "fail compilation if no converter is available for a property type" in {
+    Given("a provider interface declaring a property of an unsupported type")
+    val source =
+      """package test;
+        |import com.dreweaster.octodubstep.core.*;
+        |public interface UnsupportedProvider {
+        |  @Property(name = "test.date.property")
+        |  Value<java.util.Date> testDateProperty();
+        |}
+      """.stripMargin
+
+    When("compiling the provider interface")
+    val compilation = compile("test.UnsupportedProvider", source)
+
+    Then("compilation should fail with a missing converter error")
+    compilation.success should be(false)
+    compilation.diagnostics should include("No converter available for type java.util.Date")
+
+    And("compilation should succeed once the type is declared as having a custom converter")
+    compile("test.UnsupportedProvider", source,
+      "-A" + PropertyProcessor.CONVERTER_TYPES_OPTION + "=java.util.Date").success should be(true)
+  }
+
+  it should "fail compilation for an unsupported generic property type" in {
+    Given("a provider interface declaring a queue property")
+    val compilation = compile("test.GenericProvider",
+      """package test;
+        |import com.dreweaster.octodubstep.core.*;
+        |public interface GenericProvider {
+        |  @Property(name = "test.queue.property")
+        |  Value<java.util.Queue<String>> testQueueProperty();
+        |}
+      """.stripMargin)
+
+    Then("compilation should fail with an unsupported type error")
+    compilation.success should be(false)
+    compilation.diagnostics should include("Unsupported generic property type")
+  }
+
+  it should "generate bindings for map properties and nested property groups" in {
+    Given("a provider interface declaring a map property and a group of nested properties")
+    val compilation = compile("test.GroupedProvider",
+      """package test;
+        |import com.dreweaster.octodubstep.core.*;
+        |import java.util.Map;
+        |public interface GroupedProvider {
+        |  @Property(name = "test.limits")
+        |  DynamicValue<Map<String, Integer>> testLimits();
+        |  @PropertyGroup(prefix = "test.db")
+        |  Database database();
+        |  interface Database {
+        |    @Property(name = "url")
+        |    Value<String> url();
+        |  }
+        |}
+      """.stripMargin)
+    withClue(compilation.diagnostics) {
+      compilation.success should be(true)
+    }
+    val providerClass = compilation.classLoader.loadClass("test.GroupedProvider")
+
+    And("a property source containing the properties")
+    val propertySource = mock[PropertySource]
+    Mockito.when(propertySource.getPropertyNames).thenReturn(List("test.limits.a", "test.limits.b", "test.db.url"))
+    Mockito.when(propertySource.getValue("test.limits.a")).thenReturn(Optional.of("1"))
+    Mockito.when(propertySource.getValue("test.limits.b")).thenReturn(Optional.of("2"))
+    Mockito.when(propertySource.getValue("test.db.url")).thenReturn(Optional.of("jdbc:test"))
+
+    When("building a property manager for the provider")
+    val manager = Octodubstep.newPropertyManager()
+      .withPropertySource(propertySource)
+      .withProvider(providerClass)
+      .usingDefaultConverters()
+      .build()
+    val provider = manager.propertiesFor(providerClass)
+
+    Then("both the provider and its group should be generated implementations")
+    provider.getClass.getName should equal("test.GroupedProvider" + ProviderBindings.GENERATED_BINDING_SUFFIX + "$Provider")
+    val database = providerClass.getMethod("database").invoke(provider)
+    database.getClass.getName should equal("test.GroupedProvider_Database" + ProviderBindings.GENERATED_BINDING_SUFFIX + "$Provider")
+
+    And("the properties should be returned correctly")
+    providerClass.getMethod("testLimits").invoke(provider).asInstanceOf[Value[_]].currentValue.get should equal(
+      mapAsJavaMap(Map("a" -> 1, "b" -> 2)))
+    compilation.classLoader.loadClass("test.GroupedProvider$Database").getMethod("url").invoke(database).asInstanceOf[Value[_]].currentValue.get should equal("jdbc:test")
+  }
+}